@@ -0,0 +1,79 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * sdc-tosca
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.tosca.parser.benchmarks;
+
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+
+/**
+ * Loads the benchmark inputs from the classpath, outside of the measured code.
+ */
+final class BenchmarkResources {
+
+    static final String TOPOLOGY = "benchmarks/topology.yaml";
+    static final String DATA_TYPES = "benchmarks/datatypes.yaml";
+
+    private BenchmarkResources() {
+    }
+
+    /**
+     * @param csarName the name of a CSAR of the sdc-tosca tests, e.g. service-Metaswitch1-csar.csar
+     * @return the zip content of the CSAR
+     */
+    static byte[] csar(String csarName) {
+        try (InputStream input = open("csars/" + csarName)) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+            return content.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read CSAR " + csarName, e);
+        }
+    }
+
+    /**
+     * @return a freshly loaded copy of the YAML resource, the parser mutates the maps it is given
+     */
+    @SuppressWarnings("unchecked")
+    static LinkedHashMap<String, Object> yaml(String resource) {
+        try (InputStream input = open(resource)) {
+            return (LinkedHashMap<String, Object>) new Yaml().load(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + resource, e);
+        }
+    }
+
+    private static InputStream open(String resource) {
+        InputStream input = BenchmarkResources.class.getClassLoader().getResourceAsStream(resource);
+        if (input == null) {
+            throw new IllegalStateException("Benchmark resource " + resource + " is not on the classpath");
+        }
+        return input;
+    }
+}
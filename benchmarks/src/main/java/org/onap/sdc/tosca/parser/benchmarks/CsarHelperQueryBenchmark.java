@@ -0,0 +1,116 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * sdc-tosca
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.tosca.parser.benchmarks;
+
+import org.onap.sdc.tosca.parser.api.ISdcCsarHelper;
+import org.onap.sdc.tosca.parser.enums.SdcTypes;
+import org.onap.sdc.tosca.parser.exceptions.SdcToscaParserException;
+import org.onap.sdc.tosca.parser.impl.SdcToscaParserFactory;
+import org.onap.sdc.toscaparser.api.Group;
+import org.onap.sdc.toscaparser.api.NodeTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The queries a typical SDC consumer runs on a parsed CSAR: walk the VFs of the service, their
+ * VF modules and members, their VFCs and CPs, and read property leaf values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsarHelperQueryBenchmark {
+
+    @Param({"service-Metaswitch1-csar.csar", "service-sunny-flow.csar"})
+    public String csarName;
+
+    private ISdcCsarHelper helper;
+    private NodeTemplate vf;
+    private String vfCustomizationUuid;
+    private Group vfModule;
+
+    @Setup
+    public void setUp() throws SdcToscaParserException {
+        helper = SdcToscaParserFactory.getInstance().getSdcCsarHelper(BenchmarkResources.csar(csarName), csarName);
+        List<NodeTemplate> vfs = helper.getServiceVfList();
+        if (vfs.isEmpty()) {
+            throw new IllegalStateException(csarName + " has no VF to query");
+        }
+        vf = vfs.get(0);
+        vfCustomizationUuid = helper.getNodeTemplateCustomizationUuid(vf);
+        List<Group> vfModules = helper.getVfModulesByVf(vfCustomizationUuid);
+        vfModule = vfModules.isEmpty() ? null : vfModules.get(0);
+    }
+
+    @Benchmark
+    public List<NodeTemplate> getServiceVfList() {
+        return helper.getServiceVfList();
+    }
+
+    @Benchmark
+    public List<Group> getVfModulesByVf() {
+        return helper.getVfModulesByVf(vfCustomizationUuid);
+    }
+
+    @Benchmark
+    public List<NodeTemplate> getMembersOfVfModule() {
+        return helper.getMembersOfVfModule(vf, vfModule);
+    }
+
+    @Benchmark
+    public List<NodeTemplate> getVfcListByVf() {
+        return helper.getVfcListByVf(vfCustomizationUuid);
+    }
+
+    @Benchmark
+    public List<NodeTemplate> getCpListByVf() {
+        return helper.getCpListByVf(vfCustomizationUuid);
+    }
+
+    @Benchmark
+    public String getNodeTemplatePropertyLeafValue() {
+        return helper.getNodeTemplatePropertyLeafValue(vf, "nf_naming#ecomp_generated_naming");
+    }
+
+    @Benchmark
+    public List<NodeTemplate> getServiceNodeTemplateBySdcType() {
+        return helper.getServiceNodeTemplateBySdcType(SdcTypes.VF);
+    }
+
+    @Benchmark
+    public List<NodeTemplate> getNodeTemplateChildren() {
+        return helper.getNodeTemplateChildren(vf);
+    }
+}
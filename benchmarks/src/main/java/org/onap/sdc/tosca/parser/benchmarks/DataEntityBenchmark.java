@@ -0,0 +1,123 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * sdc-tosca
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.tosca.parser.benchmarks;
+
+import org.onap.sdc.toscaparser.api.DataEntity;
+import org.onap.sdc.toscaparser.api.common.ValidationIssueCollector;
+import org.onap.sdc.toscaparser.api.elements.TypeRegistry;
+import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of property values against their data type: a normative complex type, the nested
+ * custom types of benchmarks/datatypes.yaml, a constrained list and a scalar unit.
+ * <p>
+ * The values are valid, so the collector stays empty and only the validation itself is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataEntityBenchmark {
+
+    private static final String VALUES =
+            "credential:\n"
+                    + "  protocol: http\n"
+                    + "  token_type: password\n"
+                    + "  token: secret\n"
+                    + "  user: admin\n"
+                    + "network:\n"
+                    + "  network_name: oam\n"
+                    + "  vlan_tags: [ 100, 200, 300 ]\n"
+                    + "  ports:\n"
+                    + "    - { port_name: http-1, port_number: 8080, protocol: tcp }\n"
+                    + "    - { port_name: https-1, port_number: 8443, protocol: tcp }\n"
+                    + "    - { port_name: metrics-1, port_number: 9090, protocol: udp }\n"
+                    + "ports: [ 22, 80, 443, 8080, 8443 ]\n"
+                    + "port_schema:\n"
+                    + "  type: integer\n"
+                    + "  constraints:\n"
+                    + "    - in_range: [ 1, 65535 ]\n";
+
+    private LinkedHashMap<String, Object> customDef;
+    private Object credential;
+    private Object network;
+    private ArrayList<Object> ports;
+    private LinkedHashMap<String, Object> portSchema;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        customDef = (LinkedHashMap<String, Object>)
+                BenchmarkResources.yaml(BenchmarkResources.DATA_TYPES).get("data_types");
+        LinkedHashMap<String, Object> values = (LinkedHashMap<String, Object>) new Yaml().load(VALUES);
+        credential = values.get("credential");
+        network = values.get("network");
+        ports = (ArrayList<Object>) values.get("ports");
+        portSchema = (LinkedHashMap<String, Object>) values.get("port_schema");
+
+        // as during a parse, data types are resolved once through the registry of the parse
+        ThreadLocalsHolder.setCollector(new ValidationIssueCollector());
+        ThreadLocalsHolder.setTypeRegistry(new TypeRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        ThreadLocalsHolder.cleanup();
+    }
+
+    @Benchmark
+    public Object credential() {
+        return DataEntity.validateDatatype("tosca.datatypes.Credential", credential, null, null, null);
+    }
+
+    @Benchmark
+    public Object nestedCustomType() {
+        return DataEntity.validateDatatype("benchmarks.datatypes.Network", network, null, customDef, null);
+    }
+
+    @Benchmark
+    public Object constrainedList() {
+        return DataEntity.validateDatatype("list", ports, portSchema, null, null);
+    }
+
+    @Benchmark
+    public Object scalarUnitSize() {
+        return DataEntity.validateDatatype("scalar-unit.size", "4096 MB", null, null, null);
+    }
+}
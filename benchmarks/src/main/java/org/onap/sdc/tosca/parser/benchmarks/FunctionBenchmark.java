@@ -0,0 +1,127 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * sdc-tosca
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.tosca.parser.benchmarks;
+
+import org.onap.sdc.toscaparser.api.NodeTemplate;
+import org.onap.sdc.toscaparser.api.ToscaTemplate;
+import org.onap.sdc.toscaparser.api.TopologyTemplate;
+import org.onap.sdc.toscaparser.api.common.JToscaException;
+import org.onap.sdc.toscaparser.api.common.ValidationIssueCollector;
+import org.onap.sdc.toscaparser.api.elements.TypeRegistry;
+import org.onap.sdc.toscaparser.api.functions.Function;
+import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolution of template functions against the topology of benchmarks/topology.yaml, the way
+ * {@link TopologyTemplate} resolves the property values of its node templates during a parse.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FunctionBenchmark {
+
+    @Param({"true", "false"})
+    public boolean resolveGetInput;
+
+    private TopologyTemplate topologyTemplate;
+    private NodeTemplate context;
+    private Object getInput;
+    private Object getProperty;
+    private Object concat;
+    private Object token;
+    private Object properties;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws JToscaException {
+        ToscaTemplate toscaTemplate = new ToscaTemplate(null, null, false,
+                BenchmarkResources.yaml(BenchmarkResources.TOPOLOGY), resolveGetInput);
+        topologyTemplate = toscaTemplate.getTopologyTemplate();
+        for (NodeTemplate nodeTemplate : topologyTemplate.getNodeTemplates()) {
+            if ("database".equals(nodeTemplate.getName())) {
+                context = nodeTemplate;
+            }
+        }
+
+        // raw function values, as the YAML loader hands them to the parser
+        LinkedHashMap<String, Object> topology = (LinkedHashMap<String, Object>)
+                BenchmarkResources.yaml(BenchmarkResources.TOPOLOGY).get("topology_template");
+        LinkedHashMap<String, Object> nodeTemplates = (LinkedHashMap<String, Object>) topology.get("node_templates");
+        LinkedHashMap<String, Object> outputs = (LinkedHashMap<String, Object>) topology.get("outputs");
+        properties = ((LinkedHashMap<String, Object>) nodeTemplates.get("database")).get("properties");
+        getInput = ((LinkedHashMap<String, Object>) properties).get("name");
+        getProperty = ((LinkedHashMap<String, Object>) properties).get("port");
+        concat = ((LinkedHashMap<String, Object>) outputs.get("database_name")).get("value");
+        token = ((LinkedHashMap<String, Object>) outputs.get("application_version")).get("value");
+
+        // the functions report to the collector and resolve types through the registry of the parse
+        ThreadLocalsHolder.setCollector(new ValidationIssueCollector());
+        ThreadLocalsHolder.setTypeRegistry(new TypeRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        ThreadLocalsHolder.cleanup();
+    }
+
+    @Benchmark
+    public Object getInput() {
+        return Function.getFunction(topologyTemplate, context, getInput, resolveGetInput);
+    }
+
+    @Benchmark
+    public Object getProperty() {
+        return Function.getFunction(topologyTemplate, context, getProperty, resolveGetInput);
+    }
+
+    @Benchmark
+    public Object concat() {
+        return Function.getFunction(topologyTemplate, context, concat, resolveGetInput);
+    }
+
+    @Benchmark
+    public Object token() {
+        return Function.getFunction(topologyTemplate, context, token, resolveGetInput);
+    }
+
+    @Benchmark
+    public Object nestedProperties() {
+        return Function.getFunction(topologyTemplate, context, properties, resolveGetInput);
+    }
+}
@@ -0,0 +1,109 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * sdc-tosca
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.tosca.parser.benchmarks;
+
+import org.onap.sdc.tosca.parser.api.ISdcCsarHelper;
+import org.onap.sdc.tosca.parser.exceptions.SdcToscaParserException;
+import org.onap.sdc.tosca.parser.generator.SyntheticCsarGenerator;
+import org.onap.sdc.tosca.parser.impl.SdcToscaParserFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end parse of generated CSARs, each shape scaling one dimension of the CSAR
+ * from the same baseline service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2048m")
+public class SyntheticCsarParseBenchmark {
+
+    public enum Shape {
+        BASELINE,
+        // many node templates in every topology
+        WIDE,
+        // CVFCs nested in CVFCs
+        DEEP,
+        // many inputs, each referenced by many get_input
+        INPUTS,
+        // deeply nested data type values
+        DATA_TYPES,
+        // VFC types spread over many imported files
+        IMPORTS;
+
+        SyntheticCsarGenerator.Builder builder() {
+            SyntheticCsarGenerator.Builder builder = SyntheticCsarGenerator.builder()
+                    .serviceName(name().replace("_", ""))
+                    .vfCount(4)
+                    .vfTypeCount(2)
+                    .vfModulesPerVf(2)
+                    .policyCount(2);
+            switch (this) {
+                case WIDE:
+                    return builder.vfcsPerTopology(100).cpsPerVfc(2);
+                case DEEP:
+                    return builder.nestingDepth(4);
+                case INPUTS:
+                    return builder.inputCount(100).getInputFanOut(10);
+                case DATA_TYPES:
+                    return builder.dataTypeDepth(5).dataTypeWidth(10);
+                case IMPORTS:
+                    return builder.importCount(50);
+                default:
+                    return builder;
+            }
+        }
+    }
+
+    @Param
+    public Shape shape;
+
+    private byte[] csarContent;
+    private String csarName;
+    private SdcToscaParserFactory factory;
+
+    @Setup
+    public void setUp() {
+        SyntheticCsarGenerator generator = shape.builder().build();
+        csarContent = generator.generate();
+        csarName = generator.getCsarName();
+        factory = SdcToscaParserFactory.getInstance();
+    }
+
+    @Benchmark
+    public ISdcCsarHelper getSdcCsarHelper() throws SdcToscaParserException {
+        return factory.getSdcCsarHelper(csarContent, csarName);
+    }
+}
@@ -57,12 +57,9 @@ public class CapabilityAssignment {
                 String pname = me.getKey();
                 Object pvalue = me.getValue();
 
-                LinkedHashMap<String, PropertyDef> propsDef = _definition.getPropertiesDef();
-                if (propsDef != null) {
-                    PropertyDef pd = (PropertyDef) propsDef.get(pname);
-                    if (pd != null) {
-                        properties.add(new Property(pname, pvalue, pd.getSchema(), _customDef));
-                    }
+                PropertyDef pd = _definition.getPropertiesDefByName().get(pname);
+                if (pd != null) {
+                    properties.add(new Property(pname, pvalue, pd.getSchema(), _customDef));
                 }
             }
         }
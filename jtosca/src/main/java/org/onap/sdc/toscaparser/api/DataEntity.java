@@ -27,6 +27,7 @@ import org.onap.sdc.toscaparser.api.elements.PropertyDef;
 import org.onap.sdc.toscaparser.api.elements.ScalarUnitFrequency;
 import org.onap.sdc.toscaparser.api.elements.ScalarUnitSize;
 import org.onap.sdc.toscaparser.api.elements.ScalarUnitTime;
+import org.onap.sdc.toscaparser.api.elements.TypeRegistry;
 import org.onap.sdc.toscaparser.api.elements.constraints.Constraint;
 import org.onap.sdc.toscaparser.api.elements.constraints.Schema;
 import org.onap.sdc.toscaparser.api.functions.Function;
@@ -37,13 +38,15 @@ import org.onap.sdc.toscaparser.api.utils.ValidateUtils;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class DataEntity {
     // A complex data value entity
 
     private LinkedHashMap<String, Object> customDef;
     private DataType dataType;
-    private LinkedHashMap<String, PropertyDef> schema;
+    private DataType.ValidationPlan plan;
+    private Map<String, PropertyDef> schema;
     private Object value;
     private String propertyName;
 
@@ -51,8 +54,9 @@ public class DataEntity {
                       LinkedHashMap<String, Object> _customDef, String _propName) {
 
         customDef = _customDef;
-        dataType = new DataType(_dataTypeName, _customDef);
-        schema = dataType.getAllProperties();
+        dataType = TypeRegistry.current().getDataType(_dataTypeName, _customDef);
+        plan = dataType.getValidationPlan();
+        schema = plan.getProperties();
         value = _valueDict;
         propertyName = _propName;
     }
@@ -65,7 +69,7 @@ public class DataEntity {
         // If the datatype has 'type' definition
         if (dataType.getValueType() != null) {
             value = DataEntity.validateDatatype(dataType.getValueType(), value, null, customDef, null);
-            Schema schemaCls = new Schema(propertyName, dataType.getDefs());
+            Schema schemaCls = propertyName == null ? plan.getValueSchema() : new Schema(propertyName, dataType.getDefs());
             for (Constraint constraint : schemaCls.getConstraints()) {
                 constraint.validate(value);
             }
@@ -91,26 +95,11 @@ public class DataEntity {
 
 
             LinkedHashMap<String, Object> valueDict = (LinkedHashMap<String, Object>) value;
-            ArrayList<String> allowedProps = new ArrayList<>();
-            ArrayList<String> requiredProps = new ArrayList<>();
-            LinkedHashMap<String, Object> defaultProps = new LinkedHashMap<>();
-            if (schema != null) {
-                allowedProps.addAll(schema.keySet());
-                for (String name : schema.keySet()) {
-                    PropertyDef propDef = schema.get(name);
-                    if (propDef.isRequired()) {
-                        requiredProps.add(name);
-                    }
-                    if (propDef.getDefault() != null) {
-                        defaultProps.put(name, propDef.getDefault());
-                    }
-                }
-            }
 
             // check allowed field
             for (String valueKey : valueDict.keySet()) {
                 //1710 devlop JSON validation
-                if (!("json").equals(dataType.getType()) && !allowedProps.contains(valueKey)) {
+                if (!("json").equals(dataType.getType()) && !plan.isAllowed(valueKey)) {
                     ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE100", String.format(
                             "UnknownFieldError: Data value of type \"%s\" contains unknown field \"%s\"",
                             dataType.getType(), valueKey)));
@@ -118,18 +107,16 @@ public class DataEntity {
             }
 
             // check default field
-            for (String defKey : defaultProps.keySet()) {
-                Object defValue = defaultProps.get(defKey);
-                if (valueDict.get(defKey) == null) {
-                    valueDict.put(defKey, defValue);
+            for (Map.Entry<String, Object> me : plan.getDefaultValues().entrySet()) {
+                if (valueDict.get(me.getKey()) == null) {
+                    valueDict.put(me.getKey(), me.getValue());
                 }
-
             }
 
             // check missing field
             ArrayList<String> missingProp = new ArrayList<>();
-            for (String reqKey : requiredProps) {
-                if (!valueDict.keySet().contains(reqKey)) {
+            for (String reqKey : plan.getRequiredProperties()) {
+                if (!valueDict.containsKey(reqKey)) {
                     missingProp.add(reqKey);
                 }
             }
@@ -142,11 +129,10 @@ public class DataEntity {
             // check every field
             for (String vname : valueDict.keySet()) {
                 Object vvalue = valueDict.get(vname);
-                LinkedHashMap<String, Object> schemaName = _findSchema(vname);
-                if (schemaName == null) {
+                Schema propSchema = plan.getPropertySchema(vname);
+                if (propSchema == null) {
                     continue;
                 }
-                Schema propSchema = new Schema(vname, schemaName);
                 // check if field value meets type defined
                 DataEntity.validateDatatype(propSchema.getType(),
                         vvalue,
@@ -171,13 +157,6 @@ public class DataEntity {
         return value;
     }
 
-    private LinkedHashMap<String, Object> _findSchema(String name) {
-        if (schema != null && schema.get(name) != null) {
-            return schema.get(name).getSchema();
-        }
-        return null;
-    }
-
     public static Object validateDatatype(String type,
                                           Object value,
                                           LinkedHashMap<String, Object> entrySchema,
@@ -196,51 +175,53 @@ public class DataEntity {
                     "MissingType: Type is missing for value \"%s\"",
                     value.toString())));
             return value;
-        } else if (type.equals(Schema.STRING)) {
-            return ValidateUtils.validateString(value);
-        } else if (type.equals(Schema.INTEGER)) {
-            return ValidateUtils.validateInteger(value);
-        } else if (type.equals(Schema.FLOAT)) {
-            return ValidateUtils.validateFloat(value);
-        } else if (type.equals(Schema.NUMBER)) {
-            return ValidateUtils.validateNumeric(value);
-        } else if (type.equals(Schema.BOOLEAN)) {
-            return ValidateUtils.validateBoolean(value);
-        } else if (type.equals(Schema.RANGE)) {
-            return ValidateUtils.validateRange(value);
-        } else if (type.equals(Schema.TIMESTAMP)) {
-            ValidateUtils.validateTimestamp(value);
-            return value;
-        } else if (type.equals(Schema.LIST)) {
-            ValidateUtils.validateList(value);
-            if (entrySchema != null) {
-                DataEntity.validateEntry(value, entrySchema, customDef);
-            }
-            return value;
-        } else if (type.equals(Schema.SCALAR_UNIT_SIZE)) {
-            return (new ScalarUnitSize(value)).validateScalarUnit();
-        } else if (type.equals(Schema.SCALAR_UNIT_FREQUENCY)) {
-            return (new ScalarUnitFrequency(value)).validateScalarUnit();
-        } else if (type.equals(Schema.SCALAR_UNIT_TIME)) {
-            return (new ScalarUnitTime(value)).validateScalarUnit();
-        } else if (type.equals(Schema.VERSION)) {
-            return (new TOSCAVersionProperty(value.toString())).getVersion();
-        } else if (type.equals(Schema.MAP)) {
-            ValidateUtils.validateMap(value);
-            if (entrySchema != null) {
-                DataEntity.validateEntry(value, entrySchema, customDef);
-            }
-            return value;
-        } else if (type.equals(Schema.PORTSPEC)) {
-            // tODO(TBD) bug 1567063, validate source & target as PortDef type
-            // as complex types not just as integers
-            PortSpec.validateAdditionalReq(value, propName, customDef);
-        } else {
-            DataEntity data = new DataEntity(type, value, customDef, null);
-            return data.validate();
         }
-
-        return value;
+        // a string switch dispatches on the hash of the type name
+        switch (type) {
+            case Schema.STRING:
+                return ValidateUtils.validateString(value);
+            case Schema.INTEGER:
+                return ValidateUtils.validateInteger(value);
+            case Schema.FLOAT:
+                return ValidateUtils.validateFloat(value);
+            case Schema.NUMBER:
+                return ValidateUtils.validateNumeric(value);
+            case Schema.BOOLEAN:
+                return ValidateUtils.validateBoolean(value);
+            case Schema.RANGE:
+                return ValidateUtils.validateRange(value);
+            case Schema.TIMESTAMP:
+                ValidateUtils.validateTimestamp(value);
+                return value;
+            case Schema.LIST:
+                ValidateUtils.validateList(value);
+                if (entrySchema != null) {
+                    DataEntity.validateEntry(value, entrySchema, customDef);
+                }
+                return value;
+            case Schema.SCALAR_UNIT_SIZE:
+                return (new ScalarUnitSize(value)).validateScalarUnit();
+            case Schema.SCALAR_UNIT_FREQUENCY:
+                return (new ScalarUnitFrequency(value)).validateScalarUnit();
+            case Schema.SCALAR_UNIT_TIME:
+                return (new ScalarUnitTime(value)).validateScalarUnit();
+            case Schema.VERSION:
+                return (new TOSCAVersionProperty(value.toString())).getVersion();
+            case Schema.MAP:
+                ValidateUtils.validateMap(value);
+                if (entrySchema != null) {
+                    DataEntity.validateEntry(value, entrySchema, customDef);
+                }
+                return value;
+            case Schema.PORTSPEC:
+                // tODO(TBD) bug 1567063, validate source & target as PortDef type
+                // as complex types not just as integers
+                PortSpec.validateAdditionalReq(value, propName, customDef);
+                return value;
+            default:
+                DataEntity data = new DataEntity(type, value, customDef, null);
+                return data.validate();
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -249,7 +230,7 @@ public class DataEntity {
                                        LinkedHashMap<String, Object> customDef) {
 
         // Validate entries for map and list
-        Schema schema = new Schema(null, entrySchema);
+        Schema schema = TypeRegistry.current().getEntrySchema(entrySchema);
         Object valueob = value;
         ArrayList<Object> valueList = null;
         if (valueob instanceof LinkedHashMap) {
@@ -27,6 +27,7 @@ import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -68,12 +69,15 @@ public abstract class EntityTemplate {
     protected LinkedHashMap<String, Object> customDef;
     protected StatefulEntityType typeDefinition;
     private ArrayList<Property> _properties;
+    private Map<String, Property> _propertiesByName;
     private ArrayList<InterfacesDef> _interfaces;
     private ArrayList<RequirementAssignment> _requirements;
     private ArrayList<CapabilityAssignment> _capabilities;
 
     @Nullable
     private NodeTemplate _parentNodeTemplate;
+    // the definitions of the parse this template is resolved in, its lazy parts are resolved against them
+    private final Map<String, Object> toscaDefinitions = EntityType.getToscaDef();
 
     // dummy constructor for subclasses that don't want super
     public EntityTemplate() {
@@ -101,7 +105,7 @@ public abstract class EntityTemplate {
         UnsupportedType.validateType(type);
         if (_entityName.equals("node_type")) {
             if (type != null) {
-                typeDefinition = new NodeType(type, customDef);
+                typeDefinition = TypeRegistry.current().getNodeType(type, customDef);
             } else {
                 typeDefinition = null;
             }
@@ -117,7 +121,7 @@ public abstract class EntityTemplate {
                 type = (String) entityTpl.get("type");
             }
             UnsupportedType.validateType(type);
-            typeDefinition = new RelationshipType(type, null, customDef);
+            typeDefinition = TypeRegistry.current().getRelationshipType(type, null, customDef);
         }
         if (_entityName.equals("policy_type")) {
             if (type == null) {
@@ -126,11 +130,11 @@ public abstract class EntityTemplate {
                 ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE140", String.format(
                         "ValidationError: Policy definition of \"%s\" must have a \"type\" attribute", name)));
             }
-            typeDefinition = new PolicyType(type, customDef);
+            typeDefinition = TypeRegistry.current().getPolicyType(type, customDef);
         }
         if (_entityName.equals("group_type")) {
             if (type != null) {
-                typeDefinition = new GroupType(type, customDef);
+                typeDefinition = TypeRegistry.current().getGroupType(type, customDef);
             } else {
                 typeDefinition = null;
             }
@@ -181,7 +185,7 @@ public abstract class EntityTemplate {
     @SuppressWarnings("unchecked")
     public RequirementAssignments getRequirements() {
         if (_requirements == null) {
-            _requirements = _createRequirements();
+            _requirements = EntityType.resolveWith(toscaDefinitions, this::_createRequirements);
         }
         return new RequirementAssignments(_requirements);
     }
@@ -216,36 +220,60 @@ public abstract class EntityTemplate {
     public ArrayList<Property> getPropertiesObjects() {
         // Return properties objects for this template
         if (_properties == null) {
-            _properties = _createProperties();
+            _properties = EntityType.resolveWith(toscaDefinitions, this::_createProperties);
         }
         return _properties;
     }
 
-    public LinkedHashMap<String, Property> getProperties() {
-        LinkedHashMap<String, Property> props = new LinkedHashMap<>();
-        for (Property po : getPropertiesObjects()) {
-            props.put(po.getName(), po);
+    /**
+     * @return the properties of this template keyed by name, in the order of {@link #getPropertiesObjects()}.
+     * The map is built once per template and can't be modified.
+     */
+    public Map<String, Property> getPropertiesByName() {
+        if (_propertiesByName == null) {
+            LinkedHashMap<String, Property> props = new LinkedHashMap<>();
+            for (Property po : getPropertiesObjects()) {
+                props.put(po.getName(), po);
+            }
+            _propertiesByName = Collections.unmodifiableMap(props);
         }
-        return props;
+        return _propertiesByName;
+    }
+
+    /**
+     * @return a modifiable copy of {@link #getPropertiesByName()}, use that or {@link #getProperty(String)} for lookups
+     */
+    public LinkedHashMap<String, Property> getProperties() {
+        return new LinkedHashMap<>(getPropertiesByName());
+    }
+
+    public Property getProperty(String name) {
+        return getPropertiesByName().get(name);
     }
 
     public Object getPropertyValue(String name) {
-        LinkedHashMap<String, Property> props = getProperties();
-        Property p = props.get(name);
+        Property p = getProperty(name);
         return p != null ? p.getValue() : null;
     }
 
     public String getPropertyType(String name) {
-        Property property = getProperties().get(name);
+        Property property = getProperty(name);
         if (property != null) {
             return property.getType();
         }
         return null;
     }
 
+    /**
+     * Returns the type definitions this template was resolved against, see {@link EntityType#getToscaDefinitions()}.
+     */
+    public Map<String, Object> getToscaDefinitions() {
+        return toscaDefinitions;
+    }
+
     public ArrayList<InterfacesDef> getInterfaces() {
         if (_interfaces == null) {
-            _interfaces = _createInterfaces();
+            _interfaces = EntityType.resolveWith(toscaDefinitions, this::_createInterfaces);
         }
         return _interfaces;
     }
@@ -253,7 +281,7 @@ public abstract class EntityTemplate {
     public ArrayList<CapabilityAssignment> getCapabilitiesObjects() {
         // Return capabilities objects for this template
         if (_capabilities == null) {
-            _capabilities = _createCapabilities();
+            _capabilities = EntityType.resolveWith(toscaDefinitions, this::_createCapabilities);
         }
         return _capabilities;
 
@@ -275,10 +303,8 @@ public abstract class EntityTemplate {
             return false;
         } else if (getType().equals(typeStr)) {
             return true;
-        } else if (getParentType() != null) {
-            return ((EntityType) getParentType()).isDerivedFrom(typeStr);
         }
-        return false;
+        return typeDefinition.getAncestorTypes().contains(typeStr);
     }
 
     @SuppressWarnings("unchecked")
@@ -471,9 +497,8 @@ public abstract class EntityTemplate {
         for (Map.Entry<String, Object> me : properties.entrySet()) {
             String pname = me.getKey();
             Object pvalue = me.getValue();
-            LinkedHashMap<String, PropertyDef> propsDef = ((StatefulEntityType) typeDefinition).getPropertiesDef();
-            if (propsDef != null && propsDef.get(pname) != null) {
-                PropertyDef pd = (PropertyDef) propsDef.get(pname);
+            PropertyDef pd = ((StatefulEntityType) typeDefinition).getPropertiesDefByName().get(pname);
+            if (pd != null) {
                 Property prop = new Property(pname, pvalue, pd.getSchema(), customDef);
                 props.add(prop);
             }
@@ -0,0 +1,258 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api;
+
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
+import org.onap.sdc.toscaparser.api.elements.ReadOnlyDefinitions;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process wide cache of parsed import files, keyed by the SHA-256 digest of their content, so that the
+ * type definition files shipped by every CSAR of the same SDC release are parsed once.
+ * <p>
+ * The cached YAML trees are read-only and handed out as they are, see {@link ReadOnlyDefinitions}: the
+ * parser completes the type definitions it reads on its own copies, and copies the topology of a nested
+ * template before building it, see {@link #copy(Object)}.
+ * <p>
+ * The least recently used files are evicted once the content of the cached files exceeds
+ * {@link #DEFAULT_MAX_BYTES}, or the size set with {@link #setMaxBytes(long)}.
+ */
+public final class ImportCache {
+
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // access ordered, guarded by itself
+    private static final LinkedHashMap<ByteBuffer, CachedImport> IMPORTS = new LinkedHashMap<>(16, 0.75f, true);
+    private static long maxBytes = DEFAULT_MAX_BYTES;
+    private static long cachedBytes;
+
+    private ImportCache() {
+    }
+
+    /**
+     * Reads the import file and returns its YAML content, parsed at most once per distinct content.
+     *
+     * @param input the content of the file, read to its end but not closed.
+     * @return the parsed content, read-only and shared with the other loads of the same content.
+     */
+    static Object load(InputStream input) throws IOException {
+        byte[] content = readAll(input);
+        ByteBuffer key = ByteBuffer.wrap(sha256(content));
+        CachedImport cached;
+        synchronized (IMPORTS) {
+            cached = IMPORTS.get(key);
+        }
+        if (cached != null) {
+            ParseMetrics.current().cacheHit(ParseMetrics.Cache.IMPORTS);
+            return cached.yaml;
+        }
+        ParseMetrics.current().cacheMiss(ParseMetrics.Cache.IMPORTS);
+        // read with the platform charset, as the import files always were
+        Object yaml = ReadOnlyDefinitions.copyOf(new Yaml().load(new InputStreamReader(new ByteArrayInputStream(content))));
+        if (yaml != null) {
+            put(key, new CachedImport(yaml, content.length));
+        }
+        return yaml;
+    }
+
+    /**
+     * Sets the maximum total size of the cached files, evicting the least recently used ones above it.
+     * 0 disables the cache.
+     */
+    public static void setMaxBytes(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative: " + bytes);
+        }
+        synchronized (IMPORTS) {
+            maxBytes = bytes;
+            evict();
+        }
+    }
+
+    public static long getMaxBytes() {
+        synchronized (IMPORTS) {
+            return maxBytes;
+        }
+    }
+
+    /**
+     * @return the total size of the cached files, in bytes.
+     */
+    public static long getCachedBytes() {
+        synchronized (IMPORTS) {
+            return cachedBytes;
+        }
+    }
+
+    public static int size() {
+        synchronized (IMPORTS) {
+            return IMPORTS.size();
+        }
+    }
+
+    public static void clear() {
+        synchronized (IMPORTS) {
+            IMPORTS.clear();
+            cachedBytes = 0;
+        }
+    }
+
+    private static void put(ByteBuffer key, CachedImport cachedImport) {
+        synchronized (IMPORTS) {
+            if (cachedImport.bytes > maxBytes) {
+                return;
+            }
+            CachedImport previous = IMPORTS.put(key, cachedImport);
+            if (previous != null) {
+                cachedBytes -= previous.bytes;
+            }
+            cachedBytes += cachedImport.bytes;
+            evict();
+        }
+    }
+
+    private static void evict() {
+        Iterator<CachedImport> eldest = IMPORTS.values().iterator();
+        while (cachedBytes > maxBytes && eldest.hasNext()) {
+            cachedBytes -= eldest.next().bytes;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * @return a modifiable copy of the containers of a parsed YAML tree, see {@link #copy(Object, boolean, Map)}.
+     */
+    static Object copy(Object yaml) {
+        return copy(yaml, false, new IdentityHashMap<>());
+    }
+
+    /**
+     * @return a modifiable copy of the containers of a parsed YAML tree, sharing the read-only definitions
+     * it refers to, see {@link ReadOnlyDefinitions}.
+     */
+    static Object copyModifiable(Object yaml) {
+        return copy(yaml, true, new IdentityHashMap<>());
+    }
+
+    /**
+     * Copies the containers of a parsed YAML tree. Scalars are immutable, except dates and binary values;
+     * a container referenced twice through a YAML alias is copied once.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object copy(Object value, boolean shareReadOnly, Map<Object, Object> copies) {
+        if (shareReadOnly && ReadOnlyDefinitions.isReadOnly(value)) {
+            return value;
+        }
+        if (value instanceof Map) {
+            Object copied = copies.get(value);
+            if (copied == null) {
+                Map<Object, Object> map = new LinkedHashMap<>();
+                copies.put(value, map);
+                for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) value).entrySet()) {
+                    map.put(copy(entry.getKey(), shareReadOnly, copies), copy(entry.getValue(), shareReadOnly, copies));
+                }
+                copied = map;
+            }
+            return copied;
+        }
+        if (value instanceof List) {
+            Object copied = copies.get(value);
+            if (copied == null) {
+                List<Object> source = (List<Object>) value;
+                List<Object> list = new ArrayList<>(source.size());
+                copies.put(value, list);
+                for (Object element : source) {
+                    list.add(copy(element, shareReadOnly, copies));
+                }
+                copied = list;
+            }
+            return copied;
+        }
+        if (value instanceof Set) {
+            Object copied = copies.get(value);
+            if (copied == null) {
+                Set<Object> set = new LinkedHashSet<>();
+                copies.put(value, set);
+                for (Object element : (Set<Object>) value) {
+                    set.add(copy(element, shareReadOnly, copies));
+                }
+                copied = set;
+            }
+            return copied;
+        }
+        if (value instanceof Date) {
+            return ((Date) value).clone();
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        }
+        return value;
+    }
+
+    private static byte[] readAll(InputStream input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(BUFFER_SIZE);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CachedImport {
+        private final Object yaml;
+        private final long bytes;
+
+        private CachedImport(Object yaml, long bytes) {
+            this.yaml = yaml;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api;
+
+import org.onap.sdc.toscaparser.api.elements.ReadOnlyDefinitions;
+import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The YAML content of the import files read by a single parse, by resolved path.
+ * <p>
+ * {@link ImportsLoader} reads each file once per parse and serves the later reads from here: the
+ * CSAR reference validation, the relationship types and the custom definitions. The trees are
+ * read-only and shared by all of them as they are, see {@link ReadOnlyDefinitions}; ToscaTemplate
+ * also keeps the definitions of each import, so the main and nested templates merge them in their
+ * own order without loading them again. The imports between the files are not recorded.
+ * <p>
+ * The files are only kept for the duration of a parse; outside of one {@link #current()} returns null
+ * and every import is read when it is resolved.
+ */
+public final class ImportGraph {
+
+    private final Map<String, Object> files = new ConcurrentHashMap<>();
+
+    /**
+     * @return the import files of the parse running on the current thread, or null when no parse is running.
+     */
+    public static ImportGraph current() {
+        return ThreadLocalsHolder.getImportGraph();
+    }
+
+    /**
+     * @return the read-only YAML content of the file, or null when it was not loaded yet.
+     */
+    Object getFile(String path) {
+        return files.get(path);
+    }
+
+    void putFile(String path, Object yaml) {
+        files.putIfAbsent(path, ReadOnlyDefinitions.copyOf(yaml));
+    }
+
+    /**
+     * @return the number of distinct import files loaded by the parse.
+     */
+    public int size() {
+        return files.size();
+    }
+}
@@ -22,10 +22,13 @@ package org.onap.sdc.toscaparser.api;
 
 import com.google.common.base.Charsets;
 import org.onap.sdc.toscaparser.api.common.JToscaValidationIssue;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics.Phase;
 import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
 import org.onap.sdc.toscaparser.api.utils.UrlUtils;
 
 import org.onap.sdc.toscaparser.api.elements.TypeValidation;
+import org.onap.sdc.toscaparser.api.prereq.CsarArchive;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yaml.snakeyaml.Yaml;
@@ -52,14 +55,27 @@ public class ImportsLoader {
     private LinkedHashMap<String, Object> allCustomDefs;
     private ArrayList<LinkedHashMap<String, Object>> nestedToscaTpls;
     private LinkedHashMap<String, Object> repositories;
+    private CsarArchive csarArchive;
 
-    @SuppressWarnings("unchecked")
     public ImportsLoader(ArrayList<Object> _importslist,
                          String _path,
                          Object _typeDefinitionList,
                          LinkedHashMap<String, Object> tpl) {
+        this(_importslist, _path, _typeDefinitionList, tpl, null);
+    }
+
+    /**
+     * @param csarArchive the open CSAR the template path points into, its files are read without extracting it.
+     */
+    @SuppressWarnings("unchecked")
+    public ImportsLoader(ArrayList<Object> _importslist,
+                         String _path,
+                         Object _typeDefinitionList,
+                         LinkedHashMap<String, Object> tpl,
+                         CsarArchive csarArchive) {
 
         this.importslist = _importslist;
+        this.csarArchive = csarArchive;
         customDefs = new LinkedHashMap<String, Object>();
         allCustomDefs = new LinkedHashMap<String, Object>();
         nestedToscaTpls = new ArrayList<LinkedHashMap<String, Object>>();
@@ -122,7 +138,7 @@ public class ImportsLoader {
                     importNames.add(importName); //???
 
                     // _loadImportTemplate returns 2 objects
-                    Object ffnct[] = _loadImportTemplate(importName, importUri);
+                    Object ffnct[] = _loadImport(importName, importUri);
                     fullFileName = (String) ffnct[0];
                     customType = (LinkedHashMap<String, Object>) ffnct[1];
                     String namespacePrefix = "";
@@ -138,7 +154,7 @@ public class ImportsLoader {
                 }
             } else { // old style of imports
                 // _loadImportTemplate returns 2 objects
-                Object ffnct[] = _loadImportTemplate(null, importDef);
+                Object ffnct[] = _loadImport(null, importDef);
                 fullFileName = (String) ffnct[0];
                 customType = (LinkedHashMap<String, Object>) ffnct[1];
                 if (customType != null) {
@@ -226,6 +242,16 @@ public class ImportsLoader {
         }
     }
 
+    private Object[] _loadImport(String importName, Object importUriDef) {
+        ParseMetrics metrics = ParseMetrics.current();
+        metrics.start(Phase.YAML_LOAD);
+        try {
+            return _loadImportTemplate(importName, importUriDef);
+        } finally {
+            metrics.stop(Phase.YAML_LOAD);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private Object[] _loadImportTemplate(String importName, Object importUriDef) {
     	/*
@@ -284,6 +310,7 @@ public class ImportsLoader {
                 al[0] = fileName;
                 Yaml yaml = new Yaml();
                 al[1] = yaml.load(input);
+                ParseMetrics.current().importLoaded();
                 return al;
             } catch (IOException e) {
                 ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE191", String.format(
@@ -310,15 +337,12 @@ public class ImportsLoader {
                 } else {
 
                     aFile = true;
-                    File fp = new File(path);
-                    if (fp.isFile()) {
-                        File fn = new File(fileName);
-                        if (fn.isFile()) {
+                    if (_isFile(path)) {
+                        if (_isFile(fileName)) {
                             importTemplate = fileName;
                         } else {
                             String fullPath = Paths.get(path).toAbsolutePath().getParent().toString() + File.separator + fileName;
-                            File ffp = new File(fullPath);
-                            if (ffp.isFile()) {
+                            if (_isFile(fullPath)) {
                                 importTemplate = fullPath;
                             } else {
                                 String dirPath = Paths.get(path).toAbsolutePath().getParent().toString();
@@ -331,8 +355,7 @@ public class ImportsLoader {
                                 if (!filePath.isEmpty() && dirPath.endsWith(filePath)) {
                                     String sFileName = Paths.get(fileName).getFileName().toString();
                                     importTemplate = dirPath + File.separator + sFileName;
-                                    File fit = new File(importTemplate);
-                                    if (!fit.isFile()) {
+                                    if (!_isFile(importTemplate)) {
                                         //msg = (_('"%(import_template)s" is'
                                         //        'not a valid file')
                                         //      % {'import_template':
@@ -379,11 +402,22 @@ public class ImportsLoader {
                 al[0] = al[1] = null;
                 return al;
             }
-            try (BufferedReader br = new BufferedReader(new FileReader(importTemplate));) {
+            ImportGraph importGraph = ImportGraph.current();
+            Object loaded = importGraph != null ? importGraph.getFile(importTemplate) : null;
+            if (loaded != null) {
                 al[0] = importTemplate;
-
-                Yaml yaml = new Yaml();
-                al[1] = yaml.load(br);
+                al[1] = loaded;
+                return al;
+            }
+            try (InputStream input = _openStream(importTemplate)) {
+                al[0] = importTemplate;
+                al[1] = ImportCache.load(input);
+                if (al[1] != null) {
+                    ParseMetrics.current().importLoaded();
+                    if (importGraph != null) {
+                        importGraph.putFile(importTemplate, al[1]);
+                    }
+                }
                 return al;
             } catch (FileNotFoundException e) {
                 ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE197", String.format(
@@ -443,6 +477,7 @@ public class ImportsLoader {
                 al[0] = fullUrl;
                 Yaml yaml = new Yaml();
                 al[1] = yaml.load(input);
+                ParseMetrics.current().importLoaded();
                 return al;
             } catch (IOException e) {
                 ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE201", String.format(
@@ -465,6 +500,17 @@ public class ImportsLoader {
         return al;
     }
 
+    private boolean _isFile(String fileName) {
+        return csarArchive != null ? csarArchive.isFile(fileName) : new File(fileName).isFile();
+    }
+
+    private InputStream _openStream(String fileName) throws IOException {
+        if (csarArchive != null) {
+            return csarArchive.openStream(fileName);
+        }
+        return new FileInputStream(fileName);
+    }
+
     @Override
     public String toString() {
         return "ImportsLoader{" +
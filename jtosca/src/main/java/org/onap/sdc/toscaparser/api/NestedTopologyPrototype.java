@@ -0,0 +1,166 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api;
+
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * The part of the topology of a nested template that is the same for every node it substitutes: its
+ * node templates, validated once per parse.
+ * <p>
+ * The first topology built from the template validates its node templates and records them, with the
+ * values their properties were validated to. The topologies built for the other substituted nodes bind
+ * a copy of the recorded node templates instead of validating them again, and only build what depends
+ * on their node: the node templates refer to it as their parent, the inputs are validated against its
+ * properties and the intrinsic functions are resolved against those inputs.
+ * <p>
+ * The validation of a node template only depends on the template and on the custom definitions, the
+ * same for every node substituted by the template: binding skips no issue the first topology did not
+ * report already.
+ */
+final class NestedTopologyPrototype {
+
+    private static final String NODE_TEMPLATES = "node_templates";
+
+    private final CountDownLatch released = new CountDownLatch(1);
+    // the node_templates section as validated, and the validated property values of each node template
+    private volatile List<Object> recorded;
+
+    /**
+     * @return the binding of the first topology built from the template, recording its node templates.
+     */
+    Binding record() {
+        ParseMetrics.current().cacheMiss(ParseMetrics.Cache.NESTED_TOPOLOGIES);
+        return new Binding(true, null);
+    }
+
+    /**
+     * Waits for the first topology built from the template to record its node templates.
+     *
+     * @return the binding of a copy of the recorded node templates, or a binding validating them when the
+     * first topology recorded none.
+     */
+    @SuppressWarnings("unchecked")
+    Binding bind() {
+        try {
+            released.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the node templates of a nested template", e);
+        }
+        List<Object> nodeTemplates = recorded;
+        if (nodeTemplates == null) {
+            ParseMetrics.current().cacheMiss(ParseMetrics.Cache.NESTED_TOPOLOGIES);
+            return new Binding(false, null);
+        }
+        ParseMetrics.current().cacheHit(ParseMetrics.Cache.NESTED_TOPOLOGIES);
+        return new Binding(false, (List<Object>) ImportCache.copyModifiable(nodeTemplates));
+    }
+
+    /**
+     * Lets the topologies waiting in {@link #bind()} validate their node templates themselves, when the
+     * first topology could not record them.
+     */
+    void release() {
+        released.countDown();
+    }
+
+    /**
+     * The node templates of one topology built from the template, see {@link TopologyTemplate}.
+     */
+    final class Binding {
+        private final boolean recording;
+        private final LinkedHashMap<String, Object> nodeTemplatesTpl;
+        private final Map<String, List<Object>> propertyValues;
+
+        @SuppressWarnings("unchecked")
+        private Binding(boolean recording, List<Object> bound) {
+            this.recording = recording;
+            if (bound != null) {
+                nodeTemplatesTpl = (LinkedHashMap<String, Object>) bound.get(0);
+                propertyValues = (Map<String, List<Object>>) bound.get(1);
+            } else {
+                nodeTemplatesTpl = null;
+                propertyValues = recording ? new HashMap<>() : null;
+            }
+        }
+
+        /**
+         * @return a modifiable copy of the topology of the template, with the bound node templates.
+         */
+        @SuppressWarnings("unchecked")
+        LinkedHashMap<String, Object> topology(LinkedHashMap<String, Object> topologyTpl) {
+            if (topologyTpl == null || nodeTemplatesTpl == null) {
+                return (LinkedHashMap<String, Object>) ImportCache.copy(topologyTpl);
+            }
+            LinkedHashMap<String, Object> topology = new LinkedHashMap<>(topologyTpl);
+            topology.put(NODE_TEMPLATES, null);
+            topology = (LinkedHashMap<String, Object>) ImportCache.copy(topology);
+            topology.put(NODE_TEMPLATES, nodeTemplatesTpl);
+            return topology;
+        }
+
+        /**
+         * Validates the node template, or gives its properties the values the first topology validated.
+         */
+        void validate(NodeTemplate nodeTemplate) {
+            List<Object> values = recording || propertyValues == null ? null : propertyValues.get(nodeTemplate.getName());
+            if (values != null && values.size() == nodeTemplate.getPropertiesObjects().size()) {
+                List<Property> properties = nodeTemplate.getPropertiesObjects();
+                for (int i = 0; i < values.size(); i++) {
+                    properties.get(i).setValue(values.get(i));
+                }
+                return;
+            }
+            nodeTemplate.validate();
+            if (recording) {
+                values = new ArrayList<>();
+                for (Property property : nodeTemplate.getPropertiesObjects()) {
+                    values.add(property.getValue());
+                }
+                propertyValues.put(nodeTemplate.getName(), values);
+            }
+        }
+
+        /**
+         * Records the validated node templates of the first topology, before its intrinsic functions are
+         * resolved in place.
+         */
+        @SuppressWarnings("unchecked")
+        void validated(LinkedHashMap<String, Object> nodeTemplates) {
+            if (!recording) {
+                return;
+            }
+            if (nodeTemplates != null) {
+                recorded = (List<Object>) ImportCache.copyModifiable(Arrays.asList(nodeTemplates, propertyValues));
+            }
+            release();
+        }
+    }
+}
@@ -34,7 +34,6 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-import static org.onap.sdc.toscaparser.api.elements.EntityType.TOSCA_DEF;
 
 public class NodeTemplate extends EntityTemplate {
 
@@ -86,20 +85,27 @@ public class NodeTemplate extends EntityTemplate {
     @SuppressWarnings("unchecked")
     public LinkedHashMap<RelationshipType, NodeTemplate> getRelationships() {
         if (_relationships.isEmpty()) {
-            List<RequirementAssignment> requires = getRequirements().getAll();
-            if (requires != null && requires instanceof List) {
-                for (RequirementAssignment r : requires) {
-                    LinkedHashMap<RelationshipType, NodeTemplate> explicit = _getExplicitRelationship(r);
-                    if (explicit != null) {
-                        // _relationships.putAll(explicit)...
-                        for (Map.Entry<RelationshipType, NodeTemplate> ee : explicit.entrySet()) {
-                            _relationships.put(ee.getKey(), ee.getValue());
-                        }
+            // resolved on first use, possibly after the parse: against the definitions it was parsed with
+            _relationships.putAll(EntityType.resolveWith(getToscaDefinitions(), this::_createRelationships));
+        }
+        return _relationships;
+    }
+
+    private LinkedHashMap<RelationshipType, NodeTemplate> _createRelationships() {
+        LinkedHashMap<RelationshipType, NodeTemplate> relationships = new LinkedHashMap<>();
+        List<RequirementAssignment> requires = getRequirements().getAll();
+        if (requires != null && requires instanceof List) {
+            for (RequirementAssignment r : requires) {
+                LinkedHashMap<RelationshipType, NodeTemplate> explicit = _getExplicitRelationship(r);
+                if (explicit != null) {
+                    // _relationships.putAll(explicit)...
+                    for (Map.Entry<RelationshipType, NodeTemplate> ee : explicit.entrySet()) {
+                        relationships.put(ee.getKey(), ee.getValue());
                     }
                 }
             }
         }
-        return _relationships;
+        return relationships;
     }
 
     @SuppressWarnings("unchecked")
@@ -118,7 +124,7 @@ public class NodeTemplate extends EntityTemplate {
             //msg = _('Lookup by TOSCA types is not supported. '
             //        'Requirement for "%s" can not be full-filled.') % self.name
             boolean bFound = false;
-            for (String k : EntityType.TOSCA_DEF.keySet()) {
+            for (String k : EntityType.getToscaDef().keySet()) {
                 if (k.equals(node)) {
                     bFound = true;
                     break;
@@ -429,7 +435,7 @@ public class NodeTemplate extends EntityTemplate {
                 ifaceTypeDef = (LinkedHashMap<String, Object>) ((NodeType) typeDefinition).customDef.get(ifaceType);
             }
             if (ifaceTypeDef == null) {
-                ifaceTypeDef = (LinkedHashMap<String, Object>) EntityType.TOSCA_DEF.get(ifaceType);
+                ifaceTypeDef = (LinkedHashMap<String, Object>) EntityType.getToscaDef().get(ifaceType);
             }
             allowedOperations.addAll(ifaceTypeDef.keySet());
         }
@@ -449,12 +455,17 @@ public class NodeTemplate extends EntityTemplate {
      * If none found, an empty map will be returned.
      */
     public Map<String, List<InterfacesDef>> getAllInterfaceDetailsForNodeType() {
+        return EntityType.resolveWith(getToscaDefinitions(), this::_allInterfaceDetailsForNodeType);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, List<InterfacesDef>> _allInterfaceDetailsForNodeType() {
         Map<String, List<InterfacesDef>> interfaceMap = new LinkedHashMap<>();
 
         // Get custom interface details
         Map<String, Object> customInterfacesDetails = ((NodeType) typeDefinition).getInterfaces();
         // Get native interface details from tosca definitions
-        Object nativeInterfaceDetails = TOSCA_DEF.get(InterfacesDef.LIFECYCLE);
+        Object nativeInterfaceDetails = EntityType.getToscaDef().get(InterfacesDef.LIFECYCLE);
         Map<String, Object> allInterfaceDetails = new LinkedHashMap<>();
         allInterfaceDetails.putAll(customInterfacesDetails);
         if (nativeInterfaceDetails != null) {
@@ -106,12 +106,11 @@ public class RelationshipTemplate extends EntityTemplate {
             for (Map.Entry<String, Object> me : properties.entrySet()) {
                 String pname = me.getKey();
                 Object pvalue = me.getValue();
-                LinkedHashMap<String, PropertyDef> propsDef = ((StatefulEntityType) typeDefinition).getPropertiesDef();
-                if (propsDef != null && propsDef.get(pname) != null) {
+                PropertyDef pd = ((StatefulEntityType) typeDefinition).getPropertiesDefByName().get(pname);
+                if (pd != null) {
                     if (properties.get(pname) != null) {
                         pvalue = properties.get(name);
                     }
-                    PropertyDef pd = (PropertyDef) propsDef.get(pname);
                     Property prop = new Property(pname, pvalue, pd.getSchema(), customDef);
                     props.add(prop);
                 }
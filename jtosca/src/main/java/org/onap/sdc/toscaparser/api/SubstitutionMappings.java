@@ -21,8 +21,10 @@
 package org.onap.sdc.toscaparser.api;
 
 import org.onap.sdc.toscaparser.api.common.JToscaValidationIssue;
+import org.onap.sdc.toscaparser.api.elements.EntityType;
 import org.onap.sdc.toscaparser.api.elements.NodeType;
 import org.onap.sdc.toscaparser.api.elements.PropertyDef;
+import org.onap.sdc.toscaparser.api.elements.TypeRegistry;
 import org.onap.sdc.toscaparser.api.parameters.Input;
 import org.onap.sdc.toscaparser.api.parameters.Output;
 import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
@@ -31,6 +33,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 
 public class SubstitutionMappings {
@@ -56,6 +59,8 @@ public class SubstitutionMappings {
     private LinkedHashMap<String, Object> customDefs;
     private LinkedHashMap<String, Object> _capabilities;
     private LinkedHashMap<String, Object> _requirements;
+    // the definitions of the parse, the node type is resolved against them when asked for after it
+    private final Map<String, Object> toscaDefinitions = EntityType.getToscaDef();
 
     public SubstitutionMappings(LinkedHashMap<String, Object> smsubMappingDef,
                                 ArrayList<NodeTemplate> smnodetemplates,
@@ -124,7 +129,7 @@ public class SubstitutionMappings {
     }
 
     public NodeType getNodeDefinition() {
-        return new NodeType(getNodeType(), customDefs);
+        return TypeRegistry.current(toscaDefinitions).getNodeType(getNodeType(), customDefs);
     }
 
     private void _validate() {
@@ -204,10 +209,10 @@ public class SubstitutionMappings {
         // otherwise they are not mandatory to be defined.
         HashSet<String> customizedParameters = new HashSet<>();
         if (subMappedNodeTemplate != null) {
-            customizedParameters.addAll(subMappedNodeTemplate.getProperties().keySet());
+            customizedParameters.addAll(subMappedNodeTemplate.getPropertiesByName().keySet());
         }
         HashSet<String> allProperties = new HashSet<String>(
-                getNodeDefinition().getPropertiesDef().keySet());
+                getNodeDefinition().getPropertiesDefByName().keySet());
         HashSet<String> diffset = customizedParameters;
         diffset.removeAll(allInputs);
         for (String parameter : diffset) {
@@ -294,8 +299,7 @@ public class SubstitutionMappings {
         // has properties, the specification will be amended?
 
         for (Output output : outputs) {
-            Object ado = getNodeDefinition().getAttributesDef();
-            if (ado != null && ((LinkedHashMap<String, Object>) ado).get(output.getName()) == null) {
+            if (getNodeDefinition().getAttributeDefValue(output.getName()) == null) {
                 ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE238", String.format(
                         "UnknownOutputError: Unknown output \"%s\" in SubstitutionMappings with node_type \"%s\"",
                         output.getName(), getNodeType())));
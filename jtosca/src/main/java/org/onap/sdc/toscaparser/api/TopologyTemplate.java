@@ -21,6 +21,8 @@
 package org.onap.sdc.toscaparser.api;
 
 import org.onap.sdc.toscaparser.api.common.JToscaValidationIssue;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics.Phase;
 import org.onap.sdc.toscaparser.api.elements.InterfacesDef;
 import org.onap.sdc.toscaparser.api.elements.NodeType;
 import org.onap.sdc.toscaparser.api.elements.RelationshipType;
@@ -32,9 +34,11 @@ import org.onap.sdc.toscaparser.api.parameters.Output;
 import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TopologyTemplate {
 
@@ -56,6 +60,8 @@ public class TopologyTemplate {
     private LinkedHashMap<String, Object> tpl;
     LinkedHashMap<String, Object> metaData;
     private ArrayList<Input> inputs;
+    private Map<String, Input> inputsByName = new HashMap<>();
+    private final Map<String, Object> parsedInputValues = new ConcurrentHashMap<>();
     private ArrayList<Output> outputs;
     private ArrayList<RelationshipTemplate> relationshipTemplates;
     private ArrayList<NodeTemplate> nodeTemplates;
@@ -77,37 +83,72 @@ public class TopologyTemplate {
             LinkedHashMap<String, Object> _parsedParams,
             NodeTemplate _subMappedNodeTemplate,
             boolean _resolveGetInput) {
+        this(_template, _customDefs, _relTypes, _parsedParams, _subMappedNodeTemplate, _resolveGetInput, null);
+    }
+
+    /**
+     * Builds the topology of a nested template for the node it substitutes, validating its node templates
+     * through the binding, see {@link NestedTopologyPrototype}.
+     */
+    TopologyTemplate(
+            LinkedHashMap<String, Object> _template,
+            LinkedHashMap<String, Object> _customDefs,
+            LinkedHashMap<String, Object> _relTypes,//TYPE
+            LinkedHashMap<String, Object> _parsedParams,
+            NodeTemplate _subMappedNodeTemplate,
+            boolean _resolveGetInput,
+            NestedTopologyPrototype.Binding _binding) {
 
         tpl = _template;
         if (tpl != null) {
-            subMappedNodeTemplate = _subMappedNodeTemplate;
-            metaData = _metaData();
-            customDefs = _customDefs;
-            relTypes = _relTypes;
-            parsedParams = _parsedParams;
-            resolveGetInput = _resolveGetInput;
-            _validateField();
-            description = _tplDescription();
-            inputs = _inputs();
-            relationshipTemplates = _relationshipTemplates();
-            //todo: pass subMappedNodeTemplate to ET constractor
-            nodeTemplates = _nodeTemplates();
-            outputs = _outputs();
-            if (nodeTemplates != null) {
-                graph = new ToscaGraph(nodeTemplates);
+            ParseMetrics metrics = ParseMetrics.current();
+            metrics.start(Phase.TOPOLOGY_BUILD);
+            try {
+                subMappedNodeTemplate = _subMappedNodeTemplate;
+                metaData = _metaData();
+                customDefs = _customDefs;
+                relTypes = _relTypes;
+                // the caller keeps adding the parameters of the next nested templates to its map: the
+                // values this template serves, and validates once, are the ones it was built with
+                parsedParams = _parsedParams != null ? new LinkedHashMap<>(_parsedParams) : null;
+                resolveGetInput = _resolveGetInput;
+                _validateField();
+                description = _tplDescription();
+                inputs = _inputs();
+                relationshipTemplates = _relationshipTemplates();
+                //todo: pass subMappedNodeTemplate to ET constractor
+                nodeTemplates = _nodeTemplates(_binding);
+                outputs = _outputs();
+                if (nodeTemplates != null) {
+                    metrics.addNodeTemplates(nodeTemplates.size());
+                    metrics.start(Phase.GRAPH_BUILD);
+                    try {
+                        graph = new ToscaGraph(nodeTemplates);
+                    } finally {
+                        metrics.stop(Phase.GRAPH_BUILD);
+                    }
+                }
+                groups = _groups();
+                policies = _policies();
+                metrics.start(Phase.FUNCTION_PROCESSING);
+                try {
+                    _processIntrinsicFunctions();
+                } finally {
+                    metrics.stop(Phase.FUNCTION_PROCESSING);
+                }
+                substitutionMappings = _substitutionMappings();
+            } finally {
+                metrics.stop(Phase.TOPOLOGY_BUILD);
             }
-            groups = _groups();
-            policies = _policies();
-            _processIntrinsicFunctions();
-            substitutionMappings = _substitutionMappings();
         }
     }
 
     @SuppressWarnings("unchecked")
     private ArrayList<Input> _inputs() {
         ArrayList<Input> alInputs = new ArrayList<>();
-        for (String name : _tplInputs().keySet()) {
-            Object attrs = _tplInputs().get(name);
+        for (Map.Entry<String, Object> me : _tplInputs().entrySet()) {
+            String name = me.getKey();
+            Object attrs = me.getValue();
             Input input = new Input(name, (LinkedHashMap<String, Object>) attrs, customDefs);
             if (parsedParams != null && parsedParams.get(name) != null) {
                 input.validate(parsedParams.get(name));
@@ -125,6 +166,7 @@ public class TopologyTemplate {
                 );
             }
             alInputs.add(input);
+            inputsByName.putIfAbsent(name, input);
         }
         return alInputs;
 
@@ -139,7 +181,7 @@ public class TopologyTemplate {
 
     }
 
-    private ArrayList<NodeTemplate> _nodeTemplates() {
+    private ArrayList<NodeTemplate> _nodeTemplates(NestedTopologyPrototype.Binding binding) {
         ArrayList<NodeTemplate> alNodeTemplates = new ArrayList<>();
         LinkedHashMap<String, Object> tpls = _tplNodeTemplates();
         if (tpls != null) {
@@ -151,14 +193,21 @@ public class TopologyTemplate {
                         relTypes,
                         subMappedNodeTemplate);
                 if (tpl.getTypeDefinition() != null) {
-                    boolean b = NodeType.TOSCA_DEF.get(tpl.getType()) != null;
+                    boolean b = NodeType.getToscaDef().get(tpl.getType()) != null;
                     if (b || (tpl.getCustomDef() != null && !tpl.getCustomDef().isEmpty())) {
-                        tpl.validate();
+                        if (binding != null) {
+                            binding.validate(tpl);
+                        } else {
+                            tpl.validate();
+                        }
                         alNodeTemplates.add(tpl);
                     }
                 }
             }
         }
+        if (binding != null) {
+            binding.validated(tpls);
+        }
         return alNodeTemplates;
     }
 
@@ -516,6 +565,38 @@ public class TopologyTemplate {
         return inputs;
     }
 
+    /**
+     * @return the input with the given name, or null if this topology template has no such input
+     */
+    public Input getInput(String name) {
+        return name != null ? inputsByName.get(name) : null;
+    }
+
+    /**
+     * Returns the value provided for an input with the parse, validated against the type the
+     * topology template declares for the input. The value is validated the first time it is asked
+     * for, and served from memory for the lifetime of this topology template afterwards; the
+     * values are the ones provided when the topology template was built.
+     *
+     * @return the validated value, or null if no value was provided for the input
+     */
+    @SuppressWarnings("unchecked")
+    public Object getParsedInputValue(String name) {
+        if (parsedParams == null || name == null || parsedParams.get(name) == null) {
+            return null;
+        }
+        Object value = parsedInputValues.get(name);
+        if (value == null) {
+            LinkedHashMap<String, Object> inputDef = (LinkedHashMap<String, Object>) _tplInputs().get(name);
+            String type = (String) inputDef.get("type");
+            value = DataEntity.validateDatatype(type, parsedParams.get(name), null, customDefs, null);
+            if (value != null) {
+                parsedInputValues.put(name, value);
+            }
+        }
+        return value;
+    }
+
     public ArrayList<Output> getOutputs() {
         return outputs;
     }
@@ -536,6 +617,10 @@ public class TopologyTemplate {
         return groups;
     }
 
+    public ToscaGraph getGraph() {
+        return graph;
+    }
+
     public SubstitutionMappings getSubstitutionMappings() {
         return substitutionMappings;
     }
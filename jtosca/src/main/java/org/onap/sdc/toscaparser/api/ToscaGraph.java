@@ -22,20 +22,40 @@ package org.onap.sdc.toscaparser.api;
 
 import org.onap.sdc.toscaparser.api.elements.RelationshipType;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-//import java.util.Iterator;
-
+/**
+ * Graph of the node templates of a topology, with an edge from a node template to each node
+ * template it has a relationship to (its requirements).
+ * <p>
+ * Vertices are indexed by name and the edges are kept in both directions, so building the
+ * graph is linear in the number of node templates and relationships, and the traversals below
+ * are linear in the size of the part of the graph they visit.
+ */
 public class ToscaGraph {
     // Graph of Tosca Node Templates
 
     private ArrayList<NodeTemplate> nodeTemplates;
     private LinkedHashMap<String, NodeTemplate> vertices;
+    // node template name -> node templates it requires / node templates requiring it
+    private Map<String, Set<NodeTemplate>> outgoing;
+    private Map<String, Set<NodeTemplate>> incoming;
 
     public ToscaGraph(ArrayList<NodeTemplate> inodeTemplates) {
         nodeTemplates = inodeTemplates;
         vertices = new LinkedHashMap<String, NodeTemplate>();
+        outgoing = new HashMap<>();
+        incoming = new HashMap<>();
         create();
     }
 
@@ -48,37 +68,144 @@ public class ToscaGraph {
     private void createEdge(NodeTemplate node1,
                             NodeTemplate node2,
                             RelationshipType relation) {
-        if (vertices.get(node1.getName()) == null) {
-            createVertex(node1);
-            vertices.get(node1.name)._addNext(node2, relation);
-        }
+        vertices.get(node1.getName())._addNext(node2, relation);
+        outgoing.computeIfAbsent(node1.getName(), k -> new LinkedHashSet<>()).add(node2);
+        incoming.computeIfAbsent(node2.getName(), k -> new LinkedHashSet<>()).add(node1);
     }
 
     public NodeTemplate vertex(String name) {
-        if (vertices.get(name) != null) {
-            return vertices.get(name);
+        return vertices.get(name);
+    }
+
+    public Collection<NodeTemplate> getVertices() {
+        return Collections.unmodifiableCollection(vertices.values());
+    }
+
+    /**
+     * @return the node templates the named node template has a relationship to
+     */
+    public List<NodeTemplate> getTargets(String name) {
+        return adjacent(outgoing, name);
+    }
+
+    /**
+     * @return the node templates having a relationship to the named node template
+     */
+    public List<NodeTemplate> getSources(String name) {
+        return adjacent(incoming, name);
+    }
+
+    /**
+     * @return the node templates the named node template depends on, directly or through other node templates
+     */
+    public List<NodeTemplate> getReachable(String name) {
+        return traverse(outgoing, name);
+    }
+
+    /**
+     * @return true if the node template named to can be reached following relationships from the one named from
+     */
+    public boolean isReachable(String from, String to) {
+        if (vertices.get(to) == null) {
+            return false;
+        }
+        for (NodeTemplate node : traverse(outgoing, from)) {
+            if (node.getName().equals(to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the node templates depending on the named node template, directly or through other node templates
+     */
+    public List<NodeTemplate> getDependents(String name) {
+        return traverse(incoming, name);
+    }
+
+    /**
+     * Orders the node templates so that every node template comes after the node templates it
+     * has a relationship to. Node templates whose dependencies are all ordered are taken in
+     * declaration order.
+     *
+     * @return the node templates in dependency order
+     * @throws IllegalStateException if the relationships form a cycle
+     */
+    public List<NodeTemplate> getTopologicalOrder() {
+        Map<String, Integer> pending = new HashMap<>();
+        Deque<NodeTemplate> ready = new ArrayDeque<>();
+        for (NodeTemplate node : vertices.values()) {
+            int dependencies = adjacent(outgoing, node.getName()).size();
+            pending.put(node.getName(), dependencies);
+            if (dependencies == 0) {
+                ready.add(node);
+            }
+        }
+        List<NodeTemplate> order = new ArrayList<>(vertices.size());
+        while (!ready.isEmpty()) {
+            NodeTemplate node = ready.poll();
+            order.add(node);
+            for (NodeTemplate dependent : adjacent(incoming, node.getName())) {
+                int dependencies = pending.merge(dependent.getName(), -1, Integer::sum);
+                if (dependencies == 0) {
+                    ready.add(dependent);
+                }
+            }
         }
-        return null;
+        if (order.size() != vertices.size()) {
+            List<String> cyclic = new ArrayList<>();
+            for (Map.Entry<String, Integer> me : pending.entrySet()) {
+                if (me.getValue() > 0) {
+                    cyclic.add(me.getKey());
+                }
+            }
+            Collections.sort(cyclic);
+            throw new IllegalStateException("Relationships between node templates " + cyclic + " form a cycle");
+        }
+        return order;
     }
 
-//  public Iterator getIter() {
-//		return vertices.values().iterator();
-//	}
+    private static List<NodeTemplate> adjacent(Map<String, Set<NodeTemplate>> edges, String name) {
+        Set<NodeTemplate> nodes = edges.get(name);
+        return nodes != null ? new ArrayList<>(nodes) : new ArrayList<>();
+    }
+
+    // breadth first, the start node template is only part of the result when it is on a cycle
+    private List<NodeTemplate> traverse(Map<String, Set<NodeTemplate>> edges, String name) {
+        Set<String> visited = new LinkedHashSet<>();
+        List<NodeTemplate> result = new ArrayList<>();
+        Deque<String> queue = new ArrayDeque<>();
+        queue.add(name);
+        while (!queue.isEmpty()) {
+            Set<NodeTemplate> nodes = edges.get(queue.poll());
+            if (nodes == null) {
+                continue;
+            }
+            for (NodeTemplate node : nodes) {
+                if (visited.add(node.getName())) {
+                    result.add(node);
+                    queue.add(node.getName());
+                }
+            }
+        }
+        return result;
+    }
 
     private void create() {
+        for (NodeTemplate node : nodeTemplates) {
+            createVertex(node);
+        }
         for (NodeTemplate node : nodeTemplates) {
             LinkedHashMap<RelationshipType, NodeTemplate> relation = node.getRelationships();
             if (relation != null) {
                 for (RelationshipType rel : relation.keySet()) {
-                    NodeTemplate nodeTpls = relation.get(rel);
-                    for (NodeTemplate tpl : nodeTemplates) {
-                        if (tpl.getName().equals(nodeTpls.getName())) {
-                            createEdge(node, tpl, rel);
-                        }
+                    NodeTemplate tpl = vertices.get(relation.get(rel).getName());
+                    if (tpl != null) {
+                        createEdge(node, tpl, rel);
                     }
                 }
             }
-            createVertex(node);
         }
     }
 
@@ -27,27 +27,37 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Predicate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.onap.sdc.toscaparser.api.common.JToscaException;
 import org.onap.sdc.toscaparser.api.common.JToscaValidationIssue;
-import org.onap.sdc.toscaparser.api.common.ValidationIssueCollector;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics.Phase;
 import org.onap.sdc.toscaparser.api.elements.EntityType;
 import org.onap.sdc.toscaparser.api.elements.DataType;
 import org.onap.sdc.toscaparser.api.elements.Metadata;
+import org.onap.sdc.toscaparser.api.elements.ReadOnlyDefinitions;
 import org.onap.sdc.toscaparser.api.extensions.ExtTools;
 import org.onap.sdc.toscaparser.api.parameters.Input;
 import org.onap.sdc.toscaparser.api.parameters.Output;
 import org.onap.sdc.toscaparser.api.prereq.CSAR;
+import org.onap.sdc.toscaparser.api.prereq.CsarArchive;
 import org.onap.sdc.toscaparser.api.utils.JToscaErrorCodes;
+import org.onap.sdc.toscaparser.api.utils.ParseContext;
 import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -90,7 +100,7 @@ public class ToscaTemplate extends Object {
 
     // Sections that are specific to individual template definitions
     private static final String METADATA = "metadata";
-    private static ArrayList<String> SPECIAL_SECTIONS;
+    private static final ArrayList<String> SPECIAL_SECTIONS = new ArrayList<>(Collections.singletonList(METADATA));
 
     private ExtTools exttools = new ExtTools();
 
@@ -120,12 +130,20 @@ public class ToscaTemplate extends Object {
     private ConcurrentHashMap<String, Object> nestedToscaTplsWithTopology;
     private ArrayList<TopologyTemplate> nestedToscaTemplatesWithTopology;
     private ToscaGraph graph;
-    private String csarTempDir;
+    private CSAR csar;
+    private InputStream csarContent;
     private int nestingLoopCounter;
     private LinkedHashMap<String, LinkedHashMap<String, Object>> metaProperties;
     private Set<String> processedImports;
     private LinkedHashMap<String, Object> customDefsFinal = new LinkedHashMap<>();
+    private Map<String, LinkedHashMap<String, Object>> nestedCustomDefs = new HashMap<>();
+    private Map<List<Object>, LinkedHashMap<String, Object>> importedCustomDefs = new HashMap<>();
+    private Map<Object, List<Map<String, Object>>> nestedTemplateImports = new IdentityHashMap<>();
+    private Map<String, NestedTopologyPrototype> nestedTopologies = new HashMap<>();
     private HashSet<DataType> dataTypes;
+    private ParseMetrics parseMetrics;
+    private Executor nestedTemplatesExecutor;
+    private ParseContext parseContext;
 
     public ToscaTemplate(String _path,
                          LinkedHashMap<String, Object> _parsedParams,
@@ -141,119 +159,238 @@ public class ToscaTemplate extends Object {
         init(_path, _parsedParams, aFile, yamlDictTpl, resolveGetInput);
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Parse a template, building the topologies of its nested templates in parallel.
+     * <p>
+     * The topologies of a nesting level are built once those of the level above are complete, each
+     * on its own task. As in a sequential parse, a topology is built from the read-only type
+     * definitions of its nested template and its own copy of the template, with the properties of
+     * the node it substitutes bound over the inputs of the topology above, so the topologies are the
+     * same as those of a sequential parse whatever the order the tasks run in. Nesting is limited to
+     * {@link #MAX_LEVELS} levels. The validation issues and metrics of the tasks are merged in the
+     * order of a sequential parse.
+     *
+     * @param nestedTemplatesExecutor the executor building the nested topologies, for instance
+     *                                {@link java.util.concurrent.ForkJoinPool#commonPool()}; the calling
+     *                                thread builds those the executor has not started yet. Null builds
+     *                                them sequentially on the calling thread.
+     */
+    public ToscaTemplate(String _path,
+                         LinkedHashMap<String, Object> _parsedParams,
+                         boolean aFile,
+                         LinkedHashMap<String, Object> yamlDictTpl, boolean resolveGetInput,
+                         Executor nestedTemplatesExecutor) throws JToscaException {
+        this.nestedTemplatesExecutor = nestedTemplatesExecutor;
+        init(_path, _parsedParams, aFile, yamlDictTpl, resolveGetInput);
+    }
+
+    /**
+     * Parse a CSAR held in memory, without writing it to disk.
+     *
+     * @param csarContent the zip content of the CSAR, the stream is read to its end but not closed.
+     * @param csarName    the name identifying the CSAR in validation messages and template paths.
+     */
+    public ToscaTemplate(InputStream csarContent,
+                         String csarName,
+                         LinkedHashMap<String, Object> _parsedParams,
+                         boolean resolveGetInput) throws JToscaException {
+        this(csarContent, csarName, _parsedParams, resolveGetInput, null);
+    }
+
+    /**
+     * Parse a CSAR held in memory, building the topologies of its nested templates in parallel,
+     * see {@link #ToscaTemplate(String, LinkedHashMap, boolean, LinkedHashMap, boolean, Executor)}.
+     *
+     * @param csarContent             the zip content of the CSAR, the stream is read to its end but not closed.
+     * @param csarName                the name identifying the CSAR in validation messages and template paths.
+     * @param nestedTemplatesExecutor the executor building the nested topologies, null to build them sequentially.
+     */
+    public ToscaTemplate(InputStream csarContent,
+                         String csarName,
+                         LinkedHashMap<String, Object> _parsedParams,
+                         boolean resolveGetInput,
+                         Executor nestedTemplatesExecutor) throws JToscaException {
+        this.csarContent = csarContent;
+        this.nestedTemplatesExecutor = nestedTemplatesExecutor;
+        init(csarName, _parsedParams, true, null, resolveGetInput);
+    }
+
     private void init(String _path,
                       LinkedHashMap<String, Object> _parsedParams,
                       boolean aFile,
                       LinkedHashMap<String, Object> yamlDictTpl, boolean _resolveGetInput) throws JToscaException {
 
-        ThreadLocalsHolder.setCollector(new ValidationIssueCollector());
+        parseContext = new ParseContext(_resolveGetInput, nestedTemplatesExecutor);
+        parseMetrics = parseContext.getParseMetrics();
+        ThreadLocalsHolder.setParseContext(parseContext);
+        try {
+            _parse(_path, _parsedParams, aFile, yamlDictTpl, _resolveGetInput);
+        } catch (JToscaException e) {
+            // the caller gets no template: the issues found and the metrics go with the exception
+            e.setValidationIssueCollector(parseContext.getCollector());
+            e.setParseMetrics(parseMetrics);
+            throw e;
+        } finally {
+            // the context of the parse is not left on the thread, only its collector, for the callers
+            // reading the issues through ThreadLocalsHolder
+            ThreadLocalsHolder.setParseContext(null);
+            ThreadLocalsHolder.setCollector(parseContext.getCollector());
+        }
+    }
 
+    @SuppressWarnings("unchecked")
+    private void _parse(String _path,
+                        LinkedHashMap<String, Object> _parsedParams,
+                        boolean aFile,
+                        LinkedHashMap<String, Object> yamlDictTpl, boolean _resolveGetInput) throws JToscaException {
         VALID_TEMPLATE_VERSIONS = new ArrayList<>();
         VALID_TEMPLATE_VERSIONS.add("tosca_simple_yaml_1_0");
         VALID_TEMPLATE_VERSIONS.add("tosca_simple_yaml_1_1");
         VALID_TEMPLATE_VERSIONS.addAll(exttools.getVersions());
         ADDITIONAL_SECTIONS = new LinkedHashMap<>();
-        SPECIAL_SECTIONS = new ArrayList<>();
-        SPECIAL_SECTIONS.add(METADATA);
         ADDITIONAL_SECTIONS.put("tosca_simple_yaml_1_0", SPECIAL_SECTIONS);
         ADDITIONAL_SECTIONS.put("tosca_simple_yaml_1_1", SPECIAL_SECTIONS);
         ADDITIONAL_SECTIONS.putAll(exttools.getSections());
 
-        //long startTime = System.nanoTime();
-
-
         isFile = aFile;
         inputPath = null;
         path = null;
         tpl = null;
-        csarTempDir = null;
+        csar = null;
         nestedToscaTplsWithTopology = new ConcurrentHashMap<>();
         nestedToscaTemplatesWithTopology = new ArrayList<TopologyTemplate>();
         resolveGetInput = _resolveGetInput;
         metaProperties = new LinkedHashMap<>();
 
-        if (_path != null && !_path.isEmpty()) {
-            // save the original input path
-            inputPath = _path;
-            // get the actual path (will change with CSAR)
-            path = _getPath(_path);
-            // load the YAML template
-            if (path != null && !path.isEmpty()) {
-                try (InputStream input = new FileInputStream(new File(path));) {
-                    //System.out.println("Loading YAML file " + path);
-                    log.debug("ToscaTemplate Loading YAMEL file {}", path);
-                    Yaml yaml = new Yaml();
-                    Object data = yaml.load(input);
-                    this.tpl = (LinkedHashMap<String, Object>) data;
-                } catch (FileNotFoundException e) {
-                    log.error("ToscaTemplate - Exception loading yaml: {}", e.getMessage());
-                    log.error("Exception", e);
-                    ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE275",
-                            "ToscaTemplate - Exception loading yaml: -> " + e.getMessage()));
-                    return;
-                } catch (Exception e) {
-                    log.error("ToscaTemplate - Error loading yaml, aborting -> ", e.getMessage());
-                    log.error("Exception", e);
-                    ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE275",
-                            "ToscaTemplate - Error loading yaml, aborting -> " + e.getMessage()));
-                    return;
-                }
+        try {
+            if (_path != null && !_path.isEmpty()) {
+                // save the original input path
+                inputPath = _path;
+                // get the actual path (will change with CSAR)
+                path = _getPath(_path);
+                // load the YAML template
+                if (path != null && !path.isEmpty()) {
+                    try (InputStream input = _openStream(path);) {
+                        //System.out.println("Loading YAML file " + path);
+                        log.debug("ToscaTemplate Loading YAMEL file {}", path);
+                        Yaml yaml = new Yaml();
+                        parseMetrics.start(Phase.YAML_LOAD);
+                        Object data;
+                        try {
+                            data = yaml.load(input);
+                        } finally {
+                            parseMetrics.stop(Phase.YAML_LOAD);
+                        }
+                        this.tpl = (LinkedHashMap<String, Object>) data;
+                    } catch (FileNotFoundException e) {
+                        log.error("ToscaTemplate - Exception loading yaml: {}", e.getMessage());
+                        log.error("Exception", e);
+                        ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE275",
+                                "ToscaTemplate - Exception loading yaml: -> " + e.getMessage()));
+                        return;
+                    } catch (Exception e) {
+                        log.error("ToscaTemplate - Error loading yaml, aborting -> ", e.getMessage());
+                        log.error("Exception", e);
+                        ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE275",
+                                "ToscaTemplate - Error loading yaml, aborting -> " + e.getMessage()));
+                        return;
+                    }
 
-                if (yamlDictTpl != null) {
-                    //msg = (_('Both path and yaml_dict_tpl arguments were '
-                    //         'provided. Using path and ignoring yaml_dict_tpl.'))
-                    //log.info(msg)
-                    log.debug("ToscaTemplate - Both path and yaml_dict_tpl arguments were provided. Using path and ignoring yaml_dict_tpl");
+                    if (yamlDictTpl != null) {
+                        //msg = (_('Both path and yaml_dict_tpl arguments were '
+                        //         'provided. Using path and ignoring yaml_dict_tpl.'))
+                        //log.info(msg)
+                        log.debug("ToscaTemplate - Both path and yaml_dict_tpl arguments were provided. Using path and ignoring yaml_dict_tpl");
+                    }
+                } else {
+                    // no input to process...
+                    _abort();
                 }
             } else {
-                // no input to process...
-                _abort();
-            }
-        } else {
-            if (yamlDictTpl != null) {
-                tpl = yamlDictTpl;
-            } else {
-                ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE244",
-                        "ValueError: No path or yaml_dict_tpl was provided. There is nothing to parse"));
-                log.debug("ToscaTemplate ValueError: No path or yaml_dict_tpl was provided. There is nothing to parse");
+                if (yamlDictTpl != null) {
+                    tpl = yamlDictTpl;
+                } else {
+                    ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE244",
+                            "ValueError: No path or yaml_dict_tpl was provided. There is nothing to parse"));
+                    log.debug("ToscaTemplate ValueError: No path or yaml_dict_tpl was provided. There is nothing to parse");
 
+                }
             }
-        }
 
-        if (tpl != null) {
-            parsedParams = _parsedParams;
-            _validateField();
-            this.rootPath = path;
-            this.processedImports = new HashSet<String>();
-            this.imports = _tplImports();
-            this.version = _tplVersion();
-            this.metaData = _tplMetaData();
-            this.relationshipTypes = _tplRelationshipTypes();
-            this.description = _tplDescription();
-            this.dataTypes = getTopologyDataTypes();
-            this.topologyTemplate = _topologyTemplate();
-            this.repositories = _tplRepositories();
-            if (topologyTemplate.getTpl() != null) {
-                this.inputs = _inputs();
-                this.relationshipTemplates = _relationshipTemplates();
-                this.nodeTemplates = _nodeTemplates();
-                this.outputs = _outputs();
-                this.policies = _policies();
-                this.groups = _groups();
-//                _handleNestedToscaTemplatesWithTopology();
-                _handleNestedToscaTemplatesWithTopology(topologyTemplate);
-                graph = new ToscaGraph(nodeTemplates);
+            if (tpl != null) {
+                parsedParams = _parsedParams;
+                _validateField();
+                this.rootPath = path;
+                this.processedImports = new HashSet<String>();
+                this.imports = _tplImports();
+                this.version = _tplVersion();
+                this.metaData = _tplMetaData();
+                // shared by the topology template and all the nested ones
+                this.relationshipTypes = (LinkedHashMap<String, Object>) ReadOnlyDefinitions.copyOf(_tplRelationshipTypes());
+                this.description = _tplDescription();
+                this.dataTypes = getTopologyDataTypes();
+                this.topologyTemplate = _topologyTemplate();
+                this.repositories = _tplRepositories();
+                if (topologyTemplate.getTpl() != null) {
+                    this.inputs = _inputs();
+                    this.relationshipTemplates = _relationshipTemplates();
+                    this.nodeTemplates = _nodeTemplates();
+                    this.outputs = _outputs();
+                    this.policies = _policies();
+                    this.groups = _groups();
+    //                _handleNestedToscaTemplatesWithTopology();
+                    parseMetrics.start(Phase.NESTED_TEMPLATES);
+                    try {
+                        if (parseContext.getNestedTemplatesExecutor() != null) {
+                            _handleNestedToscaTemplatesInParallel(topologyTemplate);
+                        } else {
+                            _handleNestedToscaTemplatesWithTopology(topologyTemplate);
+                        }
+                    } finally {
+                        parseMetrics.stop(Phase.NESTED_TEMPLATES);
+                    }
+                    // the topology template already built the graph of the same node templates
+                    graph = topologyTemplate.getGraph();
+                    if (graph == null) {
+                        parseMetrics.start(Phase.GRAPH_BUILD);
+                        try {
+                            graph = new ToscaGraph(nodeTemplates);
+                        } finally {
+                            parseMetrics.stop(Phase.GRAPH_BUILD);
+                        }
+                    }
+                }
             }
+        } finally {
+            _cleanupCsar();
+            parseMetrics.finish(parseContext.getCollector());
+            parseContext.release();
+            log.debug("ToscaTemplate - parsed {} - {}", inputPath, parseMetrics);
         }
 
-        if (csarTempDir != null) {
-            CSAR.deleteDir(new File(csarTempDir));
-            csarTempDir = null;
+        verifyTemplate();
+
+    }
+
+    private void _cleanupCsar() {
+        if (csar != null) {
+            csar.cleanup();
+            csar = null;
         }
+    }
 
-        verifyTemplate();
+    private CsarArchive _csarArchive() {
+        return csar != null ? csar.getArchive() : null;
+    }
+
+    private InputStream _openStream(String fileName) throws IOException {
+        CsarArchive csarArchive = _csarArchive();
+        return csarArchive != null ? csarArchive.openStream(fileName) : new FileInputStream(new File(fileName));
+    }
 
+    private boolean _fileExists(String fileName) {
+        CsarArchive csarArchive = _csarArchive();
+        return csarArchive != null ? csarArchive.isFile(fileName) : Files.exists(Paths.get(fileName));
     }
 
     private void _abort() throws JToscaException {
@@ -265,7 +402,7 @@ public class ToscaTemplate extends Object {
     private TopologyTemplate _topologyTemplate() {
         return new TopologyTemplate(
                 _tplTopologyTemplate(),
-                _getAllCustomDefs(imports),
+                _resolveCustomDefs(imports),
                 relationshipTypes,
                 parsedParams,
                 null,
@@ -326,7 +463,12 @@ public class ToscaTemplate extends Object {
     }
 
     private LinkedHashMap<String, Object> _tplRelationshipTypes() {
-        return (LinkedHashMap<String, Object>) _getCustomTypes(RELATIONSHIP_TYPES, null);
+        parseMetrics.start(Phase.IMPORT_RESOLUTION);
+        try {
+            return (LinkedHashMap<String, Object>) _getCustomTypes(RELATIONSHIP_TYPES, null);
+        } finally {
+            parseMetrics.stop(Phase.IMPORT_RESOLUTION);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -364,6 +506,46 @@ public class ToscaTemplate extends Object {
         return datatypes;
     }
 
+    private LinkedHashMap<String, Object> _resolveCustomDefs(Object alImports) {
+        parseMetrics.start(Phase.IMPORT_RESOLUTION);
+        try {
+            return _getAllCustomDefs(alImports);
+        } finally {
+            parseMetrics.stop(Phase.IMPORT_RESOLUTION);
+        }
+    }
+
+    /**
+     * Returns the custom definitions of a nested template. They are resolved the first time the
+     * template is substituted, and shared by every node substituted by the same template afterwards:
+     * the types are the same whichever node the topology is built for, only the inputs differ. The
+     * shared definitions are read-only, so a topology can't change those another one is built from.
+     * <p>
+     * The node templates of the topology are validated once as well, see
+     * {@link NestedTopologyPrototype}.
+     * <p>
+     * A template first found while merging the imports of another file resolves the imports that
+     * walk merged for it: the imports skipped there as already processed are skipped for the
+     * template as well.
+     *
+     * @param fileName  the file name of the nested template
+     * @param alImports the imports of the nested template
+     * @return the linked hash map containing all import definitions
+     */
+    @SuppressWarnings("unchecked")
+    private LinkedHashMap<String, Object> _resolveNestedCustomDefs(String fileName, Object alImports) {
+        LinkedHashMap<String, Object> customDefs = nestedCustomDefs.get(fileName);
+        if (customDefs != null) {
+            parseMetrics.cacheHit(ParseMetrics.Cache.NESTED_TYPES);
+            return customDefs;
+        }
+        parseMetrics.cacheMiss(ParseMetrics.Cache.NESTED_TYPES);
+        customDefs = (LinkedHashMap<String, Object>) ReadOnlyDefinitions.copyOf(
+                _resolveCustomDefs(nestedTemplateImports.getOrDefault(alImports, (List<Map<String, Object>>) alImports)));
+        nestedCustomDefs.put(fileName, customDefs);
+        return customDefs;
+    }
+
     /**
      * This method is used to get consolidated custom definitions from all imports
      * It is logically divided in two parts to handle imports; map and list formats.
@@ -376,9 +558,18 @@ public class ToscaTemplate extends Object {
      * @param alImports all imports which needs to be processed
      * @return the linked hash map containing all import definitions
      */
+    private LinkedHashMap<String, Object> _getAllCustomDefs(Object alImports) {
+        return _getAllCustomDefs(alImports, null);
+    }
 
+    /**
+     * @param alImports     all imports which needs to be processed
+     * @param mergedImports when not null, receives the imports which were not filtered as already
+     *                      processed, in the order they were merged
+     * @return the linked hash map containing all import definitions
+     */
     @SuppressWarnings("unchecked")
-    private LinkedHashMap<String, Object> _getAllCustomDefs(Object alImports) {
+    private LinkedHashMap<String, Object> _getAllCustomDefs(Object alImports, List<Map<String, Object>> mergedImports) {
 
 
         String types[] = {
@@ -399,15 +590,28 @@ public class ToscaTemplate extends Object {
                     singleImportList = filterImportsForRecursion(singleImportList, importNameDetails);
 
                     if (!singleImportList.get(0).isEmpty()) {
-                        LinkedHashMap<String, Object> customDefs = _getCustomTypes(types, new ArrayList<>(singleImportList));
+                        int nestedTemplates = nestedToscaTplsWithTopology.size();
+                        LinkedHashMap<String, Object> customDefs = _getImportedCustomTypes(types, singleImportList, importNameDetails);
                         processedImports.add(importNameDetails.get("importFileName"));
+                        if (mergedImports != null) {
+                            mergedImports.add(map);
+                        }
 
                         if (customDefs != null) {
                             customDefsFinal.putAll(customDefs);
 
                             if (customDefs.get(IMPORTS) != null) {
                                 resetPathForRecursiveImports(importNameDetails.get("importRelativeName"));
-                                LinkedHashMap<String, Object> importDefs = _getAllCustomDefs(customDefs.get(IMPORTS));
+                                LinkedHashMap<String, Object> importDefs;
+                                if (nestedToscaTplsWithTopology.size() > nestedTemplates) {
+                                    // the nested template found by this import resolves the imports left
+                                    // after this walk, see _resolveNestedCustomDefs
+                                    List<Map<String, Object>> nestedImports = new ArrayList<>();
+                                    importDefs = _getAllCustomDefs(customDefs.get(IMPORTS), nestedImports);
+                                    nestedTemplateImports.put(customDefs.get(IMPORTS), nestedImports);
+                                } else {
+                                    importDefs = _getAllCustomDefs(customDefs.get(IMPORTS));
+                                }
                                 customDefsFinal.putAll(importDefs);
                             }
                         }
@@ -432,6 +636,29 @@ public class ToscaTemplate extends Object {
         return customDefsFinal;
     }
 
+    /**
+     * Returns the custom definitions of a single import. The definitions of an import are loaded
+     * once per parse, keyed by the file and the import definition, which may prefix the type names:
+     * the main template and each nested template walk their imports again, to merge them in their
+     * order, but don't load and merge the import files again.
+     *
+     * @param types             the type sections to read from the import
+     * @param singleImportList  the import, filtered for recursion
+     * @param importNameDetails the import name details
+     * @return the custom definitions of the import, or null when it can't be loaded
+     */
+    private LinkedHashMap<String, Object> _getImportedCustomTypes(String[] types,
+                                                                  List<Map<String, Object>> singleImportList,
+                                                                  Map<String, String> importNameDetails) {
+        List<Object> key = Arrays.asList(importNameDetails.get("importFileName"), singleImportList.get(0));
+        if (importedCustomDefs.containsKey(key)) {
+            return importedCustomDefs.get(key);
+        }
+        LinkedHashMap<String, Object> customDefs = _getCustomTypes(types, new ArrayList<>(singleImportList));
+        importedCustomDefs.put(key, customDefs);
+        return customDefs;
+    }
+
     /**
      * This method is used to sort the imports in order so that same directory
      * imports will be processed first
@@ -440,23 +667,23 @@ public class ToscaTemplate extends Object {
      * @return the sorted list of imports
      */
     private List<Map<String, Object>> sortImports(List<Map<String, Object>> customImports) {
+        // the imports of the import files are read-only, the sorted imports are a new list
+        List<Map<String, Object>> sortedImports = new ArrayList<>();
         List<Map<String, Object>> finalList1 = new ArrayList<>();
         List<Map<String, Object>> finalList2 = new ArrayList<>();
-        Iterator<Map<String, Object>> itr = customImports.iterator();
-        while (itr.hasNext()) {
-            Map<String, Object> innerMap = itr.next();
+        for (Map<String, Object> innerMap : customImports) {
             if (innerMap.toString().contains("../")) {
                 finalList2.add(innerMap);
-                itr.remove();
             } else if (innerMap.toString().contains("/")) {
                 finalList1.add(innerMap);
-                itr.remove();
+            } else {
+                sortedImports.add(innerMap);
             }
         }
 
-        customImports.addAll(finalList1);
-        customImports.addAll(finalList2);
-        return customImports;
+        sortedImports.addAll(finalList1);
+        sortedImports.addAll(finalList2);
+        return sortedImports;
     }
 
     /**
@@ -482,7 +709,7 @@ public class ToscaTemplate extends Object {
         String tempFullPath = (Paths.get(path).toAbsolutePath().getParent()
                 .toString() + File.separator + importFileName.replace("../", "")).replace('\\', '/');
         String tempPartialPath = (Paths.get(path).toAbsolutePath().getParent().toString()).replace('\\', '/');
-        if (Files.exists(Paths.get(tempFullPath)))
+        if (_fileExists(tempFullPath))
             return tempFullPath;
         else
             return getPath(tempPartialPath, importFileName);
@@ -532,28 +759,22 @@ public class ToscaTemplate extends Object {
     private List<Map<String, Object>> filterImportsForRecursion(List<Map<String, Object>>
                                                                         customImports, Map<String,
             String> importNameDetails) {
+        // the imports of the import files are read-only, the filtered imports are new maps
+        boolean processed = processedImports.contains(importNameDetails.get("importFileName"));
+        List<Map<String, Object>> filteredImports = new ArrayList<>();
         for (Map<String, Object> map1 : customImports) {
-            for (Map.Entry<String, Object> entry : map1.entrySet()) {
-                Map innerMostMap = (Map) entry.getValue();
-                Iterator<Map.Entry<String, String>> it = innerMostMap.entrySet().iterator();
-                while (it.hasNext()) {
-                    it.next();
-                    if (processedImports.contains(importNameDetails.get("importFileName"))) {
-                        it.remove();
+            Map<String, Object> filtered = new LinkedHashMap<>();
+            if (!processed) {
+                // Remove Empty elements
+                for (Map.Entry<String, Object> entry : map1.entrySet()) {
+                    if (!((Map) entry.getValue()).isEmpty()) {
+                        filtered.put(entry.getKey(), entry.getValue());
                     }
                 }
             }
+            filteredImports.add(filtered);
         }
-
-        // Remove Empty elements
-        Iterator<Map<String, Object>> itr = customImports.iterator();
-        while (itr.hasNext()) {
-            Map innerMap = itr.next();
-            Predicate<Map> predicate = p -> p.values().isEmpty();
-            innerMap.values().removeIf(predicate);
-        }
-
-        return customImports;
+        return filteredImports;
     }
 
     @SuppressWarnings("unchecked")
@@ -578,7 +799,7 @@ public class ToscaTemplate extends Object {
         }
 
         if (alImports != null) {
-            ImportsLoader customService = new ImportsLoader(alImports, path, typeDefs, tpl);
+            ImportsLoader customService = new ImportsLoader(alImports, path, typeDefs, tpl, _csarArchive());
             ArrayList<LinkedHashMap<String, Object>> nestedToscaTpls = customService.getNestedToscaTpls();
             _updateNestedToscaTplsWithTopology(nestedToscaTpls);
 
@@ -630,17 +851,17 @@ public class ToscaTemplate extends Object {
                     (LinkedHashMap<String, Object>) me.getValue();
             for (NodeTemplate nt : tt.getNodeTemplates()) {
                 if (_isSubMappedNode(nt, toscaTpl)) {
-                    parsedParams = _getParamsForNestedTemplate(nt);
                     ArrayList<Object> alim = (ArrayList<Object>) toscaTpl.get(IMPORTS);
-                    LinkedHashMap<String, Object> topologyTpl =
-                            (LinkedHashMap<String, Object>) toscaTpl.get(TOPOLOGY_TEMPLATE);
+                    boolean recording = !nestedTopologies.containsKey(me.getKey());
+                    NestedTopologyPrototype prototype =
+                            nestedTopologies.computeIfAbsent(me.getKey(), k -> new NestedTopologyPrototype());
                     TopologyTemplate topologyWithSubMapping =
-                            new TopologyTemplate(topologyTpl,
-                                    _getAllCustomDefs(alim),
-                                    relationshipTypes,
-                                    parsedParams,
+                            _nestedTopologyTemplate(toscaTpl,
+                                    _resolveNestedCustomDefs(me.getKey(), alim),
+                                    _getParamsForNestedTemplate(tt, nt),
                                     nt,
-                                    resolveGetInput);
+                                    prototype,
+                                    recording);
                     nt.setOriginComponentTemplate(topologyWithSubMapping);
                     if (topologyWithSubMapping.getSubstitutionMappings() != null) {
                         // Record nested topology templates in top level template
@@ -655,6 +876,208 @@ public class ToscaTemplate extends Object {
         }
     }
 
+    /**
+     * Builds the topology of a nested template for the node it substitutes. The type definitions are
+     * read-only and shared by all the topologies built from the nested template; the template is
+     * copied, as the intrinsic functions of a topology are written back into it. The first topology
+     * built from the template records its validated node templates, the others bind a copy of them.
+     */
+    @SuppressWarnings("unchecked")
+    private TopologyTemplate _nestedTopologyTemplate(LinkedHashMap<String, Object> toscaTpl,
+                                                     LinkedHashMap<String, Object> customDefs,
+                                                     LinkedHashMap<String, Object> params,
+                                                     NodeTemplate nt,
+                                                     NestedTopologyPrototype prototype,
+                                                     boolean recording) {
+        try {
+            NestedTopologyPrototype.Binding binding = recording ? prototype.record() : prototype.bind();
+            return new TopologyTemplate(binding.topology((LinkedHashMap<String, Object>) toscaTpl.get(TOPOLOGY_TEMPLATE)),
+                    customDefs,
+                    relationshipTypes,
+                    params,
+                    nt,
+                    resolveGetInput,
+                    binding);
+        } finally {
+            if (recording) {
+                prototype.release();
+            }
+        }
+    }
+
+    // multi level nesting - a level at a time, the topologies of a level built in parallel
+    private void _handleNestedToscaTemplatesInParallel(TopologyTemplate tt) {
+        List<NestedTopologyTask> tasks = _nestedTopologyTasks(tt);
+        List<NestedTopologyTask> level = tasks;
+        for (int depth = 1; !level.isEmpty(); depth++) {
+            if (depth > MAX_LEVELS) {
+                log.error("ToscaTemplate - _handleNestedToscaTemplatesInParallel - Nested Topologies Loop: too many levels, aborting");
+                break;
+            }
+            _runNestedTopologyTasks(level);
+            List<NestedTopologyTask> nextLevel = new ArrayList<>();
+            for (NestedTopologyTask task : level) {
+                for (TopologyTemplate topology : task.substituted) {
+                    task.nested.addAll(_nestedTopologyTasks(topology));
+                }
+                nextLevel.addAll(task.nested);
+            }
+            level = nextLevel;
+        }
+        for (NestedTopologyTask task : tasks) {
+            _mergeNestedTopologyTask(task);
+        }
+    }
+
+    /**
+     * Returns a task per node of the topology substituted by a nested template, in the order
+     * _handleNestedToscaTemplatesWithTopology builds them. The custom definitions of the nested
+     * templates are resolved here, on the parsing thread, before any task of the level runs. The
+     * first task of a nested template records its node templates and the later ones wait for them:
+     * the parsing thread runs the tasks no worker started in order, so a task never waits for one
+     * that is not running.
+     */
+    @SuppressWarnings("unchecked")
+    private List<NestedTopologyTask> _nestedTopologyTasks(TopologyTemplate tt) {
+        // Reset Processed Imports for nested templates
+        this.processedImports = new HashSet<>();
+        List<NestedTopologyTask> tasks = new ArrayList<>();
+        for (Map.Entry<String, Object> me : nestedToscaTplsWithTopology.entrySet()) {
+            LinkedHashMap<String, Object> toscaTpl =
+                    (LinkedHashMap<String, Object>) me.getValue();
+            for (NodeTemplate nt : tt.getNodeTemplates()) {
+                if (_isSubMappedNode(nt, toscaTpl)) {
+                    NestedTopologyTask task = null;
+                    for (NestedTopologyTask t : tasks) {
+                        if (t.nt == nt) {
+                            task = t;
+                        }
+                    }
+                    if (task == null) {
+                        task = new NestedTopologyTask(nt, _getParamsForNestedTemplate(tt, nt));
+                        tasks.add(task);
+                    }
+                    task.fileNames.add(me.getKey());
+                    task.toscaTpls.add(toscaTpl);
+                    task.customDefs.add(_resolveNestedCustomDefs(me.getKey(), toscaTpl.get(IMPORTS)));
+                }
+            }
+        }
+        for (NestedTopologyTask task : tasks) {
+            for (String fileName : task.fileNames) {
+                task.recording.add(!nestedTopologies.containsKey(fileName));
+                task.prototypes.add(nestedTopologies.computeIfAbsent(fileName, k -> new NestedTopologyPrototype()));
+            }
+        }
+        return tasks;
+    }
+
+    private void _runNestedTopologyTasks(List<NestedTopologyTask> tasks) {
+        for (NestedTopologyTask task : tasks) {
+            try {
+                parseContext.getNestedTemplatesExecutor().execute(task);
+            } catch (RejectedExecutionException e) {
+                log.debug("ToscaTemplate - _runNestedTopologyTasks - executor rejected a task, building it on the parsing thread");
+            }
+        }
+        // build the topologies no worker has started yet: a parse running on the executor itself can't starve it
+        for (NestedTopologyTask task : tasks) {
+            task.run();
+        }
+        for (NestedTopologyTask task : tasks) {
+            task.await();
+        }
+    }
+
+    private void _mergeNestedTopologyTask(NestedTopologyTask task) {
+        for (JToscaValidationIssue issue : task.context.getCollector().getValidationIssues().values()) {
+            parseContext.getCollector().appendValidationIssue(issue);
+        }
+        parseMetrics.merge(task.context.getParseMetrics());
+        for (NestedTopologyTask nested : task.nested) {
+            _mergeNestedTopologyTask(nested);
+        }
+    }
+
+    /**
+     * Builds the topologies of the nested templates substituting a node, like an iteration of
+     * _handleNestedToscaTemplatesWithTopology, on a fork of the context of the parse.
+     */
+    private final class NestedTopologyTask implements Runnable {
+        private final NodeTemplate nt;
+        private final LinkedHashMap<String, Object> params;
+        private final List<String> fileNames = new ArrayList<>();
+        private final List<LinkedHashMap<String, Object>> toscaTpls = new ArrayList<>();
+        private final List<LinkedHashMap<String, Object>> customDefs = new ArrayList<>();
+        private final List<NestedTopologyPrototype> prototypes = new ArrayList<>();
+        private final List<Boolean> recording = new ArrayList<>();
+        private final List<TopologyTemplate> substituted = new ArrayList<>();
+        private final List<NestedTopologyTask> nested = new ArrayList<>();
+        private final Thread parsingThread = Thread.currentThread();
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private ParseContext context;
+        private Throwable failure;
+
+        private NestedTopologyTask(NodeTemplate nt, LinkedHashMap<String, Object> params) {
+            this.nt = nt;
+            this.params = params;
+        }
+
+        @Override
+        public void run() {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            context = parseContext.fork();
+            try (ParseContext.Scope scope = context.enter()) {
+                build();
+            } catch (RuntimeException | Error e) {
+                failure = e;
+            } finally {
+                // the node templates of a template this task skipped are validated by the next tasks
+                for (int i = 0; i < prototypes.size(); i++) {
+                    if (recording.get(i)) {
+                        prototypes.get(i).release();
+                    }
+                }
+                if (Thread.currentThread() != parsingThread) {
+                    // the allocations of the parsing thread are counted by the metrics of the parse already
+                    context.getParseMetrics().finish(null);
+                }
+                done.countDown();
+            }
+        }
+
+        private void build() {
+            for (int i = 0; i < toscaTpls.size() && nt.getSubMappingToscaTemplate() == null; i++) {
+                TopologyTemplate topologyWithSubMapping =
+                        _nestedTopologyTemplate(toscaTpls.get(i), customDefs.get(i), params, nt,
+                                prototypes.get(i), recording.get(i));
+                nt.setOriginComponentTemplate(topologyWithSubMapping);
+                if (topologyWithSubMapping.getSubstitutionMappings() != null) {
+                    nt.setSubMappingToscaTemplate(topologyWithSubMapping.getSubstitutionMappings());
+                    substituted.add(topologyWithSubMapping);
+                }
+            }
+        }
+
+        private void await() {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while building the nested topologies", e);
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+        }
+    }
+
 //	private void _handleNestedToscaTemplatesWithTopology() {
 //		for(Map.Entry<String,Object> me: nestedToscaTplsWithTopology.entrySet()) {
 //			String fname = me.getKey();
@@ -737,28 +1160,37 @@ public class ToscaTemplate extends Object {
     }
 
     private String _getPath(String _path) throws JToscaException {
-        if (_path.toLowerCase().endsWith(".yaml") || _path.toLowerCase().endsWith(".yml")) {
+        if (csarContent != null) {
+            // a CSAR archive held in memory
+            CSAR csar = new CSAR(_path, csarContent);
+            csarContent = null;
+            return _getCsarMainTemplatePath(csar);
+        } else if (_path.toLowerCase().endsWith(".yaml") || _path.toLowerCase().endsWith(".yml")) {
             return _path;
         } else if (_path.toLowerCase().endsWith(".zip") || _path.toLowerCase().endsWith(".csar")) {
             // a CSAR archive
-            CSAR csar = new CSAR(_path, isFile);
-            if (csar.validate()) {
-                try {
-                    csar.decompress();
-                    metaProperties = csar.getMetaProperties();
-                } catch (IOException e) {
-                    log.error("ToscaTemplate - _getPath - IOException trying to decompress {}", _path);
-                    return null;
-                }
-                isFile = true; // the file has been decompressed locally
-                csar.cleanup();
-                csarTempDir = csar.getTempDir();
-                return csar.getTempDir() + File.separator + csar.getMainTemplate();
-            }
+            return _getCsarMainTemplatePath(new CSAR(_path, isFile));
         } else {
             ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE248", "ValueError: " + _path + " is not a valid file"));
             return null;
         }
+    }
+
+    private String _getCsarMainTemplatePath(CSAR csar) throws JToscaException {
+        boolean valid;
+        parseMetrics.start(Phase.CSAR_VALIDATION);
+        try {
+            valid = csar.validate();
+        } finally {
+            parseMetrics.stop(Phase.CSAR_VALIDATION);
+        }
+        if (valid) {
+            metaProperties = csar.getMetaProperties();
+            isFile = true; // the files are read directly from the archive
+            this.csar = csar;
+            return csar.getArchive().getPath(csar.getMainTemplate());
+        }
+        csar.cleanup();
         return null;
     }
 
@@ -820,6 +1252,24 @@ public class ToscaTemplate extends Object {
         return nodeTemplates;
     }
 
+    public ToscaGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return the context of the parse, holding its validation issues; its caches are released once the parse is over.
+     */
+    public ParseContext getParseContext() {
+        return parseContext;
+    }
+
+    /**
+     * @return the wall time, allocation and counters of the parse of this template
+     */
+    public ParseMetrics getParseMetrics() {
+        return parseMetrics;
+    }
+
     public LinkedHashMap<String, Object> getMetaProperties(String propertiesFile) {
         return metaProperties.get(propertiesFile);
     }
@@ -844,17 +1294,18 @@ public class ToscaTemplate extends Object {
         return false;
     }
 
-    private LinkedHashMap<String, Object> _getParamsForNestedTemplate(NodeTemplate nt) {
-        // Return total params for nested_template
+    private LinkedHashMap<String, Object> _getParamsForNestedTemplate(TopologyTemplate tt, NodeTemplate nt) {
+        // Return total params for nested_template: those of the topology above, bound over by the
+        // properties of the substituted node
         LinkedHashMap<String, Object> pparams;
-        if (parsedParams != null) {
-            pparams = parsedParams;
+        if (tt.getParsedParams() != null) {
+            pparams = new LinkedHashMap<>(tt.getParsedParams());
         } else {
             pparams = new LinkedHashMap<String, Object>();
         }
         if (nt != null) {
-            for (String pname : nt.getProperties().keySet()) {
-                pparams.put(pname, nt.getPropertyValue(pname));
+            for (Property property : nt.getPropertiesByName().values()) {
+                pparams.put(property.getName(), property.getValue());
             }
         }
         return pparams;
@@ -920,7 +1371,6 @@ public class ToscaTemplate extends Object {
                 ", nestedToscaTplsWithTopology=" + nestedToscaTplsWithTopology +
                 ", nestedToscaTemplatesWithTopology=" + nestedToscaTemplatesWithTopology +
                 ", graph=" + graph +
-                ", csarTempDir='" + csarTempDir + '\'' +
                 ", nestingLoopCounter=" + nestingLoopCounter +
                 ", dataTypes=" + dataTypes +
                 '}';
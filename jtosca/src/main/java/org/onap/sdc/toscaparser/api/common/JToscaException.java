@@ -24,6 +24,8 @@ public class JToscaException extends Exception {
 
     private static final long serialVersionUID = 1L;
     private String code;
+    private transient ValidationIssueCollector validationIssueCollector;
+    private transient ParseMetrics parseMetrics;
 
     public JToscaException(String message, String code) {
         super(message);
@@ -38,6 +40,28 @@ public class JToscaException extends Exception {
         this.code = code;
     }
 
+    /**
+     * @return the validation issues found by the parse that failed, or null if it did not come from a parse.
+     */
+    public ValidationIssueCollector getValidationIssueCollector() {
+        return validationIssueCollector;
+    }
+
+    public void setValidationIssueCollector(ValidationIssueCollector validationIssueCollector) {
+        this.validationIssueCollector = validationIssueCollector;
+    }
+
+    /**
+     * @return the metrics of the parse that failed, or null if it did not come from a parse.
+     */
+    public ParseMetrics getParseMetrics() {
+        return parseMetrics;
+    }
+
+    public void setParseMetrics(ParseMetrics parseMetrics) {
+        this.parseMetrics = parseMetrics;
+    }
+
     //JE1001 - Meta file missing
     //JE1002 - Invalid yaml content
     //JE1003 - Entry-Definition not defined in meta file
@@ -0,0 +1,314 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api.common;
+
+import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall time, allocation and counters of a single parse, returned with its ToscaTemplate.
+ * <p>
+ * Phases nest: the time of a phase includes the phases run within it, e.g. {@link Phase#NESTED_TEMPLATES}
+ * includes the import resolution and topology build of the nested templates, and {@link Phase#TOPOLOGY_BUILD}
+ * includes their function processing and graph build. A phase entered again while it runs, such as the
+ * recursive import resolution, is only measured once.
+ * <p>
+ * Cache lookups are counted as hits and misses per {@link Cache}; the process wide caches count the lookups
+ * made by this parse only.
+ * <p>
+ * Allocation is measured with the per thread allocation counter of the JVM, when it supports one;
+ * otherwise the allocated bytes are reported as -1.
+ * <p>
+ * The metrics are filled by the thread running the parse and are not thread safe.
+ */
+public class ParseMetrics {
+
+    public enum Phase {
+        CSAR_VALIDATION,
+        UNZIP,
+        YAML_LOAD,
+        IMPORT_RESOLUTION,
+        TOPOLOGY_BUILD,
+        FUNCTION_PROCESSING,
+        NESTED_TEMPLATES,
+        GRAPH_BUILD
+    }
+
+    public enum Cache {
+        TYPES,
+        ENTRY_SCHEMAS,
+        CONSTRAINTS,
+        IMPORTS,
+        NESTED_TYPES,
+        NESTED_TOPOLOGIES
+    }
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final boolean ALLOCATION_SUPPORTED = isAllocationSupported();
+    private static final int PHASES = Phase.values().length;
+    private static final int CACHES = Cache.values().length;
+
+    // collects nothing, used when no parse is running on the thread
+    private static final ParseMetrics DISABLED = new ParseMetrics(false);
+
+    private final boolean enabled;
+    private final long startTime;
+    private final long startAllocation;
+    private long wallTime;
+    private long allocatedBytes = -1;
+
+    private final int[] depths = new int[PHASES];
+    private final long[] phaseStartTimes = new long[PHASES];
+    private final long[] phaseStartAllocations = new long[PHASES];
+    private final long[] phaseWallTimes = new long[PHASES];
+    private final long[] phaseAllocatedBytes = new long[PHASES];
+    private final long[] cacheHits = new long[CACHES];
+    private final long[] cacheMisses = new long[CACHES];
+
+    private long mergedAllocatedBytes;
+    private int nodeTemplates;
+    private int importsLoaded;
+    private int functionsFound;
+    private Map<String, Integer> issuesByCode = Collections.emptyMap();
+
+    public ParseMetrics() {
+        this(true);
+    }
+
+    private ParseMetrics(boolean enabled) {
+        this.enabled = enabled;
+        startTime = enabled ? System.nanoTime() : 0;
+        startAllocation = enabled ? currentThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * @return the metrics of the parse running on this thread, or metrics collecting nothing when there is none
+     */
+    public static ParseMetrics current() {
+        ParseMetrics metrics = ThreadLocalsHolder.getParseMetrics();
+        return metrics != null ? metrics : DISABLED;
+    }
+
+    public void start(Phase phase) {
+        if (enabled && depths[phase.ordinal()]++ == 0) {
+            phaseStartTimes[phase.ordinal()] = System.nanoTime();
+            phaseStartAllocations[phase.ordinal()] = currentThreadAllocatedBytes();
+        }
+    }
+
+    public void stop(Phase phase) {
+        if (enabled && --depths[phase.ordinal()] == 0) {
+            int i = phase.ordinal();
+            phaseWallTimes[i] += System.nanoTime() - phaseStartTimes[i];
+            if (phaseStartAllocations[i] >= 0) {
+                phaseAllocatedBytes[i] += currentThreadAllocatedBytes() - phaseStartAllocations[i];
+            }
+        }
+    }
+
+    public void addNodeTemplates(int count) {
+        if (enabled) {
+            nodeTemplates += count;
+        }
+    }
+
+    public void importLoaded() {
+        if (enabled) {
+            importsLoaded++;
+        }
+    }
+
+    public void functionFound() {
+        if (enabled) {
+            functionsFound++;
+        }
+    }
+
+    public void cacheHit(Cache cache) {
+        if (enabled) {
+            cacheHits[cache.ordinal()]++;
+        }
+    }
+
+    public void cacheMiss(Cache cache) {
+        if (enabled) {
+            cacheMisses[cache.ordinal()]++;
+        }
+    }
+
+    /**
+     * Adds the metrics of a part of the parse run by a task, on another thread or not: the wall times
+     * and allocations of its phases, its counters and, when the task finished its metrics, the bytes it
+     * allocated. The wall times of phases run in parallel add up, so they can exceed the wall time of the parse.
+     */
+    public void merge(ParseMetrics task) {
+        if (!enabled || !task.enabled) {
+            return;
+        }
+        for (int i = 0; i < PHASES; i++) {
+            phaseWallTimes[i] += task.phaseWallTimes[i];
+            phaseAllocatedBytes[i] += task.phaseAllocatedBytes[i];
+        }
+        for (int i = 0; i < CACHES; i++) {
+            cacheHits[i] += task.cacheHits[i];
+            cacheMisses[i] += task.cacheMisses[i];
+        }
+        nodeTemplates += task.nodeTemplates;
+        importsLoaded += task.importsLoaded;
+        functionsFound += task.functionsFound;
+        if (task.allocatedBytes > 0) {
+            mergedAllocatedBytes += task.allocatedBytes;
+        }
+    }
+
+    /**
+     * Ends the parse: records its total wall time and allocation and counts the issues of the collector by code.
+     */
+    public void finish(ValidationIssueCollector collector) {
+        if (!enabled) {
+            return;
+        }
+        wallTime = System.nanoTime() - startTime;
+        if (startAllocation >= 0) {
+            allocatedBytes = currentThreadAllocatedBytes() - startAllocation + mergedAllocatedBytes;
+        }
+        Map<String, Integer> counts = new TreeMap<>();
+        if (collector != null) {
+            for (JToscaValidationIssue issue : collector.getValidationIssues().values()) {
+                counts.merge(issue.getCode(), 1, Integer::sum);
+            }
+        }
+        issuesByCode = Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * @return the wall time of the whole parse, in nanoseconds
+     */
+    public long getWallTimeNanos() {
+        return wallTime;
+    }
+
+    /**
+     * @return the bytes allocated by the whole parse, -1 when the JVM does not measure it
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return the wall time spent in the phase, in nanoseconds
+     */
+    public long getWallTimeNanos(Phase phase) {
+        return phaseWallTimes[phase.ordinal()];
+    }
+
+    /**
+     * @return the bytes allocated in the phase, -1 when the JVM does not measure it
+     */
+    public long getAllocatedBytes(Phase phase) {
+        return ALLOCATION_SUPPORTED ? phaseAllocatedBytes[phase.ordinal()] : -1;
+    }
+
+    /**
+     * @return the number of node templates built, those of every nested topology included
+     */
+    public int getNodeTemplateCount() {
+        return nodeTemplates;
+    }
+
+    /**
+     * @return the number of import files read; a file is read once per parse, unless it is imported by URL
+     */
+    public int getImportsLoaded() {
+        return importsLoaded;
+    }
+
+    /**
+     * @return the number of intrinsic functions found in the templates
+     */
+    public int getFunctionsFound() {
+        return functionsFound;
+    }
+
+    /**
+     * @return the number of lookups the cache answered
+     */
+    public long getCacheHits(Cache cache) {
+        return cacheHits[cache.ordinal()];
+    }
+
+    /**
+     * @return the number of lookups the cache could not answer
+     */
+    public long getCacheMisses(Cache cache) {
+        return cacheMisses[cache.ordinal()];
+    }
+
+    /**
+     * @return the number of validation issues per JE code, sorted by code
+     */
+    public Map<String, Integer> getIssuesByCode() {
+        return issuesByCode;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ParseMetrics{wallTimeMs=").append(TimeUnit.NANOSECONDS.toMillis(wallTime))
+                .append(", allocatedBytes=").append(allocatedBytes);
+        for (Phase phase : Phase.values()) {
+            sb.append(", ").append(phase).append('=')
+                    .append(TimeUnit.NANOSECONDS.toMillis(getWallTimeNanos(phase))).append("ms/")
+                    .append(getAllocatedBytes(phase)).append('B');
+        }
+        sb.append(", nodeTemplates=").append(nodeTemplates)
+                .append(", importsLoaded=").append(importsLoaded)
+                .append(", functionsFound=").append(functionsFound);
+        for (Cache cache : Cache.values()) {
+            sb.append(", ").append(cache).append("Cache=")
+                    .append(getCacheHits(cache)).append('/').append(getCacheMisses(cache));
+        }
+        return sb.append(", issuesByCode=").append(issuesByCode)
+                .append('}').toString();
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        if (!ALLOCATION_SUPPORTED) {
+            return -1;
+        }
+        return ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static boolean isAllocationSupported() {
+        try {
+            return THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean
+                    && ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).isThreadAllocatedMemorySupported()
+                    && ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).isThreadAllocatedMemoryEnabled();
+        } catch (LinkageError | UnsupportedOperationException e) {
+            return false;
+        }
+    }
+}
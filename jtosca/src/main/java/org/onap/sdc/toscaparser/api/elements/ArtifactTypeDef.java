@@ -47,7 +47,7 @@ public class ArtifactTypeDef extends StatefulEntityType {
         }
         if (parentArtif != null && !parentArtif.isEmpty()) {
             while (!parentArtif.equals("tosca.artifacts.Root")) {
-                Object ob = TOSCA_DEF.get(parentArtif);
+                Object ob = getToscaDef().get(parentArtif);
                 artifacts.put(parentArtif, ob);
                 parentArtif =
                         (String) ((LinkedHashMap<String, Object>) ob).get("derived_from");
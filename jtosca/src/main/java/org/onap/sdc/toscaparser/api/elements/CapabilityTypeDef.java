@@ -49,9 +49,10 @@ public class CapabilityTypeDef extends StatefulEntityType {
         parentCapabilities = getParentCapabilities(customDef);
     }
 
+    @Override
     @SuppressWarnings("unchecked")
-    public ArrayList<PropertyDef> getPropertiesDefObjects() {
-        // Return a list of property definition objects
+    protected ArrayList<PropertyDef> resolvePropertiesDefObjects() {
+        // Return a list of property definition objects, including the ones of the parent capabilities
         ArrayList<PropertyDef> propsdefs = new ArrayList<>();
         LinkedHashMap<String, Object> parentProperties = new LinkedHashMap<>();
         if (parentCapabilities != null) {
@@ -82,19 +83,12 @@ public class CapabilityTypeDef extends StatefulEntityType {
         return propsdefs;
     }
 
-    public LinkedHashMap<String, PropertyDef> getPropertiesDef() {
-        LinkedHashMap<String, PropertyDef> pds = new LinkedHashMap<>();
-        for (PropertyDef pd : getPropertiesDefObjects()) {
-            pds.put(pd.getName(), pd);
-        }
-        return pds;
-    }
-
+    @Override
     public PropertyDef getPropertyDefValue(String pdname) {
         // Return the definition of a given property name
-        LinkedHashMap<String, PropertyDef> propsDef = getPropertiesDef();
-        if (propsDef != null && propsDef.get(pdname) != null) {
-            return (PropertyDef) propsDef.get(pdname).getPDValue();
+        PropertyDef pd = getPropertiesDefByName().get(pdname);
+        if (pd != null) {
+            return (PropertyDef) pd.getPDValue();
         }
         return null;
     }
@@ -106,8 +100,8 @@ public class CapabilityTypeDef extends StatefulEntityType {
         if (parentCap != null) {
             String sParentCap = parentCap.getType();
             while (!sParentCap.equals(TOSCA_TYPEURI_CAPABILITY_ROOT)) {
-                if (TOSCA_DEF.get(sParentCap) != null) {
-                    capabilities.put(sParentCap, TOSCA_DEF.get(sParentCap));
+                if (getToscaDef().get(sParentCap) != null) {
+                    capabilities.put(sParentCap, getToscaDef().get(sParentCap));
                 } else if (customDef != null && customDef.get(sParentCap) != null) {
                     capabilities.put(sParentCap, customDef.get(sParentCap));
                 }
@@ -124,7 +118,7 @@ public class CapabilityTypeDef extends StatefulEntityType {
         }
         String pnode = derivedFrom(defs);
         if (pnode != null && !pnode.isEmpty()) {
-            return new CapabilityTypeDef(name, pnode, nodetype, customDef);
+            return TypeRegistry.current(getToscaDefinitions()).getCapabilityType(name, pnode, nodetype, customDef);
         }
         return null;
     }
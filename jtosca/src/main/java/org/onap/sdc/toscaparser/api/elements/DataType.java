@@ -20,12 +20,19 @@
 
 package org.onap.sdc.toscaparser.api.elements;
 
+import org.onap.sdc.toscaparser.api.elements.constraints.Schema;
+
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DataType extends StatefulEntityType {
 
     LinkedHashMap<String, Object> customDef;
+    private volatile ValidationPlan validationPlan;
 
     public DataType(String _dataTypeName, LinkedHashMap<String, Object> _customDef) {
         super(_dataTypeName, DATATYPE_NETWORK_PREFIX, _customDef);
@@ -38,7 +45,7 @@ public class DataType extends StatefulEntityType {
         if (defs != null) {
             String ptype = derivedFrom(defs);
             if (ptype != null) {
-                return new DataType(ptype, customDef);
+                return TypeRegistry.current(getToscaDefinitions()).getDataType(ptype, customDef);
             }
         }
         return null;
@@ -65,26 +72,118 @@ public class DataType extends StatefulEntityType {
 
     public LinkedHashMap<String, PropertyDef> getAllProperties() {
         // Return a dictionary of all property definition name-object pairs
-        LinkedHashMap<String, PropertyDef> pno = new LinkedHashMap<>();
-        for (PropertyDef pd : getAllPropertiesObjects()) {
-            pno.put(pd.getName(), pd);
-        }
-        return pno;
+        return new LinkedHashMap<>(getValidationPlan().getProperties());
     }
 
     public Object getAllPropertyValue(String name) {
         // Return the value of a given property name
-        LinkedHashMap<String, PropertyDef> propsDef = getAllProperties();
-        if (propsDef != null && propsDef.get(name) != null) {
-            return propsDef.get(name).getPDValue();
+        PropertyDef pd = getValidationPlan().getProperties().get(name);
+        if (pd != null) {
+            return pd.getPDValue();
         }
         return null;
     }
 
+    /**
+     * Returns what validating a value of this data type needs, derived once per type.
+     */
+    public ValidationPlan getValidationPlan() {
+        ValidationPlan plan = validationPlan;
+        if (plan == null) {
+            LinkedHashMap<String, PropertyDef> properties = new LinkedHashMap<>();
+            for (PropertyDef pd : getAllPropertiesObjects()) {
+                properties.put(pd.getName(), pd);
+            }
+            plan = new ValidationPlan(properties, defs);
+            validationPlan = plan;
+        }
+        return plan;
+    }
+
     public LinkedHashMap<String, Object> getDefs() {
         return defs;
     }
 
+    /**
+     * The properties of a data type and of its parent types, with their required fields, default
+     * values and schemas, so that the values of a type are checked without resolving it again.
+     * Schemas, and the constraints they hold, are built the first time a value uses them.
+     */
+    public static final class ValidationPlan {
+
+        private final Map<String, PropertyDef> properties;
+        private final List<String> requiredProperties;
+        private final Map<String, Object> defaultValues;
+        private final LinkedHashMap<String, Object> defs;
+        private final ConcurrentHashMap<String, Schema> propertySchemas = new ConcurrentHashMap<>();
+        private volatile Schema valueSchema;
+
+        private ValidationPlan(LinkedHashMap<String, PropertyDef> properties, LinkedHashMap<String, Object> defs) {
+            ArrayList<String> required = new ArrayList<>();
+            LinkedHashMap<String, Object> defaults = new LinkedHashMap<>();
+            for (PropertyDef pd : properties.values()) {
+                if (pd.isRequired()) {
+                    required.add(pd.getName());
+                }
+                if (pd.getDefault() != null) {
+                    defaults.put(pd.getName(), pd.getDefault());
+                }
+            }
+            this.properties = Collections.unmodifiableMap(properties);
+            this.requiredProperties = Collections.unmodifiableList(required);
+            this.defaultValues = Collections.unmodifiableMap(defaults);
+            this.defs = defs;
+        }
+
+        /**
+         * @return the property definitions by name, read-only
+         */
+        public Map<String, PropertyDef> getProperties() {
+            return properties;
+        }
+
+        public boolean isAllowed(String name) {
+            return properties.containsKey(name);
+        }
+
+        /**
+         * @return the names of the required properties, in declaration order
+         */
+        public List<String> getRequiredProperties() {
+            return requiredProperties;
+        }
+
+        /**
+         * @return the default values by property name, in declaration order
+         */
+        public Map<String, Object> getDefaultValues() {
+            return defaultValues;
+        }
+
+        /**
+         * @return the schema of a property, or null if the type has no such property
+         */
+        public Schema getPropertySchema(String name) {
+            PropertyDef pd = properties.get(name);
+            if (pd == null) {
+                return null;
+            }
+            return propertySchemas.computeIfAbsent(name, n -> new Schema(n, pd.getSchema()));
+        }
+
+        /**
+         * @return the schema of a type derived from a simple type, holding its constraints
+         */
+        public Schema getValueSchema() {
+            Schema schema = valueSchema;
+            if (schema == null) {
+                schema = new Schema(null, defs);
+                valueSchema = schema;
+            }
+            return schema;
+        }
+    }
+
 }
 
 /*python
@@ -23,11 +23,19 @@ package org.onap.sdc.toscaparser.api.elements;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import org.onap.sdc.toscaparser.api.common.JToscaValidationIssue;
 import org.onap.sdc.toscaparser.api.utils.CopyUtils;
+import org.onap.sdc.toscaparser.api.utils.DefinitionsSnapshot;
+import org.onap.sdc.toscaparser.api.utils.ParseContext;
 import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
 import org.onap.sdc.toscaparser.api.extensions.ExtTools;
 import org.slf4j.Logger;
@@ -73,6 +81,11 @@ public class EntityType {
 
     @SuppressWarnings("unchecked")
     private static LinkedHashMap<String, Object> loadTdf() {
+        // precompiled by the build, see DefinitionsSnapshot
+        LinkedHashMap<String, Object> snapshot = DefinitionsSnapshot.load(TOSCA_DEFINITION_1_0_YAML);
+        if (snapshot != null) {
+            return snapshot;
+        }
         String toscaDefLocation = EntityType.class.getClassLoader().getResource(TOSCA_DEFINITION_1_0_YAML).getFile();
         InputStream input = EntityType.class.getClassLoader().getResourceAsStream(TOSCA_DEFINITION_1_0_YAML);
         if (input == null) {
@@ -84,20 +97,105 @@ public class EntityType {
         return (LinkedHashMap<String, Object>) loaded;
     }
 
-    // Map of definition with pre-loaded values of TOSCA_DEF_FILE_SECTIONS
-    public static LinkedHashMap<String, Object> TOSCA_DEF;
-
-    static {
-        TOSCA_DEF = new LinkedHashMap<String, Object>();
+    // Map of definition with pre-loaded values of TOSCA_DEF_FILE_SECTIONS.
+    // It is never modified once loaded, down to the definitions it holds: the definitions of
+    // extension versions are added to a copy used by the parses declaring that version, see
+    // updateDefinitions, and getDefinition completes a copy of the definitions it inherits into
+    @SuppressWarnings("unchecked")
+    private static final LinkedHashMap<String, Object> NORMATIVE_DEFINITIONS =
+            (LinkedHashMap<String, Object>) ReadOnlyDefinitions.copyOf(loadNormativeDefinitions());
+
+    /**
+     * The normative type definitions, read-only.
+     *
+     * @deprecated use {@link #getToscaDef()}, which also returns the definitions of the extension version
+     * the template being parsed declares; assigning this field is not seen by the parser.
+     */
+    @Deprecated
+    public static LinkedHashMap<String, Object> TOSCA_DEF = NORMATIVE_DEFINITIONS;
+
+    // normative definitions extended with the definitions of an extension version, keyed by version
+    private static final ConcurrentHashMap<String, Map<String, Object>> EXTENDED_TOSCA_DEFS = new ConcurrentHashMap<>();
+
+    private static LinkedHashMap<String, Object> loadNormativeDefinitions() {
+        LinkedHashMap<String, Object> toscaDef = new LinkedHashMap<String, Object>();
         for (String section : TOSCA_DEF_SECTIONS) {
             @SuppressWarnings("unchecked")
             LinkedHashMap<String, Object> value = (LinkedHashMap<String, Object>) TOSCA_DEF_LOAD_AS_IS.get(section);
             if (value != null) {
                 for (String key : value.keySet()) {
-                    TOSCA_DEF.put(key, value.get(key));
+                    toscaDef.put(key, value.get(key));
+                }
+            }
+        }
+        mergeInheritedProperties(toscaDef, toscaDef.keySet());
+        return toscaDef;
+    }
+
+    /**
+     * Returns the type definitions of the parse running on the current thread: the normative
+     * definitions, extended with those of the extension version the template declares, if any.
+     * The returned definitions are shared and read-only.
+     */
+    public static Map<String, Object> getToscaDef() {
+        Map<String, Object> toscaDef = ThreadLocalsHolder.getToscaDefinitions();
+        return toscaDef != null ? toscaDef : NORMATIVE_DEFINITIONS;
+    }
+
+    /**
+     * Runs a resolution against the given type definitions. While the parse they belong to runs they are
+     * the definitions of the current thread already; once it is over they are bound to the current thread
+     * for the duration of the resolution, so that the types and templates of a template declaring an
+     * extension version still resolve its extension types when they are queried after the parse.
+     *
+     * @param toscaDef the definitions of a parse, see {@link #getToscaDefinitions()}.
+     */
+    public static <T> T resolveWith(Map<String, Object> toscaDef, Supplier<T> resolution) {
+        if (toscaDef == null || toscaDef == getToscaDef()) {
+            return resolution.get();
+        }
+        try (ParseContext.Scope ignored = ParseContext.resolving(toscaDef).enter()) {
+            return resolution.get();
+        }
+    }
+
+    /**
+     * getDefinition(PROPERTIES) folds the inherited properties into the definition map of the
+     * type it is called on. The definitions are shared by all parses, so this is done once up
+     * front for all of them, leaving getDefinition with nothing to add concurrently.
+     *
+     * @param definitions the type definitions, keyed by type name
+     * @param types       the types to complete, the others are complete already and left untouched
+     */
+    private static void mergeInheritedProperties(Map<String, Object> definitions, Set<String> types) {
+        for (String type : types) {
+            mergeInheritedProperties(definitions, types, type, 0);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LinkedHashMap<String, Object> mergeInheritedProperties(
+            Map<String, Object> definitions, Set<String> types, String type, int depth) {
+        Object def = definitions.get(type);
+        if (!(def instanceof LinkedHashMap) || depth > definitions.size()) {
+            return null;
+        }
+        LinkedHashMap<String, Object> typeDef = (LinkedHashMap<String, Object>) def;
+        Object value = typeDef.get(PROPERTIES);
+        Object parent = typeDef.get(DERIVED_FROM);
+        if (parent instanceof String) {
+            LinkedHashMap<String, Object> inherited =
+                    mergeInheritedProperties(definitions, types, (String) parent, depth + 1);
+            if (inherited != null) {
+                if (value == null) {
+                    return inherited;
+                }
+                if (types.contains(type)) {
+                    ((LinkedHashMap<String, Object>) value).putAll(inherited);
                 }
             }
         }
+        return value instanceof LinkedHashMap ? (LinkedHashMap<String, Object>) value : null;
     }
 
     public static final String DEPENDSON = "tosca.relationships.DependsOn";
@@ -128,13 +226,68 @@ public class EntityType {
     public static final String DATATYPE_NETWORK_PREFIX = DATATYPE_PREFIX + "network.";
     public static final String TOSCA = "tosca";
 
+    private static final Object NO_VALUE = new Object();
+
     protected String type;
     protected LinkedHashMap<String, Object> defs = null;
+    private volatile List<EntityType> ancestors;
+    private volatile Set<String> ancestorTypes;
+    private final Map<String, Object> inheritedValues = new ConcurrentHashMap<>();
+    private final Map<String, Object> definitions = new ConcurrentHashMap<>();
+    // the definitions of the parse this type is resolved in, its related types are resolved against them
+    private final Map<String, Object> toscaDefinitions = getToscaDef();
 
     public Object getParentType() {
         return null;
     }
 
+    /**
+     * Returns the type definitions this type was resolved against: the normative definitions, extended
+     * with those of the extension version the template declares, if any. They are shared and read-only.
+     */
+    public Map<String, Object> getToscaDefinitions() {
+        return toscaDefinitions;
+    }
+
+    /**
+     * Returns the types this type is derived from, nearest parent first.
+     * The chain is resolved once per instance; parent types are interned by the {@link TypeRegistry}
+     * of the running parse, so the chains of types sharing an ancestor share its instances too.
+     */
+    public List<EntityType> getAncestors() {
+        List<EntityType> result = ancestors;
+        if (result == null) {
+            List<EntityType> chain = new ArrayList<>();
+            EntityType p = (EntityType) getParentType();
+            while (p != null) {
+                chain.add(p);
+                p = (EntityType) p.getParentType();
+            }
+            result = Collections.unmodifiableList(chain);
+            ancestors = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the names of the types this type is derived from, up to the first ancestor without a type.
+     */
+    public Set<String> getAncestorTypes() {
+        Set<String> result = ancestorTypes;
+        if (result == null) {
+            Set<String> names = new HashSet<>();
+            for (EntityType p : getAncestors()) {
+                if (p.type == null || p.type.isEmpty()) {
+                    break;
+                }
+                names.add(p.type);
+            }
+            result = Collections.unmodifiableSet(names);
+            ancestorTypes = result;
+        }
+        return result;
+    }
+
     public String derivedFrom(LinkedHashMap<String, Object> defs) {
         // Return a type this type is derived from
         return (String) entityValue(defs, "derived_from");
@@ -146,13 +299,8 @@ public class EntityType {
         // False otherwise.
         if (type == null || this.type.isEmpty()) {
             return false;
-        } else if (type == type_str) {
-            return true;
-        } else if (getParentType() != null) {
-            return ((EntityType) getParentType()).isDerivedFrom(type_str);
-        } else {
-            return false;
         }
+        return type.equals(type_str) || getAncestorTypes().contains(type_str);
     }
 
     public Object entityValue(LinkedHashMap<String, Object> defs, String key) {
@@ -180,43 +328,78 @@ public class EntityType {
         }
 
         if (parent) {
-            EntityType p = this;
-            if (p != null) {
-                while (p != null) {
-                    if (p.defs != null && p.defs.get(ndtype) != null) {
-                        // get the parent value
-                        Object parentValue = p.defs.get(ndtype);
-                        if (value != null) {
-                            if (value instanceof LinkedHashMap) {
-                                for (Map.Entry<String, Object> me : ((LinkedHashMap<String, Object>) parentValue).entrySet()) {
-                                    String k = me.getKey();
-                                    if (((LinkedHashMap<String, Object>) value).get(k) == null) {
-                                        ((LinkedHashMap<String, Object>) value).put(k, me.getValue());
-                                    }
-                                }
-                            }
-                            if (value instanceof ArrayList) {
-                                for (Object pValue : (ArrayList<Object>) parentValue) {
-                                    if (!((ArrayList<Object>) value).contains(pValue)) {
-                                        ((ArrayList<Object>) value).add(pValue);
-                                    }
-                                }
-                            }
-                        } else {
-                            // value = copy.copy(parent_value)
-                            value = CopyUtils.copyLhmOrAl(parentValue);
-                        }
-                    }
-                    p = (EntityType) p.getParentType();
+            value = mergeValue(value, getInheritedValue(ndtype));
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the value of the given section merged over this type and all of its ancestors.
+     * The merge is done once per section; the result is never handed out, getValue merges it
+     * into its own copy.
+     */
+    private Object getInheritedValue(String ndtype) {
+        Object merged = inheritedValues.get(ndtype);
+        if (merged == null) {
+            Object value = null;
+            if (defs != null) {
+                value = mergeValue(value, defs.get(ndtype));
+            }
+            for (EntityType p : getAncestors()) {
+                if (p.defs != null) {
+                    value = mergeValue(value, p.defs.get(ndtype));
                 }
             }
+            merged = value != null ? value : NO_VALUE;
+            inheritedValues.put(ndtype, merged);
         }
+        return merged != NO_VALUE ? merged : null;
+    }
 
+    @SuppressWarnings("unchecked")
+    private static Object mergeValue(Object value, Object parentValue) {
+        if (parentValue == null) {
+            return value;
+        }
+        if (value == null) {
+            // value = copy.copy(parent_value)
+            return CopyUtils.copyLhmOrAl(parentValue);
+        }
+        if (ReadOnlyDefinitions.isReadOnly(value)) {
+            // a shared definition, completed on a copy
+            value = CopyUtils.copyLhmOrAl(value);
+        }
+        if (value instanceof LinkedHashMap) {
+            for (Map.Entry<String, Object> me : ((LinkedHashMap<String, Object>) parentValue).entrySet()) {
+                String k = me.getKey();
+                if (((LinkedHashMap<String, Object>) value).get(k) == null) {
+                    ((LinkedHashMap<String, Object>) value).put(k, me.getValue());
+                }
+            }
+        }
+        if (value instanceof ArrayList) {
+            for (Object pValue : (ArrayList<Object>) parentValue) {
+                if (!((ArrayList<Object>) value).contains(pValue)) {
+                    ((ArrayList<Object>) value).add(pValue);
+                }
+            }
+        }
         return value;
     }
 
-    @SuppressWarnings("unchecked")
     public Object getDefinition(String ndtype) {
+        // the definitions are merged with their parents in place, so the result can be kept
+        Object value = definitions.get(ndtype);
+        if (value == null) {
+            value = _getDefinition(ndtype);
+            definitions.put(ndtype, value != null ? value : NO_VALUE);
+        }
+        return value != NO_VALUE ? value : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object _getDefinition(String ndtype) {
         Object value = null;
         LinkedHashMap<String, Object> _defs;
         // no point in hasattr, because we have it, and it 
@@ -245,6 +428,10 @@ public class EntityType {
                     //?????
                     //inherited.update(value)
                     //value.update(inherited)
+                    if (ReadOnlyDefinitions.isReadOnly(value)) {
+                        // a shared definition, completed on a copy
+                        value = new LinkedHashMap<>((LinkedHashMap<String, Object>) value);
+                    }
                     for (Map.Entry<String, Object> me : ((LinkedHashMap<String, Object>) inherited).entrySet()) {
                         ((LinkedHashMap<String, Object>) value).put(me.getKey(), me.getValue());
                     }
@@ -254,13 +441,33 @@ public class EntityType {
         return value;
     }
 
+    /**
+     * Makes the definitions of the given extension version visible to the parse running on the
+     * current thread. The extended definitions are built once per version and shared, the
+     * normative definitions and other parses are not affected.
+     */
     public static void updateDefinitions(String version) {
+        Map<String, Object> toscaDef = EXTENDED_TOSCA_DEFS.get(version);
+        if (toscaDef == null) {
+            toscaDef = _loadExtendedDefinitions(version);
+            if (toscaDef == null) {
+                return;
+            }
+            Map<String, Object> loaded = EXTENDED_TOSCA_DEFS.putIfAbsent(version, toscaDef);
+            if (loaded != null) {
+                toscaDef = loaded;
+            }
+        }
+        ThreadLocalsHolder.setToscaDefinitions(toscaDef);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> _loadExtendedDefinitions(String version) {
         ExtTools exttools = new ExtTools();
         String extensionDefsFile = exttools.getDefsFile(version);
 
-        try (InputStream input = EntityType.class.getClassLoader().getResourceAsStream(extensionDefsFile);) {
-            Yaml yaml = new Yaml();
-            LinkedHashMap<String, Object> nfvDefFile = (LinkedHashMap<String, Object>) yaml.load(input);
+        try {
+            LinkedHashMap<String, Object> nfvDefFile = _loadDefsFile(extensionDefsFile);
             LinkedHashMap<String, Object> nfvDef = new LinkedHashMap<>();
             for (String section : TOSCA_DEF_SECTIONS) {
                 if (nfvDefFile.get(section) != null) {
@@ -271,13 +478,29 @@ public class EntityType {
                     }
                 }
             }
-            TOSCA_DEF.putAll(nfvDef);
+            LinkedHashMap<String, Object> toscaDef = new LinkedHashMap<>(NORMATIVE_DEFINITIONS);
+            toscaDef.putAll(nfvDef);
+            mergeInheritedProperties(toscaDef, nfvDef.keySet());
+            // the normative definitions are read-only already and shared as they are
+            return (Map<String, Object>) ReadOnlyDefinitions.copyOf(toscaDef);
         } catch (IOException e) {
             log.error("EntityType - updateDefinitions - Failed to update definitions from defs file {}", extensionDefsFile);
             log.error("Exception:", e);
             ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE280",
                     String.format("Failed to update definitions from defs file \"%s\" ", extensionDefsFile)));
-            return;
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LinkedHashMap<String, Object> _loadDefsFile(String defsFile) throws IOException {
+        LinkedHashMap<String, Object> snapshot = DefinitionsSnapshot.load(defsFile);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        try (InputStream input = EntityType.class.getClassLoader().getResourceAsStream(defsFile);) {
+            Yaml yaml = new Yaml();
+            return (LinkedHashMap<String, Object>) yaml.load(input);
         }
     }
 }
@@ -80,7 +80,7 @@ public class GroupType extends StatefulEntityType {
         }
         String pgroupEntity = derivedFrom(defs);
         if (pgroupEntity != null) {
-            return new GroupType(pgroupEntity, customDef);
+            return TypeRegistry.current(getToscaDefinitions()).getGroupType(pgroupEntity, customDef);
         }
         return null;
     }
@@ -158,7 +158,7 @@ public class GroupType extends StatefulEntityType {
                 String cname = me.getKey();
                 LinkedHashMap<String, String> cvalue = (LinkedHashMap<String, String>) me.getValue();
                 String ctype = cvalue.get("type");
-                CapabilityTypeDef cap = new CapabilityTypeDef(cname, ctype, type, customDef);
+                CapabilityTypeDef cap = TypeRegistry.current(getToscaDefinitions()).getCapabilityType(cname, ctype, type, customDef);
                 typecapabilities.add(cap);
             }
         }
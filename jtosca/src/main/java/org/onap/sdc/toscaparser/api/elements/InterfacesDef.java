@@ -96,7 +96,7 @@ public class InterfacesDef extends StatefulEntityType {
                 defs = (LinkedHashMap<String, Object>)
                         nodeTemplate.getCustomDef().get(interfaceType);
             } else {
-                defs = (LinkedHashMap<String, Object>) TOSCA_DEF.get(interfaceType);
+                defs = (LinkedHashMap<String, Object>) getToscaDef().get(interfaceType);
             }
         }
 
@@ -62,7 +62,7 @@ public class NodeType extends StatefulEntityType {
         }
         String pnode = derivedFrom(defs);
         if (pnode != null && !pnode.isEmpty()) {
-            return new NodeType(pnode, customDef);
+            return TypeRegistry.current(getToscaDefinitions()).getNodeType(pnode, customDef);
         }
         return null;
     }
@@ -141,8 +141,12 @@ public class NodeType extends StatefulEntityType {
                     ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE11", String.format(
                             "NodeTypeForRelationUnfulfilled: Node type \"%s\" - relationship type \"%s\" is unfulfilled", this.ntype, relation)));
                 } else {
-                    RelationshipType rtype = new RelationshipType(relation, keyword, customDef);
-                    NodeType relatednode = new NodeType(nodeType, customDef);
+                    // relationship types are used as map keys, keep one instance per requirement
+                    String relationType = relation;
+                    String capabilityName = keyword;
+                    RelationshipType rtype = resolveWith(getToscaDefinitions(),
+                            () -> new RelationshipType(relationType, capabilityName, customDef));
+                    NodeType relatednode = TypeRegistry.current(getToscaDefinitions()).getNodeType(nodeType, customDef);
                     relationship.put(rtype, relatednode);
                 }
             }
@@ -186,7 +190,7 @@ public class NodeType extends StatefulEntityType {
     @SuppressWarnings("unchecked")
     private String _getRelation(String key, String ndtype) {
         String relation = null;
-        NodeType ntype = new NodeType(ndtype, customDef);
+        NodeType ntype = TypeRegistry.current(getToscaDefinitions()).getNodeType(ndtype, customDef);
         LinkedHashMap<String, CapabilityTypeDef> caps = ntype.getCapabilities();
         if (caps != null && caps.get(key) != null) {
             CapabilityTypeDef c = caps.get(key);
@@ -232,7 +236,7 @@ public class NodeType extends StatefulEntityType {
                 String cname = me.getKey();
                 LinkedHashMap<String, String> cvalue = (LinkedHashMap<String, String>) me.getValue();
                 String ctype = cvalue.get("type");
-                CapabilityTypeDef cap = new CapabilityTypeDef(cname, ctype, type, customDef);
+                CapabilityTypeDef cap = TypeRegistry.current(getToscaDefinitions()).getCapabilityType(cname, ctype, type, customDef);
                 typecapabilities.add(cap);
             }
         }
@@ -292,7 +296,8 @@ public class NodeType extends StatefulEntityType {
         ArrayList<String> ops = null;
         LinkedHashMap<String, Object> interfaces = getInterfaces();
         if (interfaces != null) {
-            InterfacesDef i = new InterfacesDef(this, InterfacesDef.LIFECYCLE, null, null, null);
+            InterfacesDef i = resolveWith(getToscaDefinitions(),
+                    () -> new InterfacesDef(this, InterfacesDef.LIFECYCLE, null, null, null));
             ops = i.getLifecycleOps();
         }
         return ops;
@@ -99,7 +99,7 @@ public class PolicyType extends StatefulEntityType {
         }
         if (parentPolicy != null) {
             while (parentPolicy != null && !parentPolicy.equals("tosca.policies.Root")) {
-                policies.put(parentPolicy, TOSCA_DEF.get(parentPolicy));
+                policies.put(parentPolicy, getToscaDef().get(parentPolicy));
                 parentPolicy = (String)
                         ((LinkedHashMap<String, Object>) policies.get(parentPolicy)).get("derived_from);");
             }
@@ -118,7 +118,7 @@ public class PolicyType extends StatefulEntityType {
         }
         String policyEntity = derivedFrom(defs);
         if (policyEntity != null) {
-            return new PolicyType(policyEntity, customDef);
+            return TypeRegistry.current(getToscaDefinitions()).getPolicyType(policyEntity, customDef);
         }
         return null;
     }
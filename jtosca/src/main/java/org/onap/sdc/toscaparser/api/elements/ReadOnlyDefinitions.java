@@ -0,0 +1,335 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api.elements;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-only copies of the type definitions shared by all parses, or by the topologies built from
+ * the same nested template within a parse.
+ * <p>
+ * The definitions are read as LinkedHashMap and ArrayList all over the parser, so the copies keep
+ * those classes and only reject writes: a parse completing a shared definition with what it
+ * inherits must work on its own copy, see {@link #isReadOnly(Object)}.
+ */
+public final class ReadOnlyDefinitions {
+
+    private ReadOnlyDefinitions() {
+    }
+
+    /**
+     * @return a read-only copy of the maps and lists of the YAML content, the other values and the
+     * parts already read-only are shared.
+     */
+    public static Object copyOf(Object yaml) {
+        return copyOf(yaml, new IdentityHashMap<>());
+    }
+
+    // a map or list referenced twice through a YAML alias is copied once
+    @SuppressWarnings("unchecked")
+    private static Object copyOf(Object yaml, Map<Object, Object> copies) {
+        if (yaml instanceof ReadOnlyMap || yaml instanceof ReadOnlyList) {
+            return yaml;
+        }
+        Object copied = copies.get(yaml);
+        if (copied != null) {
+            return copied;
+        }
+        if (yaml instanceof Map) {
+            LinkedHashMap<String, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> me : ((Map<String, Object>) yaml).entrySet()) {
+                copy.put(me.getKey(), copyOf(me.getValue(), copies));
+            }
+            copied = new ReadOnlyMap(copy);
+        } else if (yaml instanceof List) {
+            List<Object> copy = new ArrayList<>();
+            for (Object item : (List<Object>) yaml) {
+                copy.add(copyOf(item, copies));
+            }
+            copied = new ReadOnlyList(copy);
+        } else {
+            return yaml;
+        }
+        copies.put(yaml, copied);
+        return copied;
+    }
+
+    public static boolean isReadOnly(Object yaml) {
+        return yaml instanceof ReadOnlyMap || yaml instanceof ReadOnlyList;
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("the shared TOSCA definitions are read-only");
+    }
+
+    static final class ReadOnlyMap extends LinkedHashMap<String, Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        private ReadOnlyMap(Map<String, Object> content) {
+            super(content);
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            throw readOnly();
+        }
+
+        @Override
+        public void putAll(Map<? extends String, ?> m) {
+            throw readOnly();
+        }
+
+        @Override
+        public Object remove(Object key) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean remove(Object key, Object value) {
+            throw readOnly();
+        }
+
+        @Override
+        public void clear() {
+            throw readOnly();
+        }
+
+        @Override
+        public Object putIfAbsent(String key, Object value) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean replace(String key, Object oldValue, Object newValue) {
+            throw readOnly();
+        }
+
+        @Override
+        public Object replace(String key, Object value) {
+            throw readOnly();
+        }
+
+        @Override
+        public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+            throw readOnly();
+        }
+
+        @Override
+        public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction) {
+            throw readOnly();
+        }
+
+        @Override
+        public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+            throw readOnly();
+        }
+
+        @Override
+        public Object compute(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+            throw readOnly();
+        }
+
+        @Override
+        public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+            throw readOnly();
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return Collections.unmodifiableSet(super.keySet());
+        }
+
+        @Override
+        public Collection<Object> values() {
+            return Collections.unmodifiableCollection(super.values());
+        }
+
+        @Override
+        public Set<Map.Entry<String, Object>> entrySet() {
+            return Collections.unmodifiableSet(super.entrySet());
+        }
+
+        @Override
+        public Object clone() {
+            return new LinkedHashMap<>(this);
+        }
+    }
+
+    static final class ReadOnlyList extends ArrayList<Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        private ReadOnlyList(List<Object> content) {
+            super(content);
+        }
+
+        @Override
+        public boolean add(Object o) {
+            throw readOnly();
+        }
+
+        @Override
+        public void add(int index, Object element) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean addAll(Collection<?> c) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<?> c) {
+            throw readOnly();
+        }
+
+        @Override
+        public Object set(int index, Object element) {
+            throw readOnly();
+        }
+
+        @Override
+        public Object remove(int index) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super Object> filter) {
+            throw readOnly();
+        }
+
+        @Override
+        public void replaceAll(UnaryOperator<Object> operator) {
+            throw readOnly();
+        }
+
+        @Override
+        public void sort(Comparator<? super Object> c) {
+            throw readOnly();
+        }
+
+        @Override
+        public void clear() {
+            throw readOnly();
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            return listIterator(0);
+        }
+
+        @Override
+        public ListIterator<Object> listIterator() {
+            return listIterator(0);
+        }
+
+        @Override
+        public ListIterator<Object> listIterator(int index) {
+            ListIterator<Object> it = super.listIterator(index);
+            return new ListIterator<Object>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public Object next() {
+                    return it.next();
+                }
+
+                @Override
+                public boolean hasPrevious() {
+                    return it.hasPrevious();
+                }
+
+                @Override
+                public Object previous() {
+                    return it.previous();
+                }
+
+                @Override
+                public int nextIndex() {
+                    return it.nextIndex();
+                }
+
+                @Override
+                public int previousIndex() {
+                    return it.previousIndex();
+                }
+
+                @Override
+                public void remove() {
+                    throw readOnly();
+                }
+
+                @Override
+                public void set(Object o) {
+                    throw readOnly();
+                }
+
+                @Override
+                public void add(Object o) {
+                    throw readOnly();
+                }
+            };
+        }
+
+        @Override
+        public List<Object> subList(int fromIndex, int toIndex) {
+            return Collections.unmodifiableList(super.subList(fromIndex, toIndex));
+        }
+
+        @Override
+        public Object clone() {
+            return new ArrayList<>(this);
+        }
+    }
+}
@@ -53,7 +53,7 @@ public class RelationshipType extends StatefulEntityType {
         // Return a relationship this reletionship is derived from.'''
         String prel = derivedFrom(defs);
         if (prel != null) {
-            return new RelationshipType(prel, null, customDef);
+            return TypeRegistry.current(getToscaDefinitions()).getRelationshipType(prel, null, customDef);
         }
         return null;
     }
@@ -25,7 +25,9 @@ import org.onap.sdc.toscaparser.api.common.JToscaValidationIssue;
 import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -38,6 +40,12 @@ public class StatefulEntityType extends EntityType {
     public static final String[] INTERFACE_RELATIONSHIP_CONFIGURE_OPERATIONS = {
             "post_configure_source", "post_configure_target", "add_target", "remove_target"};
 
+    // the definitions of a type don't change once it is constructed, they are resolved on first use
+    private volatile List<PropertyDef> propertiesDefObjects;
+    private volatile Map<String, PropertyDef> propertiesDefByName;
+    private volatile List<AttributeDef> attributesDefObjects;
+    private volatile Map<String, AttributeDef> attributesDefByName;
+
     public StatefulEntityType() {
         // void constructor for subclasses that don't want super
     }
@@ -56,8 +64,8 @@ public class StatefulEntityType extends EntityType {
             if (!entityType.startsWith(TOSCA)) {
                 entireEntityType = prefix + entityType;
             }
-            if (TOSCA_DEF.get(entireEntityType) != null) {
-                defs = (LinkedHashMap<String, Object>) TOSCA_DEF.get(entireEntityType);
+            if (getToscaDef().get(entireEntityType) != null) {
+                defs = (LinkedHashMap<String, Object>) getToscaDef().get(entireEntityType);
                 entityType = entireEntityType;
             } else if (customDef != null && customDef.get(entityType) != null) {
                 defs = (LinkedHashMap<String, Object>) customDef.get(entityType);
@@ -70,9 +78,50 @@ public class StatefulEntityType extends EntityType {
         type = entityType;
     }
 
+    /**
+     * Returns the definition the constructor resolves for the given type, without reporting anything.
+     */
     @SuppressWarnings("unchecked")
+    static LinkedHashMap<String, Object> lookupDefinition(String entityType, String prefix, LinkedHashMap<String, Object> customDef) {
+        String entireEntityType = entityType;
+        if (entityType.startsWith(TOSCA + ":")) {
+            entityType = entityType.substring(TOSCA.length() + 1);
+            entireEntityType = prefix + entityType;
+        }
+        if (!entityType.startsWith(TOSCA)) {
+            entireEntityType = prefix + entityType;
+        }
+        Object toscaDef = getToscaDef().get(entireEntityType);
+        if (toscaDef != null) {
+            return (LinkedHashMap<String, Object>) toscaDef;
+        }
+        return customDef != null ? (LinkedHashMap<String, Object>) customDef.get(entityType) : null;
+    }
+
+    /**
+     * Returns a new list of the property definition objects of this type.
+     * The definitions are resolved once per type, see {@link #getPropertiesDefByName()}.
+     */
     public ArrayList<PropertyDef> getPropertiesDefObjects() {
         // Return a list of property definition objects
+        return new ArrayList<>(resolvedPropertiesDefObjects());
+    }
+
+    private List<PropertyDef> resolvedPropertiesDefObjects() {
+        List<PropertyDef> pds = propertiesDefObjects;
+        if (pds == null) {
+            // a racing thread resolves the same definitions, whichever is published last wins
+            pds = Collections.unmodifiableList(resolvePropertiesDefObjects());
+            propertiesDefObjects = pds;
+        }
+        return pds;
+    }
+
+    /**
+     * Builds the property definition objects of this type, called once per type.
+     */
+    @SuppressWarnings("unchecked")
+    protected ArrayList<PropertyDef> resolvePropertiesDefObjects() {
         ArrayList<PropertyDef> properties = new ArrayList<PropertyDef>();
         LinkedHashMap<String, Object> props = (LinkedHashMap<String, Object>) getDefinition(PROPERTIES);
         if (props != null) {
@@ -92,26 +141,52 @@ public class StatefulEntityType extends EntityType {
         return properties;
     }
 
-    public LinkedHashMap<String, PropertyDef> getPropertiesDef() {
-        LinkedHashMap<String, PropertyDef> pds = new LinkedHashMap<String, PropertyDef>();
-        for (PropertyDef pd : getPropertiesDefObjects()) {
-            pds.put(pd.getName(), pd);
+    /**
+     * Returns the property definitions of this type by name, as a read-only map.
+     * The map is built once per type: templates of the same type share it instead of resolving
+     * the inherited definitions again.
+     */
+    public Map<String, PropertyDef> getPropertiesDefByName() {
+        Map<String, PropertyDef> pds = propertiesDefByName;
+        if (pds == null) {
+            LinkedHashMap<String, PropertyDef> byName = new LinkedHashMap<>();
+            for (PropertyDef pd : resolvedPropertiesDefObjects()) {
+                byName.put(pd.getName(), pd);
+            }
+            pds = Collections.unmodifiableMap(byName);
+            propertiesDefByName = pds;
         }
         return pds;
     }
 
+    public LinkedHashMap<String, PropertyDef> getPropertiesDef() {
+        return new LinkedHashMap<>(getPropertiesDefByName());
+    }
+
     public PropertyDef getPropertyDefValue(String name) {
         // Return the property definition associated with a given name
-        PropertyDef pd = null;
-        LinkedHashMap<String, PropertyDef> propsDef = getPropertiesDef();
-        if (propsDef != null) {
-            pd = propsDef.get(name);
-        }
-        return pd;
+        return getPropertiesDefByName().get(name);
     }
 
+    /**
+     * Returns a new list of the attribute definition objects of this type.
+     * The definitions are resolved once per type, see {@link #getAttributesDefByName()}.
+     */
     public ArrayList<AttributeDef> getAttributesDefObjects() {
         // Return a list of attribute definition objects
+        return new ArrayList<>(resolvedAttributesDefObjects());
+    }
+
+    private List<AttributeDef> resolvedAttributesDefObjects() {
+        List<AttributeDef> ads = attributesDefObjects;
+        if (ads == null) {
+            ads = Collections.unmodifiableList(resolveAttributesDefObjects());
+            attributesDefObjects = ads;
+        }
+        return ads;
+    }
+
+    private ArrayList<AttributeDef> resolveAttributesDefObjects() {
         @SuppressWarnings("unchecked")
         LinkedHashMap<String, Object> attrs = (LinkedHashMap<String, Object>) getValue(ATTRIBUTES, null, true);
         ArrayList<AttributeDef> ads = new ArrayList<>();
@@ -126,24 +201,30 @@ public class StatefulEntityType extends EntityType {
         return ads;
     }
 
-    public LinkedHashMap<String, AttributeDef> getAttributesDef() {
-        // Return a dictionary of attribute definition name-object pairs
-
-        LinkedHashMap<String, AttributeDef> ads = new LinkedHashMap<>();
-        for (AttributeDef ado : getAttributesDefObjects()) {
-            ads.put(((AttributeDef) ado).getName(), ado);
+    /**
+     * Returns the attribute definitions of this type by name, as a read-only map built once per type.
+     */
+    public Map<String, AttributeDef> getAttributesDefByName() {
+        Map<String, AttributeDef> ads = attributesDefByName;
+        if (ads == null) {
+            LinkedHashMap<String, AttributeDef> byName = new LinkedHashMap<>();
+            for (AttributeDef ado : resolvedAttributesDefObjects()) {
+                byName.put(ado.getName(), ado);
+            }
+            ads = Collections.unmodifiableMap(byName);
+            attributesDefByName = ads;
         }
         return ads;
     }
 
+    public LinkedHashMap<String, AttributeDef> getAttributesDef() {
+        // Return a dictionary of attribute definition name-object pairs
+        return new LinkedHashMap<>(getAttributesDefByName());
+    }
+
     public AttributeDef getAttributeDefValue(String name) {
         // Return the attribute definition associated with a given name
-        AttributeDef ad = null;
-        LinkedHashMap<String, AttributeDef> attrsDef = getAttributesDef();
-        if (attrsDef != null) {
-            ad = attrsDef.get(name);
-        }
-        return ad;
+        return getAttributesDefByName().get(name);
     }
 
     public String getType() {
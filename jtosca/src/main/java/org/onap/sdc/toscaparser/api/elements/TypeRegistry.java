@@ -0,0 +1,232 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api.elements;
+
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
+import org.onap.sdc.toscaparser.api.elements.constraints.Schema;
+import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static org.onap.sdc.toscaparser.api.elements.EntityType.CAPABILITY_PREFIX;
+import static org.onap.sdc.toscaparser.api.elements.EntityType.DATATYPE_NETWORK_PREFIX;
+import static org.onap.sdc.toscaparser.api.elements.EntityType.GROUP_PREFIX;
+import static org.onap.sdc.toscaparser.api.elements.EntityType.NODE_PREFIX;
+import static org.onap.sdc.toscaparser.api.elements.EntityType.POLICY_PREFIX;
+import static org.onap.sdc.toscaparser.api.elements.EntityType.RELATIONSHIP_PREFIX;
+
+/**
+ * Interns the type definitions resolved during a single parse.
+ * <p>
+ * Node, relationship, capability, data, group and policy types are immutable once constructed,
+ * so every template, parent lookup and datatype validation asking for the same type name within
+ * the same custom definitions scope gets the same instance, together with its ancestor chain
+ * (see {@link EntityType#getAncestors()}). The schemas of list and map entries are interned the
+ * same way, by the identity of their entry_schema definition.
+ * <p>
+ * Types are keyed by the identity of the custom definitions map and of the definition the type
+ * name currently resolves to: the custom definitions of a template are extended while nested
+ * templates are loaded, and a type redefined by a later import must not be served from the cache.
+ * A registry is only installed for the duration of a parse: a cross-parse cache would swallow
+ * the validation issues reported while constructing a type the first time. Outside of a parse
+ * {@link #current()} returns a registry that constructs a new instance on every call.
+ */
+public class TypeRegistry {
+
+    private static final TypeRegistry UNCACHED = new TypeRegistry(false);
+
+    private final boolean caching;
+    private final Map<String, Object> toscaDefinitions;
+    private final ConcurrentHashMap<TypeKey, StatefulEntityType> types = new ConcurrentHashMap<>();
+    private final Map<LinkedHashMap<String, Object>, Schema> entrySchemas =
+            Collections.synchronizedMap(new IdentityHashMap<>());
+
+    public TypeRegistry() {
+        this(true);
+    }
+
+    private TypeRegistry(boolean caching) {
+        this(caching, null);
+    }
+
+    private TypeRegistry(boolean caching, Map<String, Object> toscaDefinitions) {
+        this.caching = caching;
+        this.toscaDefinitions = toscaDefinitions;
+    }
+
+    /**
+     * @return the registry of the parse running on the current thread, or a non caching registry
+     * when no parse is running.
+     */
+    public static TypeRegistry current() {
+        TypeRegistry registry = ThreadLocalsHolder.getTypeRegistry();
+        return registry != null ? registry : UNCACHED;
+    }
+
+    /**
+     * @param toscaDefinitions the definitions the calling type or template was resolved against,
+     *                         see {@link EntityType#getToscaDefinitions()}.
+     * @return the registry of the parse running on the current thread, or when no parse is running a
+     * non caching registry constructing the types against the given definitions, see
+     * {@link EntityType#resolveWith(Map, Supplier)}.
+     */
+    public static TypeRegistry current(Map<String, Object> toscaDefinitions) {
+        TypeRegistry registry = ThreadLocalsHolder.getTypeRegistry();
+        if (registry != null) {
+            return registry;
+        }
+        return toscaDefinitions == null || toscaDefinitions == EntityType.getToscaDef()
+                ? UNCACHED : new TypeRegistry(false, toscaDefinitions);
+    }
+
+    public NodeType getNodeType(String type, LinkedHashMap<String, Object> customDef) {
+        return intern(NodeType.class, NODE_PREFIX, type, null, null, customDef, () -> new NodeType(type, customDef));
+    }
+
+    public RelationshipType getRelationshipType(String type, String capabilityName, LinkedHashMap<String, Object> customDef) {
+        return intern(RelationshipType.class, RELATIONSHIP_PREFIX, type, capabilityName, null, customDef,
+                () -> new RelationshipType(type, capabilityName, customDef));
+    }
+
+    public CapabilityTypeDef getCapabilityType(String name, String type, String nodeType, LinkedHashMap<String, Object> customDef) {
+        return intern(CapabilityTypeDef.class, CAPABILITY_PREFIX, type, name, nodeType, customDef,
+                () -> new CapabilityTypeDef(name, type, nodeType, customDef));
+    }
+
+    public DataType getDataType(String type, LinkedHashMap<String, Object> customDef) {
+        return intern(DataType.class, DATATYPE_NETWORK_PREFIX, type, null, null, customDef, () -> new DataType(type, customDef));
+    }
+
+    public GroupType getGroupType(String type, LinkedHashMap<String, Object> customDef) {
+        return intern(GroupType.class, GROUP_PREFIX, type, null, null, customDef, () -> new GroupType(type, customDef));
+    }
+
+    public PolicyType getPolicyType(String type, LinkedHashMap<String, Object> customDef) {
+        return intern(PolicyType.class, POLICY_PREFIX, type, null, null, customDef, () -> new PolicyType(type, customDef));
+    }
+
+    /**
+     * Returns the schema of the entries of a list or map, interned by the identity of the
+     * entry_schema definition, so that its constraints are built once per parse.
+     */
+    public Schema getEntrySchema(LinkedHashMap<String, Object> entrySchema) {
+        if (!caching || entrySchema == null) {
+            return new Schema(null, entrySchema);
+        }
+        Schema schema = entrySchemas.get(entrySchema);
+        if (schema == null) {
+            ParseMetrics.current().cacheMiss(ParseMetrics.Cache.ENTRY_SCHEMAS);
+            schema = new Schema(null, entrySchema);
+            Schema cached = entrySchemas.putIfAbsent(entrySchema, schema);
+            if (cached != null) {
+                schema = cached;
+            }
+        } else {
+            ParseMetrics.current().cacheHit(ParseMetrics.Cache.ENTRY_SCHEMAS);
+        }
+        return schema;
+    }
+
+    public int size() {
+        return types.size();
+    }
+
+    private <T extends StatefulEntityType> T intern(Class<T> kind,
+                                                    String prefix,
+                                                    String type,
+                                                    String qualifier,
+                                                    String owner,
+                                                    LinkedHashMap<String, Object> customDef,
+                                                    Supplier<T> factory) {
+        if (!caching || type == null) {
+            return EntityType.resolveWith(toscaDefinitions, factory);
+        }
+        TypeKey key = new TypeKey(kind, type, qualifier, owner, customDef,
+                StatefulEntityType.lookupDefinition(type, prefix, customDef));
+        StatefulEntityType cached = types.get(key);
+        if (cached == null) {
+            ParseMetrics.current().cacheMiss(ParseMetrics.Cache.TYPES);
+            // constructors resolve parent types through the registry, so computeIfAbsent can't be used here
+            StatefulEntityType created = factory.get();
+            cached = types.putIfAbsent(key, created);
+            if (cached == null) {
+                cached = created;
+            }
+        } else {
+            ParseMetrics.current().cacheHit(ParseMetrics.Cache.TYPES);
+        }
+        return kind.cast(cached);
+    }
+
+    private static final class TypeKey {
+        private final Class<?> kind;
+        private final String type;
+        private final String qualifier;
+        private final String owner;
+        private final LinkedHashMap<String, Object> customDef;
+        private final LinkedHashMap<String, Object> definition;
+        private final int hash;
+
+        TypeKey(Class<?> kind,
+                String type,
+                String qualifier,
+                String owner,
+                LinkedHashMap<String, Object> customDef,
+                LinkedHashMap<String, Object> definition) {
+            this.kind = kind;
+            this.type = type;
+            this.qualifier = qualifier;
+            this.owner = owner;
+            this.customDef = customDef;
+            this.definition = definition;
+            this.hash = Objects.hash(kind, type, qualifier, owner,
+                    System.identityHashCode(customDef), System.identityHashCode(definition));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TypeKey)) {
+                return false;
+            }
+            TypeKey other = (TypeKey) o;
+            return kind == other.kind
+                    && customDef == other.customDef
+                    && definition == other.definition
+                    && type.equals(other.type)
+                    && Objects.equals(qualifier, other.qualifier)
+                    && Objects.equals(owner, other.owner);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
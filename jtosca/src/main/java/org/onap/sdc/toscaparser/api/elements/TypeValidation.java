@@ -56,8 +56,6 @@ public class TypeValidation {
             TOPOLOGY_TEMPLATE, METADATA
     };
 
-    private static ArrayList<String> VALID_TEMPLATE_VERSIONS = _getVTV();
-
     private static ArrayList<String> _getVTV() {
         ArrayList<String> vtv = new ArrayList<>();
         vtv.add("tosca_simple_yaml_1_0");
@@ -103,7 +101,7 @@ public class TypeValidation {
     private void _validateTypeVersion(String sVersion) {
         boolean bFound = false;
         String allowed = "";
-        for (String atv : VALID_TEMPLATE_VERSIONS) {
+        for (String atv : _getVTV()) {
             allowed += "\"" + atv + "\" ";
             if (sVersion.equals(atv)) {
                 bFound = true;
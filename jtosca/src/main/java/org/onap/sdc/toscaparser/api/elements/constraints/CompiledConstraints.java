@@ -0,0 +1,129 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api.elements.constraints;
+
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Process wide cache of the compiled form of constraint values: the regular expression of a
+ * "pattern" constraint and the hash set of a "valid_values" constraint.
+ * <p>
+ * Constraints are declared by types, so the same few definitions are checked against every value
+ * of every template of a CSAR, and again by the next parse. The compiled forms are immutable and
+ * keyed by the constraint value itself, so they are shared by all constraints declaring the same
+ * value. Constraint instances themselves are not shared: they carry the property name used in
+ * their messages and report schema errors when constructed.
+ * <p>
+ * The length constraints have nothing to compile: their bound is the integer they declare.
+ * <p>
+ * Each cache keeps the {@link #MAX_ENTRIES} most recently used constraint values and evicts the least
+ * recently used one past that limit.
+ */
+final class CompiledConstraints {
+
+    static final int MAX_ENTRIES = 4096;
+
+    // access ordered, guarded by themselves
+    private static final Map<String, Optional<java.util.regex.Pattern>> PATTERNS = new LruMap<>();
+    private static final Map<List<Object>, Set<Object>> VALID_VALUES = new LruMap<>();
+
+    private CompiledConstraints() {
+    }
+
+    /**
+     * @return the compiled regular expression, or null when it is not valid
+     */
+    static java.util.regex.Pattern pattern(String regex) {
+        Optional<java.util.regex.Pattern> pattern;
+        synchronized (PATTERNS) {
+            pattern = PATTERNS.get(regex);
+        }
+        if (pattern == null) {
+            ParseMetrics.current().cacheMiss(ParseMetrics.Cache.CONSTRAINTS);
+            pattern = compile(regex);
+            synchronized (PATTERNS) {
+                Optional<java.util.regex.Pattern> cached = PATTERNS.putIfAbsent(regex, pattern);
+                if (cached != null) {
+                    pattern = cached;
+                }
+            }
+        } else {
+            ParseMetrics.current().cacheHit(ParseMetrics.Cache.CONSTRAINTS);
+        }
+        return pattern.orElse(null);
+    }
+
+    private static Optional<java.util.regex.Pattern> compile(String regex) {
+        try {
+            return Optional.of(java.util.regex.Pattern.compile(regex));
+        } catch (PatternSyntaxException pse) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return a read-only hash set holding the given valid values
+     */
+    static Set<Object> validValues(List<Object> values) {
+        Set<Object> validValues;
+        synchronized (VALID_VALUES) {
+            validValues = VALID_VALUES.get(values);
+        }
+        if (validValues == null) {
+            ParseMetrics.current().cacheMiss(ParseMetrics.Cache.CONSTRAINTS);
+            validValues = Collections.unmodifiableSet(new HashSet<>(values));
+            synchronized (VALID_VALUES) {
+                // the key is copied, the YAML list it comes from is not ours
+                Set<Object> cached = VALID_VALUES.putIfAbsent(new ArrayList<>(values), validValues);
+                if (cached != null) {
+                    validValues = cached;
+                }
+            }
+        } else {
+            ParseMetrics.current().cacheHit(ParseMetrics.Cache.CONSTRAINTS);
+        }
+        return validValues;
+    }
+
+    private static final class LruMap<K, V> extends LinkedHashMap<K, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        LruMap() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    }
+}
@@ -100,6 +100,7 @@ public abstract class Constraint {
     protected Object constraintValue;
     protected Object constraintValueMsg;
     protected Object valueMsg;
+    private volatile NumericConstraintValue numericConstraintValue;
 
     @SuppressWarnings("unchecked")
     public Constraint(String propname, String proptype, Object constraint) {
@@ -159,6 +160,11 @@ public abstract class Constraint {
         return constraintValueMsg;
     }
 
+    /**
+     * @deprecated validate no longer records the value it checks, constraints are shared by the values
+     * of a data type and validated concurrently.
+     */
+    @Deprecated
     public Object getValueMsg() {
         return valueMsg;
     }
@@ -187,6 +193,10 @@ public abstract class Constraint {
         this.constraintValueMsg = constraintValueMsg;
     }
 
+    /**
+     * @deprecated the value checked is passed to {@link #errMsg(Object, Object)}.
+     */
+    @Deprecated
     public void setValueMsg(Object valueMsg) {
         this.valueMsg = valueMsg;
     }
@@ -207,13 +217,15 @@ public abstract class Constraint {
         }
     }
 
+    // constraints are shared by the values of a data type: the value and its message form are
+    // kept in locals and passed on, the constraint itself is only read
     public void validate(Object value) {
         if (Function.isFunction(value)) {
             //skipping constraints check for functions
             return;
         }
 
-        valueMsg = value;
+        Object valueMsg = value;
         boolean bFound = false;
         for (String s : ScalarUnit.SCALAR_UNIT_TYPES) {
             if (s.equals(propertyType)) {
@@ -225,16 +237,67 @@ public abstract class Constraint {
             value = ScalarUnit.getScalarunitValue(propertyType, value, null);
         }
         if (!isValid(value)) {
-            ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE008", "ValidationError: " + errMsg(value)));
+            ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE008", "ValidationError: " + errMsg(value, valueMsg)));
         }
     }
 
+    /**
+     * Returns the constraint value as a number, parsed once rather than for every validated value.
+     */
+    protected Double getNumericConstraintValue() {
+        // the value and its source are published together, the constraint is validated concurrently
+        NumericConstraintValue numeric = numericConstraintValue;
+        if (numeric == null || numeric.source != constraintValue) {
+            numeric = new NumericConstraintValue(constraintValue, toNumber(constraintValue));
+            numericConstraintValue = numeric;
+        }
+        return numeric.value;
+    }
+
+    /**
+     * Converts a value to a number the way the constraints always did, by parsing its string form,
+     * without the round trip for the number types YAML loads.
+     */
+    protected static Double toNumber(Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Double) {
+            return ((Number) value).doubleValue();
+        }
+        return new Double(value.toString());
+    }
+
+    /**
+     * Returns the bound of a length constraint, or null when the constraint value is not an integer.
+     */
+    protected Integer getLengthConstraintValue() {
+        return constraintValue instanceof Integer ? (Integer) constraintValue : null;
+    }
+
     protected abstract boolean isValid(Object value);
 
     protected abstract void setValues();
 
     protected abstract String errMsg(Object value);
 
+    /**
+     * Returns the error message for a value failing the constraint.
+     *
+     * @param value    the value checked, converted to a number for the scalar-unit types
+     * @param valueMsg the value as declared, the form the messages quote
+     */
+    protected String errMsg(Object value, Object valueMsg) {
+        return errMsg(value);
+    }
+
+    private static final class NumericConstraintValue {
+        private final Object source;
+        private final Double value;
+
+        private NumericConstraintValue(Object source, Double value) {
+            this.source = source;
+            this.value = value;
+        }
+    }
+
 }
 
 /*python
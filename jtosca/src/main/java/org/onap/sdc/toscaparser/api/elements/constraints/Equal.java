@@ -42,7 +42,13 @@ public class Equal extends Constraint {
         return val.toString().equals(constraintValue.toString());
     }
 
+    @Override
     protected String errMsg(Object value) {
+        return errMsg(value, value);
+    }
+
+    @Override
+    protected String errMsg(Object value, Object valueMsg) {
         return String.format("The value \"%s\" of property \"%s\" is not equal to \"%s\"",
                 valueMsg, propertyName, constraintValueMsg);
     }
@@ -37,6 +37,7 @@ public class InRange extends Constraint {
     private static final String UNBOUNDED = "UNBOUNDED";
 
     private Object min, max;
+    private Double minValue, maxValue;
 
     protected void setValues() {
 
@@ -80,6 +81,20 @@ public class InRange extends Constraint {
         }
         min = alcv.get(0);
         max = alcv.get(1);
+        minValue = parseBound(min);
+        maxValue = parseBound(max);
+    }
+
+    private static Double parseBound(Object bound) {
+        // numeric bounds are parsed once, the others are left to isValid
+        if (bound == null || bound instanceof String || bound instanceof Date) {
+            return null;
+        }
+        try {
+            return toNumber(bound);
+        } catch (NumberFormatException e) {
+            return null;
+        }
 
     }
 
@@ -95,16 +110,16 @@ public class InRange extends Constraint {
             return false;
         }
 
-        Double dvalue = new Double(value.toString());
+        Double dvalue = toNumber(value);
         if (!(min instanceof String)) {
-            if (dvalue < new Double(min.toString())) {
+            if (dvalue < (minValue != null ? minValue : toNumber(min))) {
                 return false;
             }
         } else if (!((String) min).equals(UNBOUNDED)) {
             return false;
         }
         if (!(max instanceof String)) {
-            if (dvalue > new Double(max.toString())) {
+            if (dvalue > (maxValue != null ? maxValue : toNumber(max))) {
                 return false;
             }
         } else if (!((String) max).equals(UNBOUNDED)) {
@@ -115,6 +130,11 @@ public class InRange extends Constraint {
 
     @Override
     protected String errMsg(Object value) {
+        return errMsg(value, value);
+    }
+
+    @Override
+    protected String errMsg(Object value, Object valueMsg) {
         return String.format("The value \"%s\" of property \"%s\" is out of range \"(min:%s, max:%s)\"",
                 valueMsg, propertyName, min.toString(), max.toString());
     }
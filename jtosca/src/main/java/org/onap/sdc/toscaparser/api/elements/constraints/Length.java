@@ -50,11 +50,8 @@ public class Length extends Constraint {
 
     @Override
     protected boolean isValid(Object value) {
-        if (value instanceof String && constraintValue instanceof Integer &&
-                ((String) value).length() == (Integer) constraintValue) {
-            return true;
-        }
-        return false;
+        Integer length = getLengthConstraintValue();
+        return length != null && value instanceof String && ((String) value).length() == length;
     }
 
     @Override
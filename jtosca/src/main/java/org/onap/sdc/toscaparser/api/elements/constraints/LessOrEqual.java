@@ -70,13 +70,18 @@ public class LessOrEqual extends Constraint {
             return false;
         }
 
-        Double n1 = new Double(value.toString());
-        Double n2 = new Double(constraintValue.toString());
+        Double n1 = toNumber(value);
+        Double n2 = getNumericConstraintValue();
         return n1 <= n2;
     }
 
     @Override
     protected String errMsg(Object value) {
+        return errMsg(value, value);
+    }
+
+    @Override
+    protected String errMsg(Object value, Object valueMsg) {
         return String.format("The value \"%s\" of property \"%s\" must be less or equal to \"%s\"",
                 valueMsg, propertyName, constraintValueMsg);
     }
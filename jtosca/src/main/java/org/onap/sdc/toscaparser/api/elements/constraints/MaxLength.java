@@ -52,16 +52,16 @@ public class MaxLength extends Constraint {
         }
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     protected boolean isValid(Object value) {
-        if (value instanceof String && constraintValue instanceof Integer
-                && ((String) value).length() <= (Integer) constraintValue) {
-            return true;
-        } else {
-            return value instanceof LinkedHashMap && constraintValue instanceof Integer
-                    && ((LinkedHashMap<String, Object>) value).size() <= (Integer) constraintValue;
+        Integer bound = getLengthConstraintValue();
+        if (bound == null) {
+            return false;
         }
+        if (value instanceof String) {
+            return ((String) value).length() <= bound;
+        }
+        return value instanceof LinkedHashMap && ((LinkedHashMap<?, ?>) value).size() <= bound;
     }
 
     @Override
@@ -25,10 +25,13 @@ import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
 
 import java.util.Collections;
 import java.util.regex.Matcher;
-import java.util.regex.PatternSyntaxException;
 
 public class Pattern extends Constraint {
 
+    // compiled with the constraint, which is then only read by the threads validating against it
+    private final Object patternSource;
+    private final java.util.regex.Pattern pattern;
+
     @Override
     protected void setValues() {
 
@@ -47,29 +50,34 @@ public class Pattern extends Constraint {
         if (!validTypes.contains(constraintValue.getClass().getSimpleName())) {
             ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE114", "InvalidSchemaError: The property \"pattern\" expects a string"));
         }
+        patternSource = constraintValue;
+        pattern = CompiledConstraints.pattern(constraintValue.toString());
     }
 
     @Override
     protected boolean isValid(Object value) {
-        try {
-            if (!(value instanceof String)) {
-                ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE115", String.format("ValueError: Input value \"%s\" to \"pattern\" property \"%s\" must be a string",
-                        value.toString(), propertyName)));
-                return false;
-            }
-            String strp = constraintValue.toString();
-            String strm = value.toString();
-            java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(strp);
-            Matcher matcher = pattern.matcher(strm);
-            if (matcher.find() && matcher.end() == strm.length()) {
-                return true;
-            }
+        if (!(value instanceof String)) {
+            ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE115", String.format("ValueError: Input value \"%s\" to \"pattern\" property \"%s\" must be a string",
+                    value.toString(), propertyName)));
             return false;
-        } catch (PatternSyntaxException pse) {
+        }
+        java.util.regex.Pattern compiled = getPattern();
+        if (compiled == null) {
             ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE116", String.format("ValueError: Invalid regex \"%s\" in \"pattern\" property \"%s\"",
                     constraintValue.toString(), propertyName)));
             return false;
         }
+        String strm = value.toString();
+        Matcher matcher = compiled.matcher(strm);
+        return matcher.find() && matcher.end() == strm.length();
+    }
+
+    private java.util.regex.Pattern getPattern() {
+        // compiled once per regex and shared, see CompiledConstraints
+        if (constraintValue != patternSource) {
+            return CompiledConstraints.pattern(constraintValue.toString());
+        }
+        return pattern;
     }
 
     @Override
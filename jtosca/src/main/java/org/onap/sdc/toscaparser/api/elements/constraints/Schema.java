@@ -89,7 +89,8 @@ public class Schema {
     private String name;
     private LinkedHashMap<String, Object> schema;
     private int len;
-    private ArrayList<Constraint> constraintsList;
+    // built once and only published complete, the schemas of a data type are shared by the threads of a parse
+    private volatile ArrayList<Constraint> constraintsList;
 
 
     public Schema(String name, LinkedHashMap<String, Object> schemaDict) {
@@ -111,7 +112,6 @@ public class Schema {
 
         schema = schemaDict;
         len = 0; //??? None
-        constraintsList = new ArrayList<>();
     }
 
     public String getType() {
@@ -140,7 +140,10 @@ public class Schema {
 
     @SuppressWarnings("unchecked")
     public ArrayList<Constraint> getConstraints() {
-        if (constraintsList.size() == 0) {
+        // resolved once, list and map entries check every value against the same schema
+        ArrayList<Constraint> constraints = constraintsList;
+        if (constraints == null) {
+            constraints = new ArrayList<>();
             Object cob = schema.get(CONSTRAINTS);
             if (cob instanceof ArrayList) {
                 ArrayList<Object> constraintSchemata = (ArrayList<Object>) cob;
@@ -149,7 +152,7 @@ public class Schema {
                         for (String cClass : ((LinkedHashMap<String, Object>) ob).keySet()) {
                             Constraint c = Constraint.factory(cClass, name, getType(), ob);
                             if (c != null) {
-                                constraintsList.add(c);
+                                constraints.add(c);
                             } else {
                                 // error
                                 ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE119", String.format(
@@ -161,8 +164,9 @@ public class Schema {
                     }
                 }
             }
+            constraintsList = constraints;
         }
-        return constraintsList;
+        return constraints;
     }
 
     @SuppressWarnings("unchecked")
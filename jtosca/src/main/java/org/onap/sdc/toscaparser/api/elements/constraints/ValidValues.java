@@ -22,9 +22,14 @@ package org.onap.sdc.toscaparser.api.elements.constraints;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Set;
 
 public class ValidValues extends Constraint {
 
+    // hashed with the constraint, which is then only read by the threads validating against it
+    private final Object validValuesList;
+    private final Set<Object> validValues;
+
 
     protected void setValues() {
         setConstraintKey(VALID_VALUES);
@@ -32,8 +37,12 @@ public class ValidValues extends Constraint {
     }
 
 
+    @SuppressWarnings("unchecked")
     public ValidValues(String name, String type, Object c) {
         super(name, type, c);
+        validValuesList = constraintValue;
+        validValues = constraintValue instanceof ArrayList
+                ? CompiledConstraints.validValues((ArrayList<Object>) constraintValue) : null;
     }
 
     @SuppressWarnings("unchecked")
@@ -41,17 +50,27 @@ public class ValidValues extends Constraint {
         if (!(constraintValue instanceof ArrayList)) {
             return false;
         }
+        Set<Object> validValues = getValidValues();
         if (val instanceof ArrayList) {
             boolean bAll = true;
             for (Object v : (ArrayList<Object>) val) {
-                if (!((ArrayList<Object>) constraintValue).contains(v)) {
+                if (!validValues.contains(v)) {
                     bAll = false;
                     break;
                 }
             }
             return bAll;
         }
-        return ((ArrayList<Object>) constraintValue).contains(val);
+        return validValues.contains(val);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Object> getValidValues() {
+        // hashed once per list of values and shared, see CompiledConstraints
+        if (constraintValue != validValuesList) {
+            return CompiledConstraints.validValues((ArrayList<Object>) constraintValue);
+        }
+        return validValues;
     }
 
     protected String errMsg(Object value) {
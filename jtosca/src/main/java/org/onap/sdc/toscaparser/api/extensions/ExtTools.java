@@ -32,24 +32,85 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * Information about the TOSCA extensions (extra template versions with their definitions file and sections).
+ * <p>
+ * The extensions are discovered by scanning the class path for "extensions/**&#47;*.py" descriptors once per
+ * class loader, the result is shared by all instances and never modified afterwards. Extensions can also be
+ * registered explicitly with {@link #registerExtension(String, String, List)}, and the class path scan can be
+ * skipped with {@link #setClasspathScanEnabled(boolean)} when all extensions are known up front.
+ */
 public class ExtTools {
 
     private static Logger log = LoggerFactory.getLogger(ExtTools.class.getName());
 
-    private static LinkedHashMap<String, Object> extensionInfo = new LinkedHashMap<>();
+    private static final Map<String, Extension> registeredExtensions = new LinkedHashMap<>();
+    private static boolean classpathScanEnabled = true;
+    private static Map<String, Extension> scannedExtensions;
+    private static volatile Map<String, Extension> extensionInfo;
 
     public ExtTools() {
-        extensionInfo = loadExtensions();
     }
 
-    private LinkedHashMap<String, Object> loadExtensions() {
+    /**
+     * Register an extension, replacing a scanned or registered extension of the same version.
+     *
+     * @param version  the template version of the extension, e.g. "tosca_simple_profile_for_nfv_1_0_0".
+     * @param defsFile the class path resource holding the type definitions of the extension.
+     * @param sections the additional template sections allowed by the extension, may be null.
+     */
+    public static synchronized void registerExtension(String version, String defsFile, List<String> sections) {
+        registeredExtensions.put(version, new Extension(defsFile, sections));
+        extensionInfo = null;
+    }
+
+    public static synchronized void unregisterExtension(String version) {
+        registeredExtensions.remove(version);
+        extensionInfo = null;
+    }
+
+    /**
+     * Enable or disable the class path scan for extension descriptors. When disabled only the
+     * registered extensions are known. Must be called before the first template is parsed to avoid the scan.
+     */
+    public static synchronized void setClasspathScanEnabled(boolean enabled) {
+        classpathScanEnabled = enabled;
+        extensionInfo = null;
+    }
+
+    private static Map<String, Extension> getExtensionInfo() {
+        Map<String, Extension> info = extensionInfo;
+        if (info == null) {
+            synchronized (ExtTools.class) {
+                info = extensionInfo;
+                if (info == null) {
+                    LinkedHashMap<String, Extension> extensions = new LinkedHashMap<>();
+                    if (classpathScanEnabled) {
+                        if (scannedExtensions == null) {
+                            scannedExtensions = loadExtensions();
+                        }
+                        extensions.putAll(scannedExtensions);
+                    }
+                    extensions.putAll(registeredExtensions);
+                    info = Collections.unmodifiableMap(extensions);
+                    extensionInfo = info;
+                }
+            }
+        }
+        return info;
+    }
+
+    private static Map<String, Extension> loadExtensions() {
 
-        LinkedHashMap<String, Object> extensions = new LinkedHashMap<>();
+        LinkedHashMap<String, Extension> extensions = new LinkedHashMap<>();
 
         Reflections reflections = new Reflections("extensions", new ResourcesScanner());
         Set<String> resourcePaths = reflections.getResources(Pattern.compile(".*\\.py$"));
@@ -91,38 +152,45 @@ public class ExtTools {
                 }
 
                 if (version != null && defsFile != null) {
-                    LinkedHashMap<String, Object> ext = new LinkedHashMap<>();
-                    ext.put("defs_file", defsFile);
-                    if (sections != null) {
-                        ext.put("sections", sections);
-                    }
-                    extensions.put(version, ext);
+                    extensions.put(version, new Extension(defsFile, sections));
                 }
             } catch (Exception e) {
                 log.error("ExtTools - loadExtensions - {}", e);
-                ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue(
-                        "JE281", "Failed to load extensions" + e.getMessage()));
+                if (ThreadLocalsHolder.getCollector() != null) {
+                    ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue(
+                            "JE281", "Failed to load extensions" + e.getMessage()));
+                }
             }
         }
         return extensions;
     }
 
     public ArrayList<String> getVersions() {
-        return new ArrayList<String>(extensionInfo.keySet());
+        return new ArrayList<String>(getExtensionInfo().keySet());
     }
 
     public LinkedHashMap<String, ArrayList<String>> getSections() {
         LinkedHashMap<String, ArrayList<String>> sections = new LinkedHashMap<>();
-        for (String version : extensionInfo.keySet()) {
-            LinkedHashMap<String, Object> eiv = (LinkedHashMap<String, Object>) extensionInfo.get(version);
-            sections.put(version, (ArrayList<String>) eiv.get("sections"));
+        for (Map.Entry<String, Extension> me : getExtensionInfo().entrySet()) {
+            List<String> extensionSections = me.getValue().sections;
+            sections.put(me.getKey(), extensionSections != null ? new ArrayList<>(extensionSections) : null);
         }
         return sections;
     }
 
     public String getDefsFile(String version) {
-        LinkedHashMap<String, Object> eiv = (LinkedHashMap<String, Object>) extensionInfo.get(version);
-        return (String) eiv.get("defs_file");
+        Extension extension = getExtensionInfo().get(version);
+        return extension != null ? extension.defsFile : null;
+    }
+
+    private static class Extension {
+        private final String defsFile;
+        private final List<String> sections;
+
+        Extension(String defsFile, List<String> sections) {
+            this.defsFile = defsFile;
+            this.sections = sections != null ? Collections.unmodifiableList(new ArrayList<>(sections)) : null;
+        }
     }
 
 }
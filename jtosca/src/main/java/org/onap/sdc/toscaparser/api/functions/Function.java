@@ -22,6 +22,7 @@ package org.onap.sdc.toscaparser.api.functions;
 
 
 import org.onap.sdc.toscaparser.api.TopologyTemplate;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -161,6 +162,7 @@ public abstract class Function {
             String funcName = (new ArrayList<String>(rawFunction.keySet())).get(0);
             if (functionMappings.keySet().contains(funcName)) {
                 String funcType = functionMappings.get(funcName);
+                ParseMetrics.current().functionFound();
                 Object oargs = (new ArrayList<Object>(rawFunction.values())).get(0);
                 ArrayList<Object> funcArgs;
                 if (oargs instanceof ArrayList) {
@@ -36,6 +36,7 @@ import org.onap.sdc.toscaparser.api.elements.NodeType;
 import org.onap.sdc.toscaparser.api.elements.PropertyDef;
 import org.onap.sdc.toscaparser.api.elements.RelationshipType;
 import org.onap.sdc.toscaparser.api.elements.StatefulEntityType;
+import org.onap.sdc.toscaparser.api.elements.TypeRegistry;
 import org.onap.sdc.toscaparser.api.elements.constraints.Schema;
 
 public class GetAttribute extends Function {
@@ -126,7 +127,7 @@ public class GetAttribute extends Function {
                                     elem)));
                             return;
                         } else {  // It is a complex type
-                            DataType dataType = new DataType(valueType, null);
+                            DataType dataType = TypeRegistry.current().getDataType(valueType, null);
                             LinkedHashMap<String, PropertyDef> props =
                                     dataType.getAllProperties();
                             PropertyDef prop = props.get((String) elem);
@@ -166,7 +167,7 @@ public class GetAttribute extends Function {
         NodeTemplate nodeTpl = _findNodeTemplate((String) args.get(0));
         if (nodeTpl != null &&
                 !_attributeExistsInType(nodeTpl.getTypeDefinition()) &&
-                !nodeTpl.getProperties().keySet().contains(getAttributeName())) {
+                !nodeTpl.getPropertiesByName().containsKey(getAttributeName())) {
             ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE150", String.format(
                     "KeyError: Attribute \"%s\" was not found in node template \"%s\"",
                     getAttributeName(), nodeTpl.getName())));
@@ -175,15 +176,14 @@ public class GetAttribute extends Function {
     }
 
     private boolean _attributeExistsInType(StatefulEntityType typeDefinition) {
-        LinkedHashMap<String, AttributeDef> attrsDef = typeDefinition.getAttributesDef();
-        return attrsDef.get(getAttributeName()) != null;
+        return typeDefinition.getAttributeDefValue(getAttributeName()) != null;
     }
 
     private NodeTemplate _findHostContainingAttribute(String nodeTemplateName) {
         NodeTemplate nodeTemplate = _findNodeTemplate(nodeTemplateName);
         if (nodeTemplate != null) {
             LinkedHashMap<String, Object> hostedOnRel =
-                    (LinkedHashMap<String, Object>) EntityType.TOSCA_DEF.get(HOSTED_ON);
+                    (LinkedHashMap<String, Object>) EntityType.getToscaDef().get(HOSTED_ON);
             for (RequirementAssignment r : nodeTemplate.getRequirements().getAll()) {
                 String targetName = r.getNodeTemplateName();
                 NodeTemplate targetNode = _findNodeTemplate(targetName);
@@ -278,12 +278,7 @@ public class GetAttribute extends Function {
         CapabilityAssignment cap = nodeTemplate.getCapabilities().getCapabilityByName(capabilityName);
 
         if (cap != null) {
-            AttributeDef attribute = null;
-            LinkedHashMap<String, AttributeDef> attrs =
-                    cap.getDefinition().getAttributesDef();
-            if (attrs != null && attrs.keySet().contains(attrName)) {
-                attribute = attrs.get(attrName);
-            }
+            AttributeDef attribute = cap.getDefinition().getAttributeDefValue(attrName);
             if (attribute == null) {
                 ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE156", String.format(
                         "KeyError: Attribute \"%s\" was not found in capability \"%s\" of node template \"%s\" referenced from node template \"%s\"",
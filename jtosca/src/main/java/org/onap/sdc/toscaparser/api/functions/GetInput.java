@@ -19,7 +19,6 @@
  */
 package org.onap.sdc.toscaparser.api.functions;
 
-import org.onap.sdc.toscaparser.api.DataEntity;
 import org.onap.sdc.toscaparser.api.TopologyTemplate;
 import org.onap.sdc.toscaparser.api.common.JToscaValidationIssue;
 import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
@@ -50,13 +49,7 @@ public class GetInput extends Function {
 //	            "ValueError: Expected one argument for function \"get_input\" but received \"%s\"",
 //	            args.toString()));
 //	    }
-        boolean bFound = false;
-        for (Input inp : toscaTpl.getInputs()) {
-            if (inp.getName().equals(args.get(0))) {
-                bFound = true;
-                break;
-            }
-        }
+        boolean bFound = args.get(0) instanceof String && toscaTpl.getInput(getInputName()) != null;
         if (!bFound) {
             ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE158", String.format(
                     "UnknownInputError: Unknown input \"%s\"", args.get(0))));
@@ -100,12 +93,8 @@ public class GetInput extends Function {
     public Object result() {
         if (toscaTpl.getParsedParams() != null &&
                 toscaTpl.getParsedParams().get(getInputName()) != null) {
-            LinkedHashMap<String, Object> ttinp = (LinkedHashMap<String, Object>) toscaTpl.getTpl().get(INPUTS);
-            LinkedHashMap<String, Object> ttinpinp = (LinkedHashMap<String, Object>) ttinp.get(getInputName());
-            String type = (String) ttinpinp.get("type");
-
-            Object value = DataEntity.validateDatatype(
-                    type, toscaTpl.getParsedParams().get(getInputName()), null, toscaTpl.getCustomDefs(), null);
+            // validated once per topology template
+            Object value = toscaTpl.getParsedInputValue(getInputName());
             //SDC resolving Get Input
             if (value instanceof ArrayList) {
                 if (args.size() == 2 && args.get(1) instanceof Integer && ((ArrayList) value).size() > (Integer) args.get(1)) {
@@ -120,13 +109,7 @@ public class GetInput extends Function {
             return value;
         }
 
-        Input inputDef = null;
-        for (Input inpDef : toscaTpl.getInputs()) {
-            if (getInputName().equals(inpDef.getName())) {
-                inputDef = inpDef;
-                break;
-            }
-        }
+        Input inputDef = toscaTpl.getInput(getInputName());
         if (inputDef != null) {
             if (args.size() == 2 && inputDef.getDefault() != null && inputDef.getDefault() instanceof ArrayList) {
                 if (args.get(1) instanceof Integer
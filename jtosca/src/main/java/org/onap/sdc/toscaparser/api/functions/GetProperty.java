@@ -30,13 +30,14 @@ import org.onap.sdc.toscaparser.api.common.JToscaValidationIssue;
 import org.onap.sdc.toscaparser.api.elements.CapabilityTypeDef;
 import org.onap.sdc.toscaparser.api.elements.EntityType;
 import org.onap.sdc.toscaparser.api.elements.NodeType;
-import org.onap.sdc.toscaparser.api.elements.PropertyDef;
 import org.onap.sdc.toscaparser.api.elements.RelationshipType;
 import org.onap.sdc.toscaparser.api.elements.StatefulEntityType;
 import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class GetProperty extends Function {
     // Get a property value of an entity defined in the same service template
@@ -90,11 +91,11 @@ public class GetProperty extends Function {
             // if the prop is not found
             // First check if there is property with this name
             NodeTemplate nodeTpl = _findNodeTemplate((String) args.get(0));
-            LinkedHashMap<String, Property> props;
+            Map<String, Property> props;
             if (nodeTpl != null) {
-                props = nodeTpl.getProperties();
+                props = nodeTpl.getPropertiesByName();
             } else {
-                props = new LinkedHashMap<>();
+                props = Collections.emptyMap();
             }
             int index = 2;
             Object propertyValue;
@@ -171,8 +172,7 @@ public class GetProperty extends Function {
         if (nodeTpl == null) {
             return null;
         }
-        LinkedHashMap<String, Property> props = nodeTpl.getProperties();
-        Property found = props.get(propertyName);
+        Property found = nodeTpl.getProperty(propertyName);
         if (found == null) {
             ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE170", String.format(
                     "KeyError: Property \"%s\" was not found in node template \"%s\"",
@@ -272,7 +272,7 @@ public class GetProperty extends Function {
         }
         NodeTemplate nodeTemplate = _findNodeTemplate(nodeTemplateName);
         LinkedHashMap<String, Object> hostedOnRel = (LinkedHashMap<String, Object>)
-                EntityType.TOSCA_DEF.get(HOSTED_ON);
+                EntityType.getToscaDef().get(HOSTED_ON);
         for (RequirementAssignment requirement : nodeTemplate.getRequirements().getAll()) {
             String targetName = requirement.getNodeTemplateName();
             NodeTemplate targetNode = _findNodeTemplate(targetName);
@@ -298,8 +298,7 @@ public class GetProperty extends Function {
     }
 
     private boolean _propertyExistsInType(StatefulEntityType typeDefinition) {
-        LinkedHashMap<String, PropertyDef> propsDef = typeDefinition.getPropertiesDef();
-        return propsDef.keySet().contains((String) args.get(1));
+        return typeDefinition.getPropertiesDefByName().containsKey((String) args.get(1));
     }
 
     @Override
@@ -308,11 +307,11 @@ public class GetProperty extends Function {
         if (args.size() >= 3) {
             // First check if there is property with this name
             NodeTemplate nodeTpl = _findNodeTemplate((String) args.get(0));
-            LinkedHashMap<String, Property> props;
+            Map<String, Property> props;
             if (nodeTpl != null) {
-                props = nodeTpl.getProperties();
+                props = nodeTpl.getPropertiesByName();
             } else {
-                props = new LinkedHashMap<>();
+                props = Collections.emptyMap();
             }
             int index = 2;
             if (props.get(args.get(1)) != null) {
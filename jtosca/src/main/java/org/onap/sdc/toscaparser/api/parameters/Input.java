@@ -160,10 +160,10 @@ public class Input {
     @SuppressWarnings("unchecked")
     private void validateValue(Object value) {
         Object datatype;
-        if (EntityType.TOSCA_DEF.get(getType()) != null) {
-            datatype = EntityType.TOSCA_DEF.get(getType());
-        } else if (EntityType.TOSCA_DEF.get(EntityType.DATATYPE_NETWORK_PREFIX + getType()) != null) {
-            datatype = EntityType.TOSCA_DEF.get(EntityType.DATATYPE_NETWORK_PREFIX + getType());
+        if (EntityType.getToscaDef().get(getType()) != null) {
+            datatype = EntityType.getToscaDef().get(getType());
+        } else if (EntityType.getToscaDef().get(EntityType.DATATYPE_NETWORK_PREFIX + getType()) != null) {
+            datatype = EntityType.getToscaDef().get(EntityType.DATATYPE_NETWORK_PREFIX + getType());
         }
 
         String type = getType();
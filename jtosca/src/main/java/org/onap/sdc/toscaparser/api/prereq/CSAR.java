@@ -22,10 +22,14 @@ package org.onap.sdc.toscaparser.api.prereq;
 
 import org.onap.sdc.toscaparser.api.ImportsLoader;
 import org.onap.sdc.toscaparser.api.common.JToscaValidationIssue;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics.Phase;
 import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
 import org.onap.sdc.toscaparser.api.utils.UrlUtils;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -61,6 +65,8 @@ public class CSAR {
     private String tempDir;
     //    private Metadata metaData;
     private File tempFile;
+    private CsarArchive archive;
+    private BufferedInputStream content;
     private LinkedHashMap<String, LinkedHashMap<String, Object>> metaProperties;
 
     public CSAR(String csarPath, boolean aFile) {
@@ -74,12 +80,26 @@ public class CSAR {
         metaProperties = new LinkedHashMap<>();
     }
 
+    /**
+     * A CSAR whose content is held in memory. The content is read during {@link #validate()}
+     * and never written to disk, so {@link #decompress()} is not supported for it.
+     *
+     * @param csarName    the name identifying the CSAR in paths and validation messages.
+     * @param csarContent the zip content of the CSAR, it is not closed.
+     */
+    public CSAR(String csarName, InputStream csarContent) {
+        this(csarName, false);
+        content = new BufferedInputStream(csarContent);
+    }
+
     public boolean validate() throws JToscaException {
         isValidated = true;
 
         //validate that the file or URL exists
 
-        if (isFile) {
+        if (content != null) {
+            this.csar = path;
+        } else if (isFile) {
             File f = new File(path);
             if (!f.isFile()) {
                 ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE220", String.format("\"%s\" is not a file", path)));
@@ -123,14 +143,10 @@ public class CSAR {
 
     private void _parseAndValidateMetaProperties() throws JToscaException {
 
-        ZipFile zf = null;
-
         try {
 
             // validate that it is a valid zip file
-            RandomAccessFile raf = new RandomAccessFile(csar, "r");
-            long n = raf.readInt();
-            raf.close();
+            long n = _readMagicNumber();
             // check if Zip's magic number
             if (n != 0x504B0304) {
                 String errorString = String.format("\"%s\" is not a valid zip file", csar);
@@ -139,9 +155,13 @@ public class CSAR {
             }
 
             // validate that it contains the metadata file in the correct location
-            zf = new ZipFile(csar);
-            ZipEntry ze = zf.getEntry("TOSCA-Metadata/TOSCA.meta");
-            if (ze == null) {
+            ParseMetrics.current().start(Phase.UNZIP);
+            try {
+                archive = content != null ? new CsarArchive(csar, content) : new CsarArchive(csar);
+            } finally {
+                ParseMetrics.current().stop(Phase.UNZIP);
+            }
+            if (!archive.containsEntry("TOSCA-Metadata/TOSCA.meta")) {
 
                 String errorString = String.format(
                         "\"%s\" is not a valid CSAR as it does not contain the " +
@@ -154,16 +174,16 @@ public class CSAR {
             for (String metaFile : META_PROPERTIES_FILES) {
 
                 byte ba[] = new byte[4096];
-                ze = zf.getEntry(metaFile);
-                if (ze != null) {
-                    InputStream inputStream = zf.getInputStream(ze);
-                    n = inputStream.read(ba, 0, 4096);
+                if (archive.containsEntry(metaFile)) {
+                    try (InputStream inputStream = archive.openEntry(metaFile)) {
+                        n = inputStream.read(ba, 0, 4096);
+                    }
                     String md = new String(ba);
                     md = md.substring(0, (int) n);
 
                     String errorString = String.format(
                             "The file \"%s\" in the" +
-                                    " CSAR \"%s\" does not contain valid YAML content", ze.getName(), csar);
+                                    " CSAR \"%s\" does not contain valid YAML content", metaFile, csar);
 
                     try {
                         Yaml yaml = new Yaml();
@@ -173,7 +193,7 @@ public class CSAR {
                             throw new JToscaException(errorString, JToscaErrorCodes.INVALID_META_YAML_CONTENT.getValue());
                         }
 
-                        String[] split = ze.getName().split("/");
+                        String[] split = metaFile.split("/");
                         String fileName = split[split.length - 1];
 
                         if (!metaProperties.containsKey(fileName)) {
@@ -197,16 +217,7 @@ public class CSAR {
             }
 
             //validate that "Entry-Definitions' metadata value points to an existing file in the CSAR
-            boolean foundEDF = false;
-            Enumeration<? extends ZipEntry> entries = zf.entries();
-            while (entries.hasMoreElements()) {
-                ze = entries.nextElement();
-                if (ze.getName().equals(edf)) {
-                    foundEDF = true;
-                    break;
-                }
-            }
-            if (!foundEDF) {
+            if (!archive.containsEntry(edf)) {
                 String errorString = String.format(
                         "The \"Entry-Definitions\" file defined in the CSAR \"%s\" does not exist", csar);
                 log.error(errorString);
@@ -214,17 +225,24 @@ public class CSAR {
             }
         } catch (JToscaException e) {
             //ThreadLocalsHolder.getCollector().appendCriticalException(e.getMessage());
+            closeArchive();
             throw e;
         } catch (Exception e) {
             ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE223", "ValidationError: " + e.getMessage()));
             errorCaught = true;
+            closeArchive();
         }
+    }
 
-        try {
-            if (zf != null) {
-                zf.close();
-            }
-        } catch (IOException e) {
+    private long _readMagicNumber() throws IOException {
+        if (content != null) {
+            content.mark(4);
+            int n = new DataInputStream(content).readInt();
+            content.reset();
+            return n;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(csar, "r")) {
+            return raf.readInt();
         }
     }
 
@@ -235,6 +253,26 @@ public class CSAR {
             }
         } catch (Exception e) {
         }
+        closeArchive();
+    }
+
+    private void closeArchive() {
+        try {
+            if (archive != null) {
+                archive.close();
+            }
+        } catch (IOException e) {
+        }
+        archive = null;
+    }
+
+    /**
+     * The files of a validated CSAR are read directly from the archive, which stays open until {@link #cleanup()}.
+     *
+     * @return the open archive, or null if the CSAR was not validated successfully.
+     */
+    public CsarArchive getArchive() {
+        return archive;
     }
 
     private String _getMetadata(String key) throws JToscaException {
@@ -263,6 +301,9 @@ public class CSAR {
 
     public String getMainTemplate() throws JToscaException {
         String entryDef = _getMetadata("Entry-Definitions");
+        if (archive != null) {
+            return archive.containsEntry(entryDef) ? entryDef : null;
+        }
         ZipFile zf;
         boolean ok = false;
         try {
@@ -283,9 +324,10 @@ public class CSAR {
 
     @SuppressWarnings("unchecked")
     public LinkedHashMap<String, Object> getMainTemplateYaml() throws JToscaException {
-        String mainTemplate = tempDir + File.separator + getMainTemplate();
+        String mainTemplate = archive != null ? archive.getPath(getMainTemplate()) : tempDir + File.separator + getMainTemplate();
         if (mainTemplate != null) {
-            try (InputStream input = new FileInputStream(new File(mainTemplate));) {
+            ParseMetrics.current().start(Phase.YAML_LOAD);
+            try (InputStream input = archive != null ? archive.openStream(mainTemplate) : new FileInputStream(new File(mainTemplate));) {
                 Yaml yaml = new Yaml();
                 Object data = yaml.load(input);
                 if (!(data instanceof LinkedHashMap)) {
@@ -297,6 +339,8 @@ public class CSAR {
                         "The file \"%s\" in the CSAR \"%s\" does not " +
                                 "contain valid TOSCA YAML content",
                         mainTemplate, csar)));
+            } finally {
+                ParseMetrics.current().stop(Phase.YAML_LOAD);
             }
         }
         return null;
@@ -321,6 +365,9 @@ public class CSAR {
         if (!isValidated) {
             validate();
         }
+        if (content != null) {
+            throw new IOException("CSAR " + path + " is held in memory and cannot be decompressed");
+        }
 
         if (tempDir == null || tempDir.isEmpty()) {
             tempDir = Files.createTempDirectory("JTP").toString();
@@ -334,67 +381,66 @@ public class CSAR {
         // * imports
         // * interface implementations
         // * artifacts
-        try {
-            decompress();
-            String mainTplFile = getMainTemplate();
-            if (mainTplFile == null) {
-                return;
-            }
+        // The references are looked up in the archive itself, nothing is extracted
+        String mainTplFile = getMainTemplate();
+        if (mainTplFile == null) {
+            return;
+        }
 
-            LinkedHashMap<String, Object> mainTpl = getMainTemplateYaml();
-            if (mainTpl.get("imports") != null) {
-                // this loads the imports
-                ImportsLoader il = new ImportsLoader((ArrayList<Object>) mainTpl.get("imports"),
-                        tempDir + File.separator + mainTplFile,
-                        (Object) null,
-                        (LinkedHashMap<String, Object>) null);
-            }
+        LinkedHashMap<String, Object> mainTpl = getMainTemplateYaml();
+        if (mainTpl.get("imports") != null) {
+            // this loads the imports
+            ImportsLoader il = new ImportsLoader((ArrayList<Object>) mainTpl.get("imports"),
+                    archive.getPath(mainTplFile),
+                    (Object) null,
+                    (LinkedHashMap<String, Object>) null,
+                    archive);
+        }
 
-            if (mainTpl.get("topology_template") != null) {
-                LinkedHashMap<String, Object> topologyTemplate =
-                        (LinkedHashMap<String, Object>) mainTpl.get("topology_template");
-
-                if (topologyTemplate.get("node_templates") != null) {
-                    LinkedHashMap<String, Object> nodeTemplates =
-                            (LinkedHashMap<String, Object>) topologyTemplate.get("node_templates");
-                    for (String nodeTemplateKey : nodeTemplates.keySet()) {
-                        LinkedHashMap<String, Object> nodeTemplate =
-                                (LinkedHashMap<String, Object>) nodeTemplates.get(nodeTemplateKey);
-                        if (nodeTemplate.get("artifacts") != null) {
-                            LinkedHashMap<String, Object> artifacts =
-                                    (LinkedHashMap<String, Object>) nodeTemplate.get("artifacts");
-                            for (String artifactKey : artifacts.keySet()) {
-                                Object artifact = artifacts.get(artifactKey);
-                                if (artifact instanceof String) {
-                                    _validateExternalReference(mainTplFile, (String) artifact, true);
-                                } else if (artifact instanceof LinkedHashMap) {
-                                    String file = (String) ((LinkedHashMap<String, Object>) artifact).get("file");
-                                    if (file != null) {
-                                        _validateExternalReference(mainTplFile, file, true);
-                                    }
-                                } else {
-                                    ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE225", String.format(
-                                            "ValueError: Unexpected artifact definition for \"%s\"",
-                                            artifactKey)));
-                                    errorCaught = true;
+        if (mainTpl.get("topology_template") != null) {
+            LinkedHashMap<String, Object> topologyTemplate =
+                    (LinkedHashMap<String, Object>) mainTpl.get("topology_template");
+
+            if (topologyTemplate.get("node_templates") != null) {
+                LinkedHashMap<String, Object> nodeTemplates =
+                        (LinkedHashMap<String, Object>) topologyTemplate.get("node_templates");
+                for (String nodeTemplateKey : nodeTemplates.keySet()) {
+                    LinkedHashMap<String, Object> nodeTemplate =
+                            (LinkedHashMap<String, Object>) nodeTemplates.get(nodeTemplateKey);
+                    if (nodeTemplate.get("artifacts") != null) {
+                        LinkedHashMap<String, Object> artifacts =
+                                (LinkedHashMap<String, Object>) nodeTemplate.get("artifacts");
+                        for (String artifactKey : artifacts.keySet()) {
+                            Object artifact = artifacts.get(artifactKey);
+                            if (artifact instanceof String) {
+                                _validateExternalReference(mainTplFile, (String) artifact, true);
+                            } else if (artifact instanceof LinkedHashMap) {
+                                String file = (String) ((LinkedHashMap<String, Object>) artifact).get("file");
+                                if (file != null) {
+                                    _validateExternalReference(mainTplFile, file, true);
                                 }
+                            } else {
+                                ThreadLocalsHolder.getCollector().appendValidationIssue(new JToscaValidationIssue("JE225", String.format(
+                                        "ValueError: Unexpected artifact definition for \"%s\"",
+                                        artifactKey)));
+                                errorCaught = true;
                             }
                         }
-                        if (nodeTemplate.get("interfaces") != null) {
-                            LinkedHashMap<String, Object> interfaces =
-                                    (LinkedHashMap<String, Object>) nodeTemplate.get("interfaces");
-                            for (String interfaceKey : interfaces.keySet()) {
-                                LinkedHashMap<String, Object> _interface =
-                                        (LinkedHashMap<String, Object>) interfaces.get(interfaceKey);
-                                for (String operationKey : _interface.keySet()) {
-                                    Object operation = _interface.get(operationKey);
-                                    if (operation instanceof String) {
-                                        _validateExternalReference(mainTplFile, (String) operation, false);
-                                    } else if (operation instanceof LinkedHashMap) {
-                                        String imp = (String) ((LinkedHashMap<String, Object>) operation).get("implementation");
-                                        if (imp != null) {
-                                            _validateExternalReference(mainTplFile, imp, true);
-                                        }
+                    }
+                    if (nodeTemplate.get("interfaces") != null) {
+                        LinkedHashMap<String, Object> interfaces =
+                                (LinkedHashMap<String, Object>) nodeTemplate.get("interfaces");
+                        for (String interfaceKey : interfaces.keySet()) {
+                            LinkedHashMap<String, Object> _interface =
+                                    (LinkedHashMap<String, Object>) interfaces.get(interfaceKey);
+                            for (String operationKey : _interface.keySet()) {
+                                Object operation = _interface.get(operationKey);
+                                if (operation instanceof String) {
+                                    _validateExternalReference(mainTplFile, (String) operation, false);
+                                } else if (operation instanceof LinkedHashMap) {
+                                    String imp = (String) ((LinkedHashMap<String, Object>) operation).get("implementation");
+                                    if (imp != null) {
+                                        _validateExternalReference(mainTplFile, imp, true);
                                     }
                                 }
                             }
@@ -402,13 +448,6 @@ public class CSAR {
                     }
                 }
             }
-        } catch (IOException e) {
-            errorCaught = true;
-        } finally {
-            // delete tempDir (only here?!?)
-            File fdir = new File(tempDir);
-            deleteDir(fdir);
-            tempDir = null;
         }
     }
 
@@ -445,9 +484,8 @@ public class CSAR {
         }
 
         String dirPath = Paths.get(tplFile).getParent().toString();
-        String filePath = tempDir + File.separator + dirPath + File.separator + resourceFile;
-        File f = new File(filePath);
-        if (f.isFile()) {
+        String filePath = archive.getPath(dirPath + File.separator + resourceFile);
+        if (archive.isFile(filePath)) {
             return;
         }
 
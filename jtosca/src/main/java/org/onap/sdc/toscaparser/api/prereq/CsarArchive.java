@@ -0,0 +1,179 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+
+package org.onap.sdc.toscaparser.api.prereq;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Read access to the files of an open CSAR without extracting it.
+ * <p>
+ * The files of the archive are addressed as if the CSAR was a directory: the path of
+ * "Definitions/service.yml" in "/data/service.csar" is "/data/service.csar/Definitions/service.yml".
+ * <p>
+ * An archive is either backed by a CSAR file, whose entries are read on demand, or by CSAR
+ * content held in memory. For a CSAR file, paths outside of the archive are looked up on the
+ * local file system, so a template path can be used the same way whether it points into a CSAR
+ * or not. Content held in memory is addressed under a root no local path can match, and only
+ * its own files can be read.
+ */
+public class CsarArchive implements Closeable {
+
+    private static final int BUFFER_SIZE = 4096;
+    private static final String IN_MEMORY_ROOT = File.separator + "in-memory-csar-";
+
+    private final String root;
+    private final ZipFile zipFile;
+    private final Map<String, ZipEntry> files = new HashMap<>();
+    private final Map<String, byte[]> contents = new HashMap<>();
+
+    public CsarArchive(String csarPath) throws IOException {
+        root = new File(csarPath).getAbsolutePath();
+        zipFile = new ZipFile(csarPath);
+        Enumeration<? extends ZipEntry> entries = zipFile.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            if (!entry.isDirectory()) {
+                files.put(entry.getName(), entry);
+            }
+        }
+    }
+
+    /**
+     * Read a CSAR from a stream into memory. The stream is read to its end but not closed.
+     * <p>
+     * The files are addressed under a root unique to the archive, ending with the file name of
+     * the CSAR, e.g. "/in-memory-csar-&lt;uuid&gt;/service.csar/Definitions/service.yml". It does not
+     * depend on the working directory, and a path the archive has no file for is not found.
+     *
+     * @param csarName the name of the CSAR, its file name ends the root of the paths.
+     * @param csarContent the zip content of the CSAR.
+     */
+    public CsarArchive(String csarName, InputStream csarContent) throws IOException {
+        root = IN_MEMORY_ROOT + UUID.randomUUID() + File.separator + new File(csarName).getName();
+        zipFile = null;
+        ZipInputStream zipIn = new ZipInputStream(csarContent);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        ZipEntry entry;
+        while ((entry = zipIn.getNextEntry()) != null) {
+            if (!entry.isDirectory() && !files.containsKey(entry.getName())) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(entry.getSize() > 0 ? (int) entry.getSize() : BUFFER_SIZE);
+                int read;
+                while ((read = zipIn.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+                files.put(entry.getName(), entry);
+                contents.put(entry.getName(), out.toByteArray());
+            }
+            zipIn.closeEntry();
+        }
+    }
+
+    /**
+     * @return the path under which the files of the archive are addressed.
+     */
+    public String getRoot() {
+        return root;
+    }
+
+    /**
+     * @param entryName the name of a file inside the archive, e.g. "Definitions/service.yml".
+     * @return the path addressing that file.
+     */
+    public String getPath(String entryName) {
+        return root + File.separator + entryName;
+    }
+
+    public boolean containsEntry(String entryName) {
+        return files.containsKey(entryName);
+    }
+
+    /**
+     * @param entryName the name of a file inside the archive, e.g. "TOSCA-Metadata/TOSCA.meta".
+     * @return the content of the file.
+     * @throws FileNotFoundException if the archive has no such file.
+     */
+    public InputStream openEntry(String entryName) throws IOException {
+        ZipEntry entry = files.get(entryName);
+        if (entry == null) {
+            throw new FileNotFoundException(entryName);
+        }
+        return zipFile != null ? zipFile.getInputStream(entry) : new ByteArrayInputStream(contents.get(entryName));
+    }
+
+    public boolean isFile(String path) {
+        if (isInArchive(path)) {
+            return files.containsKey(toEntryName(path));
+        }
+        return zipFile != null && new File(path).isFile();
+    }
+
+    /**
+     * @throws FileNotFoundException if the archive has no file for the path, or, for content held
+     *                               in memory, if the path is outside of the archive.
+     */
+    public InputStream openStream(String path) throws IOException {
+        if (!isInArchive(path)) {
+            if (zipFile == null) {
+                throw new FileNotFoundException(path);
+            }
+            return new FileInputStream(path);
+        }
+        String entryName = toEntryName(path);
+        if (!files.containsKey(entryName)) {
+            throw new FileNotFoundException(path);
+        }
+        return openEntry(entryName);
+    }
+
+    private boolean isInArchive(String path) {
+        String normalized = path.replace('\\', '/');
+        String prefix = root.replace('\\', '/') + "/";
+        return normalized.startsWith(prefix);
+    }
+
+    private String toEntryName(String path) {
+        String relative = path.replace('\\', '/').substring(root.length() + 1);
+        return Paths.get(relative).normalize().toString().replace('\\', '/');
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (zipFile != null) {
+            zipFile.close();
+        }
+    }
+}
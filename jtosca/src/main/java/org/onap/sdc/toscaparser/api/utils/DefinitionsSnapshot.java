@@ -0,0 +1,254 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of the bundled TOSCA definition files.
+ * <p>
+ * Parsing the normative definitions with SnakeYAML is a noticeable part of the class
+ * initialization of {@link org.onap.sdc.toscaparser.api.elements.EntityType}. The jtosca build
+ * runs {@link #main(String[])} on the definition files once they are copied to the output
+ * directory, and writes a snapshot next to each of them. At runtime {@link #load(String)} reads
+ * the snapshot of a definition file, and callers fall back to the YAML file when there is none
+ * or when it can't be read.
+ * <p>
+ * The snapshot holds the same structure SnakeYAML builds (LinkedHashMap, ArrayList, String,
+ * Integer, Long, BigInteger, Double, Boolean and null), with repeated strings written once.
+ */
+public class DefinitionsSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(DefinitionsSnapshot.class.getName());
+
+    public static final String SNAPSHOT_EXTENSION = ".snapshot";
+
+    private static final int MAGIC = 0x544f5343;
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte MAP = 1;
+    private static final byte LIST = 2;
+    private static final byte STRING = 3;
+    private static final byte STRING_REF = 4;
+    private static final byte INTEGER = 5;
+    private static final byte LONG = 6;
+    private static final byte BIG_INTEGER = 7;
+    private static final byte DOUBLE = 8;
+    private static final byte TRUE = 9;
+    private static final byte FALSE = 10;
+
+    private DefinitionsSnapshot() {
+    }
+
+    /**
+     * @param definitionsResource the class path resource of a YAML definition file
+     * @return the class path resource holding its snapshot
+     */
+    public static String snapshotName(String definitionsResource) {
+        return definitionsResource + SNAPSHOT_EXTENSION;
+    }
+
+    /**
+     * Reads the snapshot of a YAML definition file from the class path.
+     *
+     * @param definitionsResource the class path resource of the YAML definition file
+     * @return the definitions, or null if there is no readable snapshot and the YAML file has to be used
+     */
+    @SuppressWarnings("unchecked")
+    public static LinkedHashMap<String, Object> load(String definitionsResource) {
+        String snapshotResource = snapshotName(definitionsResource);
+        InputStream input = DefinitionsSnapshot.class.getClassLoader().getResourceAsStream(snapshotResource);
+        if (input == null) {
+            log.debug("DefinitionsSnapshot - load - no snapshot {}, using the YAML definitions", snapshotResource);
+            return null;
+        }
+        try (InputStream in = input) {
+            Object definitions = read(in);
+            if (definitions instanceof LinkedHashMap) {
+                return (LinkedHashMap<String, Object>) definitions;
+            }
+            log.warn("DefinitionsSnapshot - load - snapshot {} does not hold a map, using the YAML definitions", snapshotResource);
+        } catch (IOException | RuntimeException e) {
+            log.warn("DefinitionsSnapshot - load - failed to read snapshot {}, using the YAML definitions", snapshotResource, e);
+        }
+        return null;
+    }
+
+    public static void write(Object definitions, OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        writeValue(out, definitions, new HashMap<>());
+        out.flush();
+    }
+
+    public static Object read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a definitions snapshot");
+        }
+        int formatVersion = in.readInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported definitions snapshot format " + formatVersion);
+        }
+        return readValue(in, new ArrayList<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeValue(DataOutputStream out, Object value, Map<String, Integer> strings) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof LinkedHashMap) {
+            Map<Object, Object> map = (Map<Object, Object>) value;
+            out.writeByte(MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<Object, Object> me : map.entrySet()) {
+                writeValue(out, me.getKey(), strings);
+                writeValue(out, me.getValue(), strings);
+            }
+        } else if (value instanceof ArrayList) {
+            List<Object> list = (List<Object>) value;
+            out.writeByte(LIST);
+            out.writeInt(list.size());
+            for (Object item : list) {
+                writeValue(out, item, strings);
+            }
+        } else if (value instanceof String) {
+            Integer index = strings.get(value);
+            if (index != null) {
+                out.writeByte(STRING_REF);
+                out.writeInt(index);
+            } else {
+                strings.put((String) value, strings.size());
+                byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+                out.writeByte(STRING);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof BigInteger) {
+            out.writeByte(BIG_INTEGER);
+            writeValue(out, value.toString(), strings);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else {
+            throw new IllegalArgumentException("Unsupported definitions value type " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInputStream in, List<String> strings) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case MAP:
+                int mapSize = in.readInt();
+                LinkedHashMap<Object, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < mapSize; i++) {
+                    Object key = readValue(in, strings);
+                    map.put(key, readValue(in, strings));
+                }
+                return map;
+            case LIST:
+                int listSize = in.readInt();
+                ArrayList<Object> list = new ArrayList<>(listSize);
+                for (int i = 0; i < listSize; i++) {
+                    list.add(readValue(in, strings));
+                }
+                return list;
+            case STRING:
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                String string = new String(bytes, StandardCharsets.UTF_8);
+                strings.add(string);
+                return string;
+            case STRING_REF:
+                return strings.get(in.readInt());
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case BIG_INTEGER:
+                return new BigInteger((String) readValue(in, strings));
+            case DOUBLE:
+                return in.readDouble();
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            default:
+                throw new IOException("Unknown definitions snapshot tag " + tag);
+        }
+    }
+
+    /**
+     * Writes the snapshot of YAML definition files, used by the build.
+     *
+     * @param args the directory holding the definition files, followed by their paths relative to it
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: DefinitionsSnapshot <directory> <definition file>...");
+        }
+        File directory = new File(args[0]);
+        for (int i = 1; i < args.length; i++) {
+            File definitionsFile = new File(directory, args[i]);
+            File snapshotFile = new File(directory, snapshotName(args[i]));
+            Object definitions;
+            try (InputStream input = new FileInputStream(definitionsFile)) {
+                definitions = new Yaml().load(input);
+            }
+            try (OutputStream output = new FileOutputStream(snapshotFile)) {
+                write(definitions, output);
+            }
+            log.info("DefinitionsSnapshot - wrote {} from {}", snapshotFile, definitionsFile);
+        }
+    }
+}
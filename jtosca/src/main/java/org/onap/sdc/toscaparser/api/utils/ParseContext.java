@@ -0,0 +1,195 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api.utils;
+
+import org.onap.sdc.toscaparser.api.ImportGraph;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
+import org.onap.sdc.toscaparser.api.common.ValidationIssueCollector;
+import org.onap.sdc.toscaparser.api.elements.TypeRegistry;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * The state of a single parse: its validation issue collector, its options, the type registry,
+ * definitions it resolves types through, the import files it reads, and its metrics.
+ * <p>
+ * A ToscaTemplate creates the context of its parse and keeps it, so its validation issues can be read
+ * from any thread once the parse is over. While the parse runs the context is bound to the threads
+ * working on it with {@link #enter()}, and unbound once it is over; the parser reaches it through
+ * {@link #current()}, or through {@link ThreadLocalsHolder} which remains as a view of the current context.
+ * <p>
+ * A worker thread taking part in a parse works on a {@link #fork()} of its context: the fork shares the
+ * options and the caches, which are safe to use concurrently, and has its own collector and metrics,
+ * merged back by the parsing thread.
+ */
+public final class ParseContext {
+
+    private volatile ValidationIssueCollector collector;
+    private final boolean resolveGetInput;
+    private final Executor nestedTemplatesExecutor;
+    private volatile TypeRegistry typeRegistry;
+    private volatile Map<String, Object> toscaDefinitions;
+    private volatile ImportGraph importGraph;
+    private volatile ParseMetrics parseMetrics;
+
+    /**
+     * Create the context of a new parse, with an empty collector, type registry and import graph.
+     *
+     * @param resolveGetInput         whether the get_input functions are resolved to the input values.
+     * @param nestedTemplatesExecutor the executor building the nested topologies, null to build them sequentially.
+     */
+    public ParseContext(boolean resolveGetInput, Executor nestedTemplatesExecutor) {
+        this(new ValidationIssueCollector(), resolveGetInput, nestedTemplatesExecutor);
+        this.typeRegistry = new TypeRegistry();
+        this.importGraph = new ImportGraph();
+        this.parseMetrics = new ParseMetrics();
+    }
+
+    ParseContext(ValidationIssueCollector collector, boolean resolveGetInput, Executor nestedTemplatesExecutor) {
+        this.collector = collector;
+        this.resolveGetInput = resolveGetInput;
+        this.nestedTemplatesExecutor = nestedTemplatesExecutor;
+    }
+
+    /**
+     * @return the context bound to the current thread, or null when no parse is running on it.
+     */
+    public static ParseContext current() {
+        return ThreadLocalsHolder.getParseContext();
+    }
+
+    /**
+     * Create the context resolving a type after the parse it belongs to is over, against the definitions
+     * that parse resolved its types through. Issues are reported to the collector bound to the current
+     * thread, if any; types are not interned, the type registry of the parse being released.
+     *
+     * @param toscaDefinitions the definitions of the parse, see EntityType.getToscaDefinitions().
+     */
+    public static ParseContext resolving(Map<String, Object> toscaDefinitions) {
+        ParseContext current = current();
+        ValidationIssueCollector collector = current != null ? current.getCollector() : null;
+        ParseContext context = new ParseContext(collector != null ? collector : new ValidationIssueCollector(),
+                current == null || current.isResolveGetInput(), null);
+        context.toscaDefinitions = toscaDefinitions;
+        return context;
+    }
+
+    /**
+     * Bind this context to the current thread, until the returned scope is closed.
+     *
+     * @return the scope restoring the context the thread was bound to before.
+     */
+    public Scope enter() {
+        Scope scope = new Scope(ThreadLocalsHolder.getParseContext());
+        ThreadLocalsHolder.setParseContext(this);
+        return scope;
+    }
+
+    /**
+     * Create the context of a worker taking part in this parse, sharing its options, type registry,
+     * definitions and import graph, with its own collector and metrics. The metrics measure the
+     * allocations of the calling thread, so the fork is created on the thread working on it.
+     */
+    public ParseContext fork() {
+        ParseContext fork = new ParseContext(new ValidationIssueCollector(), resolveGetInput, nestedTemplatesExecutor);
+        fork.typeRegistry = typeRegistry;
+        fork.toscaDefinitions = toscaDefinitions;
+        fork.importGraph = importGraph;
+        fork.parseMetrics = new ParseMetrics();
+        return fork;
+    }
+
+    /**
+     * Drop the type registry, definitions, import graph and metrics, only needed while the parse runs;
+     * the collector, holding its results, and the options are kept.
+     */
+    public void release() {
+        typeRegistry = null;
+        toscaDefinitions = null;
+        importGraph = null;
+        parseMetrics = null;
+    }
+
+    public ValidationIssueCollector getCollector() {
+        return collector;
+    }
+
+    public void setCollector(ValidationIssueCollector collector) {
+        this.collector = collector;
+    }
+
+    public boolean isResolveGetInput() {
+        return resolveGetInput;
+    }
+
+    public Executor getNestedTemplatesExecutor() {
+        return nestedTemplatesExecutor;
+    }
+
+    public TypeRegistry getTypeRegistry() {
+        return typeRegistry;
+    }
+
+    public void setTypeRegistry(TypeRegistry typeRegistry) {
+        this.typeRegistry = typeRegistry;
+    }
+
+    public Map<String, Object> getToscaDefinitions() {
+        return toscaDefinitions;
+    }
+
+    public void setToscaDefinitions(Map<String, Object> toscaDefinitions) {
+        this.toscaDefinitions = toscaDefinitions;
+    }
+
+    public ImportGraph getImportGraph() {
+        return importGraph;
+    }
+
+    public void setImportGraph(ImportGraph importGraph) {
+        this.importGraph = importGraph;
+    }
+
+    public ParseMetrics getParseMetrics() {
+        return parseMetrics;
+    }
+
+    public void setParseMetrics(ParseMetrics parseMetrics) {
+        this.parseMetrics = parseMetrics;
+    }
+
+    /**
+     * The binding of a context to a thread, restoring the previous one when closed.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final ParseContext previous;
+
+        private Scope(ParseContext previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            ThreadLocalsHolder.setParseContext(previous);
+        }
+    }
+}
@@ -20,26 +20,108 @@
 
 package org.onap.sdc.toscaparser.api.utils;
 
+import org.onap.sdc.toscaparser.api.ImportGraph;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
 import org.onap.sdc.toscaparser.api.common.ValidationIssueCollector;
+import org.onap.sdc.toscaparser.api.elements.TypeRegistry;
 
+import java.util.Map;
+
+/**
+ * The {@link ParseContext} bound to the current thread, and a view of its state for the code reading it
+ * through the thread. The setters change the current context, binding a new one when there is none.
+ */
 public class ThreadLocalsHolder {
 
-    private static final ThreadLocal<ValidationIssueCollector> EXCEPTION_COLLECTOR_THREAD_LOCAL = new ThreadLocal<>();
+    private static final ThreadLocal<ParseContext> PARSE_CONTEXT_THREAD_LOCAL = new ThreadLocal<>();
 
     private ThreadLocalsHolder() {
     }
 
+    public static ParseContext getParseContext() {
+        return PARSE_CONTEXT_THREAD_LOCAL.get();
+    }
+
+    public static void setParseContext(ParseContext parseContext) {
+        if (parseContext == null) {
+            PARSE_CONTEXT_THREAD_LOCAL.remove();
+        } else {
+            PARSE_CONTEXT_THREAD_LOCAL.set(parseContext);
+        }
+    }
+
     public static ValidationIssueCollector getCollector() {
-        return EXCEPTION_COLLECTOR_THREAD_LOCAL.get();
+        ParseContext parseContext = PARSE_CONTEXT_THREAD_LOCAL.get();
+        return parseContext != null ? parseContext.getCollector() : null;
     }
 
     public static void setCollector(ValidationIssueCollector validationIssueCollector) {
-        cleanup();
-        EXCEPTION_COLLECTOR_THREAD_LOCAL.set(validationIssueCollector);
+        ParseContext parseContext = currentOrNew(validationIssueCollector);
+        if (parseContext != null) {
+            parseContext.setCollector(validationIssueCollector);
+        }
     }
 
     public static void cleanup() {
-        EXCEPTION_COLLECTOR_THREAD_LOCAL.remove();
+        PARSE_CONTEXT_THREAD_LOCAL.remove();
+    }
+
+    public static TypeRegistry getTypeRegistry() {
+        ParseContext parseContext = PARSE_CONTEXT_THREAD_LOCAL.get();
+        return parseContext != null ? parseContext.getTypeRegistry() : null;
+    }
+
+    public static void setTypeRegistry(TypeRegistry typeRegistry) {
+        ParseContext parseContext = currentOrNew(typeRegistry);
+        if (parseContext != null) {
+            parseContext.setTypeRegistry(typeRegistry);
+        }
+    }
+
+    public static Map<String, Object> getToscaDefinitions() {
+        ParseContext parseContext = PARSE_CONTEXT_THREAD_LOCAL.get();
+        return parseContext != null ? parseContext.getToscaDefinitions() : null;
+    }
+
+    public static void setToscaDefinitions(Map<String, Object> toscaDefinitions) {
+        ParseContext parseContext = currentOrNew(toscaDefinitions);
+        if (parseContext != null) {
+            parseContext.setToscaDefinitions(toscaDefinitions);
+        }
+    }
+
+    public static ParseMetrics getParseMetrics() {
+        ParseContext parseContext = PARSE_CONTEXT_THREAD_LOCAL.get();
+        return parseContext != null ? parseContext.getParseMetrics() : null;
+    }
+
+    public static void setParseMetrics(ParseMetrics parseMetrics) {
+        ParseContext parseContext = currentOrNew(parseMetrics);
+        if (parseContext != null) {
+            parseContext.setParseMetrics(parseMetrics);
+        }
+    }
+
+    public static ImportGraph getImportGraph() {
+        ParseContext parseContext = PARSE_CONTEXT_THREAD_LOCAL.get();
+        return parseContext != null ? parseContext.getImportGraph() : null;
+    }
+
+    public static void setImportGraph(ImportGraph importGraph) {
+        ParseContext parseContext = currentOrNew(importGraph);
+        if (parseContext != null) {
+            parseContext.setImportGraph(importGraph);
+        }
+    }
+
+    // the context to set a value on: none is bound just to clear a value
+    private static ParseContext currentOrNew(Object value) {
+        ParseContext parseContext = PARSE_CONTEXT_THREAD_LOCAL.get();
+        if (parseContext == null && value != null) {
+            parseContext = new ParseContext(null, true, null);
+            PARSE_CONTEXT_THREAD_LOCAL.set(parseContext);
+        }
+        return parseContext;
     }
 
 }
@@ -0,0 +1,110 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.sdc.toscaparser.api.common.JToscaValidationIssue;
+import org.onap.sdc.toscaparser.api.common.ValidationIssueCollector;
+import org.onap.sdc.toscaparser.api.elements.DataType;
+import org.onap.sdc.toscaparser.api.elements.TypeRegistry;
+import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DataEntityTest {
+
+    private static final String CREDENTIAL = "tosca.datatypes.Credential";
+
+    @Before
+    public void setUp() {
+        ThreadLocalsHolder.setCollector(new ValidationIssueCollector());
+        ThreadLocalsHolder.setTypeRegistry(new TypeRegistry());
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalsHolder.cleanup();
+    }
+
+    @Test
+    public void testValidationPlanIsBuiltOnce() {
+        DataType credential = TypeRegistry.current().getDataType(CREDENTIAL, null);
+        DataType.ValidationPlan plan = credential.getValidationPlan();
+
+        assertSame(plan, credential.getValidationPlan());
+        assertEquals(Arrays.asList("token_type", "token"), plan.getRequiredProperties());
+        assertEquals(Collections.singletonMap("token_type", "password"), plan.getDefaultValues());
+        assertTrue(plan.isAllowed("user"));
+        assertFalse(plan.isAllowed("password"));
+        assertSame(plan.getPropertySchema("keys"), plan.getPropertySchema("keys"));
+        assertNull(plan.getPropertySchema("password"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testValidateComplexValue() {
+        LinkedHashMap<String, Object> value = new LinkedHashMap<>();
+        value.put("user", "admin");
+        value.put("password", "secret");
+
+        LinkedHashMap<String, Object> validated =
+                (LinkedHashMap<String, Object>) DataEntity.validateDatatype(CREDENTIAL, value, null, null, null);
+
+        assertEquals("password", validated.get("token_type"));
+        assertEquals(Arrays.asList("JE003", "JE100"), issueCodes());
+    }
+
+    @Test
+    public void testValidateEntries() {
+        LinkedHashMap<String, Object> entrySchema = new LinkedHashMap<>();
+        entrySchema.put("type", "string");
+        LinkedHashMap<String, Object> maxLength = new LinkedHashMap<>();
+        maxLength.put("max_length", 3);
+        entrySchema.put("constraints", new ArrayList<>(Collections.singletonList(maxLength)));
+
+        DataEntity.validateDatatype("list", new ArrayList<>(Arrays.asList("a", "bcde")), entrySchema, null, null);
+        DataEntity.validateDatatype("list", new ArrayList<>(Arrays.asList("fghij")), entrySchema, null, null);
+
+        assertSame(TypeRegistry.current().getEntrySchema(entrySchema), TypeRegistry.current().getEntrySchema(entrySchema));
+        assertEquals(2, ThreadLocalsHolder.getCollector().validationIssuesCaught());
+    }
+
+    private static List<String> issueCodes() {
+        List<String> codes = new ArrayList<>();
+        for (JToscaValidationIssue issue : ThreadLocalsHolder.getCollector().getValidationIssues().values()) {
+            codes.add(issue.getCode());
+        }
+        Collections.sort(codes);
+        return codes;
+    }
+}
@@ -0,0 +1,139 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.sdc.toscaparser.api.elements.ReadOnlyDefinitions;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ImportCacheTest {
+
+    private static final String TYPES =
+            "node_types:\n"
+                    + "  org.onap.Compute:\n"
+                    + "    derived_from: tosca.nodes.Compute\n"
+                    + "    properties: &props\n"
+                    + "      flavor:\n"
+                    + "        type: string\n"
+                    + "  org.onap.BigCompute:\n"
+                    + "    derived_from: org.onap.Compute\n"
+                    + "    properties: *props\n";
+
+    @Before
+    public void setUp() {
+        ImportCache.clear();
+    }
+
+    @After
+    public void tearDown() {
+        ImportCache.setMaxBytes(ImportCache.DEFAULT_MAX_BYTES);
+        ImportCache.clear();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSameContentIsParsedOnce() throws IOException {
+        Map<String, Object> first = (Map<String, Object>) load(TYPES);
+        Map<String, Object> second = (Map<String, Object>) load(TYPES);
+
+        assertEquals(1, ImportCache.size());
+        assertEquals(TYPES.length(), ImportCache.getCachedBytes());
+        assertSame(first, second);
+        assertTrue(ReadOnlyDefinitions.isReadOnly(first));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAliasesAreShared() throws IOException {
+        load(TYPES);
+        Map<String, Object> nodeTypes = (Map<String, Object>) ((Map<String, Object>) load(TYPES)).get("node_types");
+
+        Object compute = ((Map<String, Object>) nodeTypes.get("org.onap.Compute")).get("properties");
+        Object bigCompute = ((Map<String, Object>) nodeTypes.get("org.onap.BigCompute")).get("properties");
+        assertSame(compute, bigCompute);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws IOException {
+        String first = "tosca_definitions_version: tosca_simple_yaml_1_1\n";
+        String second = "tosca_definitions_version: tosca_simple_yaml_1_0\n";
+        String third = "description: third\n";
+        ImportCache.setMaxBytes(first.length() + second.length());
+        load(first);
+        load(second);
+        load(first);
+        load(third);
+
+        assertEquals(2, ImportCache.size());
+        assertEquals(first.length() + third.length(), ImportCache.getCachedBytes());
+        ImportCache.setMaxBytes(0);
+        assertEquals(0, ImportCache.size());
+        assertEquals(0, ImportCache.getCachedBytes());
+    }
+
+    @Test
+    public void testEmptyFileIsNotCached() throws IOException {
+        assertNull(load(""));
+        assertEquals(0, ImportCache.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    @SuppressWarnings("unchecked")
+    public void testListsAreReadOnly() throws IOException {
+        String imports = "imports:\n  - nodes.yml\n  - data.yml\n";
+        ((List<Object>) ((Map<String, Object>) load(imports)).get("imports")).clear();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testModifiableCopySharesTheReadOnlyDefinitions() throws IOException {
+        Object definitions = load(TYPES);
+        Map<String, Object> tree = new LinkedHashMap<>();
+        tree.put("definitions", definitions);
+        tree.put("values", new ArrayList<>(Collections.singletonList(new LinkedHashMap<>())));
+
+        Map<String, Object> copy = (Map<String, Object>) ImportCache.copyModifiable(tree);
+
+        assertSame(definitions, copy.get("definitions"));
+        assertEquals(tree.get("values"), copy.get("values"));
+        assertNotSame(((List<Object>) tree.get("values")).get(0), ((List<Object>) copy.get("values")).get(0));
+    }
+
+    private static Object load(String content) throws IOException {
+        return ImportCache.load(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
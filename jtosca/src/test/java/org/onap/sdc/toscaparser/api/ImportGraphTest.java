@@ -0,0 +1,84 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api;
+
+import org.junit.Test;
+import org.onap.sdc.toscaparser.api.common.JToscaException;
+import org.onap.sdc.toscaparser.api.elements.ReadOnlyDefinitions;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ImportGraphTest {
+
+    @Test
+    public void testEveryConsumerSharesTheReadOnlyTree() {
+        ImportGraph graph = new ImportGraph();
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("status", "SUPPORTED");
+        Map<String, Object> yaml = new LinkedHashMap<>();
+        yaml.put("properties", properties);
+
+        assertNull(graph.getFile("types.yml"));
+        graph.putFile("types.yml", yaml);
+        properties.remove("status");
+
+        Object first = graph.getFile("types.yml");
+        assertSame(first, graph.getFile("types.yml"));
+        assertTrue(ReadOnlyDefinitions.isReadOnly(first));
+        assertEquals("SUPPORTED", ((Map<?, ?>) ((Map<?, ?>) first).get("properties")).get("status"));
+        assertEquals(1, graph.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    @SuppressWarnings("unchecked")
+    public void testSharedTreeIsReadOnly() {
+        ImportGraph graph = new ImportGraph();
+        graph.putFile("types.yml", new LinkedHashMap<>());
+        ((Map<String, Object>) graph.getFile("types.yml")).put("node_types", new LinkedHashMap<>());
+    }
+
+    @Test
+    public void testImportsAreReadOncePerParse() throws JToscaException, IOException {
+        String fileStr = ImportGraphTest.class.getClassLoader().getResource("csars/service-AdiodVmxVpeBvService-csar.csar").getFile();
+        File file = new File(fileStr);
+        ToscaTemplate toscaTemplate = new ToscaTemplate(file.getAbsolutePath(), null, true, null);
+
+        // the main template and each nested template import the same type files
+        assertTrue(toscaTemplate.getParseMetrics().getImportsLoaded() > 0);
+        assertTrue(toscaTemplate.getParseMetrics().getImportsLoaded() <= distinctImports(file));
+        assertNull(ImportGraph.current());
+    }
+
+    private static long distinctImports(File csar) throws IOException {
+        try (ZipFile zip = new ZipFile(csar)) {
+            return zip.stream().filter(e -> e.getName().endsWith(".yml")).count();
+        }
+    }
+}
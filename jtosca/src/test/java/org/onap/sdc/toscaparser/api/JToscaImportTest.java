@@ -306,4 +306,30 @@ public class JToscaImportTest {
             }
         }
     }
+
+    @Test
+    public void testPropertiesByNameIsBuiltOnce() throws JToscaException {
+        String fileStr = JToscaImportTest.class.getClassLoader().getResource("csars/sdc-onboarding_csar.csar").getFile();
+        File file = new File(fileStr);
+        ToscaTemplate toscaTemplate = new ToscaTemplate(file.getAbsolutePath(), null, true, null);
+        NodeTemplate nodeTemplate = toscaTemplate.getNodeTemplates().get(0);
+
+        Map<String, Property> properties = nodeTemplate.getPropertiesByName();
+        assertSame(properties, nodeTemplate.getPropertiesByName());
+        assertEquals(nodeTemplate.getPropertiesObjects().size(), properties.size());
+        for (Property property : nodeTemplate.getPropertiesObjects()) {
+            assertSame(property, nodeTemplate.getProperty(property.getName()));
+        }
+        assertEquals(properties, nodeTemplate.getProperties());
+        assertNotSame(nodeTemplate.getProperties(), nodeTemplate.getProperties());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPropertiesByNameIsReadOnly() throws JToscaException {
+        String fileStr = JToscaImportTest.class.getClassLoader().getResource("csars/sdc-onboarding_csar.csar").getFile();
+        File file = new File(fileStr);
+        ToscaTemplate toscaTemplate = new ToscaTemplate(file.getAbsolutePath(), null, true, null);
+
+        toscaTemplate.getNodeTemplates().get(0).getPropertiesByName().clear();
+    }
 }
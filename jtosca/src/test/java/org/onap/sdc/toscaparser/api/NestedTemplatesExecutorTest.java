@@ -0,0 +1,155 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api;
+
+import org.junit.Test;
+import org.onap.sdc.toscaparser.api.common.JToscaException;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
+import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class NestedTemplatesExecutorTest {
+
+    private static final String CSAR = "csars/service-AdiodVmxVpeBvService-csar.csar";
+    private static final String NESTED_INPUTS_CSAR = "csars/nested-inputs.csar";
+
+    @Test
+    public void testParallelParseBuildsTheSameTopologies() throws JToscaException {
+        ToscaTemplate sequential = parse(null);
+        ToscaTemplate parallel = parse(ForkJoinPool.commonPool());
+
+        assertFalse(nodeTemplates(parallel).isEmpty());
+        assertEquals(nodeTemplates(sequential), nodeTemplates(parallel));
+        assertEquals(sequential.getParseContext().getCollector().getValidationIssueReport(),
+                parallel.getParseContext().getCollector().getValidationIssueReport());
+    }
+
+    @Test
+    public void testParallelParseIsDeterministic() throws JToscaException {
+        // a rejecting executor leaves every task to the parsing thread
+        Executor rejecting = command -> {
+            throw new RejectedExecutionException();
+        };
+        ToscaTemplate onCaller = parse(rejecting);
+        List<String> callerIssues = ThreadLocalsHolder.getCollector().getValidationIssueReport();
+        ToscaTemplate onPool = parse(ForkJoinPool.commonPool());
+        List<String> poolIssues = ThreadLocalsHolder.getCollector().getValidationIssueReport();
+
+        assertEquals(nodeTemplates(onCaller), nodeTemplates(onPool));
+        assertEquals(callerIssues, poolIssues);
+        assertEquals(onCaller.getParseMetrics().getImportsLoaded(), onPool.getParseMetrics().getImportsLoaded());
+    }
+
+    @Test
+    public void testSiblingNodesBindTheirOwnInputs() throws JToscaException {
+        // vf_1 sets vnf_name, vf_2 leaves it to the default of the input of the nested template:
+        // a sequential parse used to carry "first" over into the topology of vf_2
+        for (Executor executor : Arrays.asList(null, (Executor) ForkJoinPool.commonPool())) {
+            LinkedHashMap<String, Object> params = new LinkedHashMap<>();
+            ToscaTemplate toscaTemplate = parse(NESTED_INPUTS_CSAR, params, executor);
+
+            assertEquals("first", nestedVfcName(toscaTemplate, "vf_1"));
+            assertEquals("unnamed", nestedVfcName(toscaTemplate, "vf_2"));
+            assertTrue(params.isEmpty());
+        }
+    }
+
+    @Test
+    public void testSiblingNodesBindTheNodeTemplatesValidatedOnce() throws JToscaException {
+        // the vfc of vf_2 is not validated again: its properties get the values validated for vf_1
+        for (Executor executor : Arrays.asList(null, (Executor) ForkJoinPool.commonPool())) {
+            ToscaTemplate toscaTemplate = parse(NESTED_INPUTS_CSAR, null, executor);
+            NodeTemplate first = nestedVfc(toscaTemplate, "vf_1");
+            NodeTemplate second = nestedVfc(toscaTemplate, "vf_2");
+
+            assertEquals(1, toscaTemplate.getParseMetrics().getCacheMisses(ParseMetrics.Cache.NESTED_TOPOLOGIES));
+            assertEquals(1, toscaTemplate.getParseMetrics().getCacheHits(ParseMetrics.Cache.NESTED_TOPOLOGIES));
+            assertEquals("vf_1", first.getParentNodeTemplate().getName());
+            assertEquals("vf_2", second.getParentNodeTemplate().getName());
+            for (NodeTemplate vfc : Arrays.asList(first, second)) {
+                assertEquals(1, vfc.getPropertyValue("replicas"));
+                Map<String, Object> flavor = new LinkedHashMap<>();
+                flavor.put("memory", 4);
+                flavor.put("vcpus", 2);
+                assertEquals(flavor, vfc.getPropertyValue("flavor"));
+            }
+            assertNotSame(first.getPropertyValue("flavor"), second.getPropertyValue("flavor"));
+        }
+    }
+
+    private static ToscaTemplate parse(Executor executor) throws JToscaException {
+        return parse(CSAR, null, executor);
+    }
+
+    private static ToscaTemplate parse(String csar, LinkedHashMap<String, Object> params, Executor executor)
+            throws JToscaException {
+        String fileStr = NestedTemplatesExecutorTest.class.getClassLoader().getResource(csar).getFile();
+        File file = new File(fileStr);
+        return new ToscaTemplate(file.getAbsolutePath(), params, true, null, true, executor);
+    }
+
+    private static Object nestedVfcName(ToscaTemplate toscaTemplate, String vfName) {
+        NodeTemplate vfc = nestedVfc(toscaTemplate, vfName);
+        return vfc != null ? vfc.getPropertyValue("name") : null;
+    }
+
+    private static NodeTemplate nestedVfc(ToscaTemplate toscaTemplate, String vfName) {
+        for (NodeTemplate nt : toscaTemplate.getTopologyTemplate().getNodeTemplates()) {
+            if (nt.getName().equals(vfName)) {
+                return nt.getOriginComponentTemplate().getNodeTemplates().get(0);
+            }
+        }
+        return null;
+    }
+
+    private static List<String> nodeTemplates(ToscaTemplate toscaTemplate) {
+        List<String> nodeTemplates = new ArrayList<>();
+        for (NodeTemplate nt : toscaTemplate.getTopologyTemplate().getNodeTemplates()) {
+            addNested(nt, nodeTemplates);
+        }
+        return nodeTemplates;
+    }
+
+    private static void addNested(NodeTemplate nt, List<String> nodeTemplates) {
+        TopologyTemplate nested = nt.getOriginComponentTemplate();
+        if (nested == null) {
+            return;
+        }
+        for (NodeTemplate nestedNt : nested.getNodeTemplates()) {
+            nodeTemplates.add(nt.getName() + "/" + nestedNt.getName() + ":" + nestedNt.getType());
+            addNested(nestedNt, nodeTemplates);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.sdc.toscaparser.api.common.ValidationIssueCollector;
+import org.onap.sdc.toscaparser.api.elements.TypeRegistry;
+import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.LinkedHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TopologyTemplateTest {
+
+    private static final String TOPOLOGY =
+            "inputs:\n"
+                    + "  db_port:\n"
+                    + "    type: integer\n"
+                    + "    default: 3306\n"
+                    + "  db_name:\n"
+                    + "    type: string\n"
+                    + "    default: inventory\n"
+                    + "node_templates:\n"
+                    + "  db:\n"
+                    + "    type: tosca.nodes.Database\n"
+                    + "    properties:\n"
+                    + "      name: { get_input: db_name }\n"
+                    + "      port: { get_input: db_port }\n";
+
+    @Before
+    public void setUp() {
+        ThreadLocalsHolder.setCollector(new ValidationIssueCollector());
+        ThreadLocalsHolder.setTypeRegistry(new TypeRegistry());
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalsHolder.cleanup();
+    }
+
+    @Test
+    public void testInputsByName() {
+        TopologyTemplate topologyTemplate = topologyTemplate(null);
+
+        assertSame(topologyTemplate.getInputs().get(0), topologyTemplate.getInput("db_port"));
+        assertSame(topologyTemplate.getInputs().get(1), topologyTemplate.getInput("db_name"));
+        assertNull(topologyTemplate.getInput("db_user"));
+        assertNull(topologyTemplate.getInput(null));
+    }
+
+    @Test
+    public void testParsedInputValueIsMemoized() {
+        LinkedHashMap<String, Object> parsedParams = new LinkedHashMap<>();
+        parsedParams.put("db_port", 5432);
+        TopologyTemplate topologyTemplate = topologyTemplate(parsedParams);
+
+        Object value = topologyTemplate.getParsedInputValue("db_port");
+        assertEquals(5432, value);
+        assertSame(value, topologyTemplate.getParsedInputValue("db_port"));
+        assertNull(topologyTemplate.getParsedInputValue("db_name"));
+
+        NodeTemplate db = topologyTemplate.getNodeTemplates().get(0);
+        assertEquals(5432, db.getPropertyValue("port"));
+        assertEquals("inventory", db.getPropertyValue("name"));
+    }
+
+    @Test
+    public void testParsedInputValuesAreTheOnesProvidedAtConstruction() {
+        LinkedHashMap<String, Object> parsedParams = new LinkedHashMap<>();
+        parsedParams.put("db_port", 5432);
+        TopologyTemplate topologyTemplate = topologyTemplate(parsedParams);
+
+        // the parameters of the next nested template are added to the same map
+        parsedParams.put("db_port", 5433);
+        parsedParams.put("db_name", "billing");
+
+        assertEquals(5432, topologyTemplate.getParsedInputValue("db_port"));
+        assertNull(topologyTemplate.getParsedInputValue("db_name"));
+        assertEquals(1, topologyTemplate.getParsedParams().size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TopologyTemplate topologyTemplate(LinkedHashMap<String, Object> parsedParams) {
+        LinkedHashMap<String, Object> tpl = (LinkedHashMap<String, Object>) new Yaml().load(TOPOLOGY);
+        return new TopologyTemplate(tpl, new LinkedHashMap<>(), null, parsedParams, null, true);
+    }
+}
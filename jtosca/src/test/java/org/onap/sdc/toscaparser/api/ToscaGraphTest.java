@@ -0,0 +1,99 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.onap.sdc.toscaparser.api.common.JToscaException;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ToscaGraphTest {
+
+    private static final String SERVER = "server_pcrf_oam_001";
+    private static final String VOLUME = "pcrf_oam_volume_id_1";
+
+    private static ToscaTemplate toscaTemplate;
+
+    @BeforeClass
+    public static void setUp() throws JToscaException {
+        String fileStr = ToscaGraphTest.class.getClassLoader().getResource("csars/sdc-onboarding_csar.csar").getFile();
+        toscaTemplate = new ToscaTemplate(new File(fileStr).getAbsolutePath(), null, true, null);
+    }
+
+    @Test
+    public void testGraphIsBuiltOnce() {
+        assertNotNull(toscaTemplate.getGraph());
+        assertSame(toscaTemplate.getTopologyTemplate().getGraph(), toscaTemplate.getGraph());
+    }
+
+    @Test
+    public void testAdjacency() {
+        ToscaGraph graph = toscaTemplate.getGraph();
+
+        assertEquals(toscaTemplate.getNodeTemplates().size(), graph.getVertices().size());
+        assertEquals(singletonList(VOLUME), names(graph.getTargets(SERVER)));
+        assertEquals(singletonList(SERVER), names(graph.getSources(VOLUME)));
+        assertTrue(graph.getTargets(VOLUME).isEmpty());
+        assertSame(graph.vertex(VOLUME), graph.getTargets(SERVER).get(0));
+    }
+
+    @Test
+    public void testReachability() {
+        ToscaGraph graph = toscaTemplate.getGraph();
+
+        assertTrue(graph.isReachable(SERVER, VOLUME));
+        assertFalse(graph.isReachable(VOLUME, SERVER));
+        assertFalse(graph.isReachable(SERVER, "no_such_node"));
+        assertEquals(singletonList(VOLUME), names(graph.getReachable(SERVER)));
+        assertEquals(singletonList(SERVER), names(graph.getDependents(VOLUME)));
+    }
+
+    @Test
+    public void testTopologicalOrder() {
+        ToscaGraph graph = toscaTemplate.getGraph();
+        List<String> order = names(graph.getTopologicalOrder());
+
+        assertEquals(graph.getVertices().size(), order.size());
+        for (NodeTemplate node : graph.getVertices()) {
+            for (NodeTemplate target : graph.getTargets(node.getName())) {
+                assertTrue(order.indexOf(target.getName()) < order.indexOf(node.getName()));
+            }
+        }
+    }
+
+    private static List<String> names(List<NodeTemplate> nodes) {
+        List<String> names = new ArrayList<>();
+        for (NodeTemplate node : nodes) {
+            names.add(node.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,103 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api.common;
+
+import org.junit.After;
+import org.junit.Test;
+import org.onap.sdc.toscaparser.api.ToscaTemplate;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics.Cache;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics.Phase;
+import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ParseMetricsTest {
+
+    @After
+    public void tearDown() {
+        ThreadLocalsHolder.cleanup();
+    }
+
+    @Test
+    public void testParseMetrics() throws JToscaException {
+        File csar = new File(ParseMetricsTest.class.getClassLoader()
+                .getResource("csars/service-NetworkCloudVnfServiceMock-csar.csar").getFile());
+        ToscaTemplate toscaTemplate = new ToscaTemplate(csar.getAbsolutePath(), null, true, null);
+
+        ParseMetrics metrics = toscaTemplate.getParseMetrics();
+        assertNull(ThreadLocalsHolder.getParseMetrics());
+        assertTrue(metrics.getWallTimeNanos() > 0);
+        for (Phase phase : new Phase[]{Phase.CSAR_VALIDATION, Phase.UNZIP, Phase.YAML_LOAD, Phase.IMPORT_RESOLUTION,
+                Phase.TOPOLOGY_BUILD, Phase.FUNCTION_PROCESSING, Phase.NESTED_TEMPLATES, Phase.GRAPH_BUILD}) {
+            assertTrue(phase.toString(), metrics.getWallTimeNanos(phase) > 0);
+            assertTrue(phase.toString(), metrics.getWallTimeNanos(phase) <= metrics.getWallTimeNanos());
+        }
+        assertTrue(metrics.getWallTimeNanos(Phase.TOPOLOGY_BUILD) >= metrics.getWallTimeNanos(Phase.FUNCTION_PROCESSING));
+        assertTrue(metrics.getNodeTemplateCount() > toscaTemplate.getNodeTemplates().size());
+        assertTrue(metrics.getImportsLoaded() > 0);
+        assertTrue(metrics.getFunctionsFound() > 0);
+        assertTrue(metrics.getCacheHits(Cache.TYPES) > 0);
+        assertTrue(metrics.getCacheMisses(Cache.TYPES) > 0);
+        Map<String, Integer> issuesByCode = new HashMap<>();
+        for (JToscaValidationIssue issue : ThreadLocalsHolder.getCollector().getValidationIssues().values()) {
+            issuesByCode.merge(issue.getCode(), 1, Integer::sum);
+        }
+        assertEquals(issuesByCode, metrics.getIssuesByCode());
+    }
+
+    @Test
+    public void testNestedPhaseIsMeasuredOnce() throws InterruptedException {
+        ParseMetrics metrics = new ParseMetrics();
+        metrics.start(Phase.IMPORT_RESOLUTION);
+        metrics.start(Phase.IMPORT_RESOLUTION);
+        Thread.sleep(5);
+        metrics.stop(Phase.IMPORT_RESOLUTION);
+        long inner = metrics.getWallTimeNanos(Phase.IMPORT_RESOLUTION);
+        metrics.stop(Phase.IMPORT_RESOLUTION);
+        metrics.finish(null);
+
+        assertEquals(0, inner);
+        assertTrue(metrics.getWallTimeNanos(Phase.IMPORT_RESOLUTION) >= 5000000);
+        assertTrue(metrics.getWallTimeNanos() >= metrics.getWallTimeNanos(Phase.IMPORT_RESOLUTION));
+        assertEquals(0, metrics.getWallTimeNanos(Phase.YAML_LOAD));
+    }
+
+    @Test
+    public void testNoParseRunning() {
+        ParseMetrics metrics = ParseMetrics.current();
+        assertSame(metrics, ParseMetrics.current());
+        metrics.start(Phase.YAML_LOAD);
+        metrics.importLoaded();
+        metrics.stop(Phase.YAML_LOAD);
+
+        assertEquals(0, metrics.getWallTimeNanos(Phase.YAML_LOAD));
+        assertEquals(0, metrics.getImportsLoaded());
+        metrics.cacheHit(Cache.TYPES);
+        assertEquals(0, metrics.getCacheHits(Cache.TYPES));
+    }
+}
@@ -22,17 +22,25 @@ package org.onap.sdc.toscaparser.api.elements;
 
 import org.junit.After;
 import org.junit.Test;
+import org.onap.sdc.toscaparser.api.ToscaTemplate;
+import org.onap.sdc.toscaparser.api.common.ValidationIssueCollector;
+import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
+import org.yaml.snakeyaml.Yaml;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class EntityTypeTest {
 
-    private static final Map<String, Object> origMap = EntityType.TOSCA_DEF;
-
     @Test
     public void testUpdateDefinitions() throws Exception {
 
@@ -59,17 +67,154 @@ public class EntityTypeTest {
         testData.put("tosca.capabilities.nfv.Metric", "{derived_from=tosca.capabilities.Root}");
         testData.put("tosca.capabilities.nfv.Forwarder", "{derived_from=tosca.capabilities.Root}");
 
-        Map<String, Object> expectedDefMap = origMap;
-        expectedDefMap.putAll(testData);
+        ThreadLocalsHolder.setCollector(new ValidationIssueCollector());
+        EntityType.updateDefinitions("tosca_simple_profile_for_nfv_1_0_0");
+
+        Map<String, Object> toscaDef = EntityType.getToscaDef();
+        assertEquals(EntityType.TOSCA_DEF.size() + testData.size(), toscaDef.size());
+        assertTrue(toscaDef.keySet().containsAll(EntityType.TOSCA_DEF.keySet()));
+        for (String type : testData.keySet()) {
+            assertTrue(toscaDef.get(type) instanceof LinkedHashMap);
+            assertFalse(EntityType.TOSCA_DEF.containsKey(type));
+        }
+
         EntityType.updateDefinitions("tosca_simple_profile_for_nfv_1_0_0");
+        assertSame(toscaDef, EntityType.getToscaDef());
+    }
+
+    @Test
+    public void testUpdateDefinitionsIsScopedToThread() throws Exception {
+        ThreadLocalsHolder.setCollector(new ValidationIssueCollector());
+        EntityType.updateDefinitions("tosca_simple_profile_for_nfv_1_0_0");
+
+        AtomicReference<Map<String, Object>> otherThreadDef = new AtomicReference<>();
+        Thread other = new Thread(() -> otherThreadDef.set(EntityType.getToscaDef()));
+        other.start();
+        other.join();
+
+        assertTrue(EntityType.getToscaDef().containsKey("tosca.nodes.nfv.VNF"));
+        assertSame(EntityType.TOSCA_DEF, otherThreadDef.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExtensionTypesResolveAfterTheParse() throws Exception {
+        String template = "tosca_definitions_version: tosca_simple_profile_for_nfv_1_0_0\n"
+                + "topology_template:\n"
+                + "  node_templates:\n"
+                + "    link:\n"
+                + "      type: tosca.nodes.nfv.VL.ELAN\n"
+                + "      properties:\n"
+                + "        vendor: acme\n";
+        ToscaTemplate toscaTemplate = new ToscaTemplate(null, null, false,
+                (LinkedHashMap<String, Object>) new Yaml().load(template));
+        int issues = ThreadLocalsHolder.getCollector().validationIssuesCaught();
+
+        // the parse is over: its definitions are no longer bound to the thread
+        assertSame(EntityType.TOSCA_DEF, EntityType.getToscaDef());
+        NodeType elan = (NodeType) toscaTemplate.getNodeTemplates().get(0).getTypeDefinition();
+        NodeType vl = (NodeType) elan.getParentType();
+        assertEquals("tosca.nodes.nfv.VL", vl.getType());
+        assertEquals("tosca.nodes.network.Network", ((NodeType) vl.getParentType()).getType());
+        ArrayList<String> capabilityTypes = new ArrayList<>();
+        for (CapabilityTypeDef capability : vl.getCapabilitiesObjects()) {
+            capabilityTypes.add(capability.getType());
+        }
+        assertTrue(capabilityTypes.toString(), capabilityTypes.contains("tosca.capabilities.nfv.VirtualLinkable"));
+        assertEquals(issues, ThreadLocalsHolder.getCollector().validationIssuesCaught());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testToscaDefIsImmutable() {
+        EntityType.TOSCA_DEF.put("tosca.nodes.nfv.VNF", new LinkedHashMap<>());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    @SuppressWarnings("unchecked")
+    public void testToscaDefDefinitionsAreImmutable() {
+        LinkedHashMap<String, Object> compute = (LinkedHashMap<String, Object>) EntityType.getToscaDef().get("tosca.nodes.Compute");
+        ((LinkedHashMap<String, Object>) compute.get("attributes")).put("tosca_id", new LinkedHashMap<>());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGetDefinitionLeavesSharedDefinitionsUnchanged() {
+        ThreadLocalsHolder.setCollector(new ValidationIssueCollector());
+        NodeType compute = new NodeType("tosca.nodes.Compute", null);
 
-        assertEquals(expectedDefMap, EntityType.TOSCA_DEF);
+        LinkedHashMap<String, Object> attributes = (LinkedHashMap<String, Object>) compute.getDefinition("attributes");
+        assertTrue(attributes.containsKey("private_address"));
+        assertTrue(attributes.containsKey("tosca_id"));
+
+        LinkedHashMap<String, Object> shared = (LinkedHashMap<String, Object>) EntityType.getToscaDef().get("tosca.nodes.Compute");
+        assertTrue(((Map<String, Object>) shared.get("attributes")).containsKey("private_address"));
+        assertFalse(((Map<String, Object>) shared.get("attributes")).containsKey("tosca_id"));
+    }
+
+    @Test
+    public void testIsDerivedFrom() {
+        ThreadLocalsHolder.setCollector(new ValidationIssueCollector());
+        NodeType compute = new NodeType("tosca.nodes.Compute", null);
+
+        assertTrue(compute.isDerivedFrom("tosca.nodes.Compute"));
+        assertTrue(compute.isDerivedFrom(new String("tosca.nodes.Root")));
+        assertFalse(compute.isDerivedFrom("tosca.nodes.SoftwareComponent"));
+        assertEquals(1, compute.getAncestorTypes().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGetValueMergesAncestors() {
+        ThreadLocalsHolder.setCollector(new ValidationIssueCollector());
+        NodeType compute = new NodeType("tosca.nodes.Compute", null);
+
+        LinkedHashMap<String, Object> attributes = (LinkedHashMap<String, Object>) compute.getValue("attributes", null, true);
+        assertTrue(attributes.containsKey("private_address"));
+        assertTrue(attributes.containsKey("tosca_id"));
+
+        attributes.remove("tosca_id");
+        LinkedHashMap<String, Object> again = (LinkedHashMap<String, Object>) compute.getValue("attributes", null, true);
+        assertNotSame(attributes, again);
+        assertTrue(again.containsKey("tosca_id"));
+    }
+
+    @Test
+    public void testDefinitionsAreResolvedOnce() {
+        ThreadLocalsHolder.setCollector(new ValidationIssueCollector());
+        NodeType software = new NodeType("tosca.nodes.SoftwareComponent", null);
+
+        Map<String, PropertyDef> properties = software.getPropertiesDefByName();
+        Map<String, AttributeDef> attributes = software.getAttributesDefByName();
+        assertSame(properties, software.getPropertiesDefByName());
+        assertSame(attributes, software.getAttributesDefByName());
+        assertSame(properties.get("component_version"), software.getPropertyDefValue("component_version"));
+        assertSame(attributes.get("tosca_id"), software.getAttributeDefValue("tosca_id"));
+        assertSame(properties.get("component_version"), software.getPropertiesDefObjects().get(0));
+    }
+
+    @Test
+    public void testDefinitionGettersReturnCopies() {
+        ThreadLocalsHolder.setCollector(new ValidationIssueCollector());
+        NodeType software = new NodeType("tosca.nodes.SoftwareComponent", null);
+
+        software.getPropertiesDefObjects().clear();
+        software.getPropertiesDef().clear();
+        software.getAttributesDef().remove("tosca_id");
+
+        assertFalse(software.getPropertiesDefObjects().isEmpty());
+        assertTrue(software.getPropertiesDef().containsKey("component_version"));
+        assertTrue(software.getAttributesDef().containsKey("tosca_id"));
+    }
 
+    @Test(expected = UnsupportedOperationException.class)
+    public void testDefinitionsByNameAreReadOnly() {
+        ThreadLocalsHolder.setCollector(new ValidationIssueCollector());
+        new NodeType("tosca.nodes.SoftwareComponent", null).getPropertiesDefByName().clear();
     }
 
     @After
     public void tearDown() throws Exception {
-        EntityType.TOSCA_DEF = (LinkedHashMap<String, Object>) origMap;
+        ThreadLocalsHolder.cleanup();
     }
 
 }
@@ -0,0 +1,118 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api.elements;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.sdc.toscaparser.api.common.ValidationIssueCollector;
+import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class TypeRegistryTest {
+
+    private static final String CUSTOM_NODE = "org.onap.nodes.Custom";
+
+    @Before
+    public void setUp() {
+        ThreadLocalsHolder.setCollector(new ValidationIssueCollector());
+        ThreadLocalsHolder.setTypeRegistry(new TypeRegistry());
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalsHolder.cleanup();
+    }
+
+    @Test
+    public void testSameTypeResolvedOnce() {
+        LinkedHashMap<String, Object> customDef = customDef();
+        TypeRegistry registry = TypeRegistry.current();
+
+        NodeType first = registry.getNodeType(CUSTOM_NODE, customDef);
+        NodeType second = registry.getNodeType(CUSTOM_NODE, customDef);
+
+        assertSame(first, second);
+        assertSame(first.getParentType(), second.getParentType());
+    }
+
+    @Test
+    public void testAncestorChainIsShared() {
+        LinkedHashMap<String, Object> customDef = customDef();
+        NodeType nodeType = TypeRegistry.current().getNodeType(CUSTOM_NODE, customDef);
+
+        List<EntityType> ancestors = nodeType.getAncestors();
+
+        assertEquals(2, ancestors.size());
+        assertEquals("tosca.nodes.Compute", ((StatefulEntityType) ancestors.get(0)).getType());
+        assertEquals("tosca.nodes.Root", ((StatefulEntityType) ancestors.get(1)).getType());
+        assertSame(ancestors, nodeType.getAncestors());
+        assertSame(ancestors.get(0), nodeType.getParentType());
+    }
+
+    @Test
+    public void testRedefinedTypeIsResolvedAgain() {
+        LinkedHashMap<String, Object> customDef = customDef();
+        TypeRegistry registry = TypeRegistry.current();
+        NodeType before = registry.getNodeType(CUSTOM_NODE, customDef);
+
+        customDef.put(CUSTOM_NODE, nodeDef("tosca.nodes.Root"));
+        NodeType after = registry.getNodeType(CUSTOM_NODE, customDef);
+
+        assertNotSame(before, after);
+        assertEquals("tosca.nodes.Root", ((StatefulEntityType) after.getAncestors().get(0)).getType());
+    }
+
+    @Test
+    public void testDifferentCustomDefsAreNotShared() {
+        TypeRegistry registry = TypeRegistry.current();
+
+        assertNotSame(registry.getNodeType(CUSTOM_NODE, customDef()), registry.getNodeType(CUSTOM_NODE, customDef()));
+    }
+
+    @Test
+    public void testNoCachingOutsideOfParse() {
+        ThreadLocalsHolder.setTypeRegistry(null);
+        LinkedHashMap<String, Object> customDef = customDef();
+        TypeRegistry registry = TypeRegistry.current();
+
+        assertNotSame(registry.getNodeType(CUSTOM_NODE, customDef), registry.getNodeType(CUSTOM_NODE, customDef));
+        assertEquals(0, registry.size());
+    }
+
+    private static LinkedHashMap<String, Object> customDef() {
+        LinkedHashMap<String, Object> customDef = new LinkedHashMap<>();
+        customDef.put(CUSTOM_NODE, nodeDef("tosca.nodes.Compute"));
+        return customDef;
+    }
+
+    private static LinkedHashMap<String, Object> nodeDef(String derivedFrom) {
+        LinkedHashMap<String, Object> nodeDef = new LinkedHashMap<>();
+        nodeDef.put("derived_from", derivedFrom);
+        return nodeDef;
+    }
+}
@@ -0,0 +1,263 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api.elements.constraints;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.sdc.toscaparser.api.common.JToscaValidationIssue;
+import org.onap.sdc.toscaparser.api.common.ValidationIssueCollector;
+import org.onap.sdc.toscaparser.api.utils.ParseContext;
+import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompiledConstraintsTest {
+
+    @Before
+    public void setUp() {
+        ThreadLocalsHolder.setCollector(new ValidationIssueCollector());
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalsHolder.cleanup();
+    }
+
+    @Test
+    public void testPatternIsCompiledOnce() {
+        assertSame(CompiledConstraints.pattern("[a-z]+-[0-9]+"), CompiledConstraints.pattern("[a-z]+-[0-9]+"));
+        assertNull(CompiledConstraints.pattern("[a-z"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedPatternIsEvicted() {
+        java.util.regex.Pattern recent = CompiledConstraints.pattern("recent-[0-9]+");
+        java.util.regex.Pattern eldest = CompiledConstraints.pattern("eldest-[0-9]+");
+        for (int i = 0; i < CompiledConstraints.MAX_ENTRIES; i++) {
+            if (i % 100 == 0) {
+                CompiledConstraints.pattern("recent-[0-9]+");
+            }
+            CompiledConstraints.pattern("filler-" + i);
+        }
+
+        assertSame(recent, CompiledConstraints.pattern("recent-[0-9]+"));
+        assertNotSame(eldest, CompiledConstraints.pattern("eldest-[0-9]+"));
+    }
+
+    @Test
+    public void testPatternConstraint() {
+        Pattern first = new Pattern("name", Schema.STRING, constraint("pattern", "[a-z]+-[0-9]+"));
+        Pattern second = new Pattern("other", Schema.STRING, constraint("pattern", "[a-z]+-[0-9]+"));
+
+        assertTrue(first.isValid("vm-1"));
+        assertTrue(second.isValid("vm-12"));
+        assertFalse(first.isValid("vm-1a"));
+        assertFalse(second.isValid("VM-1"));
+        assertEquals(0, issueCount());
+    }
+
+    @Test
+    public void testInvalidPatternIsReported() {
+        Pattern pattern = new Pattern("name", Schema.STRING, constraint("pattern", "[a-z"));
+
+        assertFalse(pattern.isValid("vm"));
+        assertEquals(1, issueCount());
+        assertEquals("JE116", ThreadLocalsHolder.getCollector().getValidationIssues().values().iterator().next().getCode());
+    }
+
+    @Test
+    public void testValidValuesAreHashedOnce() {
+        Set<Object> validValues = CompiledConstraints.validValues(new ArrayList<>(Arrays.asList("a", "b", 1)));
+
+        assertSame(validValues, CompiledConstraints.validValues(new ArrayList<>(Arrays.asList("a", "b", 1))));
+        assertTrue(validValues.contains(1));
+        assertFalse(validValues.contains(1L));
+    }
+
+    @Test
+    public void testValidValuesConstraint() {
+        ValidValues validValues = new ValidValues("name", Schema.STRING,
+                constraint("valid_values", new ArrayList<>(Arrays.asList("a", "b"))));
+
+        assertTrue(validValues.isValid("a"));
+        assertFalse(validValues.isValid("c"));
+        assertTrue(validValues.isValid(new ArrayList<>(Arrays.asList("a", "b"))));
+        assertFalse(validValues.isValid(new ArrayList<>(Arrays.asList("a", "c"))));
+    }
+
+    @Test
+    public void testInRangeConstraint() {
+        InRange inRange = new InRange("port", Schema.INTEGER, constraint("in_range", new ArrayList<>(Arrays.asList(1, 65535))));
+        InRange unbounded = new InRange("count", Schema.INTEGER, constraint("in_range", new ArrayList<>(Arrays.asList(0, "UNBOUNDED"))));
+
+        assertTrue(inRange.isValid(1));
+        assertTrue(inRange.isValid(65535.0));
+        assertFalse(inRange.isValid(0));
+        assertFalse(inRange.isValid("65536"));
+        assertTrue(unbounded.isValid(Long.MAX_VALUE));
+        assertFalse(unbounded.isValid(-1));
+    }
+
+    @Test
+    public void testComparisonConstraints() {
+        assertTrue(new GreaterOrEqual("size", Schema.INTEGER, constraint("greater_or_equal", 2)).isValid(2));
+        assertFalse(new GreaterThan("size", Schema.INTEGER, constraint("greater_than", 2)).isValid(2.0));
+        assertTrue(new LessOrEqual("size", Schema.FLOAT, constraint("less_or_equal", 2.5)).isValid("2.5"));
+        assertFalse(new LessThan("size", Schema.FLOAT, constraint("less_than", 2.5)).isValid(3));
+    }
+
+    @Test
+    public void testLengthConstraints() {
+        LinkedHashMap<String, Object> map = constraint("a", 1);
+
+        assertTrue(new Length("name", Schema.STRING, constraint("length", 3)).isValid("abc"));
+        assertFalse(new Length("name", Schema.STRING, constraint("length", 3)).isValid("ab"));
+        assertTrue(new MinLength("name", Schema.STRING, constraint("min_length", 1)).isValid(map));
+        assertFalse(new MinLength("name", Schema.STRING, constraint("min_length", 4)).isValid("abc"));
+        assertTrue(new MaxLength("name", Schema.STRING, constraint("max_length", 3)).isValid("abc"));
+        assertFalse(new MaxLength("name", Schema.STRING, constraint("max_length", 0)).isValid(map));
+        assertEquals(0, issueCount());
+
+        assertFalse(new MaxLength("name", Schema.STRING, constraint("max_length", "3")).isValid("abc"));
+        assertEquals(1, issueCount());
+    }
+
+    @Test
+    public void testSharedConstraintReportsTheValueOfEachValidation() throws Exception {
+        InRange inRange = new InRange("port", Schema.INTEGER, constraint("in_range", new ArrayList<>(Arrays.asList(1, 10))));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = 100 * (t + 1);
+                results.add(executor.submit(() -> {
+                    ThreadLocalsHolder.setCollector(new ValidationIssueCollector());
+                    try {
+                        for (int i = 0; i < 50; i++) {
+                            inRange.validate(offset + i);
+                        }
+                        List<String> messages = new ArrayList<>();
+                        for (JToscaValidationIssue issue : ThreadLocalsHolder.getCollector().getValidationIssues().values()) {
+                            messages.add(issue.getMessage());
+                        }
+                        return messages;
+                    } finally {
+                        ThreadLocalsHolder.cleanup();
+                    }
+                }));
+            }
+            for (int t = 0; t < 4; t++) {
+                List<String> messages = results.get(t).get();
+                assertEquals(50, messages.size());
+                for (int i = 0; i < 50; i++) {
+                    String quoted = "\"" + (100 * (t + 1) + i) + "\"";
+                    assertTrue(quoted, messages.stream().anyMatch(message -> message.contains(quoted)));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSharedSchemaValidatedThroughForkedContexts() throws Exception {
+        ParseContext parse = new ParseContext(true, null);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 200; round++) {
+                Schema name = new Schema("name", schema(Schema.STRING,
+                        constraint("pattern", "[a-z]+-[0-9]+"),
+                        constraint("valid_values", new ArrayList<>(Arrays.asList("vm-1", "vm-2", "db-1"))),
+                        constraint("max_length", 4)));
+                Schema count = new Schema("count", schema(Schema.INTEGER, constraint("less_than", 10)));
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<List<String>>> results = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    results.add(executor.submit(() -> {
+                        ParseContext fork = parse.fork();
+                        try (ParseContext.Scope ignored = fork.enter()) {
+                            start.await();
+                            for (Constraint constraint : name.getConstraints()) {
+                                constraint.validate("vm-1");
+                                constraint.validate("vm-12");
+                            }
+                            for (Constraint constraint : count.getConstraints()) {
+                                constraint.validate(9);
+                                constraint.validate(12);
+                            }
+                        }
+                        List<String> codes = new ArrayList<>();
+                        for (JToscaValidationIssue issue : fork.getCollector().getValidationIssues().values()) {
+                            codes.add(issue.getCode());
+                        }
+                        return codes;
+                    }));
+                }
+                start.countDown();
+                for (Future<List<String>> result : results) {
+                    List<String> codes = result.get();
+                    // "vm-12" is neither a valid value nor short enough, 12 is not less than 10
+                    assertEquals(codes.toString(), 3, codes.size());
+                    assertFalse(codes.contains("JE116"));
+                    assertFalse(codes.contains("JE119"));
+                }
+                assertEquals(3, name.getConstraints().size());
+                assertEquals(1, count.getConstraints().size());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static int issueCount() {
+        return ThreadLocalsHolder.getCollector().validationIssuesCaught();
+    }
+
+    @SafeVarargs
+    private static LinkedHashMap<String, Object> schema(String type, LinkedHashMap<String, Object>... constraints) {
+        LinkedHashMap<String, Object> schema = new LinkedHashMap<>();
+        schema.put("type", type);
+        schema.put("constraints", new ArrayList<>(Arrays.asList(constraints)));
+        return schema;
+    }
+
+    private static LinkedHashMap<String, Object> constraint(String key, Object value) {
+        LinkedHashMap<String, Object> constraint = new LinkedHashMap<>();
+        constraint.put(key, value);
+        return constraint;
+    }
+}
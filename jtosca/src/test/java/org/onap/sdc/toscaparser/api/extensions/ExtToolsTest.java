@@ -0,0 +1,70 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+
+package org.onap.sdc.toscaparser.api.extensions;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ExtToolsTest {
+
+    private static final String NFV_VERSION = "tosca_simple_profile_for_nfv_1_0_0";
+
+    @After
+    public void tearDown() {
+        ExtTools.unregisterExtension("tosca_test_profile_1_0");
+        ExtTools.setClasspathScanEnabled(true);
+    }
+
+    @Test
+    public void testScannedExtensions() {
+        ExtTools extTools = new ExtTools();
+        assertTrue(extTools.getVersions().contains(NFV_VERSION));
+        assertEquals("extensions/nfv/TOSCA_nfv_definition_1_0.yaml", extTools.getDefsFile(NFV_VERSION));
+        assertNull(extTools.getDefsFile("unknown_version"));
+    }
+
+    @Test
+    public void testSectionsAreCopies() {
+        ExtTools extTools = new ExtTools();
+        extTools.getSections().get(NFV_VERSION).add("added_section");
+        assertFalse(new ExtTools().getSections().get(NFV_VERSION).contains("added_section"));
+    }
+
+    @Test
+    public void testRegisteredExtensionWithoutClasspathScan() {
+        ExtTools.registerExtension("tosca_test_profile_1_0", "extensions/test/test_definition.yaml",
+                Arrays.asList("metadata", "test_section"));
+        ExtTools.setClasspathScanEnabled(false);
+
+        ExtTools extTools = new ExtTools();
+        assertEquals(Arrays.asList("tosca_test_profile_1_0"), extTools.getVersions());
+        assertEquals("extensions/test/test_definition.yaml", extTools.getDefsFile("tosca_test_profile_1_0"));
+        assertEquals(Arrays.asList("metadata", "test_section"), extTools.getSections().get("tosca_test_profile_1_0"));
+    }
+}
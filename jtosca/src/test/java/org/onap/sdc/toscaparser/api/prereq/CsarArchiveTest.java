@@ -0,0 +1,101 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api.prereq;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CsarArchiveTest {
+
+    private static final String META = "TOSCA-Metadata/TOSCA.meta";
+
+    @Test
+    public void testInMemoryRootDoesNotDependOnTheWorkingDirectory() throws IOException {
+        CsarArchive first = new CsarArchive("service.csar", csar());
+        CsarArchive second = new CsarArchive("service.csar", csar());
+
+        assertTrue(first.getRoot().endsWith(File.separator + "service.csar"));
+        assertFalse(first.getRoot().startsWith(new File("").getAbsolutePath()));
+        assertFalse(new File(first.getRoot()).exists());
+        assertNotEquals(first.getRoot(), second.getRoot());
+        try (InputStream input = first.openStream(first.getPath(META))) {
+            assertEquals("TOSCA-Meta-File-Version: 1.0", new String(readAll(input), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testInMemoryArchiveDoesNotReadLocalFiles() throws IOException {
+        CsarArchive archive = new CsarArchive("service.csar", csar());
+        File local = File.createTempFile("local", ".yml");
+        try {
+            assertFalse(archive.isFile(archive.getPath("Definitions/missing.yml")));
+            assertFalse(archive.isFile(local.getAbsolutePath()));
+            assertNotFound(archive, archive.getPath("Definitions/missing.yml"));
+            assertNotFound(archive, local.getAbsolutePath());
+        } finally {
+            Files.delete(local.toPath());
+        }
+    }
+
+    private static void assertNotFound(CsarArchive archive, String path) throws IOException {
+        try (InputStream input = archive.openStream(path)) {
+            fail("read " + path + " outside of the archive");
+        } catch (FileNotFoundException e) {
+            assertEquals(path, e.getMessage());
+        }
+    }
+
+    private static InputStream csar() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry(META));
+            zip.write("TOSCA-Meta-File-Version: 1.0".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    private static byte[] readAll(InputStream input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[256];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
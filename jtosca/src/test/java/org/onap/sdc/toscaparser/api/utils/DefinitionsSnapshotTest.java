@@ -0,0 +1,62 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api.utils;
+
+import org.junit.Test;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DefinitionsSnapshotTest {
+
+    private static final String TOSCA_DEFINITION_1_0_YAML = "TOSCA_definition_1_0.yaml";
+
+    @Test
+    public void testRoundTripMatchesYaml() throws IOException {
+        Object definitions;
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(TOSCA_DEFINITION_1_0_YAML)) {
+            definitions = new Yaml().load(input);
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DefinitionsSnapshot.write(definitions, output);
+        Object snapshot = DefinitionsSnapshot.read(new ByteArrayInputStream(output.toByteArray()));
+
+        assertEquals(definitions, snapshot);
+        assertEquals(definitions.toString(), snapshot.toString());
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadRejectsOtherContent() throws IOException {
+        DefinitionsSnapshot.read(new ByteArrayInputStream("tosca_definitions_version: 1".getBytes()));
+    }
+
+    @Test
+    public void testLoadWithoutSnapshot() {
+        assertNull(DefinitionsSnapshot.load("no/such/definitions.yaml"));
+    }
+}
@@ -0,0 +1,116 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * SDC
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.toscaparser.api.utils;
+
+import org.junit.Test;
+import org.onap.sdc.toscaparser.api.ToscaTemplate;
+import org.onap.sdc.toscaparser.api.common.ValidationIssueCollector;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ParseContextTest {
+
+    @Test
+    public void testForkSharesTheCachesOfTheParse() {
+        ParseContext context = new ParseContext(true, null);
+        ParseContext fork = context.fork();
+
+        assertSame(context.getTypeRegistry(), fork.getTypeRegistry());
+        assertSame(context.getImportGraph(), fork.getImportGraph());
+        assertNotSame(context.getCollector(), fork.getCollector());
+        assertNotSame(context.getParseMetrics(), fork.getParseMetrics());
+    }
+
+    @Test
+    public void testScopeRestoresThePreviousContext() {
+        ValidationIssueCollector collector = new ValidationIssueCollector();
+        ThreadLocalsHolder.setCollector(collector);
+        ParseContext context = new ParseContext(true, null);
+        try (ParseContext.Scope scope = context.enter()) {
+            assertSame(context, ParseContext.current());
+            assertSame(context.getTypeRegistry(), ThreadLocalsHolder.getTypeRegistry());
+        }
+        assertSame(collector, ThreadLocalsHolder.getCollector());
+        ThreadLocalsHolder.cleanup();
+        assertNull(ParseContext.current());
+    }
+
+    @Test
+    public void testIssuesAreReadFromTheContextOfTheParse() throws Exception {
+        String fileStr = ParseContextTest.class.getClassLoader().getResource("csars/service-AdiodVmxVpeBvService-csar.csar").getFile();
+        File file = new File(fileStr);
+        ToscaTemplate toscaTemplate = CompletableFuture.supplyAsync(() -> {
+            try {
+                return new ToscaTemplate(file.getAbsolutePath(), null, true, null);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).get();
+
+        ParseContext context = toscaTemplate.getParseContext();
+        assertNotNull(context);
+        assertFalse(context.getCollector().getValidationIssues().isEmpty());
+        assertEquals(toscaTemplate.getParseMetrics().getIssuesByCode().values().stream().mapToInt(Integer::intValue).sum(),
+                context.getCollector().validationIssuesCaught());
+        // the caches are only held while the parse runs
+        assertNull(context.getTypeRegistry());
+        assertNull(context.getToscaDefinitions());
+        assertNull(context.getImportGraph());
+        assertNull(context.getParseMetrics());
+    }
+
+    @Test
+    public void testContextIsUnboundOnceTheParseIsOver() throws Exception {
+        String fileStr = ParseContextTest.class.getClassLoader().getResource("csars/service-AdiodVmxVpeBvService-csar.csar").getFile();
+        File file = new File(fileStr);
+        ToscaTemplate toscaTemplate = new ToscaTemplate(file.getAbsolutePath(), null, true, null);
+
+        assertNotSame(toscaTemplate.getParseContext(), ParseContext.current());
+        assertNull(ThreadLocalsHolder.getTypeRegistry());
+        assertNull(ThreadLocalsHolder.getToscaDefinitions());
+        assertNull(ThreadLocalsHolder.getImportGraph());
+        // only the collector is left, for the callers reading the issues through the thread
+        assertSame(toscaTemplate.getParseContext().getCollector(), ThreadLocalsHolder.getCollector());
+        ThreadLocalsHolder.cleanup();
+    }
+
+    @Test
+    public void testSetCollectorKeepsTheStateOfTheContext() {
+        ParseContext context = new ParseContext(true, null);
+        ValidationIssueCollector collector = new ValidationIssueCollector();
+        try (ParseContext.Scope scope = context.enter()) {
+            ThreadLocalsHolder.setCollector(collector);
+            assertSame(context, ParseContext.current());
+            assertSame(collector, context.getCollector());
+            assertNotNull(context.getTypeRegistry());
+            assertNotNull(context.getImportGraph());
+            assertNotNull(context.getParseMetrics());
+        }
+    }
+}
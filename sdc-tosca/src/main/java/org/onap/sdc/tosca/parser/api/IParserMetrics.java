@@ -0,0 +1,78 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * sdc-tosca
+ * ================================================================================
+ * Copyright (C) 2017 - 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.tosca.parser.api;
+
+import org.onap.sdc.tosca.parser.config.SdcToscaParserErrors;
+import org.onap.sdc.tosca.parser.elements.ValidationIssueReport;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
+import org.onap.sdc.toscaparser.api.utils.JToscaErrorCodes;
+
+/**
+ * Receives the outcome of every CSAR parsed by the SdcToscaParserFactory, to feed a monitoring system.<br>
+ * Every parse reports {@link #parseStarted} once, then a single outcome: {@link #parseSucceeded}, {@link #parseFailed},
+ * or {@link #parseTimedOut} for a parse exceeding the timeout of a batch. A parse which timed out keeps running
+ * until it ends, without reporting its outcome.<br>
+ * Methods are called from the parsing threads, possibly concurrently, and must neither block nor throw.
+ * Every method does nothing by default.
+ */
+public interface IParserMetrics {
+
+    /**
+     * Collects nothing, used by the factory unless another implementation is set.
+     */
+    IParserMetrics NO_OP = new IParserMetrics() {
+    };
+
+    /**
+     * @param csarName - the path or name of the CSAR.
+     */
+    default void parseStarted(String csarName) {
+    }
+
+    /**
+     * @param csarName - the path or name of the CSAR.
+     * @param durationNanos - the time taken by the parse and its validation.
+     * @param parseMetrics - the phases and counters of the parse.
+     * @param validationIssueReport - the validation issues of the CSAR, classified by criticality.
+     */
+    default void parseSucceeded(String csarName, long durationNanos, ParseMetrics parseMetrics,
+                                ValidationIssueReport validationIssueReport) {
+    }
+
+    /**
+     * @param csarName - the path or name of the CSAR.
+     * @param durationNanos - the time taken until the failure.
+     * @param error - the error reported to the caller, GENERAL_ERROR for an unexpected exception.
+     * @param jToscaError - the JTosca error behind it, or null when it did not come from JTosca.
+     * @param parseMetrics - the phases and counters of the parse, or null if the CSAR could not be parsed.
+     * @param validationIssueReport - the validation issues of the CSAR, or null if the failure happened before validation.
+     */
+    default void parseFailed(String csarName, long durationNanos, SdcToscaParserErrors error, JToscaErrorCodes jToscaError,
+                             ParseMetrics parseMetrics, ValidationIssueReport validationIssueReport) {
+    }
+
+    /**
+     * @param csarName - the path of the CSAR.
+     * @param timeoutMillis - the timeout the parse exceeded.
+     */
+    default void parseTimedOut(String csarName, long timeoutMillis) {
+    }
+}
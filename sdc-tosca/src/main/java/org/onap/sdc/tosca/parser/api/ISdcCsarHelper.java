@@ -25,11 +25,13 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang3.tuple.Pair;
+import org.onap.sdc.tosca.parser.elements.ValidationIssueReport;
 import org.onap.sdc.tosca.parser.elements.queries.TopologyTemplateQuery;
 import org.onap.sdc.tosca.parser.elements.queries.EntityQuery;
 import org.onap.sdc.tosca.parser.enums.SdcTypes;
 import org.onap.sdc.tosca.parser.enums.FilterType;
 import org.onap.sdc.toscaparser.api.*;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
 import org.onap.sdc.toscaparser.api.elements.DataType;
 import org.onap.sdc.toscaparser.api.elements.InterfacesDef;
 import org.onap.sdc.toscaparser.api.elements.Metadata;
@@ -346,6 +348,24 @@ public interface ISdcCsarHelper {
 	 * @return the conformance level of the CSAR. 
 	 */
 	public String getConformanceLevel();
+
+	/**
+	 * Get the JTosca validation issues found while parsing this CSAR.<br>
+	 * The report belongs to this helper only, so it stays valid when several CSARs are parsed concurrently.
+	 * @return the validation issue report of this CSAR, null when the implementation does not keep one.
+	 */
+	public default ValidationIssueReport getValidationIssueReport() {
+		return null;
+	}
+
+	/**
+	 * Get the wall time and allocation of every phase of the parse of this CSAR, with its counters:
+	 * node templates, imports loaded, intrinsic functions found and validation issues by code.
+	 * @return the parse metrics of this CSAR, null when the implementation does not keep them.
+	 */
+	public default ParseMetrics getParseMetrics() {
+		return null;
+	}
 	
 	
 	/**
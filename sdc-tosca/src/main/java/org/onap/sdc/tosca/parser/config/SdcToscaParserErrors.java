@@ -27,7 +27,7 @@ import org.onap.sdc.toscaparser.api.utils.JToscaErrorCodes;
 
 public enum SdcToscaParserErrors {
 
-    BAD_FORMAT, CONFORMANCE_LEVEL_ERROR, FILE_NOT_FOUND, GENERAL_ERROR;
+    BAD_FORMAT, CONFORMANCE_LEVEL_ERROR, FILE_NOT_FOUND, GENERAL_ERROR, PARSE_TIMEOUT;
 
     private static final  Map<JToscaErrorCodes, SdcToscaParserErrors> JTOSCA_ERRORS =
         new EnumMap<JToscaErrorCodes, SdcToscaParserErrors>(JToscaErrorCodes.class) {{
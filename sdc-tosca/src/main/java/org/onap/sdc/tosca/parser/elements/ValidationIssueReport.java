@@ -0,0 +1,71 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * sdc-tosca
+ * ================================================================================
+ * Copyright (C) 2017 - 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.tosca.parser.elements;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.onap.sdc.toscaparser.api.common.JToscaValidationIssue;
+
+/**
+ * The JTosca validation issues of a single CSAR parse, classified according to the
+ * validation issue configuration and the conformance level of the CSAR.
+ */
+public class ValidationIssueReport {
+
+    private final List<JToscaValidationIssue> criticalExceptions = new ArrayList<>();
+    private final List<JToscaValidationIssue> warningExceptions = new ArrayList<>();
+    private final List<JToscaValidationIssue> notAnalyzadExceptions = new ArrayList<>();
+
+    public void addCriticalException(JToscaValidationIssue issue) {
+        criticalExceptions.add(issue);
+    }
+
+    public void addWarningException(JToscaValidationIssue issue) {
+        warningExceptions.add(issue);
+    }
+
+    public void addNotAnalyzadException(JToscaValidationIssue issue) {
+        notAnalyzadExceptions.add(issue);
+    }
+
+    public List<JToscaValidationIssue> getCriticalExceptions() {
+        return Collections.unmodifiableList(criticalExceptions);
+    }
+
+    public List<JToscaValidationIssue> getWarningExceptions() {
+        return Collections.unmodifiableList(warningExceptions);
+    }
+
+    public List<JToscaValidationIssue> getNotAnalyzadExceptions() {
+        return Collections.unmodifiableList(notAnalyzadExceptions);
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationIssueReport{" +
+                "criticalExceptions=" + criticalExceptions.size() +
+                ", warningExceptions=" + warningExceptions.size() +
+                ", notAnalyzadExceptions=" + notAnalyzadExceptions.size() +
+                '}';
+    }
+}
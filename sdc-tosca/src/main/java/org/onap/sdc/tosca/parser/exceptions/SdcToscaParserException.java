@@ -20,16 +20,56 @@
 
 package org.onap.sdc.tosca.parser.exceptions;
 
+import org.onap.sdc.tosca.parser.config.SdcToscaParserErrors;
+import org.onap.sdc.tosca.parser.elements.ValidationIssueReport;
+import org.onap.sdc.toscaparser.api.utils.JToscaErrorCodes;
+
 public class SdcToscaParserException extends Exception {
 
     private static final long serialVersionUID = 626014844866501196L;
     private String code;
+    private transient ValidationIssueReport validationIssueReport;
+    private SdcToscaParserErrors error;
+    private JToscaErrorCodes jToscaError;
 
     public SdcToscaParserException(String string, String code) {
         super(string);
         this.code = code;
     }
 
+    public SdcToscaParserException(String string, String code, ValidationIssueReport validationIssueReport) {
+        this(string, code);
+        this.validationIssueReport = validationIssueReport;
+    }
+
+    public SdcToscaParserException(String string, String code, SdcToscaParserErrors error, JToscaErrorCodes jToscaError,
+                                   ValidationIssueReport validationIssueReport) {
+        this(string, code, validationIssueReport);
+        this.error = error;
+        this.jToscaError = jToscaError;
+    }
+
+    /**
+     * @return the validation issues of the failed parse, or null if the failure happened before validation.
+     */
+    public ValidationIssueReport getValidationIssueReport() {
+        return validationIssueReport;
+    }
+
+    /**
+     * @return the error behind the code, or null if the exception was not thrown by the parser.
+     */
+    public SdcToscaParserErrors getError() {
+        return error;
+    }
+
+    /**
+     * @return the JTosca error behind the error, or null when it did not come from JTosca.
+     */
+    public JToscaErrorCodes getJToscaError() {
+        return jToscaError;
+    }
+
     public String getCode() {
         return code;
     }
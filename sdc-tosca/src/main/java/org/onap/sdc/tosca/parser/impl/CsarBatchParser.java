@@ -0,0 +1,220 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * sdc-tosca
+ * ================================================================================
+ * Copyright (C) 2017 - 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+
+package org.onap.sdc.tosca.parser.impl;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.onap.sdc.tosca.parser.api.IParserMetrics;
+import org.onap.sdc.tosca.parser.api.ISdcCsarHelper;
+import org.onap.sdc.tosca.parser.config.SdcToscaParserErrors;
+import org.onap.sdc.tosca.parser.elements.ValidationIssueReport;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
+import org.onap.sdc.toscaparser.api.utils.JToscaErrorCodes;
+
+/**
+ * Parses a batch of CSAR files on a caller supplied executor, running at most
+ * {@code parallelism} parses at the same time.<br>
+ * A parse which exceeds the timeout completes its future with a PARSE_TIMEOUT error right away, and reports
+ * the timeout as its outcome to the parser metrics.
+ * A parse can't be interrupted, so it keeps its slot until it returns and the bound holds
+ * even when parses time out.
+ */
+class CsarBatchParser {
+
+    private static final ScheduledExecutorService TIMEOUT_SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "sdc-tosca-parse-timeout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final SdcToscaParserFactory factory;
+    private final Executor executor;
+    private final int parallelism;
+    private final long timeoutMillis;
+    private final Queue<PendingCsar> pending = new ArrayDeque<>();
+    private int running;
+    private boolean dispatching;
+
+    CsarBatchParser(SdcToscaParserFactory factory, Executor executor, int parallelism, long timeoutMillis) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.factory = factory;
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    List<CompletableFuture<ISdcCsarHelper>> submit(List<Path> csarPaths) {
+        List<CompletableFuture<ISdcCsarHelper>> futures = new ArrayList<>(csarPaths.size());
+        synchronized (this) {
+            for (Path csarPath : csarPaths) {
+                CompletableFuture<ISdcCsarHelper> future = new CompletableFuture<>();
+                futures.add(future);
+                pending.add(new PendingCsar(csarPath.toAbsolutePath().toString(), future));
+            }
+        }
+        dispatch();
+        return futures;
+    }
+
+    private void dispatch() {
+        synchronized (this) {
+            // a parse released while another thread dispatches, or by an executor running it on the
+            // dispatching thread itself, leaves its slot to the dispatching loop rather than nesting one
+            if (dispatching) {
+                return;
+            }
+            dispatching = true;
+        }
+        try {
+            while (true) {
+                PendingCsar next;
+                synchronized (this) {
+                    if (running >= parallelism || pending.isEmpty()) {
+                        dispatching = false;
+                        return;
+                    }
+                    next = pending.poll();
+                    running++;
+                }
+                start(next);
+            }
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                dispatching = false;
+            }
+            throw e;
+        }
+    }
+
+    private void start(PendingCsar csar) {
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                synchronized (this) {
+                    running--;
+                }
+                dispatch();
+            }
+        };
+        try {
+            executor.execute(() -> parse(csar, release));
+        } catch (RejectedExecutionException e) {
+            csar.future.completeExceptionally(e);
+            release.run();
+        }
+    }
+
+    private void parse(PendingCsar csar, Runnable release) {
+        // the caller may have cancelled the future while it was queued
+        if (csar.future.isDone()) {
+            release.run();
+            return;
+        }
+        OutcomeMetrics metrics = new OutcomeMetrics(factory.getParserMetrics());
+        ScheduledFuture<?> timeout = null;
+        if (timeoutMillis > 0) {
+            timeout = TIMEOUT_SCHEDULER.schedule(() -> {
+                if (metrics.timedOut(csar.path, timeoutMillis)) {
+                    csar.future.completeExceptionally(factory.createParseTimeoutException(csar.path, timeoutMillis));
+                }
+            }, timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        try {
+            csar.future.complete(factory.init(csar.path, true, metrics));
+        } catch (Throwable e) {
+            csar.future.completeExceptionally(e);
+        } finally {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            release.run();
+        }
+    }
+
+    /**
+     * Reports a single outcome per parse: the timeout, or the outcome of the parse when it ends first.
+     */
+    private static class OutcomeMetrics implements IParserMetrics {
+        private final IParserMetrics metrics;
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        OutcomeMetrics(IParserMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        /**
+         * @return true when the timeout is the outcome of the parse, false if the parse ended first.
+         */
+        boolean timedOut(String csarPath, long timeoutMillis) {
+            if (!ended.compareAndSet(false, true)) {
+                return false;
+            }
+            metrics.parseTimedOut(csarPath, timeoutMillis);
+            return true;
+        }
+
+        @Override
+        public void parseStarted(String csarName) {
+            metrics.parseStarted(csarName);
+        }
+
+        @Override
+        public void parseSucceeded(String csarName, long durationNanos, ParseMetrics parseMetrics,
+                                   ValidationIssueReport validationIssueReport) {
+            if (ended.compareAndSet(false, true)) {
+                metrics.parseSucceeded(csarName, durationNanos, parseMetrics, validationIssueReport);
+            }
+        }
+
+        @Override
+        public void parseFailed(String csarName, long durationNanos, SdcToscaParserErrors error, JToscaErrorCodes jToscaError,
+                                ParseMetrics parseMetrics, ValidationIssueReport validationIssueReport) {
+            if (ended.compareAndSet(false, true)) {
+                metrics.parseFailed(csarName, durationNanos, error, jToscaError, parseMetrics, validationIssueReport);
+            }
+        }
+    }
+
+    private static class PendingCsar {
+        private final String path;
+        private final CompletableFuture<ISdcCsarHelper> future;
+
+        PendingCsar(String path, CompletableFuture<ISdcCsarHelper> future) {
+            this.path = path;
+            this.future = future;
+        }
+    }
+}
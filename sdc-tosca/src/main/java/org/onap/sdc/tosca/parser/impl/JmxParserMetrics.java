@@ -0,0 +1,307 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * sdc-tosca
+ * ================================================================================
+ * Copyright (C) 2017 - 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.tosca.parser.impl;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.onap.sdc.tosca.parser.api.IParserMetrics;
+import org.onap.sdc.tosca.parser.config.SdcToscaParserErrors;
+import org.onap.sdc.tosca.parser.elements.ValidationIssueReport;
+import org.onap.sdc.toscaparser.api.common.JToscaValidationIssue;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
+import org.onap.sdc.toscaparser.api.utils.JToscaErrorCodes;
+
+/**
+ * Aggregates the parses of the factory and exposes them as an MXBean of the platform MBean server:
+ * <pre>
+ * JmxParserMetrics metrics = new JmxParserMetrics();
+ * metrics.register();
+ * SdcToscaParserFactory.getInstance().setParserMetrics(metrics);
+ * </pre>
+ */
+public class JmxParserMetrics implements IParserMetrics, ParserMetricsMXBean {
+
+    public static final String DEFAULT_OBJECT_NAME = "org.onap.sdc.tosca.parser:type=ParserMetrics";
+
+    private static final long[] LATENCY_BUCKETS_MILLIS = {10, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000};
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    // not reset, the parses running at a reset still end after it
+    private final AtomicLong inFlight = new AtomicLong();
+    private final LongAdder[] latencyBuckets = new LongAdder[LATENCY_BUCKETS_MILLIS.length + 1];
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Long::max, 0);
+    private final ConcurrentMap<String, LongAdder> failuresByError = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> failuresByJToscaError = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> issuesByCode = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> issuesByCriticality = new ConcurrentHashMap<>();
+    private final LongAdder[] cacheHits = new LongAdder[ParseMetrics.Cache.values().length];
+    private final LongAdder[] cacheMisses = new LongAdder[ParseMetrics.Cache.values().length];
+
+    private volatile ObjectName objectName;
+
+    public JmxParserMetrics() {
+        for (int i = 0; i < latencyBuckets.length; i++) {
+            latencyBuckets[i] = new LongAdder();
+        }
+        for (int i = 0; i < cacheHits.length; i++) {
+            cacheHits[i] = new LongAdder();
+            cacheMisses[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Registers this MXBean in the platform MBean server under {@link #DEFAULT_OBJECT_NAME}.
+     */
+    public ObjectName register() throws JMException {
+        return register(DEFAULT_OBJECT_NAME);
+    }
+
+    /**
+     * Registers this MXBean in the platform MBean server under the given name,
+     * e.g. to expose the metrics of several factories side by side.
+     */
+    public synchronized ObjectName register(String name) throws JMException {
+        ObjectName registered = ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(name)).getObjectName();
+        objectName = registered;
+        return registered;
+    }
+
+    /**
+     * Removes this MXBean from the platform MBean server, if it was registered.
+     */
+    public synchronized void unregister() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (objectName != null && server.isRegistered(objectName)) {
+            server.unregisterMBean(objectName);
+        }
+        objectName = null;
+    }
+
+    @Override
+    public void parseStarted(String csarName) {
+        started.increment();
+        inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void parseSucceeded(String csarName, long durationNanos, ParseMetrics parseMetrics,
+                               ValidationIssueReport validationIssueReport) {
+        succeeded.increment();
+        parseEnded(durationNanos, parseMetrics, validationIssueReport);
+    }
+
+    @Override
+    public void parseFailed(String csarName, long durationNanos, SdcToscaParserErrors error, JToscaErrorCodes jToscaError,
+                            ParseMetrics parseMetrics, ValidationIssueReport validationIssueReport) {
+        failed.increment();
+        increment(failuresByError, error.name());
+        if (jToscaError != null) {
+            increment(failuresByJToscaError, jToscaError.getValue());
+        }
+        parseEnded(durationNanos, parseMetrics, validationIssueReport);
+    }
+
+    @Override
+    public void parseTimedOut(String csarName, long timeoutMillis) {
+        timedOut.increment();
+        parseEnded(TimeUnit.MILLISECONDS.toNanos(timeoutMillis), null, null);
+    }
+
+    private void parseEnded(long durationNanos, ParseMetrics parseMetrics, ValidationIssueReport validationIssueReport) {
+        inFlight.decrementAndGet();
+        latencyBuckets[bucketOf(TimeUnit.NANOSECONDS.toMillis(durationNanos))].increment();
+        totalLatencyNanos.add(durationNanos);
+        maxLatencyNanos.accumulate(durationNanos);
+        if (parseMetrics != null) {
+            for (Map.Entry<String, Integer> entry : parseMetrics.getIssuesByCode().entrySet()) {
+                issuesByCode.computeIfAbsent(entry.getKey(), k -> new LongAdder()).add(entry.getValue());
+            }
+            for (ParseMetrics.Cache cache : ParseMetrics.Cache.values()) {
+                cacheHits[cache.ordinal()].add(parseMetrics.getCacheHits(cache));
+                cacheMisses[cache.ordinal()].add(parseMetrics.getCacheMisses(cache));
+            }
+        }
+        if (validationIssueReport != null) {
+            addIssues("CRITICAL", validationIssueReport.getCriticalExceptions());
+            addIssues("WARNING", validationIssueReport.getWarningExceptions());
+            addIssues("NOT_ANALYZED", validationIssueReport.getNotAnalyzadExceptions());
+        }
+    }
+
+    private void addIssues(String criticality, List<JToscaValidationIssue> issues) {
+        if (!issues.isEmpty()) {
+            issuesByCriticality.computeIfAbsent(criticality, k -> new LongAdder()).add(issues.size());
+        }
+    }
+
+    private static int bucketOf(long millis) {
+        for (int i = 0; i < LATENCY_BUCKETS_MILLIS.length; i++) {
+            if (millis <= LATENCY_BUCKETS_MILLIS[i]) {
+                return i;
+            }
+        }
+        return LATENCY_BUCKETS_MILLIS.length;
+    }
+
+    private static void increment(ConcurrentMap<String, LongAdder> counters, String key) {
+        counters.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    private static Map<String, Long> snapshot(ConcurrentMap<String, LongAdder> counters) {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((key, count) -> snapshot.put(key, count.sum()));
+        return snapshot;
+    }
+
+    @Override
+    public long getParsesStarted() {
+        return started.sum();
+    }
+
+    @Override
+    public long getParsesSucceeded() {
+        return succeeded.sum();
+    }
+
+    @Override
+    public long getParsesFailed() {
+        return failed.sum();
+    }
+
+    @Override
+    public long getParsesTimedOut() {
+        return timedOut.sum();
+    }
+
+    @Override
+    public long getParsesInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public Map<String, Long> getLatencyHistogram() {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < LATENCY_BUCKETS_MILLIS.length; i++) {
+            histogram.put(String.valueOf(LATENCY_BUCKETS_MILLIS[i]), latencyBuckets[i].sum());
+        }
+        histogram.put("+Inf", latencyBuckets[LATENCY_BUCKETS_MILLIS.length].sum());
+        return histogram;
+    }
+
+    @Override
+    public double getMeanLatencyMillis() {
+        long parses = succeeded.sum() + failed.sum();
+        return parses == 0 ? 0 : totalLatencyNanos.sum() / 1e6 / parses;
+    }
+
+    @Override
+    public long getMaxLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get());
+    }
+
+    @Override
+    public Map<String, Long> getFailuresByError() {
+        return snapshot(failuresByError);
+    }
+
+    @Override
+    public Map<String, Long> getFailuresByJToscaError() {
+        return snapshot(failuresByJToscaError);
+    }
+
+    @Override
+    public Map<String, Long> getIssuesByCode() {
+        return snapshot(issuesByCode);
+    }
+
+    @Override
+    public Map<String, Long> getIssuesByCriticality() {
+        return snapshot(issuesByCriticality);
+    }
+
+    @Override
+    public Map<String, Long> getCacheHits() {
+        Map<String, Long> hits = new LinkedHashMap<>();
+        for (ParseMetrics.Cache cache : ParseMetrics.Cache.values()) {
+            hits.put(cache.name(), cacheHits[cache.ordinal()].sum());
+        }
+        return hits;
+    }
+
+    @Override
+    public Map<String, Long> getCacheMisses() {
+        Map<String, Long> misses = new LinkedHashMap<>();
+        for (ParseMetrics.Cache cache : ParseMetrics.Cache.values()) {
+            misses.put(cache.name(), cacheMisses[cache.ordinal()].sum());
+        }
+        return misses;
+    }
+
+    @Override
+    public Map<String, Double> getCacheHitRatios() {
+        Map<String, Double> ratios = new LinkedHashMap<>();
+        for (ParseMetrics.Cache cache : ParseMetrics.Cache.values()) {
+            long hits = cacheHits[cache.ordinal()].sum();
+            long lookups = hits + cacheMisses[cache.ordinal()].sum();
+            ratios.put(cache.name(), lookups == 0 ? 0 : (double) hits / lookups);
+        }
+        return ratios;
+    }
+
+    @Override
+    public void reset() {
+        started.reset();
+        succeeded.reset();
+        failed.reset();
+        timedOut.reset();
+        for (LongAdder bucket : latencyBuckets) {
+            bucket.reset();
+        }
+        totalLatencyNanos.reset();
+        maxLatencyNanos.reset();
+        failuresByError.clear();
+        failuresByJToscaError.clear();
+        issuesByCode.clear();
+        issuesByCriticality.clear();
+        for (int i = 0; i < cacheHits.length; i++) {
+            cacheHits[i].reset();
+            cacheMisses[i].reset();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * sdc-tosca
+ * ================================================================================
+ * Copyright (C) 2017 - 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.tosca.parser.impl;
+
+import java.util.Map;
+
+/**
+ * The JMX view of {@link JmxParserMetrics}. Maps are keyed by name and count since the last reset.
+ */
+public interface ParserMetricsMXBean {
+
+    long getParsesStarted();
+
+    long getParsesSucceeded();
+
+    long getParsesFailed();
+
+    long getParsesTimedOut();
+
+    long getParsesInFlight();
+
+    /**
+     * @return the number of finished parses per latency bucket, keyed by the upper bound of the bucket
+     * in milliseconds ("+Inf" for the last one), in ascending order.
+     */
+    Map<String, Long> getLatencyHistogram();
+
+    double getMeanLatencyMillis();
+
+    long getMaxLatencyMillis();
+
+    /**
+     * @return the number of failed parses per SdcToscaParserErrors error.
+     */
+    Map<String, Long> getFailuresByError();
+
+    /**
+     * @return the number of failed parses per JToscaErrorCodes code, for the failures coming from JTosca.
+     */
+    Map<String, Long> getFailuresByJToscaError();
+
+    /**
+     * @return the number of validation issues per JE code.
+     */
+    Map<String, Long> getIssuesByCode();
+
+    /**
+     * @return the number of validation issues per criticality: CRITICAL, WARNING or NOT_ANALYZED.
+     */
+    Map<String, Long> getIssuesByCriticality();
+
+    Map<String, Long> getCacheHits();
+
+    Map<String, Long> getCacheMisses();
+
+    /**
+     * @return the share of lookups answered by each cache, between 0 and 1.
+     */
+    Map<String, Double> getCacheHitRatios();
+
+    void reset();
+}
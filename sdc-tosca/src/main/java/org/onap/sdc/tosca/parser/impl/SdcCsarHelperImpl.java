@@ -27,6 +27,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.Optional;
 import java.util.Collections;
@@ -41,6 +42,7 @@ import org.onap.sdc.tosca.parser.api.IEntityDetails;
 import org.onap.sdc.tosca.parser.api.ISdcCsarHelper;
 import org.onap.sdc.tosca.parser.config.ConfigurationManager;
 import org.onap.sdc.tosca.parser.elements.GroupEntityDetails;
+import org.onap.sdc.tosca.parser.elements.ValidationIssueReport;
 import org.onap.sdc.tosca.parser.elements.queries.EntityQuery;
 import org.onap.sdc.tosca.parser.elements.queries.TopologyTemplateQuery;
 import org.onap.sdc.tosca.parser.enums.FilterType;
@@ -60,6 +62,7 @@ import org.onap.sdc.toscaparser.api.RequirementAssignments;
 import org.onap.sdc.toscaparser.api.SubstitutionMappings;
 import org.onap.sdc.toscaparser.api.TopologyTemplate;
 import org.onap.sdc.toscaparser.api.ToscaTemplate;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
 import org.onap.sdc.toscaparser.api.elements.DataType;
 import org.onap.sdc.toscaparser.api.elements.InterfacesDef;
 import org.onap.sdc.toscaparser.api.elements.Metadata;
@@ -76,6 +79,9 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
     private static final String GROUPS_VF_MODULE = "org.openecomp.groups.VfModule";
     private ToscaTemplate toscaTemplate;
     private ConfigurationManager configurationManager;
+    private ValidationIssueReport validationIssueReport = new ValidationIssueReport();
+    // indexes of the service and of the nested topology templates, built on first lookup
+    private final Map<Object, TopologyIndex> topologyIndexes = Collections.synchronizedMap(new IdentityHashMap<>());
     private static Logger log = LoggerFactory.getLogger(SdcCsarHelperImpl.class.getName());
 
     public SdcCsarHelperImpl(ToscaTemplate toscaTemplate) {
@@ -127,27 +133,18 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
     		return new ArrayList<>();
     	}
     	List<String> targetNames = getPolicyTargets(policyName);
-    	return toscaTemplate.getNodeTemplates().stream()
-    			.filter(nt->targetNames.contains(nt.getName()))
-    			.collect(toList());
+    	return getServiceIndex().getNodeTemplatesByNames(targetNames);
     }
 	
 	@Override
 	public List<NodeTemplate> getPolicyTargetsFromOrigin(NodeTemplate nodeTemplate, String policyName) {
     	if(StringUtils.isNotEmpty(nodeTemplate.getName())){
-            Optional<Policy> policyOpt = getNodeTemplateByName(nodeTemplate.getName())
-                    .getOriginComponentTemplate()
-                    .getPolicies()
-                    .stream()
-                    .filter(p -> p.getName()
-                            .equals(policyName))
-                    .findFirst();
-            if(policyOpt.isPresent()){
-                List<String> targets = policyOpt.get().getTargets();
+            Policy policy = getIndex(getNodeTemplateByName(nodeTemplate.getName()).getOriginComponentTemplate())
+                    .getPolicyByName(policyName);
+            if(policy != null){
+                List<String> targets = policy.getTargets();
                 if (targets != null) {
-                    return nodeTemplate.getOriginComponentTemplate().getNodeTemplates()
-                            .stream()
-                            .filter(nt -> targets.contains(nt.getName())).collect(Collectors.toList());
+                    return getIndex(nodeTemplate.getOriginComponentTemplate()).getNodeTemplatesByNames(targets);
                 }
             }
     	}
@@ -168,9 +165,8 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
 	public List<Policy> getPoliciesOfTopologyTemplateByToscaPolicyType(String policyTypeName){
     	if(toscaTemplate.getPolicies() == null)
     		return new ArrayList<>();
-    	return toscaTemplate.getPolicies()
+    	return getServiceIndex().getPoliciesByToscaType(policyTypeName)
     	.stream()
-    	.filter(p->p.getType().equals(policyTypeName))
     	.sorted(Policy::compareTo)
     	.collect(toList());
 	}
@@ -178,19 +174,13 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
     public NodeTemplate getNodeTemplateByName(String nodeTemplateName) {
     	if(toscaTemplate.getNodeTemplates() == null)
     		return null;
-    	return toscaTemplate.getNodeTemplates()
-    	.stream()
-    	.filter(nt -> nt.getName().equals(nodeTemplateName))
-    	.findFirst().orElse(null);
+    	return getServiceIndex().getNodeTemplateByName(nodeTemplateName);
     }
     
     private List<Policy> getPoliciesOfNodeTemplate(String nodeTemplateName) {
     	if(toscaTemplate.getPolicies() == null)
     		return new ArrayList<>();
-    	return toscaTemplate.getPolicies()
-    	.stream()
-    	.filter(p -> p.getTargets()!= null && p.getTargets().contains(nodeTemplateName))
-    	.collect(toList());
+    	return getServiceIndex().getPoliciesByTarget(nodeTemplateName);
     }
     
     private List<String> getPolicyTargets(String policyName) {
@@ -204,17 +194,13 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
     private Optional<Policy> getPolicyByName(String policyName) {
     	if(toscaTemplate.getPolicies() == null)
     		return Optional.empty();
-    	return toscaTemplate.getPolicies()
-    	.stream()
-    	.filter(p -> p.getName().equals(policyName)).findFirst();
+    	return Optional.ofNullable(getServiceIndex().getPolicyByName(policyName));
     }
     
     private Optional<Group> getGroupByName(String groupName) {
     	if(toscaTemplate.getGroups() == null)
     		return Optional.empty();
-    	return toscaTemplate.getGroups()
-    	.stream()
-    	.filter(g -> g.getName().equals(groupName)).findFirst();
+    	return Optional.ofNullable(getServiceIndex().getGroupByName(groupName));
     }
     
     @Override
@@ -235,7 +221,7 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
             return null;
         }
         String[] split = getSplittedPath(leafValuePath);
-        LinkedHashMap<String, Property> properties = nodeTemplate.getProperties();
+        Map<String, Property> properties = nodeTemplate.getPropertiesByName();
         return PropertyUtils.processProperties(split, properties);
     }
     
@@ -248,7 +234,7 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
         String presetProperty = "_ip_requirements";
         Map<String, Map<String, Object>> cps = new HashMap<>();
 
-        Map<String, Property> props = vfc.getProperties();
+        Map<String, Property> props = vfc.getPropertiesByName();
         if (props != null) {
             // find all port names by pre-set property (ip_requirements)
             for (Map.Entry<String, Property> entry : props.entrySet()) {
@@ -289,7 +275,7 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
         String presetProperty = "_ip_requirements";
         Map<String, Map<String, Object>> cps = new HashMap<>();
 
-        Map<String, Property> props = vfc.getProperties();
+        Map<String, Property> props = vfc.getPropertiesByName();
         if (props != null) {
             // find all port names by pre-set property (ip_requirements)
             for (Map.Entry<String, Property> entry : props.entrySet()) {
@@ -374,15 +360,7 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
             return new ArrayList<>();
         }
 
-        List<NodeTemplate> res = new ArrayList<>();
-        List<NodeTemplate> nodeTemplates = toscaTemplate.getNodeTemplates();
-        for (NodeTemplate nodeTemplate : nodeTemplates) {
-            if (nodeType.equals(nodeTemplate.getTypeDefinition().getType())) {
-                res.add(nodeTemplate);
-            }
-        }
-
-        return res;
+        return getServiceIndex().getNodeTemplatesByToscaType(nodeType);
     }
 
 
@@ -399,8 +377,7 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
             return new ArrayList<>();
         }
 
-        List<NodeTemplate> serviceVfList = getServiceVfList();
-        NodeTemplate vfInstance = getNodeTemplateByCustomizationUuid(serviceVfList, vfCustomizationId);
+        NodeTemplate vfInstance = getServiceVfByCustomizationUuid(vfCustomizationId);
         List<NodeTemplate> vfcs = getNodeTemplateBySdcType(vfInstance, SdcTypes.VFC);
         vfcs.addAll(getNodeTemplateBySdcType(vfInstance, SdcTypes.CVFC));
 
@@ -410,19 +387,15 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
     @Override
     //Sunny flow - covered with UT
     public List<Group> getVfModulesByVf(String vfCustomizationUuid) {
-        List<NodeTemplate> serviceVfList = getServiceVfList();
-        NodeTemplate nodeTemplateByCustomizationUuid = getNodeTemplateByCustomizationUuid(serviceVfList, vfCustomizationUuid);
+        NodeTemplate nodeTemplateByCustomizationUuid = getServiceVfByCustomizationUuid(vfCustomizationUuid);
         if (nodeTemplateByCustomizationUuid != null) {
             String name = nodeTemplateByCustomizationUuid.getName();
             String normaliseComponentInstanceName = SdcToscaUtility.normaliseComponentInstanceName(name);
-            List<Group> serviceLevelGroups = toscaTemplate.getTopologyTemplate().getGroups();
             log.debug("getVfModulesByVf - VF node template name {}, normalized name {}. Searching groups on service level starting with VF normalized name...", name, normaliseComponentInstanceName);
-            if (serviceLevelGroups != null) {
-                return serviceLevelGroups
-                        .stream()
-                        .filter(x -> GROUPS_VF_MODULE.equals(x.getTypeDefinition().getType()) && x.getName().startsWith(normaliseComponentInstanceName))
-                        .collect(toList());
-            }
+            return getIndex(toscaTemplate.getTopologyTemplate()).getGroupsByToscaType(GROUPS_VF_MODULE)
+                    .stream()
+                    .filter(x -> x.getName().startsWith(normaliseComponentInstanceName))
+                    .collect(toList());
         }
         return new ArrayList<>();
     }
@@ -547,7 +520,7 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
         }
 
         String[] split = getSplittedPath(leafValuePath);
-        LinkedHashMap<String, Property> properties = group.getProperties();
+        Map<String, Property> properties = group.getPropertiesByName();
         Object property = PropertyUtils.processProperties(split, properties);
         return property == null || property instanceof Function? null : String.valueOf(property);
     }
@@ -565,7 +538,7 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
         }
 
         String[] split = getSplittedPath(leafValuePath);
-        LinkedHashMap<String, Property> properties = group.getProperties();
+        Map<String, Property> properties = group.getPropertiesByName();
         return PropertyUtils.processProperties(split, properties);
     }
 
@@ -583,7 +556,7 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
             log.error("getCpListByVf Vfs not exist for vfCustomizationId {}", vfCustomizationId);
             return cpList;
         }
-        NodeTemplate vfInstance = getNodeTemplateByCustomizationUuid(serviceVfList, vfCustomizationId);
+        NodeTemplate vfInstance = getServiceVfByCustomizationUuid(vfCustomizationId);
         if (vfInstance == null) {
             log.debug("getCpListByVf vf list is null");
             return cpList;
@@ -610,16 +583,12 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
 
         SubstitutionMappings substitutionMappings = vf.getSubMappingToscaTemplate();
         if (substitutionMappings != null) {
-            List<Group> groups = substitutionMappings.getGroups();
-            if (groups != null) {
-                Optional<Group> findFirst = groups
-                        .stream()
-                        .filter(x -> (x.getMetadata() != null && serviceLevelVfModule.getMetadata().getValue(SdcPropertyNames.PROPERTY_NAME_VFMODULEMODELINVARIANTUUID).equals(x.getMetadata().getValue(SdcPropertyNames.PROPERTY_NAME_VFMODULEMODELINVARIANTUUID)))).findFirst();
-                if (findFirst.isPresent()) {
-                    List<String> members = findFirst.get().getMembers();
-                    if (members != null) {
-                        return substitutionMappings.getNodeTemplates().stream().filter(x -> members.contains(x.getName())).collect(toList());
-                    }
+            TopologyIndex index = getIndex(substitutionMappings);
+            Group group = index.getGroupByVfModuleInvariantUuid(serviceLevelVfModule.getMetadata().getValue(SdcPropertyNames.PROPERTY_NAME_VFMODULEMODELINVARIANTUUID));
+            if (group != null) {
+                List<String> members = group.getMembers();
+                if (members != null) {
+                    return index.getNodeTemplatesByNames(members);
                 }
             }
         }
@@ -646,15 +615,19 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
         }
 
         List<Pair<NodeTemplate, NodeTemplate>> pairsList = new ArrayList<>();
+        Map<String, NodeTemplate> capNodeTemplatesByName = new HashMap<>();
+        for (NodeTemplate capNodeTemplate : listOfCapNodeTemplates) {
+            capNodeTemplatesByName.putIfAbsent(capNodeTemplate.getName(), capNodeTemplate);
+        }
 
         for (NodeTemplate reqNodeTemplate : listOfReqNodeTemplates) {
             List<RequirementAssignment> requirements = reqNodeTemplate.getRequirements().getRequirementsByName(reqName).getAll();
             for (RequirementAssignment reqEntry : requirements) {
                 String node = reqEntry.getNodeTemplateName();
                 if (node != null) {
-                    Optional<NodeTemplate> findFirst = listOfCapNodeTemplates.stream().filter(x -> x.getName().equals(node)).findFirst();
-                    if (findFirst.isPresent()) {
-                        pairsList.add(new ImmutablePair<NodeTemplate, NodeTemplate>(reqNodeTemplate, findFirst.get()));
+                    NodeTemplate capNodeTemplate = capNodeTemplatesByName.get(node);
+                    if (capNodeTemplate != null) {
+                        pairsList.add(new ImmutablePair<NodeTemplate, NodeTemplate>(reqNodeTemplate, capNodeTemplate));
                     }
                 }
             }
@@ -671,9 +644,7 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
         if (nodeTemplates.isEmpty()) {
             log.error("getAllottedResources nodeTemplates not exist");
         }
-        nodeTemplates = nodeTemplates.stream().filter(
-                x -> x.getMetaData() != null && x.getMetaData().getValue("category").equals("Allotted Resource"))
-                .collect(toList());
+        nodeTemplates = getIndex(toscaTemplate.getTopologyTemplate()).getNodeTemplatesByCategory("Allotted Resource");
         if (nodeTemplates.isEmpty()) {
             log.debug("getAllottedResources -  allotted resources not exist");
         }
@@ -691,6 +662,20 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
         return nodeTemplate.getTypeDefinition().getType();
     }
 
+    @Override
+    public ValidationIssueReport getValidationIssueReport() {
+        return validationIssueReport;
+    }
+
+    @Override
+    public ParseMetrics getParseMetrics() {
+        return toscaTemplate.getParseMetrics();
+    }
+
+    void setValidationIssueReport(ValidationIssueReport validationIssueReport) {
+        this.validationIssueReport = validationIssueReport;
+    }
+
     /**
      * This methdd is returning the csarConformanceLevel for input CSAR
      * When csarConformanceLevel is configured with failOnError as False in Error Configuration; it
@@ -766,18 +751,14 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
         if (substitutionMappings != null) {
             List<NodeTemplate> nodeTemplates = substitutionMappings.getNodeTemplates();
             if (nodeTemplates != null && !nodeTemplates.isEmpty()) {
+            	List<NodeTemplate> nodeTemplatesOfType = getIndex(substitutionMappings).getNodeTemplatesBySdcType(sdcType.getValue());
             	if (sdcType.equals(SdcTypes.VFC) && isVNF)  {
-            		return nodeTemplates.stream()
-                    		.filter(x -> (x.getMetaData() != null &&
-                    			sdcType.getValue().equals(x.getMetaData().getValue(SdcPropertyNames.PROPERTY_NAME_TYPE))) &&  isVNFType(x))
-                    		.collect(toList());
+            		nodeTemplatesOfType.removeIf(x -> !isVNFType(x));
             	}
             	else {
-                    return nodeTemplates.stream()
-                    		.filter(x -> (x.getMetaData() != null &&
-                    			sdcType.getValue().equals(x.getMetaData().getValue(SdcPropertyNames.PROPERTY_NAME_TYPE))) &&  !isVNFType(x))
-                    		.collect(toList());
+            		nodeTemplatesOfType.removeIf(this::isVNFType);
             	}
+            	return nodeTemplatesOfType;
             }
             else {
                 log.debug("getNodeTemplateBySdcType - SubstitutionMappings' node Templates not exist");
@@ -806,7 +787,7 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
             return filterMap;
         }
 
-        Map<String, Property> ntProperties = nodeTemplate.getProperties();
+        Map<String, Property> ntProperties = nodeTemplate.getPropertiesByName();
 
         if (ntProperties != null && ntProperties.size() > 0) {
 
@@ -829,8 +810,7 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
             return null;
         }
 
-        List<NodeTemplate> serviceVfList = getServiceVfList();
-        NodeTemplate vfInstance = getNodeTemplateByCustomizationUuid(serviceVfList, vfCustomizationUuid);
+        NodeTemplate vfInstance = getServiceVfByCustomizationUuid(vfCustomizationUuid);
         return getNodeTemplateBySdcType(vfInstance, SdcTypes.VFC, true).stream().findAny().orElse(null);
 	}
 
@@ -861,10 +841,7 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
         if (substitutionMappings != null) {
             List<NodeTemplate> nodeTemplates = substitutionMappings.getNodeTemplates();
             if (nodeTemplates != null && !nodeTemplates.isEmpty()) {
-
-                return nodeTemplates.stream()
-                        .filter(x -> !isVNFType(x))
-                        .collect(toList());
+                return getIndex(substitutionMappings).getNodeTemplatesExceptVnfConfigurations();
             }
             else {
                 log.debug("getNodeTemplateChildren - SubstitutionMappings' node Templates not exist");
@@ -882,10 +859,7 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
             return null;
         }
 
-        List<NodeTemplate> nodeTemplates = getServiceNodeTemplates();
-        Optional<NodeTemplate> findFirst =  nodeTemplates.stream().filter(nt -> nt.getName().equals(nodeName)).findFirst();
-
-        return findFirst.isPresent() ? findFirst.get() : null;
+        return getServiceIndex().getNodeTemplateByName(nodeName);
     }
 
     @Override
@@ -948,9 +922,8 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
     public ArrayList<Group> getGroupsOfTopologyTemplateByToscaGroupType(String groupType) {
        	if(toscaTemplate.getGroups() == null)
        		return new ArrayList<>();
-       	return (ArrayList<Group>) toscaTemplate.getGroups()
+       	return (ArrayList<Group>) getServiceIndex().getGroupsByToscaType(groupType)
        	.stream()
-       	.filter(g->g.getType().equals(groupType))
        	.sorted(Group::compareTo)
        	.collect(toList());
     }
@@ -962,11 +935,14 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
     
     @Override
     public ArrayList<Group> getGroupsOfOriginOfNodeTemplateByToscaGroupType(NodeTemplate nodeTemplate, String groupType) {
-    	return (ArrayList<Group>) getGroupsOfOriginOfNodeTemplate(nodeTemplate)
-    	.stream()
-    	.filter(g->g.getType().equals(groupType))
-    	.sorted(Group::compareTo)
-    	.collect(toList());
+    	if(StringUtils.isNotEmpty(nodeTemplate.getName())){
+    		return (ArrayList<Group>) getIndex(getNodeTemplateByName(nodeTemplate.getName()).getSubMappingToscaTemplate())
+    		.getGroupsByToscaType(groupType)
+    		.stream()
+    		.sorted(Group::compareTo)
+    		.collect(toList());
+    	}
+    	return new ArrayList<>();
     }
 
     @Override
@@ -975,9 +951,7 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
        		return new ArrayList<>();
        	}
        	List<String> membersNames = getGroupMembers(groupName);
-       	return toscaTemplate.getNodeTemplates().stream()
-      			.filter(nt->membersNames.contains(nt.getName()))
-     			.collect(toList());
+       	return getServiceIndex().getNodeTemplatesByNames(membersNames);
     }
     
 
@@ -985,11 +959,9 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
     public List<NodeTemplate> getGroupMembersOfOriginOfNodeTemplate(NodeTemplate nodeTemplate, String groupName) {
 		ArrayList<Group> groups = getGroupsOfOriginOfNodeTemplate(nodeTemplate);
 		if(!groups.isEmpty()){
-			Optional<Group> group = groups.stream().filter(g -> g.getName().equals(groupName)).findFirst();
-			if(group.isPresent()){
-				return nodeTemplate.getSubMappingToscaTemplate().getNodeTemplates().stream()
-				.filter(nt -> group.get().getMembers().contains(nt.getName()))
-				.collect(toList());
+			Group group = getIndex(getNodeTemplateByName(nodeTemplate.getName()).getSubMappingToscaTemplate()).getGroupByName(groupName);
+			if(group != null){
+				return getIndex(nodeTemplate.getSubMappingToscaTemplate()).getNodeTemplatesByNames(group.getMembers());
 			}
 		}
 		return new ArrayList<>();
@@ -1046,17 +1018,19 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
         List<NodeTemplate> nodeTemplates = topologyTemplate.getNodeTemplates();
 
         if (nodeTemplates != null && !nodeTemplates.isEmpty())
-            return nodeTemplates.stream().filter(x -> (x.getMetaData() != null && sdcType.getValue().equals(x.getMetaData().getValue(SdcPropertyNames.PROPERTY_NAME_TYPE)))).collect(toList());
+            return getIndex(topologyTemplate).getNodeTemplatesBySdcType(sdcType.getValue());
 
         log.debug("getNodeTemplateBySdcType - topologyTemplate's nodeTemplates not exist");
         return new ArrayList<>();
     }
 
-    //Assumed to be unique property for the list
-    private NodeTemplate getNodeTemplateByCustomizationUuid(List<NodeTemplate> nodeTemplates, String customizationId) {
+    //Assumed to be unique property for the service VFs
+    private NodeTemplate getServiceVfByCustomizationUuid(String customizationId) {
        if (customizationId != null) {
-            Optional<NodeTemplate> findFirst = nodeTemplates.stream().filter(x -> (x.getMetaData() != null && customizationId.equals(x.getMetaData().getValue(SdcPropertyNames.PROPERTY_NAME_CUSTOMIZATIONUUID)))).findFirst();
-            return findFirst.isPresent() ? findFirst.get() : null;
+            return getServiceIndex().getNodeTemplatesByCustomizationUuid(customizationId)
+                    .stream()
+                    .filter(x -> SdcTypes.VF.getValue().equals(x.getMetaData().getValue(SdcPropertyNames.PROPERTY_NAME_TYPE)))
+                    .findFirst().orElse(null);
         }
         else {
             log.error("getNodeTemplateByCustomizationUuid - customizationId is null");
@@ -1064,6 +1038,26 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
         }
     }
 
+    private TopologyIndex getServiceIndex() {
+        return getIndex(toscaTemplate.getTopologyTemplate());
+    }
+
+    private TopologyIndex getIndex(TopologyTemplate topologyTemplate) {
+        if (topologyTemplate == null) {
+            return TopologyIndex.EMPTY;
+        }
+        return topologyIndexes.computeIfAbsent(topologyTemplate, k -> new TopologyIndex(
+                topologyTemplate.getNodeTemplates(), topologyTemplate.getGroups(), topologyTemplate.getPolicies()));
+    }
+
+    private TopologyIndex getIndex(SubstitutionMappings substitutionMappings) {
+        if (substitutionMappings == null) {
+            return TopologyIndex.EMPTY;
+        }
+        return topologyIndexes.computeIfAbsent(substitutionMappings, k -> new TopologyIndex(
+                substitutionMappings.getNodeTemplates(), substitutionMappings.getGroups(), null));
+    }
+
   @Override
   public Map<String, List<InterfacesDef>> getInterfacesOf(NodeTemplate nt){
     if (nt == null) {
@@ -1195,18 +1189,12 @@ public class SdcCsarHelperImpl implements ISdcCsarHelper {
 
 
     private Property getNodeTemplatePropertyObjectByName(NodeTemplate nodeTemplate, String propertyName) {
-        return nodeTemplate.getPropertiesObjects()
-                .stream()
-                .filter(p->p.getName().equals(propertyName))
-                .findFirst()
-                .orElse(null);
+        return nodeTemplate.getProperty(propertyName);
     }
 
     private NodeTemplate getChildNodeTemplateByName(NodeTemplate parent, String nodeTemplateName) {
-        return getNodeTemplateChildren(parent)
-            .stream()
-            .filter(nt->nt.getName().equals(nodeTemplateName))
-            .findFirst().orElse(null);
+        NodeTemplate child = getIndex(parent.getSubMappingToscaTemplate()).getNodeTemplateByName(nodeTemplateName);
+        return child != null && !isVNFType(child) ? child : null;
     }
 
     @Override
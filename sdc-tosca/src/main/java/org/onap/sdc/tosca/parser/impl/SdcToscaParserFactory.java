@@ -20,14 +20,23 @@
 
 package org.onap.sdc.tosca.parser.impl;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import org.onap.sdc.tosca.parser.api.ConformanceLevel;
+import org.onap.sdc.tosca.parser.api.IParserMetrics;
 import org.onap.sdc.tosca.parser.config.ConfigurationManager;
 import org.onap.sdc.tosca.parser.config.ErrorInfo;
 import org.onap.sdc.tosca.parser.config.JToscaValidationIssueInfo;
 import org.onap.sdc.tosca.parser.config.SdcToscaParserErrors;
+import org.onap.sdc.tosca.parser.elements.ValidationIssueReport;
 import org.onap.sdc.tosca.parser.enums.JToscaValidationIssueType;
 import org.onap.sdc.tosca.parser.utils.GeneralUtility;
 import org.onap.sdc.tosca.parser.api.ISdcCsarHelper;
@@ -36,18 +45,17 @@ import org.onap.sdc.toscaparser.api.ToscaTemplate;
 import org.onap.sdc.toscaparser.api.common.JToscaValidationIssue;
 import org.onap.sdc.toscaparser.api.common.JToscaException;
 import org.onap.sdc.toscaparser.api.utils.JToscaErrorCodes;
-import org.onap.sdc.toscaparser.api.utils.ThreadLocalsHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class SdcToscaParserFactory {
 	private static Logger log = LoggerFactory.getLogger(SdcToscaParserFactory.class.getName());
 
-    private static ConfigurationManager configurationManager;
+    private static volatile ConfigurationManager configurationManager;
     private static volatile SdcToscaParserFactory instance;
-    private List<JToscaValidationIssue> criticalExceptions = new ArrayList<>();
-    private List<JToscaValidationIssue> warningExceptions = new ArrayList<>();
-    private List<JToscaValidationIssue> notAnalyzadExceptions = new ArrayList<>();
+    private volatile ValidationIssueReport lastValidationIssueReport = new ValidationIssueReport();
+    private volatile IParserMetrics parserMetrics = IParserMetrics.NO_OP;
+    private volatile Executor nestedTemplatesExecutor;
     private SdcToscaParserFactory() {}
 
     /**
@@ -70,6 +78,34 @@ public class SdcToscaParserFactory {
         SdcToscaParserFactory.configurationManager = configurationManager;
     }
 
+    /**
+     * Set the metrics receiving the outcome of every parse of this factory, e.g. a {@link JmxParserMetrics}.
+     *
+     * @param parserMetrics - the metrics, null to stop collecting.
+     */
+    public void setParserMetrics(IParserMetrics parserMetrics) {
+        this.parserMetrics = parserMetrics != null ? parserMetrics : IParserMetrics.NO_OP;
+    }
+
+    public IParserMetrics getParserMetrics() {
+        return parserMetrics;
+    }
+
+    /**
+     * Set the executor building the nested topologies of every parse of this factory in parallel,
+     * e.g. {@link java.util.concurrent.ForkJoinPool#commonPool()}. The nested topologies of a parse are
+     * built level by level, the parsing thread taking its share of every level.
+     *
+     * @param nestedTemplatesExecutor - the executor, null to build the nested topologies sequentially.
+     */
+    public void setNestedTemplatesExecutor(Executor nestedTemplatesExecutor) {
+        this.nestedTemplatesExecutor = nestedTemplatesExecutor;
+    }
+
+    public Executor getNestedTemplatesExecutor() {
+        return nestedTemplatesExecutor;
+    }
+
     /**
      * Get an ISdcCsarHelper object for this CSAR file.
      *
@@ -93,29 +129,167 @@ public class SdcToscaParserFactory {
         return init(csarPath, resolveGetInput);
     }
 
+    /**
+     * Parse a batch of CSAR files asynchronously on the given executor.<br>
+     * At most as many CSARs as there are available processors are parsed at the same time, without a timeout.
+     *
+     * @param csarPaths - the paths to the CSAR files.
+     * @param executor - the executor running the parses.
+     * @return one future per CSAR, in the order of csarPaths. A failed parse completes its future with an SdcToscaParserException.
+     */
+    public List<CompletableFuture<ISdcCsarHelper>> getSdcCsarHelpersAsync(List<Path> csarPaths, Executor executor) {
+        return getSdcCsarHelpersAsync(csarPaths, executor, Runtime.getRuntime().availableProcessors(), 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Parse a batch of CSAR files asynchronously on the given executor.
+     *
+     * @param csarPaths - the paths to the CSAR files.
+     * @param executor - the executor running the parses.
+     * @param parallelism - the maximum number of CSARs parsed at the same time, parses which timed out included.
+     * @param timeout - the maximum time a single CSAR may take to parse, 0 or less for no timeout; a timeout under a millisecond is rounded up to one.
+     * A parse exceeding it still runs to its end before the next CSAR takes its place.
+     * @param unit - the unit of timeout.
+     * @return one future per CSAR, in the order of csarPaths. A failed parse completes its future with an SdcToscaParserException,
+     * a parse exceeding the timeout completes it with an SdcToscaParserException of the PARSE_TIMEOUT error.
+     */
+    public List<CompletableFuture<ISdcCsarHelper>> getSdcCsarHelpersAsync(List<Path> csarPaths, Executor executor, int parallelism, long timeout, TimeUnit unit) {
+        long timeoutMillis = timeout > 0 ? Math.max(1, unit.toMillis(timeout)) : 0;
+        return new CsarBatchParser(this, executor, parallelism, timeoutMillis).submit(csarPaths);
+    }
+
+    /**
+     * Get an ISdcCsarHelper object for a CSAR held in memory, e.g. received over HTTP, without writing it to disk.
+     *
+     * @param csarContent - the CSAR content. The stream is read to its end but not closed.
+     * @param csarName - the name of the CSAR, used in validation messages and logs.
+     * @return ISdcCsarHelper object.
+     * @throws SdcToscaParserException - in case the CSAR is invalid.
+     */
+    public ISdcCsarHelper getSdcCsarHelper(InputStream csarContent, String csarName) throws SdcToscaParserException {
+        return init(csarContent, csarName, true);
+    }
+
+    /**
+     * Get an ISdcCsarHelper object for a CSAR held in memory, without writing it to disk.
+     *
+     * @param csarContent - the CSAR content. The stream is read to its end but not closed.
+     * @param csarName - the name of the CSAR, used in validation messages and logs.
+     * @param resolveGetInput - resolve get_input properties
+     * @return ISdcCsarHelper object.
+     * @throws SdcToscaParserException - in case the CSAR is invalid.
+     */
+    public ISdcCsarHelper getSdcCsarHelper(InputStream csarContent, String csarName, boolean resolveGetInput) throws SdcToscaParserException {
+        return init(csarContent, csarName, resolveGetInput);
+    }
+
+    /**
+     * Get an ISdcCsarHelper object for a CSAR held in memory, without writing it to disk.
+     *
+     * @param csarContent - the CSAR content.
+     * @param csarName - the name of the CSAR, used in validation messages and logs.
+     * @return ISdcCsarHelper object.
+     * @throws SdcToscaParserException - in case the CSAR is invalid.
+     */
+    public ISdcCsarHelper getSdcCsarHelper(byte[] csarContent, String csarName) throws SdcToscaParserException {
+        return init(new ByteArrayInputStream(csarContent), csarName, true);
+    }
+
+    /**
+     * Get an ISdcCsarHelper object for a CSAR held in memory, without writing it to disk.
+     *
+     * @param csarContent - the CSAR content, from its position to its limit. The position of the buffer is not changed.
+     * @param csarName - the name of the CSAR, used in validation messages and logs.
+     * @return ISdcCsarHelper object.
+     * @throws SdcToscaParserException - in case the CSAR is invalid.
+     */
+    public ISdcCsarHelper getSdcCsarHelper(ByteBuffer csarContent, String csarName) throws SdcToscaParserException {
+        if (csarContent.hasArray()) {
+            return init(new ByteArrayInputStream(csarContent.array(), csarContent.arrayOffset() + csarContent.position(), csarContent.remaining()), csarName, true);
+        }
+        byte[] content = new byte[csarContent.remaining()];
+        csarContent.duplicate().get(content);
+        return init(new ByteArrayInputStream(content), csarName, true);
+    }
+
     private ISdcCsarHelper init(String csarPath, boolean resolveGetInput) throws SdcToscaParserException {
-        synchronized (SdcToscaParserFactory.class) {
-            ToscaTemplate tosca = null;
-            try {
-                tosca = new ToscaTemplate(csarPath, null, true, null, resolveGetInput);
-            } catch (JToscaException e) {
-                throwSdcToscaParserException(e);
+        return init(csarPath, resolveGetInput, parserMetrics);
+    }
+
+    /**
+     * Parse a CSAR file reporting to the given metrics, used by the batches to report a single outcome per parse.
+     */
+    ISdcCsarHelper init(String csarPath, boolean resolveGetInput, IParserMetrics metrics) throws SdcToscaParserException {
+        Executor executor = nestedTemplatesExecutor;
+        return parse(csarPath, () -> new ToscaTemplate(csarPath, null, true, null, resolveGetInput, executor), metrics);
+    }
+
+    private ISdcCsarHelper init(InputStream csarContent, String csarName, boolean resolveGetInput) throws SdcToscaParserException {
+        Executor executor = nestedTemplatesExecutor;
+        return parse(csarName, () -> new ToscaTemplate(csarContent, csarName, null, resolveGetInput, executor), parserMetrics);
+    }
+
+    private ISdcCsarHelper parse(String csarName, ToscaTemplateLoader loader, IParserMetrics metrics) throws SdcToscaParserException {
+        metrics.parseStarted(csarName);
+        long start = System.nanoTime();
+        ToscaTemplate tosca = null;
+        try {
+            tosca = loader.load();
+        } catch (JToscaException e) {
+            // the CSAR has no template to read a conformance level from, its issues are not classified
+            ValidationIssueReport report = null;
+            if (e.getValidationIssueCollector() != null) {
+                report = new ValidationIssueReport();
+                for (JToscaValidationIssue issue : e.getValidationIssueCollector().getValidationIssues().values()) {
+                    report.addNotAnalyzadException(issue);
+                }
             }
-            SdcCsarHelperImpl sdcCsarHelperImpl = new SdcCsarHelperImpl(tosca, configurationManager);
-            String cSarConformanceLevel = sdcCsarHelperImpl.getConformanceLevel();
-            validateCsarVersion(cSarConformanceLevel);
-            try {
-                handleErrorsByTypes(csarPath, cSarConformanceLevel);
-			} catch (JToscaException e) {
-                throwSdcToscaParserException(e);
-			}
-            return sdcCsarHelperImpl;
+            JToscaErrorCodes jToscaError = JToscaErrorCodes.getByCode(e.getCode());
+            SdcToscaParserErrors error = SdcToscaParserErrors.getSdcErrorByJToscaError(jToscaError);
+            metrics.parseFailed(csarName, System.nanoTime() - start, error != null ? error : SdcToscaParserErrors.GENERAL_ERROR,
+                    jToscaError, e.getParseMetrics(), report);
+            throwSdcToscaParserException(e, report);
+        } catch (RuntimeException | Error e) {
+            metrics.parseFailed(csarName, System.nanoTime() - start, SdcToscaParserErrors.GENERAL_ERROR, null, null, null);
+            throw e;
+        }
+        try {
+            ISdcCsarHelper csarHelper = createCsarHelper(tosca, csarName);
+            metrics.parseSucceeded(csarName, System.nanoTime() - start, tosca.getParseMetrics(), csarHelper.getValidationIssueReport());
+            return csarHelper;
+        } catch (SdcToscaParserException e) {
+            metrics.parseFailed(csarName, System.nanoTime() - start,
+                    e.getError() != null ? e.getError() : SdcToscaParserErrors.GENERAL_ERROR,
+                    e.getJToscaError(), tosca.getParseMetrics(), e.getValidationIssueReport());
+            throw e;
+        } catch (RuntimeException | Error e) {
+            metrics.parseFailed(csarName, System.nanoTime() - start, SdcToscaParserErrors.GENERAL_ERROR, null, tosca.getParseMetrics(), null);
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ToscaTemplateLoader {
+        ToscaTemplate load() throws JToscaException;
+    }
+
+    private ISdcCsarHelper createCsarHelper(ToscaTemplate tosca, String csarPath) throws SdcToscaParserException {
+        SdcCsarHelperImpl sdcCsarHelperImpl = new SdcCsarHelperImpl(tosca, configurationManager);
+        String cSarConformanceLevel = sdcCsarHelperImpl.getConformanceLevel();
+        validateCsarVersion(cSarConformanceLevel);
+        ValidationIssueReport validationIssueReport = new ValidationIssueReport();
+        sdcCsarHelperImpl.setValidationIssueReport(validationIssueReport);
+        try {
+            handleErrorsByTypes(tosca, csarPath, cSarConformanceLevel, validationIssueReport);
+        } catch (JToscaException e) {
+            throwSdcToscaParserException(e, validationIssueReport);
         }
+        return sdcCsarHelperImpl;
     }
 
-    private void handleErrorsByTypes(String csarPath, String cSarConformanceLevel) throws JToscaException {
-        clearValidationIssuesLists();
-    	for(JToscaValidationIssue toscaValidationIssue : ThreadLocalsHolder.getCollector().getValidationIssues().values()){
+    private void handleErrorsByTypes(ToscaTemplate tosca, String csarPath, String cSarConformanceLevel, ValidationIssueReport validationIssueReport) throws JToscaException {
+        lastValidationIssueReport = validationIssueReport;
+    	for(JToscaValidationIssue toscaValidationIssue : tosca.getParseContext().getCollector().getValidationIssues().values()){
             List<JToscaValidationIssueInfo> issueInfos = configurationManager.getJtoscaValidationIssueConfiguration().getValidationIssues().get(toscaValidationIssue.getCode());
     		if(issueInfos != null && !issueInfos.isEmpty()){
                 JToscaValidationIssueInfo issueInfo = null;
@@ -127,32 +301,27 @@ public class SdcToscaParserFactory {
     			if(issueInfo != null){
                     switch (JToscaValidationIssueType.valueOf(issueInfo.getIssueType())) {
                         case CRITICAL:
-                            criticalExceptions.add(toscaValidationIssue);
+                            validationIssueReport.addCriticalException(toscaValidationIssue);
                             break;
                         case WARNING:
-                            warningExceptions.add(toscaValidationIssue);
+                            validationIssueReport.addWarningException(toscaValidationIssue);
                             break;
                         default:
                             break;
                     }
                 }else{
-                    notAnalyzadExceptions.add(toscaValidationIssue);
+                    validationIssueReport.addNotAnalyzadException(toscaValidationIssue);
                 }
             }else{//notAnalyzed
-                notAnalyzadExceptions.add(toscaValidationIssue);
+                validationIssueReport.addNotAnalyzadException(toscaValidationIssue);
             }
     	}
-    	logErrors(csarPath);
+    	logErrors(csarPath, validationIssueReport);
     }
 
-    private void clearValidationIssuesLists(){
-        notAnalyzadExceptions.clear();
-        criticalExceptions.clear();
-        warningExceptions.clear();
-    }
-
-    private void logErrors(String inputPath) throws JToscaException{
+    private void logErrors(String inputPath, ValidationIssueReport validationIssueReport) throws JToscaException{
 		//Warnings
+		List<JToscaValidationIssue> warningExceptions = validationIssueReport.getWarningExceptions();
 		int warningsCount = warningExceptions.size();
 		if (warningsCount > 0) {
 			log.warn("####################################################################################################");
@@ -164,6 +333,7 @@ public class SdcToscaParserFactory {
 			log.warn("####################################################################################################");
 		}
 		//Criticals
+		List<JToscaValidationIssue> criticalExceptions = validationIssueReport.getCriticalExceptions();
 		int criticalsCount = criticalExceptions.size();
 		if (criticalsCount > 0) {
 			log.error("####################################################################################################");
@@ -174,16 +344,23 @@ public class SdcToscaParserFactory {
 			throw new JToscaException(String.format("CSAR Validation Failed. CSAR name - {}. Please check logs for details.", inputPath), JToscaErrorCodes.CSAR_TOSCA_VALIDATION_ERROR.getValue());
 		}
     }
+
+    /**
+     * The validation issue getters of the factory describe the most recent parse only.
+     * When CSARs are parsed concurrently use {@link ISdcCsarHelper#getValidationIssueReport()} or
+     * {@link SdcToscaParserException#getValidationIssueReport()} instead. They return a copy the caller
+     * may change, as they always did.
+     */
     public List<JToscaValidationIssue> getCriticalExceptions() {
-		return criticalExceptions;
+		return new ArrayList<>(lastValidationIssueReport.getCriticalExceptions());
 	}
 
 	public List<JToscaValidationIssue> getWarningExceptions() {
-		return warningExceptions;
+		return new ArrayList<>(lastValidationIssueReport.getWarningExceptions());
 	}
 
 	public List<JToscaValidationIssue> getNotAnalyzadExceptions() {
-		return notAnalyzadExceptions;
+		return new ArrayList<>(lastValidationIssueReport.getNotAnalyzadExceptions());
 	}
 
 
@@ -209,12 +386,22 @@ public class SdcToscaParserFactory {
     }
     private void throwConformanceLevelException(String minVersion) throws SdcToscaParserException {
         ErrorInfo errorInfo = configurationManager.getErrorConfiguration().getErrorInfo(SdcToscaParserErrors.CONFORMANCE_LEVEL_ERROR.toString());
-        throw new SdcToscaParserException(String.format(errorInfo.getMessage(), minVersion), errorInfo.getCode());
+        throw new SdcToscaParserException(String.format(errorInfo.getMessage(), minVersion), errorInfo.getCode(),
+                SdcToscaParserErrors.CONFORMANCE_LEVEL_ERROR, null, null);
+    }
+
+    SdcToscaParserException createParseTimeoutException(String csarPath, long timeoutMillis) {
+        log.error("CSAR parsing timed out after {} ms. CSAR name - {}", timeoutMillis, csarPath);
+        ErrorInfo errorInfo = configurationManager.getErrorConfiguration().getErrorInfo(SdcToscaParserErrors.PARSE_TIMEOUT.toString());
+        return new SdcToscaParserException(String.format(errorInfo.getMessage(), timeoutMillis), errorInfo.getCode(),
+                SdcToscaParserErrors.PARSE_TIMEOUT, null, null);
     }
 
-    private void throwSdcToscaParserException(JToscaException e) throws SdcToscaParserException {
-        ErrorInfo errorInfo = configurationManager.getErrorConfiguration().getErrorInfo(SdcToscaParserErrors.getSdcErrorByJToscaError(JToscaErrorCodes.getByCode(e.getCode())).toString());
-        throw new SdcToscaParserException(errorInfo.getMessage(), errorInfo.getCode());
+    private void throwSdcToscaParserException(JToscaException e, ValidationIssueReport validationIssueReport) throws SdcToscaParserException {
+        JToscaErrorCodes jToscaError = JToscaErrorCodes.getByCode(e.getCode());
+        SdcToscaParserErrors error = SdcToscaParserErrors.getSdcErrorByJToscaError(jToscaError);
+        ErrorInfo errorInfo = configurationManager.getErrorConfiguration().getErrorInfo(error.toString());
+        throw new SdcToscaParserException(errorInfo.getMessage(), errorInfo.getCode(), error, jToscaError, validationIssueReport);
     }
 
 
@@ -0,0 +1,202 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * sdc-tosca
+ * ================================================================================
+ * Copyright (C) 2017 - 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.tosca.parser.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.onap.sdc.toscaparser.api.Group;
+import org.onap.sdc.toscaparser.api.NodeTemplate;
+import org.onap.sdc.toscaparser.api.Policy;
+import org.onap.sdc.toscaparser.api.elements.Metadata;
+
+/**
+ * Hash indexes over the node templates, groups and policies of a single topology template
+ * (the service itself, the substitution mappings or the origin component template of a node template).
+ * Lookups return new lists holding the matching entities in declaration order.
+ */
+class TopologyIndex {
+
+    static final TopologyIndex EMPTY = new TopologyIndex(null, null, null);
+
+    private static final String VNF_CONFIGURATION_TYPE_SUFFIX = "VnfConfiguration";
+
+    private final Map<NodeTemplate, Integer> positions = new IdentityHashMap<>();
+    private final List<NodeTemplate> nodeTemplatesExceptVnfConfigurations = new ArrayList<>();
+    // node templates of nested topologies may share a name, all of them are returned by name
+    private final Map<String, List<NodeTemplate>> nodeTemplatesByName = new HashMap<>();
+    private final Map<String, List<NodeTemplate>> nodeTemplatesByCustomizationUuid = new HashMap<>();
+    private final Map<String, List<NodeTemplate>> nodeTemplatesByInvariantUuid = new HashMap<>();
+    private final Map<String, List<NodeTemplate>> nodeTemplatesBySdcType = new HashMap<>();
+    private final Map<String, List<NodeTemplate>> nodeTemplatesByCategory = new HashMap<>();
+    private final Map<String, List<NodeTemplate>> nodeTemplatesByToscaType = new HashMap<>();
+    private final Map<String, Group> groupsByName = new HashMap<>();
+    private final Map<String, List<Group>> groupsByToscaType = new HashMap<>();
+    private final Map<String, Group> groupsByVfModuleInvariantUuid = new HashMap<>();
+    private final Map<String, Policy> policiesByName = new HashMap<>();
+    private final Map<String, List<Policy>> policiesByToscaType = new HashMap<>();
+    private final Map<String, List<Policy>> policiesByTarget = new HashMap<>();
+
+    TopologyIndex(List<NodeTemplate> nodeTemplates, List<Group> groups, List<Policy> policies) {
+        if (nodeTemplates != null) {
+            for (NodeTemplate nodeTemplate : nodeTemplates) {
+                indexNodeTemplate(nodeTemplate);
+            }
+        }
+        if (groups != null) {
+            for (Group group : groups) {
+                groupsByName.putIfAbsent(group.getName(), group);
+                add(groupsByToscaType, group.getType(), group);
+                if (group.getMetadata() != null) {
+                    String invariantUuid = group.getMetadata().getValue(SdcPropertyNames.PROPERTY_NAME_VFMODULEMODELINVARIANTUUID);
+                    if (invariantUuid != null) {
+                        groupsByVfModuleInvariantUuid.putIfAbsent(invariantUuid, group);
+                    }
+                }
+            }
+        }
+        if (policies != null) {
+            for (Policy policy : policies) {
+                policiesByName.putIfAbsent(policy.getName(), policy);
+                add(policiesByToscaType, policy.getType(), policy);
+                if (policy.getTargets() != null) {
+                    for (String target : policy.getTargets()) {
+                        List<Policy> targetPolicies = policiesByTarget.computeIfAbsent(target, k -> new ArrayList<>());
+                        // a policy listing a target twice is returned once
+                        if (targetPolicies.isEmpty() || targetPolicies.get(targetPolicies.size() - 1) != policy) {
+                            targetPolicies.add(policy);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void indexNodeTemplate(NodeTemplate nodeTemplate) {
+        positions.put(nodeTemplate, positions.size());
+        add(nodeTemplatesByName, nodeTemplate.getName(), nodeTemplate);
+        if (nodeTemplate.getType() == null || !nodeTemplate.getType().endsWith(VNF_CONFIGURATION_TYPE_SUFFIX)) {
+            nodeTemplatesExceptVnfConfigurations.add(nodeTemplate);
+        }
+        if (nodeTemplate.getTypeDefinition() != null) {
+            add(nodeTemplatesByToscaType, nodeTemplate.getTypeDefinition().getType(), nodeTemplate);
+        }
+        Metadata metadata = nodeTemplate.getMetaData();
+        if (metadata != null) {
+            add(nodeTemplatesByCustomizationUuid, metadata.getValue(SdcPropertyNames.PROPERTY_NAME_CUSTOMIZATIONUUID), nodeTemplate);
+            add(nodeTemplatesByInvariantUuid, metadata.getValue(SdcPropertyNames.PROPERTY_NAME_INVARIANTUUID), nodeTemplate);
+            add(nodeTemplatesBySdcType, metadata.getValue(SdcPropertyNames.PROPERTY_NAME_TYPE), nodeTemplate);
+            add(nodeTemplatesByCategory, metadata.getValue(SdcPropertyNames.PROPERTY_NAME_CATEGORY), nodeTemplate);
+        }
+    }
+
+    private static <T> void add(Map<String, List<T>> index, String key, T value) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+        }
+    }
+
+    private static <T> List<T> get(Map<String, List<T>> index, String key) {
+        List<T> values = key != null ? index.get(key) : null;
+        return values != null ? new ArrayList<>(values) : new ArrayList<>();
+    }
+
+    /**
+     * @return the first node template declared with the given name
+     */
+    NodeTemplate getNodeTemplateByName(String name) {
+        List<NodeTemplate> nodeTemplates = name != null ? nodeTemplatesByName.get(name) : null;
+        return nodeTemplates != null ? nodeTemplates.get(0) : null;
+    }
+
+    /**
+     * @return the node templates with one of the given names, in declaration order
+     */
+    List<NodeTemplate> getNodeTemplatesByNames(Collection<String> names) {
+        List<NodeTemplate> nodeTemplates = new ArrayList<>();
+        if (names != null) {
+            for (String name : new HashSet<>(names)) {
+                List<NodeTemplate> named = nodeTemplatesByName.get(name);
+                if (named != null) {
+                    nodeTemplates.addAll(named);
+                }
+            }
+            nodeTemplates.sort(Comparator.comparing(positions::get));
+        }
+        return nodeTemplates;
+    }
+
+    /**
+     * @return the node templates which are not VNF configurations, in declaration order
+     */
+    List<NodeTemplate> getNodeTemplatesExceptVnfConfigurations() {
+        return new ArrayList<>(nodeTemplatesExceptVnfConfigurations);
+    }
+
+    List<NodeTemplate> getNodeTemplatesByCustomizationUuid(String customizationUuid) {
+        return get(nodeTemplatesByCustomizationUuid, customizationUuid);
+    }
+
+    List<NodeTemplate> getNodeTemplatesByInvariantUuid(String invariantUuid) {
+        return get(nodeTemplatesByInvariantUuid, invariantUuid);
+    }
+
+    List<NodeTemplate> getNodeTemplatesBySdcType(String sdcType) {
+        return get(nodeTemplatesBySdcType, sdcType);
+    }
+
+    List<NodeTemplate> getNodeTemplatesByCategory(String category) {
+        return get(nodeTemplatesByCategory, category);
+    }
+
+    List<NodeTemplate> getNodeTemplatesByToscaType(String toscaType) {
+        return get(nodeTemplatesByToscaType, toscaType);
+    }
+
+    Group getGroupByName(String name) {
+        return name != null ? groupsByName.get(name) : null;
+    }
+
+    List<Group> getGroupsByToscaType(String toscaType) {
+        return get(groupsByToscaType, toscaType);
+    }
+
+    Group getGroupByVfModuleInvariantUuid(String invariantUuid) {
+        return invariantUuid != null ? groupsByVfModuleInvariantUuid.get(invariantUuid) : null;
+    }
+
+    Policy getPolicyByName(String name) {
+        return name != null ? policiesByName.get(name) : null;
+    }
+
+    List<Policy> getPoliciesByToscaType(String toscaType) {
+        return get(policiesByToscaType, toscaType);
+    }
+
+    List<Policy> getPoliciesByTarget(String target) {
+        return get(policiesByTarget, target);
+    }
+}
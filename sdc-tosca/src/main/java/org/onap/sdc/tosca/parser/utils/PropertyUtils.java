@@ -33,7 +33,6 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.onap.sdc.tosca.parser.enums.PropertySchemaType.PropertySchemaComplexity.Simple;
@@ -79,10 +78,9 @@ public class PropertyUtils {
         return entrySchemaType == PropertySchemaType.DATATYPE;
     }
 
-    public static Object processProperties(String[] split, LinkedHashMap<String, Property> properties) {
-        Optional<Map.Entry<String, Property>> findFirst = properties.entrySet().stream().filter(x -> x.getKey().equals(split[0])).findFirst();
-        if (findFirst.isPresent()) {
-            Property property = findFirst.get().getValue();
+    public static Object processProperties(String[] split, Map<String, Property> properties) {
+        Property property = properties.get(split[0]);
+        if (property != null) {
             Object current = property.getValue();
             return iterateProcessPath(1, current, split);
         }
@@ -0,0 +1,223 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * sdc-tosca
+ * ================================================================================
+ * Copyright (C) 2017 - 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+
+package org.onap.sdc.impl;
+
+import org.onap.sdc.tosca.parser.api.IParserMetrics;
+import org.onap.sdc.tosca.parser.api.ISdcCsarHelper;
+import org.onap.sdc.tosca.parser.config.SdcToscaParserErrors;
+import org.onap.sdc.tosca.parser.elements.ValidationIssueReport;
+import org.onap.sdc.tosca.parser.exceptions.SdcToscaParserException;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
+import org.onap.sdc.toscaparser.api.utils.JToscaErrorCodes;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class ToscaParserBatchTest extends SdcToscaParserBasicTest {
+
+	private ExecutorService executor;
+
+	@BeforeClass
+	public void createExecutor() {
+		executor = Executors.newFixedThreadPool(4);
+	}
+
+	@AfterClass
+	public void shutdownExecutor() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testBatchResultsKeepCsarOrder() throws Exception {
+		List<Path> csars = Arrays.asList(
+				getCsarPath("csars/service-NfodService-csar.csar"),
+				getCsarPath("csars/service-ServiceFdnt-csar-rainy.csar"),
+				getCsarPath("csars/service-VdbeSrv-csar.csar"));
+
+		List<CompletableFuture<ISdcCsarHelper>> futures = factory.getSdcCsarHelpersAsync(csars, executor, 2, 0, TimeUnit.SECONDS);
+
+		assertEquals(futures.size(), 3);
+		assertEquals(futures.get(0).get().getServiceMetadata().getValue("name"), "NFOD_Service");
+		assertEquals(futures.get(1).get().getServiceMetadata().getValue("name"), "Service FDNT");
+		assertEquals(futures.get(2).get().getServiceMetadata().getValue("name"), "vDBE_srv");
+	}
+
+	@Test
+	public void testBatchFailureDoesNotAffectOtherCsars() throws Exception {
+		List<Path> csars = Arrays.asList(
+				Paths.get("csars/not-existing.csar"),
+				getCsarPath("csars/service-ServiceFdnt-csar-rainy.csar"));
+
+		List<CompletableFuture<ISdcCsarHelper>> futures = factory.getSdcCsarHelpersAsync(csars, executor);
+
+		assertErrorCode(futures.get(0), "TP0001");
+		assertEquals(futures.get(1).get().getServiceMetadata().getValue("name"), "Service FDNT");
+	}
+
+	@Test
+	public void testBatchParseTimeout() throws Exception {
+		List<Path> csars = Arrays.asList(getCsarPath("csars/service-VdbeSrv-csar.csar"));
+
+		List<CompletableFuture<ISdcCsarHelper>> futures = factory.getSdcCsarHelpersAsync(csars, executor, 1, 1, TimeUnit.MILLISECONDS);
+
+		assertErrorCode(futures.get(0), "TP0005");
+	}
+
+	@Test
+	public void testBatchParseTimeoutUnderAMillisecond() throws Exception {
+		List<Path> csars = Arrays.asList(getCsarPath("csars/service-VdbeSrv-csar.csar"));
+
+		List<CompletableFuture<ISdcCsarHelper>> futures = factory.getSdcCsarHelpersAsync(csars, executor, 1, 1, TimeUnit.MICROSECONDS);
+
+		assertErrorCode(futures.get(0), "TP0005");
+	}
+
+	@Test
+	public void testBatchParallelismHoldsAfterTimeouts() throws Exception {
+		int csarCount = 4;
+		List<Path> csars = Collections.nCopies(csarCount, getCsarPath("csars/service-VdbeSrv-csar.csar"));
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		CountDownLatch parsed = new CountDownLatch(csarCount);
+		ThreadLocal<List<Runnable>> submittedByParse = new ThreadLocal<>();
+		Executor counting = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				List<Runnable> submitted = submittedByParse.get();
+				if (submitted != null) {
+					// a parse ending submits the next one: run it once the ending parse is counted out
+					submitted.add(command);
+					return;
+				}
+				executor.execute(() -> {
+					maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+					List<Runnable> next = new ArrayList<>();
+					submittedByParse.set(next);
+					try {
+						command.run();
+					} finally {
+						submittedByParse.remove();
+						running.decrementAndGet();
+						parsed.countDown();
+						next.forEach(this::execute);
+					}
+				});
+			}
+		};
+
+		List<CompletableFuture<ISdcCsarHelper>> futures = factory.getSdcCsarHelpersAsync(csars, counting, 1, 1, TimeUnit.MILLISECONDS);
+
+		for (CompletableFuture<ISdcCsarHelper> future : futures) {
+			assertErrorCode(future, "TP0005");
+		}
+		// the futures time out long before the parses end, which must still run one at a time
+		assertTrue(parsed.await(5, TimeUnit.MINUTES));
+		assertEquals(maxRunning.get(), 1);
+	}
+
+	@Test
+	public void testTimedOutParseReportsASingleOutcome() throws Exception {
+		List<Path> csars = Arrays.asList(getCsarPath("csars/service-VdbeSrv-csar.csar"));
+		AtomicInteger timedOut = new AtomicInteger();
+		AtomicInteger ended = new AtomicInteger();
+		ExecutorService single = Executors.newSingleThreadExecutor();
+		IParserMetrics parserMetrics = factory.getParserMetrics();
+		factory.setParserMetrics(new IParserMetrics() {
+			@Override
+			public void parseSucceeded(String csarName, long durationNanos, ParseMetrics parseMetrics,
+									   ValidationIssueReport validationIssueReport) {
+				ended.incrementAndGet();
+			}
+
+			@Override
+			public void parseFailed(String csarName, long durationNanos, SdcToscaParserErrors error, JToscaErrorCodes jToscaError,
+									ParseMetrics parseMetrics, ValidationIssueReport validationIssueReport) {
+				ended.incrementAndGet();
+			}
+
+			@Override
+			public void parseTimedOut(String csarName, long timeoutMillis) {
+				timedOut.incrementAndGet();
+			}
+		});
+		try {
+			List<CompletableFuture<ISdcCsarHelper>> futures = factory.getSdcCsarHelpersAsync(csars, single, 1, 1, TimeUnit.MILLISECONDS);
+
+			assertErrorCode(futures.get(0), "TP0005");
+			// wait for the parse to end
+			single.shutdown();
+			assertTrue(single.awaitTermination(5, TimeUnit.MINUTES));
+			assertEquals(timedOut.get(), 1);
+			assertEquals(ended.get(), 0);
+		} finally {
+			single.shutdownNow();
+			factory.setParserMetrics(parserMetrics);
+		}
+	}
+
+	@Test
+	public void testLargeBatchOnTheCallingThread() throws Exception {
+		int csarCount = 20000;
+		List<Path> csars = Collections.nCopies(csarCount, Paths.get("csars/not-existing.csar"));
+
+		// every parse runs on the thread releasing the previous one
+		List<CompletableFuture<ISdcCsarHelper>> futures = factory.getSdcCsarHelpersAsync(csars, Runnable::run, 1, 0, TimeUnit.MILLISECONDS);
+
+		assertEquals(futures.size(), csarCount);
+		assertErrorCode(futures.get(0), "TP0001");
+		assertErrorCode(futures.get(csarCount - 1), "TP0001");
+	}
+
+	private static Path getCsarPath(String path) {
+		return new File(ToscaParserBatchTest.class.getClassLoader().getResource(path).getFile()).toPath();
+	}
+
+	private static void assertErrorCode(CompletableFuture<ISdcCsarHelper> future, String code) throws InterruptedException {
+		try {
+			future.get();
+			fail("parse was expected to fail with " + code);
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof SdcToscaParserException);
+			assertEquals(((SdcToscaParserException) e.getCause()).getCode(), code);
+		}
+	}
+}
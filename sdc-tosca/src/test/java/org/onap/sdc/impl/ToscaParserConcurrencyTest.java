@@ -0,0 +1,132 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * sdc-tosca
+ * ================================================================================
+ * Copyright (C) 2017 - 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+
+package org.onap.sdc.impl;
+
+import org.onap.sdc.tosca.parser.api.ISdcCsarHelper;
+import org.onap.sdc.tosca.parser.elements.ValidationIssueReport;
+import org.onap.sdc.toscaparser.api.common.JToscaValidationIssue;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotSame;
+
+public class ToscaParserConcurrencyTest extends SdcToscaParserBasicTest {
+
+	private static final String NFOD_CSAR = "csars/service-NfodService-csar.csar";
+	private static final String VDBE_CSAR = "csars/service-VdbeSrv-csar.csar";
+
+	private static final List<String> CSARS = Arrays.asList(
+			NFOD_CSAR,
+			"csars/service-ServiceFdnt-csar-rainy.csar",
+			"csars/service-sunny-flow.csar",
+			VDBE_CSAR);
+
+	@Test
+	public void testValidationIssueCodesPerCategory() throws Exception {
+		ValidationIssueReport nfod = getCsarHelper(NFOD_CSAR).getValidationIssueReport();
+		assertEquals(codes(nfod.getCriticalExceptions()), new TreeSet<>());
+		assertEquals(codes(nfod.getWarningExceptions()), new TreeSet<>(Arrays.asList("JE003", "JE004", "JE006")));
+		assertEquals(codes(nfod.getNotAnalyzadExceptions()), new TreeSet<>(Arrays.asList("JE235", "JE236")));
+
+		ValidationIssueReport vdbe = getCsarHelper(VDBE_CSAR).getValidationIssueReport();
+		assertEquals(codes(vdbe.getCriticalExceptions()), new TreeSet<>());
+		assertEquals(codes(vdbe.getWarningExceptions()), new TreeSet<>(Arrays.asList("JE003", "JE006")));
+		assertEquals(codes(vdbe.getNotAnalyzadExceptions()), new TreeSet<>(Arrays.asList("JE120", "JE144", "JE259", "JE260")));
+	}
+
+	@Test
+	public void testConcurrentParsingKeepsValidationIssuesPerCsar() throws Exception {
+		List<ValidationIssueReport> expected = new ArrayList<>();
+		for (String csar : CSARS) {
+			expected.add(getCsarHelper(csar).getValidationIssueReport());
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(CSARS.size());
+		try {
+			List<Future<ISdcCsarHelper>> futures = new ArrayList<>();
+			for (String csar : CSARS) {
+				futures.add(executor.submit(() -> getCsarHelper(csar)));
+			}
+			for (int i = 0; i < CSARS.size(); i++) {
+				assertSameIssues(futures.get(i).get().getValidationIssueReport(), expected.get(i));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testParsesRunningTogetherDoNotShareReports() throws Exception {
+		ValidationIssueReport expectedNfod = getCsarHelper(NFOD_CSAR).getValidationIssueReport();
+		ValidationIssueReport expectedVdbe = getCsarHelper(VDBE_CSAR).getValidationIssueReport();
+
+		CyclicBarrier start = new CyclicBarrier(2);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			for (int round = 0; round < 5; round++) {
+				Future<ISdcCsarHelper> nfod = executor.submit(() -> {
+					start.await();
+					return getCsarHelper(NFOD_CSAR);
+				});
+				Future<ISdcCsarHelper> vdbe = executor.submit(() -> {
+					start.await();
+					return getCsarHelper(VDBE_CSAR);
+				});
+				ValidationIssueReport nfodReport = nfod.get().getValidationIssueReport();
+				ValidationIssueReport vdbeReport = vdbe.get().getValidationIssueReport();
+
+				assertNotSame(nfodReport, vdbeReport);
+				assertSameIssues(nfodReport, expectedNfod);
+				assertSameIssues(vdbeReport, expectedVdbe);
+				assertNotEquals(issues(nfodReport.getNotAnalyzadExceptions()), issues(vdbeReport.getNotAnalyzadExceptions()));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void assertSameIssues(ValidationIssueReport actual, ValidationIssueReport expected) {
+		assertEquals(issues(actual.getCriticalExceptions()), issues(expected.getCriticalExceptions()));
+		assertEquals(issues(actual.getWarningExceptions()), issues(expected.getWarningExceptions()));
+		assertEquals(issues(actual.getNotAnalyzadExceptions()), issues(expected.getNotAnalyzadExceptions()));
+	}
+
+	private static Set<String> codes(List<JToscaValidationIssue> issues) {
+		return issues.stream().map(JToscaValidationIssue::getCode).collect(Collectors.toCollection(TreeSet::new));
+	}
+
+	private static List<String> issues(List<JToscaValidationIssue> issues) {
+		return issues.stream().map(i -> i.getCode() + ": " + i.getMessage()).sorted().collect(Collectors.toList());
+	}
+}
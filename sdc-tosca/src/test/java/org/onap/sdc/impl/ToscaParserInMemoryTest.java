@@ -0,0 +1,77 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * sdc-tosca
+ * ================================================================================
+ * Copyright (C) 2017 - 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+
+package org.onap.sdc.impl;
+
+import org.onap.sdc.tosca.parser.api.ISdcCsarHelper;
+import org.onap.sdc.tosca.parser.exceptions.SdcToscaParserException;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import static org.testng.Assert.assertEquals;
+
+public class ToscaParserInMemoryTest extends SdcToscaParserBasicTest {
+
+	private static final String CSAR = "csars/service-ServiceFdnt-csar-rainy.csar";
+
+	@Test
+	public void testParseFromByteArray() throws Exception {
+		ISdcCsarHelper csarHelper = factory.getSdcCsarHelper(readCsar(), "service-ServiceFdnt-csar-rainy.csar");
+		assertSameAsFromFile(csarHelper);
+	}
+
+	@Test
+	public void testParseFromInputStream() throws Exception {
+		ISdcCsarHelper csarHelper = factory.getSdcCsarHelper(new ByteArrayInputStream(readCsar()), "service-ServiceFdnt-csar-rainy.csar", false);
+		assertSameAsFromFile(csarHelper);
+	}
+
+	@Test
+	public void testParseFromDirectByteBuffer() throws Exception {
+		byte[] content = readCsar();
+		ByteBuffer buffer = ByteBuffer.allocateDirect(content.length);
+		buffer.put(content).flip();
+		ISdcCsarHelper csarHelper = factory.getSdcCsarHelper(buffer, "service-ServiceFdnt-csar-rainy.csar");
+		assertSameAsFromFile(csarHelper);
+		assertEquals(buffer.position(), 0);
+	}
+
+	@Test(expectedExceptions = SdcToscaParserException.class)
+	public void testParseInvalidContent() throws SdcToscaParserException {
+		factory.getSdcCsarHelper("not a zip".getBytes(), "invalid.csar");
+	}
+
+	private static byte[] readCsar() throws IOException {
+		return Files.readAllBytes(new File(ToscaParserInMemoryTest.class.getClassLoader().getResource(CSAR).getFile()).toPath());
+	}
+
+	private static void assertSameAsFromFile(ISdcCsarHelper csarHelper) {
+		assertEquals(csarHelper.getServiceMetadata().getValue("name"), rainyCsarHelperMultiVfs.getServiceMetadata().getValue("name"));
+		assertEquals(csarHelper.getServiceNodeTemplates().size(), rainyCsarHelperMultiVfs.getServiceNodeTemplates().size());
+		assertEquals(csarHelper.getServiceVfList().size(), rainyCsarHelperMultiVfs.getServiceVfList().size());
+		assertEquals(csarHelper.getServiceInputs().size(), rainyCsarHelperMultiVfs.getServiceInputs().size());
+	}
+}
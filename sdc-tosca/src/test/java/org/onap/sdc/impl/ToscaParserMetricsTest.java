@@ -0,0 +1,224 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * sdc-tosca
+ * ================================================================================
+ * Copyright (C) 2017 - 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.impl;
+
+import org.onap.sdc.tosca.parser.api.IParserMetrics;
+import org.onap.sdc.tosca.parser.api.ISdcCsarHelper;
+import org.onap.sdc.tosca.parser.config.ConfigurationManager;
+import org.onap.sdc.tosca.parser.config.SdcToscaParserErrors;
+import org.onap.sdc.tosca.parser.elements.ValidationIssueReport;
+import org.onap.sdc.tosca.parser.exceptions.SdcToscaParserException;
+import org.onap.sdc.tosca.parser.impl.JmxParserMetrics;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
+import org.onap.sdc.toscaparser.api.utils.JToscaErrorCodes;
+import org.testng.annotations.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class ToscaParserMetricsTest extends SdcToscaParserBasicTest {
+
+	@Test
+	public void testSucceededParseIsReported() throws SdcToscaParserException {
+		RecordingParserMetrics metrics = new RecordingParserMetrics();
+		factory.setParserMetrics(metrics);
+		try {
+			ISdcCsarHelper csarHelper = getCsarHelper("csars/service-ServiceFdnt-csar.csar");
+
+			assertEquals(metrics.events, listOf("started", "succeeded"));
+			assertSame(metrics.parseMetrics, csarHelper.getParseMetrics());
+			assertSame(metrics.report, csarHelper.getValidationIssueReport());
+			assertTrue(metrics.durationNanos >= csarHelper.getParseMetrics().getWallTimeNanos());
+			assertTrue(metrics.csarName.endsWith("service-ServiceFdnt-csar.csar"));
+		} finally {
+			factory.setParserMetrics(null);
+		}
+		assertSame(factory.getParserMetrics(), IParserMetrics.NO_OP);
+	}
+
+	@Test
+	public void testInvalidContentIsReported() {
+		RecordingParserMetrics metrics = new RecordingParserMetrics();
+		factory.setParserMetrics(metrics);
+		try {
+			factory.getSdcCsarHelper("not a zip".getBytes(), "invalid.csar");
+			fail("SdcToscaParserException expected");
+		} catch (SdcToscaParserException e) {
+			assertEquals(metrics.events, listOf("started", "failed"));
+			assertEquals(metrics.csarName, "invalid.csar");
+			assertEquals(metrics.error, SdcToscaParserErrors.BAD_FORMAT);
+			assertEquals(metrics.jToscaError, JToscaErrorCodes.INVALID_CSAR_FORMAT);
+			assertEquals(e.getError(), SdcToscaParserErrors.BAD_FORMAT);
+			assertEquals(e.getJToscaError(), JToscaErrorCodes.INVALID_CSAR_FORMAT);
+			// the parse failed before reading a template, what it measured and found is still reported
+			assertNotNull(metrics.parseMetrics);
+			assertTrue(metrics.parseMetrics.getWallTimeNanos() > 0);
+			assertSame(metrics.report, e.getValidationIssueReport());
+			assertTrue(metrics.report.getCriticalExceptions().isEmpty());
+		} finally {
+			factory.setParserMetrics(null);
+		}
+	}
+
+	@Test
+	public void testCriticalIssuesAreReported() {
+		RecordingParserMetrics metrics = new RecordingParserMetrics();
+		factory.setParserMetrics(metrics);
+		try {
+			parseWithCriticalIssues();
+			fail("SdcToscaParserException expected");
+		} catch (SdcToscaParserException e) {
+			assertEquals(metrics.events, listOf("started", "failed"));
+			assertEquals(metrics.error, SdcToscaParserErrors.BAD_FORMAT);
+			assertEquals(metrics.jToscaError, JToscaErrorCodes.CSAR_TOSCA_VALIDATION_ERROR);
+			assertEquals(e.getError(), SdcToscaParserErrors.BAD_FORMAT);
+			assertEquals(e.getJToscaError(), JToscaErrorCodes.CSAR_TOSCA_VALIDATION_ERROR);
+			assertNotNull(metrics.parseMetrics);
+			assertSame(metrics.report, e.getValidationIssueReport());
+		} finally {
+			factory.setParserMetrics(null);
+		}
+	}
+
+	@Test
+	public void testJmxParserMetrics() throws Exception {
+		JmxParserMetrics metrics = new JmxParserMetrics();
+		ObjectName objectName = metrics.register("org.onap.sdc.tosca.parser:type=ParserMetrics,name=test");
+		factory.setParserMetrics(metrics);
+		try {
+			getCsarHelper("csars/service-ServiceFdnt-csar.csar");
+			try {
+				parseWithCriticalIssues();
+				fail("SdcToscaParserException expected");
+			} catch (SdcToscaParserException e) {
+				// counted below
+			}
+
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			assertEquals(server.getAttribute(objectName, "ParsesStarted"), 2L);
+			assertEquals(server.getAttribute(objectName, "ParsesSucceeded"), 1L);
+			assertEquals(server.getAttribute(objectName, "ParsesFailed"), 1L);
+			assertEquals(server.getAttribute(objectName, "ParsesInFlight"), 0L);
+			assertEquals(((TabularData) server.getAttribute(objectName, "LatencyHistogram")).size(), 12);
+			assertEquals(metrics.getLatencyHistogram().values().stream().mapToLong(Long::longValue).sum(), 2);
+			assertEquals(metrics.getFailuresByError().get("BAD_FORMAT"), Long.valueOf(1));
+			assertEquals(metrics.getFailuresByJToscaError().get("JE1007"), Long.valueOf(1));
+			assertEquals(metrics.getIssuesByCriticality().get("CRITICAL"), Long.valueOf(22));
+			assertEquals(metrics.getIssuesByCode().values().stream().mapToLong(Long::longValue).sum(),
+					metrics.getIssuesByCriticality().values().stream().mapToLong(Long::longValue).sum());
+			assertTrue(metrics.getCacheHits().get(ParseMetrics.Cache.TYPES.name()) > 0);
+			double typesHitRatio = metrics.getCacheHitRatios().get(ParseMetrics.Cache.TYPES.name());
+			assertTrue(typesHitRatio > 0 && typesHitRatio < 1);
+
+			server.invoke(objectName, "reset", null, null);
+			assertEquals(metrics.getParsesStarted(), 0);
+			assertTrue(metrics.getIssuesByCode().isEmpty());
+		} finally {
+			factory.setParserMetrics(null);
+			metrics.unregister();
+		}
+		assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+	}
+
+	@Test
+	public void testConformanceLevelErrorIsReported() {
+		RecordingParserMetrics metrics = new RecordingParserMetrics();
+		factory.setParserMetrics(metrics);
+		try {
+			getCsarHelper("csars/service-missing-csar-meta-file.csar");
+			fail("SdcToscaParserException expected");
+		} catch (SdcToscaParserException e) {
+			assertEquals(metrics.events, listOf("started", "failed"));
+			assertEquals(metrics.error, SdcToscaParserErrors.CONFORMANCE_LEVEL_ERROR);
+			assertEquals(e.getError(), SdcToscaParserErrors.CONFORMANCE_LEVEL_ERROR);
+			assertNull(metrics.jToscaError);
+			assertNotNull(metrics.parseMetrics);
+			assertNull(metrics.report);
+		} finally {
+			factory.setParserMetrics(null);
+		}
+	}
+
+	private static void parseWithCriticalIssues() throws SdcToscaParserException {
+		ConfigurationManager configurationManager = ConfigurationManager.getInstance();
+		configurationManager.setJtoscaValidationIssueConfiguration("jtosca-validation-issue-configuration-test.yaml");
+		try {
+			getCsarHelper("csars/service-Nfod2images-csar.csar");//conformance level 4.0
+		} finally {
+			configurationManager.setJtoscaValidationIssueConfiguration("jtosca-validation-issue-configuration.yaml");
+		}
+	}
+
+	private static List<String> listOf(String... events) {
+		List<String> list = new ArrayList<>();
+		for (String event : events) {
+			list.add(event);
+		}
+		return list;
+	}
+
+	private static class RecordingParserMetrics implements IParserMetrics {
+		private final List<String> events = new ArrayList<>();
+		private String csarName;
+		private long durationNanos;
+		private SdcToscaParserErrors error;
+		private JToscaErrorCodes jToscaError;
+		private ParseMetrics parseMetrics;
+		private ValidationIssueReport report;
+
+		@Override
+		public void parseStarted(String csarName) {
+			events.add("started");
+			this.csarName = csarName;
+		}
+
+		@Override
+		public void parseSucceeded(String csarName, long durationNanos, ParseMetrics parseMetrics, ValidationIssueReport report) {
+			events.add("succeeded");
+			this.durationNanos = durationNanos;
+			this.parseMetrics = parseMetrics;
+			this.report = report;
+		}
+
+		@Override
+		public void parseFailed(String csarName, long durationNanos, SdcToscaParserErrors error, JToscaErrorCodes jToscaError,
+								ParseMetrics parseMetrics, ValidationIssueReport report) {
+			events.add("failed");
+			this.durationNanos = durationNanos;
+			this.error = error;
+			this.jToscaError = jToscaError;
+			this.parseMetrics = parseMetrics;
+			this.report = report;
+		}
+	}
+}
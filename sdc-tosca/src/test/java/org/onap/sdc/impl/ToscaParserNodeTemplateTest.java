@@ -1138,6 +1138,14 @@ public class ToscaParserNodeTemplateTest extends SdcToscaParserBasicTest {
 		memberOpt = (members.stream().filter(m -> m.getName().equals("abstract_vdbe"))).findFirst();
 		assertTrue(memberOpt.isPresent());
 	}
+
+	@Test
+	public void testGetGroupMembersOfOriginOfNodeTemplateWithoutMembers() {
+		NodeTemplate fdnt = fdntCsarHelper.getNodeTemplateByName("FDNT 1");
+		List<NodeTemplate> members = fdntCsarHelper.getGroupMembersOfOriginOfNodeTemplate(fdnt, "DNT_FW_RAG_group");
+		assertNotNull(members);
+		assertEquals(members.size(), 0);
+	}
 	
 	@Test
 	public void testGetGroupsInputsProperties() {
@@ -0,0 +1,177 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * sdc-tosca
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.impl;
+
+import org.onap.sdc.tosca.parser.api.ISdcCsarHelper;
+import org.onap.sdc.tosca.parser.elements.ValidationIssueReport;
+import org.onap.sdc.tosca.parser.generator.SyntheticCsarGenerator;
+import org.onap.sdc.toscaparser.api.Group;
+import org.onap.sdc.toscaparser.api.NodeTemplate;
+import org.onap.sdc.toscaparser.api.common.ParseMetrics;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class ToscaParserSyntheticCsarTest extends SdcToscaParserBasicTest {
+
+	@Test
+	public void testGeneratedCsarHasNoValidationIssues() throws Exception {
+		SyntheticCsarGenerator generator = SyntheticCsarGenerator.builder()
+				.vfCount(3)
+				.vfTypeCount(2)
+				.vfcsPerTopology(5)
+				.cpsPerVfc(2)
+				.nestingDepth(2)
+				.inputCount(6)
+				.getInputFanOut(3)
+				.dataTypeDepth(3)
+				.dataTypeWidth(4)
+				.importCount(3)
+				.vfModulesPerVf(2)
+				.policyCount(4)
+				.build();
+
+		ISdcCsarHelper csarHelper = factory.getSdcCsarHelper(generator.generate(), generator.getCsarName());
+
+		ValidationIssueReport report = csarHelper.getValidationIssueReport();
+		assertTrue(report.getCriticalExceptions().isEmpty(), report.getCriticalExceptions().toString());
+		assertTrue(report.getWarningExceptions().isEmpty(), report.getWarningExceptions().toString());
+		assertTrue(report.getNotAnalyzadExceptions().isEmpty(), report.getNotAnalyzadExceptions().toString());
+		assertEquals(csarHelper.getServiceVfList().size(), 3);
+		assertEquals(csarHelper.getServiceInputs().size(), 6);
+		assertEquals(csarHelper.getPoliciesOfTopologyTemplate().size(), 4);
+
+		NodeTemplate vf = csarHelper.getServiceVfList().get(1);
+		String vfCustomizationUuid = csarHelper.getNodeTemplateCustomizationUuid(vf);
+		assertEquals(csarHelper.getVfcListByVf(vfCustomizationUuid).size(), 6);
+		assertEquals(csarHelper.getCpListByVf(vfCustomizationUuid).size(), 10);
+		List<Group> vfModules = csarHelper.getVfModulesByVf(vfCustomizationUuid);
+		assertEquals(vfModules.size(), 2);
+		assertEquals(csarHelper.getMembersOfVfModule(vf, vfModules.get(0)).size(), 3);
+	}
+
+	@Test
+	public void testNodeTemplateCountScalesWithNesting() throws Exception {
+		SyntheticCsarGenerator generator = SyntheticCsarGenerator.builder()
+				.vfCount(2)
+				.vfcsPerTopology(3)
+				.nestingDepth(3)
+				.nestedPerTopology(2)
+				.build();
+
+		ISdcCsarHelper csarHelper = factory.getSdcCsarHelper(generator.generate(), generator.getCsarName());
+
+		assertEquals(countNodeTemplates(csarHelper), generator.getNodeTemplateCount());
+		assertEquals(csarHelper.getParseMetrics().getNodeTemplateCount(), generator.getNodeTemplateCount());
+		assertEquals(generator.getNodeTemplateCount(), 2 + 2 * (6 + 2) + 4 * (6 + 2) + 8 * 6);
+	}
+
+	@Test
+	public void testVfsOfTheSameTypeShareTheirTypesAndNodeTemplates() throws Exception {
+		SyntheticCsarGenerator generator = SyntheticCsarGenerator.builder()
+				.vfCount(4)
+				.vfTypeCount(1)
+				.vfcsPerTopology(3)
+				.build();
+
+		ISdcCsarHelper csarHelper = factory.getSdcCsarHelper(generator.generate(), generator.getCsarName());
+
+		assertEquals(csarHelper.getParseMetrics().getCacheMisses(ParseMetrics.Cache.NESTED_TYPES), 1);
+		assertEquals(csarHelper.getParseMetrics().getCacheHits(ParseMetrics.Cache.NESTED_TYPES), 3);
+		assertEquals(csarHelper.getParseMetrics().getCacheMisses(ParseMetrics.Cache.NESTED_TOPOLOGIES), 1);
+		assertEquals(csarHelper.getParseMetrics().getCacheHits(ParseMetrics.Cache.NESTED_TOPOLOGIES), 3);
+		List<NodeTemplate> vfs = csarHelper.getServiceVfList();
+		assertEquals(vfs.size(), 4);
+		for (NodeTemplate vf : vfs) {
+			List<NodeTemplate> vfcs = csarHelper.getVfcListByVf(csarHelper.getNodeTemplateCustomizationUuid(vf));
+			assertEquals(vfcs.size(), 3);
+			for (NodeTemplate vfc : vfcs) {
+				assertSame(vfc.getParentNodeTemplate(), vf);
+			}
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testGetInputFanOut() throws Exception {
+		SyntheticCsarGenerator generator = SyntheticCsarGenerator.builder()
+				.vfcsPerTopology(4)
+				.inputCount(5)
+				.getInputFanOut(4)
+				.build();
+
+		ISdcCsarHelper csarHelper = factory.getSdcCsarHelper(generator.generate(), generator.getCsarName());
+
+		int references = 0;
+		for (NodeTemplate vfc : csarHelper.getVfcListByVf(csarHelper.getNodeTemplateCustomizationUuid(csarHelper.getServiceVfList().get(0)))) {
+			Map<String, Object> parameters = (Map<String, Object>) vfc.getPropertyValue("parameters");
+			for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+				int reference = Integer.parseInt(parameter.getKey().substring("param_".length()));
+				assertEquals(parameter.getValue(), "default-" + reference % 5);
+				references++;
+			}
+		}
+		assertEquals(references, 5 * 4);
+	}
+
+	@Test
+	public void testGenerationIsRepeatable() throws Exception {
+		SyntheticCsarGenerator.Builder builder = SyntheticCsarGenerator.builder().serviceName("Repeatable").vfCount(2).importCount(2);
+
+		byte[] content = builder.build().generate();
+		assertEquals(builder.build().generate(), content);
+
+		Path directory = Files.createTempDirectory("synthetic-csar");
+		try {
+			Path csar = builder.build().writeTo(directory);
+			assertEquals(csar.getFileName().toString(), "service-Repeatable-csar.csar");
+			assertEquals(Files.readAllBytes(csar), content);
+			assertEquals(factory.getSdcCsarHelper(csar.toString()).getServiceVfList().size(), 2);
+		} finally {
+			Files.deleteIfExists(directory.resolve("service-Repeatable-csar.csar"));
+			Files.deleteIfExists(directory);
+		}
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testInvalidParameter() {
+		SyntheticCsarGenerator.builder().nestingDepth(0);
+	}
+
+	private static long countNodeTemplates(ISdcCsarHelper csarHelper) {
+		long count = 0;
+		Deque<NodeTemplate> pending = new ArrayDeque<>(csarHelper.getServiceNodeTemplates());
+		while (!pending.isEmpty()) {
+			count++;
+			pending.addAll(csarHelper.getNodeTemplateChildren(pending.pop()));
+		}
+		return count;
+	}
+}
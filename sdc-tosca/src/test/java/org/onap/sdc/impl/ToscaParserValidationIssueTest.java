@@ -110,4 +110,19 @@ public class ToscaParserValidationIssueTest extends SdcToscaParserBasicTest {
 	}
 
 
+	@Test
+	public void testFactoryReportsCanBeChangedByTheCaller() throws SdcToscaParserException {
+		ISdcCsarHelper fdntCsarHelperWithInputs = getCsarHelper("csars/service-NfodService-csar.csar");
+
+		List<JToscaValidationIssue> notAnalyzedReport = factory.getNotAnalyzadExceptions();
+		notAnalyzedReport.sort((a, b) -> a.getCode().compareTo(b.getCode()));
+		notAnalyzedReport.clear();
+		factory.getWarningExceptions().add(new JToscaValidationIssue("JE000", "added by the caller"));
+		factory.getCriticalExceptions().clear();
+
+		assertEquals(factory.getNotAnalyzadExceptions().size(), 10);
+		assertEquals(factory.getWarningExceptions().size(), 14);
+		assertEquals(factory.getNotAnalyzadExceptions(), fdntCsarHelperWithInputs.getValidationIssueReport().getNotAnalyzadExceptions());
+	}
+
 }
@@ -0,0 +1,872 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * sdc-tosca
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.sdc.tosca.parser.generator;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Generates SDC style service CSARs of any size, for scale tests and benchmarks.
+ * <p>
+ * The CSAR follows the layout of the CSARs distributed by SDC: a service template importing the
+ * shared type files (nodes.yml, data.yml, capabilities.yml, relationships.yml, groups.yml,
+ * policies.yml, built from the normative TOSCA_definition_1_0.yaml plus the SDC abstract types),
+ * and a template and an interface file for every VF and CVFC type. The shape is driven by the
+ * builder:
+ * <ul>
+ * <li>vfCount VF instances in the service, substituting vfTypeCount distinct VF types,</li>
+ * <li>every resource topology holds vfcsPerTopology VFCs, each bound to cpsPerVfc CPs,</li>
+ * <li>nestingDepth levels of resource topologies: below the VF level, every topology holds
+ * nestedPerTopology CVFC instances substituting the topology of the next level,</li>
+ * <li>every topology declares inputCount inputs, every substituting node passes them all down,
+ * and the VFCs of a topology reference each input getInputFanOut times with get_input,</li>
+ * <li>the VFCs carry a value of a data type nested dataTypeDepth levels deep, with
+ * dataTypeWidth constrained fields per level,</li>
+ * <li>the VFC types are spread over importCount additional type files,</li>
+ * <li>every VF has vfModulesPerVf VF modules and the service has policyCount placement policies.</li>
+ * </ul>
+ * The output only depends on the parameters, names, UUIDs and zip entry times included, so the
+ * same parameters always generate the same CSAR.
+ */
+public final class SyntheticCsarGenerator {
+
+    private static final String DEFINITIONS = "Definitions/";
+    private static final String TOSCA_VERSION = "tosca_simple_yaml_1_0";
+    private static final String NORMATIVE_DEFINITIONS = "TOSCA_definition_1_0.yaml";
+    // fixed entry time, for the same parameters to give the same bytes
+    private static final long ENTRY_TIME = 1546300800000L;
+
+    private static final String VF_ROOT_TYPE = "org.openecomp.resource.abstract.nodes.VF";
+    private static final String VFC_ROOT_TYPE = "org.openecomp.resource.abstract.nodes.VFC";
+    private static final String CP_TYPE = "org.openecomp.resource.cp.nodes.network.CP";
+    private static final String VF_MODULE_TYPE = "org.openecomp.groups.VfModule";
+    private static final String PLACEMENT_POLICY_TYPE = "tosca.policies.Placement";
+    private static final String DATA_TYPE_PREFIX = "org.openecomp.datatypes.synthetic.Config";
+    private static final String VFC_TYPE_PREFIX = "org.openecomp.resource.vfc.synthetic.Vfc";
+
+    private static final List<String> SHARED_IMPORTS =
+            Arrays.asList("nodes", "datatypes", "capabilities", "relationships", "groups", "policies");
+    private static final List<String> SHARED_FILES =
+            Arrays.asList("nodes.yml", "data.yml", "capabilities.yml", "relationships.yml", "groups.yml", "policies.yml");
+
+    private final String serviceName;
+    private final int vfCount;
+    private final int vfTypeCount;
+    private final int vfcsPerTopology;
+    private final int cpsPerVfc;
+    private final int nestingDepth;
+    private final int nestedPerTopology;
+    private final int inputCount;
+    private final int getInputFanOut;
+    private final int dataTypeDepth;
+    private final int dataTypeWidth;
+    private final int importCount;
+    private final int vfModulesPerVf;
+    private final int policyCount;
+
+    private final Yaml yaml;
+
+    private SyntheticCsarGenerator(Builder builder) {
+        serviceName = builder.serviceName;
+        vfCount = builder.vfCount;
+        vfTypeCount = builder.vfTypeCount;
+        vfcsPerTopology = builder.vfcsPerTopology;
+        cpsPerVfc = builder.cpsPerVfc;
+        nestingDepth = builder.nestingDepth;
+        nestedPerTopology = builder.nestedPerTopology;
+        inputCount = builder.inputCount;
+        getInputFanOut = builder.getInputFanOut;
+        dataTypeDepth = builder.dataTypeDepth;
+        dataTypeWidth = builder.dataTypeWidth;
+        importCount = builder.importCount;
+        vfModulesPerVf = builder.vfModulesPerVf;
+        policyCount = builder.policyCount;
+
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        options.setWidth(Integer.MAX_VALUE);
+        yaml = new Yaml(options);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the file name of the generated CSAR
+     */
+    public String getCsarName() {
+        return "service-" + serviceName + "-csar.csar";
+    }
+
+    /**
+     * @return the number of node templates of the service and of all the topologies it substitutes
+     */
+    public long getNodeTemplateCount() {
+        long nodeTemplates = 0;
+        long topologies = vfCount;
+        for (int level = 1; level <= nestingDepth; level++) {
+            nodeTemplates += topologies * (vfcsPerTopology * (1L + cpsPerVfc) + nested(level));
+            topologies *= nested(level);
+        }
+        return vfCount + nodeTemplates;
+    }
+
+    /**
+     * @return the zip content of the CSAR
+     */
+    public byte[] generate() {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(content)) {
+            for (Map.Entry<String, String> entry : entries().entrySet()) {
+                ZipEntry zipEntry = new ZipEntry(entry.getKey());
+                zipEntry.setTime(ENTRY_TIME);
+                zip.putNextEntry(zipEntry);
+                zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to generate " + getCsarName(), e);
+        }
+        return content.toByteArray();
+    }
+
+    /**
+     * Writes the CSAR to the given directory.
+     *
+     * @return the path of the CSAR
+     */
+    public Path writeTo(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return Files.write(directory.resolve(getCsarName()), generate());
+    }
+
+    private LinkedHashMap<String, String> entries() {
+        LinkedHashMap<String, String> entries = new LinkedHashMap<>();
+        entries.put("TOSCA-Metadata/TOSCA.meta", "TOSCA-Meta-File-Version: 1.0\n"
+                + "CSAR-Version: 1.1\n"
+                + "Created-By: SyntheticCsarGenerator\n"
+                + "Entry-Definitions: " + DEFINITIONS + serviceTemplateFile() + "\n\n"
+                + "Name: csar.meta\n"
+                + "Content-Type: text/plain\n");
+        entries.put("csar.meta", "SDC-TOSCA-Meta-File-Version: 1.0\n"
+                + "SDC-TOSCA-Definitions-Version: 3.0\n");
+
+        LinkedHashMap<String, Object> normative = normativeDefinitions();
+        entries.put(DEFINITIONS + "nodes.yml", dump(types("node_types", nodeTypes(normative))));
+        entries.put(DEFINITIONS + "data.yml", dump(types("data_types", dataTypes(normative))));
+        entries.put(DEFINITIONS + "capabilities.yml", dump(types("capability_types", normative.get("capability_types"))));
+        entries.put(DEFINITIONS + "relationships.yml", dump(types("relationship_types", normative.get("relationship_types"))));
+        entries.put(DEFINITIONS + "groups.yml", dump(types("group_types", groupTypes(normative))));
+        entries.put(DEFINITIONS + "policies.yml", dump(types("policy_types", normative.get("policy_types"))));
+        for (int i = 0; i < importCount; i++) {
+            entries.put(DEFINITIONS + typesFile(i), dump(types("node_types", vfcTypes(i))));
+        }
+
+        entries.put(DEFINITIONS + interfaceFile(serviceTemplateFile()), dump(interfaceTemplate(serviceType(), "tosca.nodes.Root")));
+        entries.put(DEFINITIONS + serviceTemplateFile(), dump(serviceTemplate()));
+        for (int vfType = 0; vfType < vfTypeCount; vfType++) {
+            for (int level = 1; level <= nestingDepth; level++) {
+                String resource = resourceName(vfType, level);
+                entries.put(DEFINITIONS + interfaceFile(resourceTemplateFile(resource)),
+                        dump(interfaceTemplate(resourceType(vfType, level), level == 1 ? VF_ROOT_TYPE : VFC_ROOT_TYPE)));
+                entries.put(DEFINITIONS + resourceTemplateFile(resource), dump(resourceTemplate(vfType, level)));
+            }
+        }
+        return entries;
+    }
+
+    // ---------------------------------------------------------------- type files
+
+    @SuppressWarnings("unchecked")
+    private static LinkedHashMap<String, Object> normativeDefinitions() {
+        try (InputStream input = SyntheticCsarGenerator.class.getClassLoader().getResourceAsStream(NORMATIVE_DEFINITIONS)) {
+            if (input == null) {
+                throw new IllegalStateException(NORMATIVE_DEFINITIONS + " is not on the classpath");
+            }
+            return (LinkedHashMap<String, Object>) new Yaml().load(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + NORMATIVE_DEFINITIONS, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private LinkedHashMap<String, Object> nodeTypes(LinkedHashMap<String, Object> normative) {
+        LinkedHashMap<String, Object> nodeTypes = new LinkedHashMap<>((Map<String, Object>) normative.get("node_types"));
+
+        LinkedHashMap<String, Object> vfProperties = new LinkedHashMap<>();
+        vfProperties.put("nf_function", property("string", null));
+        vfProperties.put("nf_role", property("string", null));
+        vfProperties.put("nf_type", property("string", null));
+        vfProperties.put("nf_naming_code", property("string", null));
+        vfProperties.put("availability_zone_max_count", property("integer", null));
+        nodeTypes.put(VF_ROOT_TYPE, nodeType("tosca.nodes.Root", vfProperties));
+
+        LinkedHashMap<String, Object> vfcProperties = new LinkedHashMap<>();
+        vfcProperties.put("nfc_function", property("string", null));
+        vfcProperties.put("nfc_naming_code", property("string", null));
+        vfcProperties.put("vm_type_tag", property("string", null));
+        nodeTypes.put(VFC_ROOT_TYPE, nodeType("tosca.nodes.Compute", vfcProperties));
+
+        LinkedHashMap<String, Object> cpProperties = new LinkedHashMap<>();
+        cpProperties.put("network_role", property("string", null));
+        cpProperties.put("network_role_tag", property("string", null));
+        nodeTypes.put(CP_TYPE, nodeType("tosca.nodes.network.Port", cpProperties));
+
+        if (importCount == 0) {
+            nodeTypes.putAll(vfcTypes(0));
+        }
+        return nodeTypes;
+    }
+
+    private LinkedHashMap<String, Object> vfcTypes(int index) {
+        LinkedHashMap<String, Object> properties = new LinkedHashMap<>();
+        if (dataTypeDepth > 0) {
+            properties.put("config", property(DATA_TYPE_PREFIX + 0, null));
+        }
+        LinkedHashMap<String, Object> parameters = property("map", null);
+        parameters.put("entry_schema", Collections.singletonMap("type", "string"));
+        properties.put("parameters", parameters);
+
+        LinkedHashMap<String, Object> vfcTypes = new LinkedHashMap<>();
+        vfcTypes.put(vfcType(index), nodeType(VFC_ROOT_TYPE, properties));
+        return vfcTypes;
+    }
+
+    /**
+     * Data type of level l has dataTypeWidth constrained fields and, but for the last level, a
+     * field and a list of the type of level l + 1.
+     */
+    @SuppressWarnings("unchecked")
+    private LinkedHashMap<String, Object> dataTypes(LinkedHashMap<String, Object> normative) {
+        LinkedHashMap<String, Object> dataTypes = new LinkedHashMap<>((Map<String, Object>) normative.get("data_types"));
+        for (int level = 0; level < dataTypeDepth; level++) {
+            LinkedHashMap<String, Object> properties = new LinkedHashMap<>();
+            for (int field = 0; field < dataTypeWidth; field++) {
+                LinkedHashMap<String, Object> property;
+                switch (field % 3) {
+                    case 0:
+                        property = property("string", null);
+                        property.put("constraints", constraint("pattern", "[a-z]+-[0-9]+"));
+                        break;
+                    case 1:
+                        property = property("integer", null);
+                        property.put("constraints", constraint("in_range", Arrays.asList(0, 65535)));
+                        break;
+                    default:
+                        property = property("string", "alpha");
+                        property.put("constraints", constraint("valid_values", Arrays.asList("alpha", "beta", "gamma")));
+                        break;
+                }
+                properties.put(fieldName(field), property);
+            }
+            if (level < dataTypeDepth - 1) {
+                properties.put("child", property(DATA_TYPE_PREFIX + (level + 1), null));
+                LinkedHashMap<String, Object> children = property("list", null);
+                children.put("entry_schema", Collections.singletonMap("type", DATA_TYPE_PREFIX + (level + 1)));
+                properties.put("children", children);
+            }
+            LinkedHashMap<String, Object> dataType = new LinkedHashMap<>();
+            dataType.put("derived_from", "tosca.datatypes.Root");
+            dataType.put("properties", properties);
+            dataTypes.put(DATA_TYPE_PREFIX + level, dataType);
+        }
+        return dataTypes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LinkedHashMap<String, Object> groupTypes(LinkedHashMap<String, Object> normative) {
+        LinkedHashMap<String, Object> groupTypes = new LinkedHashMap<>((Map<String, Object>) normative.get("group_types"));
+        LinkedHashMap<String, Object> properties = new LinkedHashMap<>();
+        LinkedHashMap<String, Object> isBase = property("boolean", false);
+        isBase.put("required", true);
+        properties.put("isBase", isBase);
+        properties.put("vf_module_label", requiredProperty("string"));
+        properties.put("vf_module_description", property("string", null));
+        properties.put("min_vf_module_instances", requiredProperty("integer"));
+        properties.put("max_vf_module_instances", property("integer", null));
+        properties.put("initial_count", property("integer", null));
+        LinkedHashMap<String, Object> vfModuleType = requiredProperty("string");
+        vfModuleType.put("constraints", constraint("valid_values", Arrays.asList("Base", "Expansion")));
+        properties.put("vf_module_type", vfModuleType);
+        LinkedHashMap<String, Object> volumeGroup = property("boolean", false);
+        volumeGroup.put("required", true);
+        properties.put("volume_group", volumeGroup);
+
+        LinkedHashMap<String, Object> vfModule = new LinkedHashMap<>();
+        vfModule.put("derived_from", "tosca.groups.Root");
+        vfModule.put("description", "Grouped all heat resources which are in the same VF Module");
+        vfModule.put("properties", properties);
+        groupTypes.put(VF_MODULE_TYPE, vfModule);
+        return groupTypes;
+    }
+
+    // ---------------------------------------------------------------- templates
+
+    /**
+     * The node type of a service or of a resource, its properties are the inputs of its topology.
+     */
+    private LinkedHashMap<String, Object> interfaceTemplate(String type, String derivedFrom) {
+        LinkedHashMap<String, Object> properties = new LinkedHashMap<>();
+        for (int input = 0; input < inputCount; input++) {
+            properties.put(inputName(input), property("string", inputDefault(input)));
+        }
+        LinkedHashMap<String, Object> nodeTypes = new LinkedHashMap<>();
+        nodeTypes.put(type, nodeType(derivedFrom, properties));
+
+        LinkedHashMap<String, Object> template = header(sharedImports());
+        template.put("node_types", nodeTypes);
+        return template;
+    }
+
+    @SuppressWarnings("unchecked")
+    private LinkedHashMap<String, Object> serviceTemplate() {
+        List<Object> imports = sharedImports();
+        imports.addAll(typesImports());
+        imports.add(importOf(serviceName + "-interface", interfaceFile(serviceTemplateFile())));
+        for (int vfType = 0; vfType < vfTypeCount; vfType++) {
+            for (int level = 1; level <= nestingDepth; level++) {
+                imports.addAll(resourceImports(vfType, level));
+            }
+        }
+
+        LinkedHashMap<String, Object> template = header(imports);
+        LinkedHashMap<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("invariantUUID", uuid("service-invariant"));
+        metadata.put("UUID", uuid("service"));
+        metadata.put("name", serviceName);
+        metadata.put("description", "Synthetic service " + serviceName);
+        metadata.put("type", "Service");
+        metadata.put("category", "Network L1-3");
+        metadata.put("serviceType", "");
+        metadata.put("serviceRole", "");
+        metadata.put("serviceEcompNaming", true);
+        metadata.put("ecompGeneratedNaming", true);
+        metadata.put("namingPolicy", "");
+        template.put("metadata", metadata);
+
+        LinkedHashMap<String, Object> nodeTemplates = new LinkedHashMap<>();
+        LinkedHashMap<String, Object> groups = new LinkedHashMap<>();
+        for (int vf = 0; vf < vfCount; vf++) {
+            int vfType = vf % vfTypeCount;
+            String instanceName = vfInstanceName(vf);
+            nodeTemplates.put(instanceName, substitutingNode(resourceType(vfType, 1),
+                    metadata(resourceName(vfType, 1), "VF", "vf-" + vf, vfType + "-1")));
+            for (int module = 0; module < vfModulesPerVf; module++) {
+                LinkedHashMap<String, Object> group = vfModule(vfType, module);
+                ((Map<String, Object>) group.get("metadata")).put("vfModuleModelCustomizationUUID",
+                        uuid("vf-module-customization-" + vf + "-" + module));
+                groups.put(instanceName.toLowerCase().replace(" ", "") + ".." + vfModuleName(vfType, module), group);
+            }
+        }
+
+        LinkedHashMap<String, Object> policies = new LinkedHashMap<>();
+        for (int policy = 0; policy < policyCount && vfCount > 0; policy++) {
+            LinkedHashMap<String, Object> policyMetadata = new LinkedHashMap<>();
+            policyMetadata.put("invariantUUID", uuid("policy-invariant-" + policy));
+            policyMetadata.put("UUID", uuid("policy-" + policy));
+            policyMetadata.put("name", "placement_" + policy);
+            LinkedHashMap<String, Object> placement = new LinkedHashMap<>();
+            placement.put("type", PLACEMENT_POLICY_TYPE);
+            placement.put("metadata", policyMetadata);
+            placement.put("targets", new ArrayList<>(Collections.singletonList(vfInstanceName(policy % vfCount))));
+            policies.put("placement_" + policy, placement);
+        }
+
+        LinkedHashMap<String, Object> substitutionMappings = new LinkedHashMap<>();
+        substitutionMappings.put("node_type", serviceType());
+
+        LinkedHashMap<String, Object> topology = new LinkedHashMap<>();
+        topology.put("inputs", inputs());
+        topology.put("node_templates", nodeTemplates);
+        if (!groups.isEmpty()) {
+            topology.put("groups", groups);
+        }
+        if (!policies.isEmpty()) {
+            topology.put("policies", policies);
+        }
+        topology.put("substitution_mappings", substitutionMappings);
+        template.put("topology_template", topology);
+        return template;
+    }
+
+    /**
+     * The topology of a VF (level 1) or of a CVFC (level 2 and deeper).
+     */
+    private LinkedHashMap<String, Object> resourceTemplate(int vfType, int level) {
+        List<Object> imports = sharedImports();
+        imports.addAll(typesImports());
+        if (level < nestingDepth) {
+            imports.addAll(resourceImports(vfType, level + 1));
+        }
+
+        LinkedHashMap<String, Object> nodeTemplates = new LinkedHashMap<>();
+        List<String> members = new ArrayList<>();
+        String key = vfType + "-" + level;
+        for (int vfc = 0; vfc < vfcsPerTopology; vfc++) {
+            String vfcName = "vfc_" + vfc;
+            int typeIndex = vfc % Math.max(1, importCount);
+            LinkedHashMap<String, Object> vfcTemplate = new LinkedHashMap<>();
+            vfcTemplate.put("type", vfcType(typeIndex));
+            vfcTemplate.put("metadata", metadata("SyntheticVfc" + typeIndex, "VFC", key + "-vfc-" + vfc, "vfc-" + typeIndex));
+            LinkedHashMap<String, Object> properties = new LinkedHashMap<>();
+            properties.put("nfc_function", "function-" + vfc);
+            if (dataTypeDepth > 0) {
+                properties.put("config", configValue(0, vfc));
+            }
+            properties.put("parameters", parameters(vfc));
+            vfcTemplate.put("properties", properties);
+            nodeTemplates.put(vfcName, vfcTemplate);
+            members.add(vfcName);
+
+            for (int cp = 0; cp < cpsPerVfc; cp++) {
+                LinkedHashMap<String, Object> cpTemplate = new LinkedHashMap<>();
+                cpTemplate.put("type", CP_TYPE);
+                cpTemplate.put("metadata", metadata("SyntheticCp", "CP", key + "-cp-" + vfc + "-" + cp, "cp"));
+                LinkedHashMap<String, Object> cpProperties = new LinkedHashMap<>();
+                cpProperties.put("network_role", "oam");
+                cpProperties.put("network_role_tag", "oam");
+                cpProperties.put("order", cp);
+                cpTemplate.put("properties", cpProperties);
+                cpTemplate.put("requirements", new ArrayList<>(Collections.singletonList(
+                        Collections.singletonMap("binding", vfcName))));
+                nodeTemplates.put(vfcName + "_port_" + cp, cpTemplate);
+            }
+        }
+        for (int nested = 0; nested < nested(level); nested++) {
+            String nestedName = "cvfc_" + nested;
+            nodeTemplates.put(nestedName, substitutingNode(resourceType(vfType, level + 1),
+                    metadata(resourceName(vfType, level + 1), "CVFC", key + "-cvfc-" + nested, vfType + "-" + (level + 1))));
+            members.add(nestedName);
+        }
+
+        LinkedHashMap<String, Object> topology = new LinkedHashMap<>();
+        topology.put("inputs", inputs());
+        topology.put("node_templates", nodeTemplates);
+        if (level == 1 && vfModulesPerVf > 0) {
+            LinkedHashMap<String, Object> groups = new LinkedHashMap<>();
+            for (int module = 0; module < vfModulesPerVf; module++) {
+                List<String> moduleMembers = new ArrayList<>();
+                for (int member = module; member < members.size(); member += vfModulesPerVf) {
+                    moduleMembers.add(members.get(member));
+                }
+                LinkedHashMap<String, Object> group = vfModule(vfType, module);
+                if (!moduleMembers.isEmpty()) {
+                    group.put("members", moduleMembers);
+                }
+                groups.put(vfModuleName(vfType, module), group);
+            }
+            topology.put("groups", groups);
+        }
+        LinkedHashMap<String, Object> substitutionMappings = new LinkedHashMap<>();
+        substitutionMappings.put("node_type", resourceType(vfType, level));
+        topology.put("substitution_mappings", substitutionMappings);
+
+        LinkedHashMap<String, Object> template = header(imports);
+        template.put("topology_template", topology);
+        return template;
+    }
+
+    /**
+     * A VF or a CVFC instance, which passes all the inputs of its topology to the one it substitutes.
+     */
+    private LinkedHashMap<String, Object> substitutingNode(String type, LinkedHashMap<String, Object> metadata) {
+        LinkedHashMap<String, Object> properties = new LinkedHashMap<>();
+        for (int input = 0; input < inputCount; input++) {
+            properties.put(inputName(input), getInput(input));
+        }
+        LinkedHashMap<String, Object> node = new LinkedHashMap<>();
+        node.put("type", type);
+        node.put("metadata", metadata);
+        if (!properties.isEmpty()) {
+            node.put("properties", properties);
+        }
+        return node;
+    }
+
+    /**
+     * The get_input references of a VFC: the inputCount * getInputFanOut references of a topology
+     * are dealt to its VFCs in turn, so that every input is referenced getInputFanOut times.
+     */
+    private LinkedHashMap<String, Object> parameters(int vfc) {
+        LinkedHashMap<String, Object> parameters = new LinkedHashMap<>();
+        for (int reference = vfc; reference < inputCount * getInputFanOut; reference += vfcsPerTopology) {
+            parameters.put("param_" + reference, getInput(reference % inputCount));
+        }
+        return parameters;
+    }
+
+    private LinkedHashMap<String, Object> configValue(int level, int seed) {
+        LinkedHashMap<String, Object> value = new LinkedHashMap<>();
+        for (int field = 0; field < dataTypeWidth; field++) {
+            switch (field % 3) {
+                case 0:
+                    value.put(fieldName(field), "value-" + (seed + field));
+                    break;
+                case 1:
+                    value.put(fieldName(field), (seed * 31 + field) % 65536);
+                    break;
+                default:
+                    value.put(fieldName(field), field % 2 == 0 ? "beta" : "gamma");
+                    break;
+            }
+        }
+        if (level < dataTypeDepth - 1) {
+            value.put("child", configValue(level + 1, seed + 1));
+            value.put("children", new ArrayList<>(Arrays.asList(configValue(level + 1, seed + 2), configValue(level + 1, seed + 3))));
+        }
+        return value;
+    }
+
+    private LinkedHashMap<String, Object> vfModule(int vfType, int module) {
+        LinkedHashMap<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("vfModuleModelName", vfModuleName(vfType, module));
+        metadata.put("vfModuleModelInvariantUUID", uuid("vf-module-invariant-" + vfType + "-" + module));
+        metadata.put("vfModuleModelUUID", uuid("vf-module-" + vfType + "-" + module));
+        metadata.put("vfModuleModelVersion", "1");
+
+        LinkedHashMap<String, Object> properties = new LinkedHashMap<>();
+        properties.put("isBase", module == 0);
+        properties.put("vf_module_label", "module_" + module);
+        properties.put("vf_module_description", "Synthetic VF module " + module);
+        properties.put("min_vf_module_instances", module == 0 ? 1 : 0);
+        properties.put("max_vf_module_instances", 1);
+        properties.put("initial_count", module == 0 ? 1 : 0);
+        properties.put("vf_module_type", module == 0 ? "Base" : "Expansion");
+        properties.put("volume_group", false);
+
+        LinkedHashMap<String, Object> group = new LinkedHashMap<>();
+        group.put("type", VF_MODULE_TYPE);
+        group.put("metadata", metadata);
+        group.put("properties", properties);
+        return group;
+    }
+
+    private LinkedHashMap<String, Object> metadata(String name, String sdcType, String customization, String resource) {
+        LinkedHashMap<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("invariantUUID", uuid("resource-invariant-" + resource));
+        metadata.put("UUID", uuid("resource-" + resource));
+        metadata.put("customizationUUID", uuid("customization-" + customization));
+        metadata.put("version", "1.0");
+        metadata.put("name", name);
+        metadata.put("description", "Synthetic " + sdcType + " " + name);
+        metadata.put("type", sdcType);
+        metadata.put("category", "Generic");
+        metadata.put("subcategory", "Synthetic");
+        metadata.put("resourceVendor", "synthetic");
+        metadata.put("resourceVendorRelease", "1.0");
+        return metadata;
+    }
+
+    private LinkedHashMap<String, Object> inputs() {
+        LinkedHashMap<String, Object> inputs = new LinkedHashMap<>();
+        for (int input = 0; input < inputCount; input++) {
+            LinkedHashMap<String, Object> definition = property("string", inputDefault(input));
+            definition.put("description", "Synthetic input " + input);
+            inputs.put(inputName(input), definition);
+        }
+        return inputs;
+    }
+
+    // ---------------------------------------------------------------- imports
+
+    private static LinkedHashMap<String, Object> header(List<Object> imports) {
+        LinkedHashMap<String, Object> template = new LinkedHashMap<>();
+        template.put("tosca_definitions_version", TOSCA_VERSION);
+        template.put("imports", imports);
+        return template;
+    }
+
+    private static LinkedHashMap<String, Object> types(String section, Object definitions) {
+        LinkedHashMap<String, Object> template = new LinkedHashMap<>();
+        template.put("tosca_definitions_version", TOSCA_VERSION);
+        template.put(section, definitions);
+        return template;
+    }
+
+    private static List<Object> sharedImports() {
+        List<Object> imports = new ArrayList<>();
+        for (int i = 0; i < SHARED_IMPORTS.size(); i++) {
+            imports.add(importOf(SHARED_IMPORTS.get(i), SHARED_FILES.get(i)));
+        }
+        return imports;
+    }
+
+    private List<Object> typesImports() {
+        List<Object> imports = new ArrayList<>();
+        for (int i = 0; i < importCount; i++) {
+            imports.add(importOf("synthetic-types-" + i, typesFile(i)));
+        }
+        return imports;
+    }
+
+    private List<Object> resourceImports(int vfType, int level) {
+        String resource = resourceName(vfType, level);
+        List<Object> imports = new ArrayList<>();
+        imports.add(importOf(resource + "-interface", interfaceFile(resourceTemplateFile(resource))));
+        imports.add(importOf(resource, resourceTemplateFile(resource)));
+        return imports;
+    }
+
+    private static LinkedHashMap<String, Object> importOf(String name, String file) {
+        LinkedHashMap<String, Object> importDef = new LinkedHashMap<>();
+        importDef.put(name, Collections.singletonMap("file", file));
+        return importDef;
+    }
+
+    // ---------------------------------------------------------------- names
+
+    private int nested(int level) {
+        return level < nestingDepth ? nestedPerTopology : 0;
+    }
+
+    private String serviceTemplateFile() {
+        return "service-" + serviceName + "-template.yml";
+    }
+
+    private String serviceType() {
+        return "org.openecomp.service." + serviceName;
+    }
+
+    private static String resourceTemplateFile(String resource) {
+        return "resource-" + resource + "-template.yml";
+    }
+
+    private static String interfaceFile(String templateFile) {
+        return templateFile.replace("-template.yml", "-template-interface.yml");
+    }
+
+    private static String typesFile(int index) {
+        return "synthetic-types-" + index + ".yml";
+    }
+
+    private static String resourceName(int vfType, int level) {
+        return level == 1 ? "SyntheticVf" + vfType : "SyntheticVf" + vfType + "Cvfc" + level;
+    }
+
+    private static String resourceType(int vfType, int level) {
+        return (level == 1 ? "org.openecomp.resource.vf." : "org.openecomp.resource.vfc.") + resourceName(vfType, level);
+    }
+
+    private static String vfcType(int index) {
+        return VFC_TYPE_PREFIX + index;
+    }
+
+    private static String vfInstanceName(int vf) {
+        return "SyntheticVf " + vf;
+    }
+
+    private static String vfModuleName(int vfType, int module) {
+        return resourceName(vfType, 1) + "..module_" + module + "..module-" + module;
+    }
+
+    private static String inputName(int input) {
+        return "input_" + input;
+    }
+
+    private static String inputDefault(int input) {
+        return "default-" + input;
+    }
+
+    private static String fieldName(int field) {
+        return "field_" + field;
+    }
+
+    private String uuid(String key) {
+        return UUID.nameUUIDFromBytes((serviceName + ":" + key).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    // ---------------------------------------------------------------- definitions
+
+    private static LinkedHashMap<String, Object> nodeType(String derivedFrom, LinkedHashMap<String, Object> properties) {
+        LinkedHashMap<String, Object> nodeType = new LinkedHashMap<>();
+        nodeType.put("derived_from", derivedFrom);
+        if (!properties.isEmpty()) {
+            nodeType.put("properties", properties);
+        }
+        return nodeType;
+    }
+
+    private static LinkedHashMap<String, Object> property(String type, Object defaultValue) {
+        LinkedHashMap<String, Object> property = new LinkedHashMap<>();
+        property.put("type", type);
+        property.put("required", false);
+        if (defaultValue != null) {
+            property.put("default", defaultValue);
+        }
+        return property;
+    }
+
+    private static LinkedHashMap<String, Object> requiredProperty(String type) {
+        LinkedHashMap<String, Object> property = new LinkedHashMap<>();
+        property.put("type", type);
+        property.put("required", true);
+        return property;
+    }
+
+    private static List<Object> constraint(String operator, Object value) {
+        return new ArrayList<>(Collections.singletonList(Collections.singletonMap(operator, value)));
+    }
+
+    private static LinkedHashMap<String, Object> getInput(int input) {
+        LinkedHashMap<String, Object> getInput = new LinkedHashMap<>();
+        getInput.put("get_input", inputName(input));
+        return getInput;
+    }
+
+    private String dump(Object template) {
+        return yaml.dump(template);
+    }
+
+    public static final class Builder {
+
+        private String serviceName = "Synthetic";
+        private int vfCount = 1;
+        private int vfTypeCount = 1;
+        private int vfcsPerTopology = 4;
+        private int cpsPerVfc = 1;
+        private int nestingDepth = 1;
+        private int nestedPerTopology = 1;
+        private int inputCount = 4;
+        private int getInputFanOut = 1;
+        private int dataTypeDepth = 1;
+        private int dataTypeWidth = 3;
+        private int importCount = 0;
+        private int vfModulesPerVf = 1;
+        private int policyCount = 0;
+
+        private Builder() {
+        }
+
+        /**
+         * @param serviceName the name of the service, letters and digits only
+         */
+        public Builder serviceName(String serviceName) {
+            if (serviceName == null || !serviceName.matches("[A-Za-z0-9]+")) {
+                throw new IllegalArgumentException("The service name must be made of letters and digits, got " + serviceName);
+            }
+            this.serviceName = serviceName;
+            return this;
+        }
+
+        public Builder vfCount(int vfCount) {
+            this.vfCount = atLeast(0, vfCount, "vfCount");
+            return this;
+        }
+
+        public Builder vfTypeCount(int vfTypeCount) {
+            this.vfTypeCount = atLeast(1, vfTypeCount, "vfTypeCount");
+            return this;
+        }
+
+        public Builder vfcsPerTopology(int vfcsPerTopology) {
+            this.vfcsPerTopology = atLeast(1, vfcsPerTopology, "vfcsPerTopology");
+            return this;
+        }
+
+        public Builder cpsPerVfc(int cpsPerVfc) {
+            this.cpsPerVfc = atLeast(0, cpsPerVfc, "cpsPerVfc");
+            return this;
+        }
+
+        /**
+         * @param nestingDepth the number of levels of resource topologies below the service, 1 for VFs only
+         */
+        public Builder nestingDepth(int nestingDepth) {
+            this.nestingDepth = atLeast(1, nestingDepth, "nestingDepth");
+            return this;
+        }
+
+        public Builder nestedPerTopology(int nestedPerTopology) {
+            this.nestedPerTopology = atLeast(0, nestedPerTopology, "nestedPerTopology");
+            return this;
+        }
+
+        public Builder inputCount(int inputCount) {
+            this.inputCount = atLeast(0, inputCount, "inputCount");
+            return this;
+        }
+
+        public Builder getInputFanOut(int getInputFanOut) {
+            this.getInputFanOut = atLeast(0, getInputFanOut, "getInputFanOut");
+            return this;
+        }
+
+        /**
+         * @param dataTypeDepth the nesting levels of the data type of the VFCs, 0 for none
+         */
+        public Builder dataTypeDepth(int dataTypeDepth) {
+            this.dataTypeDepth = atLeast(0, dataTypeDepth, "dataTypeDepth");
+            return this;
+        }
+
+        public Builder dataTypeWidth(int dataTypeWidth) {
+            this.dataTypeWidth = atLeast(0, dataTypeWidth, "dataTypeWidth");
+            return this;
+        }
+
+        /**
+         * @param importCount the number of type files defining the VFC types, on top of the shared ones
+         */
+        public Builder importCount(int importCount) {
+            this.importCount = atLeast(0, importCount, "importCount");
+            return this;
+        }
+
+        public Builder vfModulesPerVf(int vfModulesPerVf) {
+            this.vfModulesPerVf = atLeast(0, vfModulesPerVf, "vfModulesPerVf");
+            return this;
+        }
+
+        public Builder policyCount(int policyCount) {
+            this.policyCount = atLeast(0, policyCount, "policyCount");
+            return this;
+        }
+
+        public SyntheticCsarGenerator build() {
+            return new SyntheticCsarGenerator(this);
+        }
+
+        private static int atLeast(int min, int value, String name) {
+            if (value < min) {
+                throw new IllegalArgumentException(name + " must be at least " + min + ", got " + value);
+            }
+            return value;
+        }
+    }
+}